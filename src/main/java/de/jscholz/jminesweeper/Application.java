@@ -1,11 +1,9 @@
 package de.jscholz.jminesweeper;
 
+import de.jscholz.jminesweeper.minesweeper.FieldSnapshot;
 import de.jscholz.jminesweeper.minesweeper.GameCreator;
-import de.jscholz.jminesweeper.minesweeper.ICell;
-import de.jscholz.jminesweeper.minesweeper.ICellPosition;
 import de.jscholz.jminesweeper.minesweeper.IMinefield;
-
-import java.util.*;
+import de.jscholz.jminesweeper.minesweeper.UpdateJournal;
 
 /**
  * This class should help to understand how to use the JMinesweeper framework.
@@ -16,112 +14,77 @@ public class Application {
         // Get a minefield from the factory pattern.
         final IMinefield minefieldGame = GameCreator.createBeginnerGame();
 
-        // Get the visible field
-        final Map<ICellPosition, ICell> field = minefieldGame.getFieldForVisualization();
+        // Get the view of the field. The snapshot is not a copy, it always shows the current field.
+        final FieldSnapshot snapshot = minefieldGame.getSnapshot();
+
+        // The renderer keeps its own frame and draws the whole field once.
+        final char[] frame = new char[snapshot.getRows() * snapshot.getColumns()];
+        snapshot.forEach((x, y, state, content) -> frame[y * snapshot.getRows() + x] = toChar(state, content));
+        long drawnVersion = snapshot.getVersion();
 
         // Print the field to see how it looks.
-        printField(field);
+        printField(frame, snapshot.getRows());
 
         // Flag some cells
         minefieldGame.secondaryClick(7, 7);
 
-        // Get the updated list
-        Set<ICell> updatedCells = minefieldGame.getUpdateCells();
-
         // Lets update the field
-        updateField(field, updatedCells);
+        drawnVersion = updateField(frame, snapshot, drawnVersion);
 
         // Print the field to see how it looks.
-        printField(field);
+        printField(frame, snapshot.getRows());
 
         // Open a cell
         IMinefield.OpenReturn returnValue = minefieldGame.singleClick(0, 0);
 
-        // Get the updated list
-        updatedCells = minefieldGame.getUpdateCells();
-
         // Lets update the field
-        updateField(field, updatedCells);
+        drawnVersion = updateField(frame, snapshot, drawnVersion);
 
         // Print the field to see how it looks.
-        printField(field);
+        printField(frame, snapshot.getRows());
 
         System.out.println("Game Over ? " + minefieldGame.gameOver());
     }
 
-    private static void printField(final Map<ICellPosition, ICell> field) {
+    private static char toChar(final byte state, final byte content) {
+
+        // Depend on the state print something.
+        switch (UpdateJournal.toState(state)) {
+            case UNDISCOVERED:
+                return '#';
+            case FLAGGED:
+                return 'F';
+            default:
+                // Know check the content.
+                switch (UpdateJournal.toContent(content)) {
+                    case MINE:
+                        return '*';
+                    case EMPTY:
+                        return '.';
+                    default:
+                        return (char) ('0' + content);
+                }
+        }
+    }
+
+    private static void printField(final char[] frame, final int rowBreak) {
 
-        final int rowBreak = 8;
         final StringBuilder builder = new StringBuilder();
-        int rowsCount = 0;
-
-        for (final ICellPosition position : field.keySet()) {
-            final ICell cell = field.get(position);
-
-            // Depend on the state print something.
-            switch (cell.getCellState()) {
-                case UNDISCOVERED:
-                    builder.append("#");
-                    break;
-                case OPEN:
-
-                    // Know check the content.
-                    switch (cell.getCellContent()) {
-                        case MINE:
-                            builder.append("*");
-                            break;
-                        case EMPTY:
-                            builder.append(".");
-                            break;
-                        case ONE:
-                            builder.append("1");
-                            break;
-                        case TWO:
-                            builder.append("2");
-                            break;
-                        case THREE:
-                            builder.append("3");
-                            break;
-                        case FOUR:
-                            builder.append("4");
-                            break;
-                        case FIVE:
-                            builder.append("5");
-                            break;
-                        case SIX:
-                            builder.append("6");
-                            break;
-                        case SEVEN:
-                            builder.append("7");
-                            break;
-                        case EIGHT:
-                            builder.append("8");
-                            break;
-                    }
-
-                    break;
-                case FLAGGED:
-                    builder.append("F");
-                    break;
-            }
-
-            ++rowsCount;
-            if(rowsCount >= rowBreak) {
-                builder.append("\n");
-                rowsCount = 0;
-            }
+
+        for(int i=0; i < frame.length; i+=rowBreak) {
+            builder.append(frame, i, rowBreak).append("\n");
         }
 
         System.out.print(builder.toString());
         System.out.println();
     }
 
-    private static void updateField(final Map<ICellPosition, ICell> field, final Set<ICell> updatedCells) {
-        for(final ICell cell : updatedCells) {
-            final ICellPosition position = cell.getPosition();
-            assert field.containsKey(position) : "doesn't contain key";
+    private static long updateField(final char[] frame, final FieldSnapshot snapshot, final long drawnVersion) {
+        final UpdateJournal.Visitor draw = (x, y, state, content) -> frame[y * snapshot.getRows() + x] = toChar(state, content);
 
-            field.put(position, cell);
-        }
+        // Only the changed cells are drawn. If the changes are not known anymore, the whole field is drawn.
+        if(!snapshot.changesSince(drawnVersion, draw)) snapshot.forEach(draw);
+
+        return snapshot.getVersion();
     }
 }
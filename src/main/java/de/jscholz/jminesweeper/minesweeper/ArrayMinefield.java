@@ -0,0 +1,161 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * <p>An implementation of the IMinefield which stores the state and the content of all cells inside byte arrays.</p>
+ * <p>The minefield behaves exactly like the {@link Minefield}.</p>
+ */
+class ArrayMinefield extends IndexedMinefield {
+
+    /**
+     * The content code of a cell containing a mine.
+     */
+    private static final byte MINE = -1;
+
+    /**
+     * The states of all cells.
+     */
+    private final byte[] states;
+    /**
+     * The contents of all cells. A cell with a mine has the content -1, otherwise the content is the amount of mines
+     * in the moore-neighbourhood.
+     */
+    private final byte[] contents;
+
+    /**
+     * Custom-Ctor creates a minefield with the given difficult setting.
+     * @param setting The difficult setting for the minefield.
+     */
+    ArrayMinefield(final Difficulty setting) {
+        this(setting.getRows(), setting.getColumns(), setting.getMinesPercent());
+    }
+
+    /**
+     * Custom-Ctor creates a minefield with the given parameter.
+     * @param rows The rows of the field.
+     * @param columns The columns of the field.
+     * @param minesPercent The percent of mines inside the field.
+     */
+    ArrayMinefield(final int rows, final int columns, final int minesPercent) {
+        this(rows, columns, (rows*columns) * minesPercent / 100, null);
+
+        assert minesPercent >= 8 && minesPercent <= 93 : "the given minesPercent was not within bounds. valid [8 < " + minesPercent + " < 93]";
+    }
+
+    /**
+     * Custom-Ctor creates a minefield with the mines at the given indices.
+     * @param rows The rows of the field.
+     * @param columns The columns of the field.
+     * @param mines The indices of the cells which contain a mine.
+     */
+    ArrayMinefield(final int rows, final int columns, final int[] mines) {
+        this(rows, columns, mines.length, MinePlacer.toBits(rows * columns, mines));
+    }
+
+    /**
+     * Custom-Ctor creates a minefield with the mines of the given bitset.
+     * @param rows The rows of the field.
+     * @param columns The columns of the field.
+     * @param mines The bitset of the mines, where the bit of a cell is its index.
+     */
+    ArrayMinefield(final int rows, final int columns, final long[] mines) {
+        this(rows, columns, MinePlacer.count(mines), mines);
+    }
+
+    /**
+     * Creates the minefield and places the mines.
+     * @param rows The rows of the field.
+     * @param columns The columns of the field.
+     * @param totalAmountOfMines The amount of mines which will be placed.
+     * @param mines The bitset of the mines or null, if the mines should be placed randomly.
+     */
+    private ArrayMinefield(final int rows, final int columns, final int totalAmountOfMines, final long[] mines) {
+        super(rows, columns, totalAmountOfMines);
+
+        this.states = new byte[this.cellCount];
+        this.contents = new byte[this.cellCount];
+        Arrays.fill(this.states, UNDISCOVERED);
+
+        placeMines(mines);
+    }
+
+    @Override
+    void setMines(final long[] mines) {
+        MinePlacer.countNeighbours(this.rows, this.columns, mines, this.contents);
+    }
+
+    @Override
+    public MinefieldType getMinefieldType() {
+        return MinefieldType.ARRAY;
+    }
+
+    @Override
+    void clearCells() {
+        Arrays.fill(this.states, UNDISCOVERED);
+        Arrays.fill(this.contents, (byte) 0);
+    }
+
+    @Override
+    boolean isMine(final int index) {
+        return this.contents[index] == MINE;
+    }
+
+    @Override
+    int getMinesInNeighbourhood(final int index) {
+        assert this.contents[index] != MINE : "The cell " + index + " is a mine!";
+        return this.contents[index];
+    }
+
+    @Override
+    byte getState(final int index) {
+        return this.states[index];
+    }
+
+    @Override
+    void setState(final int index, final byte state) {
+        this.states[index] = state;
+    }
+
+    @Override
+    void markAsMine(final int index) {
+        assert this.contents[index] != MINE : "The cell " + index + " is already a mine!";
+
+        this.contents[index] = MINE;
+
+        final int x = index % this.rows;
+        final int y = index / this.rows;
+        final int maxX = Math.min(x + 1, this.rows - 1);
+        final int maxY = Math.min(y + 1, this.columns - 1);
+
+        for(int nY = Math.max(y - 1, 0); nY <= maxY; ++nY) {
+            for(int nX = Math.max(x - 1, 0); nX <= maxX; ++nX) {
+                final int neighbour = nY * this.rows + nX;
+                if(this.contents[neighbour] != MINE) ++this.contents[neighbour];
+            }
+        }
+    }
+
+    @Override
+    void unmarkMine(final int index) {
+        assert this.contents[index] == MINE : "The cell " + index + " is not a mine!";
+
+        final int x = index % this.rows;
+        final int y = index / this.rows;
+        final int maxX = Math.min(x + 1, this.rows - 1);
+        final int maxY = Math.min(y + 1, this.columns - 1);
+        byte mines = 0;
+
+        for(int nY = Math.max(y - 1, 0); nY <= maxY; ++nY) {
+            for(int nX = Math.max(x - 1, 0); nX <= maxX; ++nX) {
+                final int neighbour = nY * this.rows + nX;
+                if(neighbour == index) continue;
+
+                if(this.contents[neighbour] == MINE) ++mines;
+                else --this.contents[neighbour];
+            }
+        }
+
+        this.contents[index] = mines;
+    }
+}
@@ -0,0 +1,220 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * <p>An implementation of the IMinefield which stores the mines, the opened cells and the flagged cells as bitboards.
+ * Each bitboard contains one bit per cell, where the bit of the cell at (x, y) is the bit <i>y * rows + x</i>.</p>
+ * <p>
+ *     The content of a cell is not stored. The amount of mines in the moore-neighbourhood is counted with three
+ *     masked shifts of the mine bitboard and a bit count. Checks over the whole minefield are performed word by word.
+ * </p>
+ * <p>The minefield behaves exactly like the {@link Minefield}.</p>
+ */
+class BitboardMinefield extends IndexedMinefield {
+
+    /**
+     * The bitboard which contains all mines.
+     */
+    private final long[] mines;
+    /**
+     * The bitboard which contains all opened cells.
+     */
+    private final long[] opened;
+    /**
+     * The bitboard which contains all flagged cells.
+     */
+    private final long[] flagged;
+
+    /**
+     * Custom-Ctor creates a minefield with the given difficult setting.
+     * @param setting The difficult setting for the minefield.
+     */
+    BitboardMinefield(final Difficulty setting) {
+        this(setting.getRows(), setting.getColumns(), setting.getMinesPercent());
+    }
+
+    /**
+     * Custom-Ctor creates a minefield with the given parameter.
+     * @param rows The rows of the field.
+     * @param columns The columns of the field.
+     * @param minesPercent The percent of mines inside the field.
+     */
+    BitboardMinefield(final int rows, final int columns, final int minesPercent) {
+        this(rows, columns, (int) ((long) rows * columns * minesPercent / 100), null);
+
+        assert minesPercent >= 8 && minesPercent <= 93 : "the given minesPercent was not within bounds. valid [8 < " + minesPercent + " < 93]";
+    }
+
+    /**
+     * Custom-Ctor creates a minefield with the mines at the given indices.
+     * @param rows The rows of the field.
+     * @param columns The columns of the field.
+     * @param mines The indices of the cells which contain a mine.
+     */
+    BitboardMinefield(final int rows, final int columns, final int[] mines) {
+        this(rows, columns, mines.length, MinePlacer.toBits(rows * columns, mines));
+    }
+
+    /**
+     * Custom-Ctor creates a minefield with the mines of the given bitset.
+     * @param rows The rows of the field.
+     * @param columns The columns of the field.
+     * @param mines The bitset of the mines, where the bit of a cell is its index.
+     */
+    BitboardMinefield(final int rows, final int columns, final long[] mines) {
+        this(rows, columns, MinePlacer.count(mines), mines);
+    }
+
+    /**
+     * Creates the minefield and places the mines.
+     * @param rows The rows of the field.
+     * @param columns The columns of the field.
+     * @param totalAmountOfMines The amount of mines which will be placed.
+     * @param mines The bitset of the mines or null, if the mines should be placed randomly.
+     */
+    private BitboardMinefield(final int rows, final int columns, final int totalAmountOfMines, final long[] mines) {
+        super(rows, columns, totalAmountOfMines);
+
+        final int words = (int) ((this.cellCount + 63L) >>> 6);
+        this.mines = new long[words];
+        this.opened = new long[words];
+        this.flagged = new long[words];
+
+        placeMines(mines);
+    }
+
+    @Override
+    boolean isMine(final int index) {
+        return (this.mines[index >>> 6] & (1L << index)) != 0;
+    }
+
+    @Override
+    int getMinesInNeighbourhood(final int index) {
+        assert !isMine(index) : "The cell " + index + " is a mine!";
+
+        final int x = index % this.rows;
+        final int y = index / this.rows;
+        final int fromX = Math.max(x - 1, 0);
+        final int length = Math.min(x + 1, this.rows - 1) - fromX + 1;
+        final int maxY = Math.min(y + 1, this.columns - 1);
+
+        /*
+         * The neighbours of each row lie next to each other inside the bitboard. Therefore we only need to count the
+         * bits of up to three small windows. The cell itself is no mine and doesn't change the count.
+         */
+        int count = 0;
+        for(int nY = Math.max(y - 1, 0); nY <= maxY; ++nY) {
+            count += Long.bitCount(window(this.mines, nY * this.rows + fromX, length));
+        }
+
+        return count;
+    }
+
+    @Override
+    byte getState(final int index) {
+        final int word = index >>> 6;
+        final long bit = 1L << index;
+
+        if((this.opened[word] & bit) != 0) return OPEN;
+        if((this.flagged[word] & bit) != 0) return FLAGGED;
+        return UNDISCOVERED;
+    }
+
+    @Override
+    void setState(final int index, final byte state) {
+        final int word = index >>> 6;
+        final long bit = 1L << index;
+
+        switch (state) {
+            case OPEN:
+                this.opened[word] |= bit;
+                this.flagged[word] &= ~bit;
+                break;
+            case FLAGGED:
+                this.opened[word] &= ~bit;
+                this.flagged[word] |= bit;
+                break;
+            default:
+                this.opened[word] &= ~bit;
+                this.flagged[word] &= ~bit;
+                break;
+        }
+    }
+
+    @Override
+    public MinefieldType getMinefieldType() {
+        return MinefieldType.BITBOARD;
+    }
+
+    @Override
+    void clearCells() {
+        Arrays.fill(this.mines, 0L);
+        Arrays.fill(this.opened, 0L);
+        Arrays.fill(this.flagged, 0L);
+    }
+
+    @Override
+    void markAsMine(final int index) {
+        assert !isMine(index) : "The cell " + index + " is already a mine!";
+
+        this.mines[index >>> 6] |= 1L << index;
+    }
+
+    @Override
+    void unmarkMine(final int index) {
+        assert isMine(index) : "The cell " + index + " is not a mine!";
+
+        this.mines[index >>> 6] &= ~(1L << index);
+    }
+
+    @Override
+    void setMines(final long[] mines) {
+        assert mines.length == this.mines.length : "The bitset doesn't fit the minefield!";
+
+        // The bitset of the placer has the same layout as the bitboard.
+        System.arraycopy(mines, 0, this.mines, 0, mines.length);
+    }
+
+    @Override
+    boolean allCellsRevealed() {
+        final int last = this.opened.length - 1;
+
+        for(int word=0; word < last; ++word) {
+            if((this.opened[word] | this.mines[word]) != -1L) return false;
+        }
+
+        // The last word may contain bits which don't belong to a cell.
+        final long mask = (this.cellCount & 63) == 0 ? -1L : (1L << this.cellCount) - 1;
+        return ((this.opened[last] | this.mines[last]) & mask) == mask;
+    }
+
+    @Override
+    public int getFreeCellsLeft() {
+        int openedCells = 0;
+        for(final long word : this.opened) {
+            openedCells += Long.bitCount(word);
+        }
+
+        return this.cellCount - getTotalMines() - openedCells;
+    }
+
+    /**
+     * Returns the bits of the given bitboard, beginning at the given bit.
+     * @param board The bitboard.
+     * @param from The index of the first bit.
+     * @param length The amount of bits, which is at most 63.
+     * @return The bits where the first bit is the lowest bit.
+     */
+    private static long window(final long[] board, final int from, final int length) {
+        final int word = from >>> 6;
+        final int shift = from & 63;
+
+        long bits = board[word] >>> shift;
+        if(shift + length > 64) {
+            bits |= board[word + 1] << (64 - shift);
+        }
+
+        return bits & ((1L << length) - 1);
+    }
+}
@@ -0,0 +1,261 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * <p>A bounded pool of minefields with the same setting, which are created in the background.</p>
+ * <p>
+ *     When the pool holds no more than the low watermark, a producer refills it up to the high watermark. Only one
+ *     producer refills a pool at the same time. If a game is taken from an empty pool, the game is created on the
+ *     calling thread, so {@link #take()} never waits for a producer.
+ * </p>
+ * <p>
+ *     The pool counts the hits and misses of {@link #take()} and measures the refill latency, which is the time from
+ *     the request of a refill until the high watermark is reached.
+ * </p>
+ */
+public final class BoardPool {
+
+    /**
+     * Creates the minefields of the pool.
+     */
+    private final Supplier<IMinefield> factory;
+    /**
+     * The minefields which are ready to be played.
+     */
+    private final BlockingQueue<IMinefield> boards;
+    /**
+     * The executor of the producers.
+     */
+    private final Executor producers;
+    /**
+     * The pool is refilled, when it holds no more minefields than this watermark.
+     */
+    private final int lowWatermark;
+    /**
+     * The pool is refilled up to this watermark.
+     */
+    private final int highWatermark;
+    /**
+     * The flag if a producer refills the pool right now.
+     */
+    private final AtomicBoolean refilling;
+    /**
+     * The amount of games which were taken from the pool.
+     */
+    private final LongAdder hits;
+    /**
+     * The amount of games which were created on the calling thread.
+     */
+    private final LongAdder misses;
+    /**
+     * The amount of finished refills.
+     */
+    private final LongAdder refills;
+    /**
+     * The sum of the refill latencies in nanoseconds.
+     */
+    private final LongAdder refillNanos;
+    /**
+     * The time when the current refill was requested.
+     */
+    private volatile long refillRequested;
+    /**
+     * The latency of the last refill in nanoseconds.
+     */
+    private volatile long lastRefillNanos;
+    /**
+     * The flag if the pool was closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Custom-Ctor creates a pool and starts to fill it.
+     * @param factory Creates the minefields of the pool.
+     * @param lowWatermark The pool is refilled, when it holds no more minefields than this watermark.
+     * @param highWatermark The pool is refilled up to this watermark.
+     * @param producers The executor of the producers.
+     */
+    BoardPool(final Supplier<IMinefield> factory, final int lowWatermark, final int highWatermark, final Executor producers) {
+        assert factory != null : "The factory is null!";
+        assert producers != null : "The producers are null!";
+        assert lowWatermark >= 0 && lowWatermark < highWatermark : "The watermarks are not valid. low: " + lowWatermark + ", high: " + highWatermark;
+
+        this.factory = factory;
+        this.producers = producers;
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        this.boards = new ArrayBlockingQueue<>(highWatermark);
+        this.refilling = new AtomicBoolean();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.refills = new LongAdder();
+        this.refillNanos = new LongAdder();
+
+        requestRefill();
+    }
+
+    /**
+     * Takes a minefield from the pool. If the pool is empty, the minefield is created on the calling thread.
+     * @return A new minefield.
+     */
+    public IMinefield take() {
+        final IMinefield board = this.boards.poll();
+
+        if(board != null) this.hits.increment();
+        else this.misses.increment();
+
+        if(this.boards.size() <= this.lowWatermark) requestRefill();
+
+        return board != null ? board : this.factory.get();
+    }
+
+    /**
+     * Returns the amount of minefields inside the pool.
+     * @return The amount of minefields, which are ready to be played.
+     */
+    public int size() {
+        return this.boards.size();
+    }
+
+    /**
+     * Returns the low watermark.
+     * @return The pool is refilled, when it holds no more minefields than this watermark.
+     */
+    public int getLowWatermark() {
+        return this.lowWatermark;
+    }
+
+    /**
+     * Returns the high watermark.
+     * @return The pool is refilled up to this watermark.
+     */
+    public int getHighWatermark() {
+        return this.highWatermark;
+    }
+
+    /**
+     * Returns the amount of games which were taken from the pool.
+     * @return The amount of hits.
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Returns the amount of games which were created on the calling thread, because the pool was empty.
+     * @return The amount of misses.
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Returns the part of the games which were taken from the pool.
+     * @return The hit rate from 0 to 1 or 0, if no game was taken.
+     */
+    public double getHitRate() {
+        final long hits = getHits();
+        final long total = hits + getMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Returns the amount of finished refills.
+     * @return The amount of refills.
+     */
+    public long getRefills() {
+        return this.refills.sum();
+    }
+
+    /**
+     * Returns the average time from the request of a refill until the high watermark was reached.
+     * @return The average refill latency in nanoseconds or 0, if no refill was finished.
+     */
+    public long getAverageRefillNanos() {
+        final long refills = getRefills();
+        return refills == 0 ? 0 : this.refillNanos.sum() / refills;
+    }
+
+    /**
+     * Returns the time of the last refill from its request until the high watermark was reached.
+     * @return The last refill latency in nanoseconds or 0, if no refill was finished.
+     */
+    public long getLastRefillNanos() {
+        return this.lastRefillNanos;
+    }
+
+    /**
+     * Closes the pool. The producer stops and the minefields inside the pool are dropped. Games can still be taken,
+     * but they are created on the calling thread.
+     */
+    void close() {
+        this.closed = true;
+        this.boards.clear();
+    }
+
+    /**
+     * Returns if the pool was closed.
+     * @return True, if the pool is closed. False, otherwise.
+     */
+    boolean isClosed() {
+        return this.closed;
+    }
+
+    /**
+     * Starts a producer, if no producer refills the pool yet.
+     */
+    private void requestRefill() {
+        if(this.closed || !this.refilling.compareAndSet(false, true)) return;
+
+        this.refillRequested = System.nanoTime();
+        try {
+            this.producers.execute(this::refill);
+        } catch (final RejectedExecutionException e) {
+            // The producers were shut down, so the pool is closed and replaced by the game creator.
+            this.refilling.set(false);
+            close();
+        }
+    }
+
+    /**
+     * Creates minefields until the high watermark is reached.
+     */
+    private void refill() {
+        try {
+            while (!this.closed && this.boards.size() < this.highWatermark) {
+                final IMinefield board = this.factory.get();
+
+                // The pool may have been closed, while the board was created.
+                if(this.closed || !this.boards.offer(board)) break;
+            }
+
+            if(!this.closed) {
+                final long latency = System.nanoTime() - this.refillRequested;
+                this.lastRefillNanos = latency;
+                this.refillNanos.add(latency);
+                this.refills.increment();
+            }
+        } finally {
+            this.refilling.set(false);
+
+            // A board which was offered right before the pool was closed is dropped as well.
+            if(this.closed) this.boards.clear();
+        }
+
+        // Games may have been taken after the last check of the producer.
+        if(this.boards.size() <= this.lowWatermark) requestRefill();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BoardPool [Size: %d, Hit rate: %.3f, Refills: %d, Average refill: %.3f ms]",
+                size(), getHitRate(), getRefills(), getAverageRefillNanos() / 1e6);
+    }
+}
@@ -1,7 +1,9 @@
 package de.jscholz.jminesweeper.minesweeper;
 
+import java.util.ArrayDeque;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -33,6 +35,10 @@ class Cell implements ICell {
     private CellState state;
 
     private boolean gameOver;
+    /**
+     * The minefield of the cell or null. The content is visible, when the game of the minefield is over.
+     */
+    private IMinefield minefield;
 
     {
         this.gameOver = false;
@@ -54,7 +60,7 @@ class Cell implements ICell {
      * @param y the y position of the cell
      */
     public Cell(final int x, final int y) {
-        this(new CellPosition(x, y));
+        this(CellPosition.valueOf(x, y));
     }
 
     /**
@@ -98,6 +104,8 @@ class Cell implements ICell {
      * be changed to <i>OPEN</i> and the cell will be added to the set <i>openedCells</i>. If the cell content is empty,
      * all cells in the neighborhood will also be opened.
      * </p>
+     * <p>The neighbourhood is opened with an explicit stack instead of recursion. Therefore, large empty areas don't
+     * overflow the call stack. Each cell is pushed at most once, because its state changes before it is pushed.</p>
      * <p>If the set <i>openenCells</i> is null, an null pointer exception will be raised.</p>
      * @param openedCells The set the cell should be added to.
      * @throws NullPointerException If the given set is null, an null pointer exception will be raised.
@@ -107,39 +115,36 @@ class Cell implements ICell {
         // TODO assert
         if(openedCells == null) throw new NullPointerException("Given Set is null");
 
-        if(state == CellState.UNDISCOVERED) {
-            state = CellState.OPEN;
-
-            /*
-             * Add the cell after the state change not before! This is crucial!
-             * Example 1:
-             * set.add(this)
-             * state = Open
-             *
-             * set.contains(this) => will return false.
-             *
-             * Example 2:
-             * state = Open
-             * set.add(this)
-             *
-             * set.contains(this) => will return true.
-             *
-             * Why does 1 not return true, but 2 does? Because the set will calculate the hashcode of the cell when
-             * calling add.
-             * In 1 the cell will be modified and this will result in a different hashcode. In example 2 the hashcode
-             * will be calculated after changing the cell. Therefore the set will return true.
-             */
-            openedCells.add(this);
+        if(state != CellState.UNDISCOVERED) return;
+
+        final ArrayDeque<Cell> stack = new ArrayDeque<>();
+        openSingle(openedCells);
+        stack.push(this);
+
+        while (!stack.isEmpty()) {
+            final Cell next = stack.pop();
 
             //Only performAction when the content is empty.
-            if(content == CellContent.EMPTY) {
-                for (final Cell c : neighbours) {
-                    c.open(openedCells);
+            if(next.content != CellContent.EMPTY) continue;
+
+            for (final Cell c : next.neighbours) {
+                if(c.state == CellState.UNDISCOVERED) {
+                    c.openSingle(openedCells);
+                    stack.push(c);
                 }
             }
         }
     }
 
+    /**
+     * Changes the state of this cell to open and adds the cell to the given set.
+     * @param openedCells The set the cell should be added to.
+     */
+    private void openSingle(final Set<ICell> openedCells) {
+        state = CellState.OPEN;
+        openedCells.add(this);
+    }
+
     /**
      * <p>Updates the content of this cell.</p>
      * <ul>
@@ -174,6 +179,13 @@ class Cell implements ICell {
 
     public void setGameOver(final boolean value) { this.gameOver = value; }
 
+    /**
+     * Sets the minefield of the cell. The content of the cell is visible, when the game of the minefield is over.
+     * Therefore, the minefield doesn't have to inform every cell about the game over.
+     * @param minefield The minefield of the cell.
+     */
+    void setMinefield(final IMinefield minefield) { this.minefield = minefield; }
+
     /**
      * <p>Tries to mark the cell as mine. If the content is not already a mine, the content will be set and all
      * neighbours will be informed that this cell is now a mine. The neighbours will then increase their number.</p>
@@ -263,7 +275,7 @@ class Cell implements ICell {
         /*
          * Only return the content of the cell when the cell state is open or the game is over! Otherwise return unknown.
          */
-        if(this.state == CellState.OPEN || this.gameOver) {
+        if(this.state == CellState.OPEN || this.gameOver || (this.minefield != null && this.minefield.gameOver())) {
             return this.content;
         }
 
@@ -278,27 +290,28 @@ class Cell implements ICell {
         return this.content;
     }
 
+    /**
+     * The hashcode only depends on the position, because the position of a cell never changes. Therefore, a cell can
+     * be changed while it is inside a hash set.
+     * @return The hashcode of the position.
+     */
     @Override
     public int hashCode() {
-
-        final int prime = 37;
-        int result = 28;
-
-        result = prime * result + (position == null ? 0 : position.hashCode());
-        result = prime * result + content.hashCode();
-        result = prime * result + state.hashCode();
-        result = prime * result + (neighbours == null ? 0 : neighbours.size());
-
-        return result;
+        return position == null ? 0 : position.hashCode();
     }
 
+    /**
+     * Two cells are equal, if they have the same position. Each position exists only once inside a minefield.
+     * @param obj The other cell.
+     * @return True, if the cells have the same position. False, otherwise.
+     */
     @Override
     public boolean equals(Object obj) {
         if( obj == null) return false;
-        if ( !(obj instanceof ICell) ) return false;
+        if ( !(obj instanceof Cell) ) return false;
         if ( this == obj ) return true;
 
-        return hashCode() == obj.hashCode();
+        return Objects.equals(this.position, ((Cell) obj).position);
     }
 
     @Override
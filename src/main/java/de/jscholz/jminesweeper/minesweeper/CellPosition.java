@@ -4,11 +4,29 @@ import java.util.Map;
 
 /**
  * <p>The implementation of the ICellPosition. It will represent the positions of cells within the minefield.</p>
+ * <p>A position can't be changed. Therefore, the positions returned by {@link #valueOf(int, int)} can be shared.</p>
  */
 class CellPosition implements ICellPosition {
 
-    private int x;
-    private int y;
+    /**
+     * The positions with x and y values smaller than this size are created only once. It covers every custom game.
+     */
+    private static final int CACHE_SIZE = 64;
+    /**
+     * The shared positions. The position (x, y) is stored at the index <i>y * CACHE_SIZE + x</i>.
+     */
+    private static final CellPosition[] CACHE = new CellPosition[CACHE_SIZE * CACHE_SIZE];
+
+    static {
+        for(int y=0; y < CACHE_SIZE; ++y) {
+            for(int x=0; x < CACHE_SIZE; ++x) {
+                CACHE[y * CACHE_SIZE + x] = new CellPosition(x, y);
+            }
+        }
+    }
+
+    private final int x;
+    private final int y;
 
     /**
      * Default-Ctor of cell position. It creates a position with values x=0 and y=0.
@@ -36,6 +54,18 @@ class CellPosition implements ICellPosition {
         this.y = position.getY();
     }
 
+    /**
+     * Returns the position with the given values. The position is shared, if the values are inside the cache.
+     * Otherwise, a new position is created.
+     * @param x the x position of the cell.
+     * @param y the y position of the cell.
+     * @return The position.
+     */
+    static CellPosition valueOf(final int x, final int y) {
+        if(x >= 0 && x < CACHE_SIZE && y >= 0 && y < CACHE_SIZE) return CACHE[y * CACHE_SIZE + x];
+        return new CellPosition(x, y);
+    }
+
     public int getX() {
         return x;
     }
@@ -44,34 +74,25 @@ class CellPosition implements ICellPosition {
         return y;
     }
 
-    /**
-     * Sets the x value of the position.
-     * @param x The new x position.
-     */
-    public void setX(final int x) {
-        this.x = x;
-    }
-
-    /**
-     * Sets the y value of the position.
-     * @param y The new y position.
-     */
-    public void setY(final int y) {
-        this.y = y;
-    }
-
     @Override
     public boolean compare(final int x, final int y) {
         return  this.x == x && this.y == y;
     }
 
+    /**
+     * Two positions are equal, if the x and the y values are equal. The hashcode is not used, because it may collide
+     * for large values.
+     * @param obj The other position.
+     * @return True, if the positions are equal. False, otherwise.
+     */
     @Override
     public boolean equals(Object obj) {
         if( obj == null) return false;
         if ( !(obj instanceof ICellPosition) ) return false;
         if ( this == obj ) return true;
 
-        return hashCode() == obj.hashCode();
+        final ICellPosition other = (ICellPosition) obj;
+        return this.x == other.getX() && this.y == other.getY();
     }
 
     @Override
@@ -102,6 +123,7 @@ class CellPosition implements ICellPosition {
 
         //using Integer Spiral to generate the hashcode
         //from: https://stackoverflow.com/questions/9135759/java-hashcode-for-a-point-class
+        //The spiral doesn't collide as long as the absolute values are smaller than 23170.
 
         int ax = Math.abs(x);
         int ay = Math.abs(y);
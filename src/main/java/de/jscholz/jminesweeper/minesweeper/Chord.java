@@ -0,0 +1,248 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * <p>Finds the cells which are opened by a double click, also called chord.</p>
+ * <p>
+ *     The chord opens every undiscovered cell in the moore-neighbourhood of a cell. If one of those cells contains a
+ *     mine, the game is over. Otherwise the area around every opened empty cell is opened as well.
+ * </p>
+ * <p>
+ *     Like the {@link FloodFill}, the chord works on the index of the cells, where the cell at (x, y) has the index
+ *     <i>y * rows + x</i>. It uses an array backed queue and a bitset of the visited cells. Therefore, each cell is
+ *     found at most once, no matter how many empty cells it touches. The chord itself doesn't change the minefield. It
+ *     only reports the cells which should be opened in the order they were discovered, so the minefield can open each
+ *     of them exactly once. The queue and the bitset are reused by every chord.
+ * </p>
+ */
+final class Chord {
+
+    /**
+     * The result of a chord which hit a mine.
+     */
+    static final int MINE = -1;
+    /**
+     * The initial capacity of the queue, if the minefield is large.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * The amount of rows inside the minefield.
+     */
+    private final int rows;
+    /**
+     * The amount of columns inside the minefield.
+     */
+    private final int columns;
+    /**
+     * The bitset of all cells which were found by the current chord.
+     */
+    private final long[] visited;
+    /**
+     * The queue of the found cells. The cells before the head are already expanded, the queue is also the result.
+     */
+    private int[] queue;
+    /**
+     * The amount of cells found by the last chord.
+     */
+    private int size;
+    /**
+     * The amount of cells in the moore-neighbourhood of the last chord.
+     */
+    private int neighbourCount;
+    /**
+     * The amount of opened cells in the moore-neighbourhood of the last chord.
+     */
+    private int openCount;
+    /**
+     * The amount of flagged cells in the moore-neighbourhood of the last chord.
+     */
+    private int flagCount;
+
+    /**
+     * Custom-Ctor creates a chord for a minefield with the given size.
+     * @param rows The amount of rows inside the minefield.
+     * @param columns The amount of columns inside the minefield.
+     */
+    Chord(final int rows, final int columns) {
+        assert rows > 0 && columns > 0 : "The minefield has no cells!";
+
+        final long cellCount = (long) rows * columns;
+        assert cellCount <= Integer.MAX_VALUE : "The minefield has too many cells!";
+
+        this.rows = rows;
+        this.columns = columns;
+        this.visited = new long[(int) ((cellCount + 63) >>> 6)];
+        this.queue = new int[(int) Math.min(cellCount, INITIAL_CAPACITY)];
+        this.size = 0;
+    }
+
+    /**
+     * <p>Finds all cells which will be opened by a double click on the cell with the given index.</p>
+     * <p>
+     *     The moore-neighbourhood is checked first. If an undiscovered neighbour contains a mine, nothing is found and
+     *     {@link #MINE} is returned. Otherwise the undiscovered neighbours and the areas around the empty ones are
+     *     found.
+     * </p>
+     * @param center The index of the cell which is double clicked.
+     * @param grid The minefield.
+     * @return The amount of cells which were found or {@link #MINE}.
+     */
+    int chord(final int center, final Grid grid) {
+        clear();
+
+        final int x = center % this.rows;
+        final int y = center / this.rows;
+        final int maxX = Math.min(x + 1, this.rows - 1);
+        final int maxY = Math.min(y + 1, this.columns - 1);
+
+        //Count the neighbourhood and stop at the first mine, before anything is found.
+        for(int nY = Math.max(y - 1, 0); nY <= maxY; ++nY) {
+            for(int nX = Math.max(x - 1, 0); nX <= maxX; ++nX) {
+                final int neighbour = nY * this.rows + nX;
+                if(neighbour == center) continue;
+
+                ++this.neighbourCount;
+
+                if(grid.isFlagged(neighbour)) {
+                    ++this.flagCount;
+                } else if(!grid.canOpen(neighbour)) {
+                    ++this.openCount;
+                } else if(grid.isMine(neighbour)) {
+                    clear();
+                    return MINE;
+                }
+            }
+        }
+
+        for(int nY = Math.max(y - 1, 0); nY <= maxY; ++nY) {
+            for(int nX = Math.max(x - 1, 0); nX <= maxX; ++nX) {
+                final int neighbour = nY * this.rows + nX;
+                if(neighbour != center && grid.canOpen(neighbour)) visit(neighbour);
+            }
+        }
+
+        //The found cells are expanded in the order they were found. Only empty cells open their neighbours.
+        for(int head=0; head < this.size; ++head) {
+            final int next = this.queue[head];
+            if(grid.isEmpty(next)) expand(next, grid);
+        }
+
+        return this.size;
+    }
+
+    /**
+     * Returns the cell which was found at the given position by the last chord.
+     * @param i The position inside the discovery order.
+     * @return The index of the cell.
+     */
+    int get(final int i) {
+        assert i >= 0 && i < this.size : "The position " + i + " is not within bounds!";
+        return this.queue[i];
+    }
+
+    /**
+     * Returns the amount of cells which were found by the last chord.
+     * @return The amount of cells.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the amount of cells in the moore-neighbourhood of the last chord.
+     * @return The amount of neighbours.
+     */
+    int getNeighbourCount() {
+        return this.neighbourCount;
+    }
+
+    /**
+     * Returns the amount of cells in the moore-neighbourhood, which were already opened before the last chord.
+     * @return The amount of opened neighbours.
+     */
+    int getOpenCount() {
+        return this.openCount;
+    }
+
+    /**
+     * Returns the amount of flagged cells in the moore-neighbourhood of the last chord.
+     * @return The amount of flagged neighbours.
+     */
+    int getFlagCount() {
+        return this.flagCount;
+    }
+
+    /**
+     * Finds the undiscovered neighbours of the given empty cell, which were not found yet.
+     * @param index The index of the empty cell.
+     * @param grid The minefield.
+     */
+    private void expand(final int index, final Grid grid) {
+        final int x = index % this.rows;
+        final int y = index / this.rows;
+        final int maxX = Math.min(x + 1, this.rows - 1);
+        final int maxY = Math.min(y + 1, this.columns - 1);
+
+        for(int nY = Math.max(y - 1, 0); nY <= maxY; ++nY) {
+            for(int nX = Math.max(x - 1, 0); nX <= maxX; ++nX) {
+                final int neighbour = nY * this.rows + nX;
+                if(!isVisited(neighbour) && grid.canOpen(neighbour)) visit(neighbour);
+            }
+        }
+    }
+
+    /**
+     * Marks the cell as visited and adds it to the queue.
+     * @param index The index of the cell.
+     */
+    private void visit(final int index) {
+        this.visited[index >>> 6] |= 1L << index;
+
+        if(this.size == this.queue.length) this.queue = Arrays.copyOf(this.queue, Math.max(this.size * 2, 1));
+        this.queue[this.size++] = index;
+    }
+
+    /**
+     * Returns if the cell was found by the current chord.
+     * @param index The index of the cell.
+     * @return True, if the cell was found. False, otherwise.
+     */
+    private boolean isVisited(final int index) {
+        return (this.visited[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Removes the result of the last chord. Only the words of the found cells are reset.
+     */
+    private void clear() {
+        for(int i=0; i < this.size; ++i) {
+            this.visited[this.queue[i] >>> 6] = 0L;
+        }
+
+        this.size = 0;
+        this.neighbourCount = 0;
+        this.openCount = 0;
+        this.flagCount = 0;
+    }
+
+    /**
+     * The minefield which is opened by the chord.
+     */
+    interface Grid extends FloodFill.Grid {
+        /**
+         * Returns if the cell with the given index is flagged.
+         * @param index The index of the cell.
+         * @return True, if the cell is flagged. False, otherwise.
+         */
+        boolean isFlagged(final int index);
+
+        /**
+         * Returns if the cell with the given index contains a mine.
+         * @param index The index of the cell.
+         * @return True, if the cell contains a mine. False, otherwise.
+         */
+        boolean isMine(final int index);
+    }
+}
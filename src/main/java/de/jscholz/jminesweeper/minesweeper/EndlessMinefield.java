@@ -0,0 +1,1015 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import java.util.*;
+
+/**
+ * <p>An implementation of the IMinefield without any bounds. Every position (x, y) is a valid position.</p>
+ * <p>
+ *     The mines are not stored. Whether a cell contains a mine is derived from the seed and the position of the cell
+ *     with a hash function. Therefore, the same seed always creates the same minefield.
+ * </p>
+ * <p>
+ *     The state of the cells is stored in chunks of 64 x 64 cells, where each row of a chunk is a single long. A chunk
+ *     is only created, when a click or the opening of an empty area changes a cell inside the chunk. When there are
+ *     too many chunks, the chunks far away from the last click get compressed. Chunks which contain neither opened nor
+ *     flagged cells are removed. Therefore, the memory depends on the explored area only.
+ * </p>
+ * <p>
+ *     The clicks behave like the clicks of the {@link Minefield}, with the following differences:
+ * </p>
+ * <ul>
+ *     <li>The game can't be cleared. It is only over, when a mine was opened.</li>
+ *     <li>When the game is over, only the cells of the explored chunks are added to the updated cells.</li>
+ *     <li>The double click returns IS_ALREADY_OPEN or WAS_FLAGGED only by looking at the moore-neighbourhood of the
+ *     clicked cell.</li>
+ * </ul>
+ * <p>
+ *     The positions wrap around at the bounds of int, so the neighbour of the cell (Integer.MAX_VALUE, 0) is the cell
+ *     (Integer.MIN_VALUE, 0). The percentage of mines is at least {@link GameCreator#MIN_MINES_PERCENT}. With this amount of mines, the empty
+ *     areas are always finite.
+ * </p>
+ */
+class EndlessMinefield implements IMinefield {
+
+    /**
+     * The amount of bits used to calculate the chunk of a position. A chunk contains 64 x 64 cells.
+     */
+    private static final int CHUNK_BITS = 6;
+    /**
+     * The amount of cells per row and column of a chunk.
+     */
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    /**
+     * The amount of uncompressed chunks, before the chunks far away from the last click get compressed.
+     */
+    private static final int MAX_EXPANDED_CHUNKS = 256;
+    /**
+     * Chunks within this distance (in chunks) from the last click are never compressed.
+     */
+    private static final int ACTIVE_DISTANCE = 4;
+    /**
+     * Maps the amount of mines in the moore-neighbourhood to the cell content.
+     */
+    private static final CellContent[] NUMBERS = {
+            CellContent.EMPTY, CellContent.ONE, CellContent.TWO, CellContent.THREE, CellContent.FOUR,
+            CellContent.FIVE, CellContent.SIX, CellContent.SEVEN, CellContent.EIGHT
+    };
+
+    /**
+     * All chunks which contain opened or flagged cells. The key is the packed position of the chunk.
+     */
+    private final ChunkTable chunks;
+    /**
+     * This journal will contain all cells which where updated in the last single click, double click or secondary click.
+     */
+    private final UpdateJournal journal;
+    /**
+     * The set view of the journal.
+     */
+    private final Set<ICell> updatedCells;
+    /**
+     * The seed of the minefield.
+     */
+    private long seed;
+    /**
+     * A cell contains a mine, if the 53 bit hash of the position is smaller than this threshold.
+     */
+    private final long mineThreshold;
+    /**
+     * The percentage of mines inside the minefield.
+     */
+    private final int minesPercent;
+    /**
+     * The stack which is used to open the neighbours of empty cells. It contains the packed positions.
+     */
+    private long[] openStack;
+    /**
+     * The amount of uncompressed chunks.
+     */
+    private int expandedChunks;
+    /**
+     * The amount of flags inside the minefield.
+     */
+    private int placedFlags;
+    /**
+     * The flag if the game is already over.
+     */
+    private boolean isGameOver;
+    /**
+     * The cells of the explored chunks which are revealed or null, if the game is not over.
+     */
+    private GameOverReveal reveal;
+
+    /**
+     * Custom-Ctor creates an endless minefield.
+     * @param seed The seed which defines the position of the mines.
+     * @param minesPercent The percent of mines inside the field.
+     */
+    EndlessMinefield(final long seed, final int minesPercent) {
+        assert minesPercent >= 16 && minesPercent <= 93 : "the given minesPercent was not within bounds. valid [16 < " + minesPercent + " < 93]";
+
+        this.seed = seed;
+        this.minesPercent = minesPercent;
+        this.mineThreshold = (long) ((1L << 53) * (minesPercent / 100.0));
+        this.chunks = new ChunkTable();
+        this.journal = new UpdateJournal(new UpdateJournal.Source() {
+            @Override
+            public byte getStateCode(final int x, final int y) {
+                return UpdateJournal.toStateCode(getState(x, y));
+            }
+
+            @Override
+            public byte getContentCode(final int x, final int y) {
+                if(!isGameOver && getState(x, y) != CellState.OPEN) return UpdateJournal.CONTENT_UNKNOWN;
+                return UpdateJournal.toContentCode(getContent(x, y));
+            }
+        });
+        this.updatedCells = new AbstractSet<ICell>() {
+            @Override
+            public Iterator<ICell> iterator() {
+                return new Iterator<ICell>() {
+
+                    private int next = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return this.next < journal.size();
+                    }
+
+                    @Override
+                    public ICell next() {
+                        if(!hasNext()) throw new NoSuchElementException();
+
+                        final int i = this.next++;
+                        return new EndlessCell(journal.getX(i), journal.getY(i));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return journal.size();
+            }
+        };
+        this.openStack = new long[CHUNK_SIZE];
+        this.expandedChunks = 0;
+        this.placedFlags = 0;
+        this.isGameOver = false;
+    }
+
+    @Override
+    public Map<ICellPosition, ICell> getFieldForVisualization() {
+        final TreeMap<ICellPosition, ICell> copyField = new TreeMap<>();
+
+        for(int slot=0; slot < this.chunks.capacity(); ++slot) {
+            final Chunk chunk = this.chunks.chunkAt(slot);
+            if(chunk == null) continue;
+
+            for(int y=0; y < CHUNK_SIZE; ++y) {
+                for(int x=0; x < CHUNK_SIZE; ++x) {
+                    final ICellPosition p = CellPosition.valueOf(chunk.originX + x, chunk.originY + y);
+                    copyField.put(p, new Cell(p));
+                }
+            }
+        }
+
+        return copyField;
+    }
+
+    @Override
+    public Set<ICell> getUpdateCells() {
+        return this.updatedCells;
+    }
+
+    @Override
+    public UpdateJournal getUpdateJournal() {
+        return this.journal;
+    }
+
+    @Override
+    public GameOverReveal getGameOverReveal() {
+        return this.reveal;
+    }
+
+    /**
+     * The endless minefield has no bounds, therefore it can't be viewed row by row.
+     * @return Always null.
+     */
+    @Override
+    public FieldSnapshot getSnapshot() {
+        return null;
+    }
+
+    @Override
+    public boolean validatePosition(final ICellPosition position) {
+        return position != null;
+    }
+
+    @Override
+    public boolean validatePosition(final int x, final int y) {
+        return true;
+    }
+
+    @Override
+    public boolean gameOver() {
+        return this.isGameOver;
+    }
+
+    @Override
+    public OpenReturn secondaryClick(final ICellPosition position) {
+        if(!validatePosition(position)) return isGameOver ? OpenReturn.GAME_IS_ALREADY_OVER : OpenReturn.NOT_VALID;
+        return secondaryClick(position.getX(), position.getY());
+    }
+
+    @Override
+    public OpenReturn secondaryClick(final int x, final int y) {
+        if(gameOver()) return OpenReturn.GAME_IS_ALREADY_OVER;
+
+        this.journal.clear();
+
+        final OpenReturn openReturn;
+        switch (getState(x, y)) {
+            case OPEN:
+                openReturn = OpenReturn.IS_ALREADY_OPEN;
+                break;
+            case FLAGGED:
+                setState(x, y, CellState.UNDISCOVERED);
+                --this.placedFlags;
+                this.journal.add(x, y);
+                openReturn = OpenReturn.REMOVE_FLAG;
+                break;
+            default:
+                setState(x, y, CellState.FLAGGED);
+                ++this.placedFlags;
+                this.journal.add(x, y);
+                openReturn = OpenReturn.NOW_FLAGGED;
+                break;
+        }
+
+        compressChunks(x, y);
+        return openReturn;
+    }
+
+    @Override
+    public OpenReturn singleClick(final ICellPosition position) {
+        if(!validatePosition(position)) return isGameOver ? OpenReturn.GAME_IS_ALREADY_OVER : OpenReturn.NOT_VALID;
+        return singleClick(position.getX(), position.getY());
+    }
+
+    @Override
+    public OpenReturn singleClick(final int x, final int y) {
+        if(gameOver()) return OpenReturn.GAME_IS_ALREADY_OVER;
+
+        this.journal.clear();
+
+        switch (getState(x, y)) {
+            case OPEN:
+                return OpenReturn.IS_ALREADY_OPEN;
+            case FLAGGED:
+                return OpenReturn.WAS_FLAGGED;
+            default:
+                if(isMine(x, y)) {
+                    setGameOver();
+                    return OpenReturn.WAS_MINE;
+                }
+
+                open(x, y);
+                compressChunks(x, y);
+                return OpenReturn.OPEN;
+        }
+    }
+
+    @Override
+    public OpenReturn doubleClick(final ICellPosition position) {
+        if(!validatePosition(position)) return isGameOver ? OpenReturn.GAME_IS_ALREADY_OVER : OpenReturn.NOT_VALID;
+        return doubleClick(position.getX(), position.getY());
+    }
+
+    @Override
+    public OpenReturn doubleClick(final int x, final int y) {
+        if(gameOver()) return OpenReturn.GAME_IS_ALREADY_OVER;
+
+        this.journal.clear();
+
+        if(getState(x, y) == CellState.UNDISCOVERED) {
+            if(isMine(x, y)) {
+                setGameOver();
+                return OpenReturn.WAS_MINE;
+            }
+
+            //Set state to open. Don't use open, because it may opens all neighbours.
+            setState(x, y, CellState.OPEN);
+            this.journal.add(x, y);
+        }
+
+        int flagCount = 0;
+        int openCount = 0;
+
+        for(int dY = -1; dY <= 1; ++dY) {
+            for(int dX = -1; dX <= 1; ++dX) {
+                if(dX == 0 && dY == 0) continue;
+
+                final int nX = x + dX;
+                final int nY = y + dY;
+
+                switch (getState(nX, nY)) {
+                    case OPEN:
+                        ++openCount;
+                        break;
+                    case FLAGGED:
+                        ++flagCount;
+                        break;
+                    default:
+                        if(isMine(nX, nY)) {
+                            setGameOver();
+                            return OpenReturn.WAS_MINE;
+                        }
+
+                        open(nX, nY);
+                        break;
+                }
+            }
+        }
+
+        compressChunks(x, y);
+
+        if(flagCount == 8) return OpenReturn.WAS_FLAGGED;
+        if(openCount == 8) return OpenReturn.IS_ALREADY_OPEN;
+        return OpenReturn.OPEN;
+    }
+
+    /**
+     * Returns the amount of mines inside the explored chunks. The endless minefield has no total amount of mines.
+     * @return The amount of mines inside the explored chunks.
+     */
+    @Override
+    public int getTotalMines() {
+        int mines = 0;
+
+        for(int slot=0; slot < this.chunks.capacity(); ++slot) {
+            final Chunk chunk = this.chunks.chunkAt(slot);
+            if(chunk == null) continue;
+
+            for(int y=0; y < CHUNK_SIZE; ++y) {
+                for(int x=0; x < CHUNK_SIZE; ++x) {
+                    if(isMine(chunk.originX + x, chunk.originY + y)) ++mines;
+                }
+            }
+        }
+
+        return mines;
+    }
+
+    @Override
+    public int getAmountOfFlags() {
+        return this.placedFlags;
+    }
+
+    /**
+     * The endless minefield has no bounds.
+     * @return Always Integer.MAX_VALUE.
+     */
+    @Override
+    public int getRows() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * The endless minefield has no bounds.
+     * @return Always Integer.MAX_VALUE.
+     */
+    @Override
+    public int getColumns() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Starts a new game with the given seed and the same percentage of mines. The explored cells of the old game are
+     * added to the updated cells, because only these cells were drawn. Afterwards the chunks are removed.
+     * @param seed The seed which defines the position of the mines.
+     */
+    @Override
+    public void reset(final long seed) {
+        // The journal reads the codes of the new game, which are undiscovered until the next click clears the journal.
+        final Chunk[] explored = this.chunks.toArray();
+
+        this.seed = seed;
+        this.chunks.clear();
+        this.expandedChunks = 0;
+        this.placedFlags = 0;
+        this.isGameOver = false;
+        this.reveal = null;
+        this.journal.clear();
+        this.journal.fill(explored.length << (2 * CHUNK_BITS), (final int i) -> position(explored, i));
+    }
+
+    /**
+     * Returns the seed of the minefield.
+     * @return The seed.
+     */
+    long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Returns the percentage of mines inside the minefield.
+     * @return The percentage of mines.
+     */
+    int getMinesPercent() {
+        return this.minesPercent;
+    }
+
+    /**
+     * Returns the amount of chunks which contain opened or flagged cells.
+     * @return The amount of chunks.
+     */
+    int getChunkCount() {
+        return this.chunks.size();
+    }
+
+    /**
+     * Returns the amount of chunks which are not compressed.
+     * @return The amount of uncompressed chunks.
+     */
+    int getExpandedChunkCount() {
+        return this.expandedChunks;
+    }
+
+    /**
+     * <p>Returns if the cell at the given position contains a mine.</p>
+     * <p>The mine is derived from the seed and the position with the finalizer of the SplitMix64 generator. The
+     * upper 53 bits of the hash are compared with the mine threshold.</p>
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     * @return True, if the cell contains a mine. False, otherwise.
+     */
+    boolean isMine(final int x, final int y) {
+        long z = this.seed + ICellPosition.pack(x, y) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+
+        return (z >>> 11) < this.mineThreshold;
+    }
+
+    /**
+     * Returns the amount of mines in the moore-neighbourhood of the given position.
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     * @return The amount of mines in the moore-neighbourhood.
+     */
+    int getMinesInNeighbourhood(final int x, final int y) {
+        int mines = 0;
+
+        for(int dY = -1; dY <= 1; ++dY) {
+            for(int dX = -1; dX <= 1; ++dX) {
+                if((dX != 0 || dY != 0) && isMine(x + dX, y + dY)) ++mines;
+            }
+        }
+
+        return mines;
+    }
+
+    /**
+     * Returns the content of the cell at the given position, without looking at the state of the cell.
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     * @return The content of the cell.
+     */
+    CellContent getContent(final int x, final int y) {
+        return isMine(x, y) ? CellContent.MINE : NUMBERS[getMinesInNeighbourhood(x, y)];
+    }
+
+    /**
+     * Returns the state of the cell at the given position. The chunk of the cell is not created.
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     * @return The state of the cell.
+     */
+    CellState getState(final int x, final int y) {
+        final Chunk chunk = this.chunks.get(chunkKey(x, y));
+        if(chunk == null) return CellState.UNDISCOVERED;
+
+        return chunk.getState(x & (CHUNK_SIZE - 1), y & (CHUNK_SIZE - 1));
+    }
+
+    /**
+     * Changes the state of the cell at the given position. The chunk of the cell is created, if necessary.
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     * @param state The new state of the cell.
+     */
+    private void setState(final int x, final int y, final CellState state) {
+        final long key = chunkKey(x, y);
+        Chunk chunk = this.chunks.get(key);
+
+        if(chunk == null) {
+            chunk = new Chunk(x & ~(CHUNK_SIZE - 1), y & ~(CHUNK_SIZE - 1));
+            this.chunks.put(key, chunk);
+            ++this.expandedChunks;
+        } else if(chunk.isCompressed()) {
+            chunk.expand();
+            ++this.expandedChunks;
+        }
+
+        chunk.setState(x & (CHUNK_SIZE - 1), y & (CHUNK_SIZE - 1), state);
+    }
+
+    /**
+     * Opens the cell at the given position. If the cell is empty, all cells in the neighborhood will also be opened.
+     * Each cell is pushed only once, because the state changes before it is pushed.
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     */
+    private void open(final int x, final int y) {
+        int size = 0;
+
+        setState(x, y, CellState.OPEN);
+        this.journal.add(x, y);
+        this.openStack[size++] = ICellPosition.pack(x, y);
+
+        while (size > 0) {
+            final long next = this.openStack[--size];
+            final int pX = ICellPosition.unpackX(next);
+            final int pY = ICellPosition.unpackY(next);
+
+            //Only open the neighbours when the content is empty.
+            if(getMinesInNeighbourhood(pX, pY) != 0) continue;
+
+            for(int dY = -1; dY <= 1; ++dY) {
+                for(int dX = -1; dX <= 1; ++dX) {
+                    final int nX = pX + dX;
+                    final int nY = pY + dY;
+
+                    if(getState(nX, nY) != CellState.UNDISCOVERED) continue;
+
+                    setState(nX, nY, CellState.OPEN);
+                    this.journal.add(nX, nY);
+
+                    if(size == this.openStack.length) this.openStack = Arrays.copyOf(this.openStack, 2 * size);
+                    this.openStack[size++] = ICellPosition.pack(nX, nY);
+                }
+            }
+        }
+    }
+
+    /**
+     * Set the game over and add all cells of the explored chunks to the updated cells. The journal and the reveal
+     * calculate the cells when they are requested, so only the chunks are collected.
+     */
+    private void setGameOver() {
+        this.isGameOver = true;
+        this.journal.clear();
+
+        //The chunks don't change after the game is over. Each chunk contributes CHUNK_SIZE * CHUNK_SIZE numbers.
+        final Chunk[] explored = this.chunks.toArray();
+        this.journal.fill(explored.length << (2 * CHUNK_BITS), (final int i) -> position(explored, i));
+        this.reveal = new GameOverReveal(explored.length << (2 * CHUNK_BITS), new GameOverReveal.Source() {
+            @Override
+            public GameOverReveal.Category getCategory(final int i) {
+                final long position = getPosition(i);
+                final int x = ICellPosition.unpackX(position);
+                final int y = ICellPosition.unpackY(position);
+                if(isMine(x, y)) return GameOverReveal.Category.MINE;
+
+                switch (getState(x, y)) {
+                    case FLAGGED:
+                        return GameOverReveal.Category.WRONG_FLAG;
+                    case UNDISCOVERED:
+                        return GameOverReveal.Category.REMAINING;
+                    default:
+                        return null;
+                }
+            }
+
+            @Override
+            public long getPosition(final int i) {
+                return position(explored, i);
+            }
+        });
+    }
+
+    /**
+     * Returns the packed position of the i-th cell of the given chunks. The cells of a chunk are numbered row by row.
+     * @param explored The chunks.
+     * @param i The number of the cell.
+     * @return The packed position of the cell.
+     */
+    private static long position(final Chunk[] explored, final int i) {
+        final Chunk chunk = explored[i >>> (2 * CHUNK_BITS)];
+        return ICellPosition.pack(chunk.originX + (i & (CHUNK_SIZE - 1)),
+                chunk.originY + ((i >>> CHUNK_BITS) & (CHUNK_SIZE - 1)));
+    }
+
+    /**
+     * Compresses the chunks which are far away from the given position, when there are too many uncompressed chunks.
+     * Chunks without opened or flagged cells are removed.
+     * @param x The x value of the last click.
+     * @param y The y value of the last click.
+     */
+    private void compressChunks(final int x, final int y) {
+        if(this.expandedChunks <= MAX_EXPANDED_CHUNKS) return;
+
+        final int chunkX = x >> CHUNK_BITS;
+        final int chunkY = y >> CHUNK_BITS;
+
+        // A removal moves a later chunk into the slot, so the slot is looked at again. A chunk which is moved from the
+        // beginning of the table to its end is looked at twice, but it is compressed or kept already.
+        int slot = 0;
+        while (slot < this.chunks.capacity()) {
+            final Chunk chunk = this.chunks.chunkAt(slot);
+            if(chunk == null || chunk.isCompressed()) {
+                ++slot;
+                continue;
+            }
+
+            final int distance = Math.max(Math.abs((chunk.originX >> CHUNK_BITS) - chunkX),
+                    Math.abs((chunk.originY >> CHUNK_BITS) - chunkY));
+            if(distance <= ACTIVE_DISTANCE) {
+                ++slot;
+                continue;
+            }
+
+            --this.expandedChunks;
+            if(chunk.isUntouched()) {
+                this.chunks.removeAt(slot);
+            } else {
+                chunk.compress();
+                ++slot;
+            }
+        }
+    }
+
+    /**
+     * Returns the key of the chunk which contains the given position.
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     * @return The key of the chunk.
+     */
+    private static long chunkKey(final int x, final int y) {
+        return ICellPosition.pack(x >> CHUNK_BITS, y >> CHUNK_BITS);
+    }
+
+    /**
+     * <p>The state of 64 x 64 cells. Each row is stored as a long, where the bit x is the cell x of the row.</p>
+     * <p>
+     *     A compressed chunk only stores the rows which are neither empty nor full. Two masks tell which rows are
+     *     empty and which rows are full.
+     * </p>
+     */
+    private static final class Chunk {
+
+        /**
+         * The x value of the first cell of the chunk.
+         */
+        private final int originX;
+        /**
+         * The y value of the first cell of the chunk.
+         */
+        private final int originY;
+        /**
+         * The opened cells or null, if the chunk is compressed.
+         */
+        private long[] opened;
+        /**
+         * The flagged cells or null, if the chunk is compressed.
+         */
+        private long[] flagged;
+        /**
+         * The compressed opened cells or null, if the chunk is not compressed.
+         */
+        private long[] compressedOpened;
+        /**
+         * The compressed flagged cells or null, if the chunk is not compressed.
+         */
+        private long[] compressedFlagged;
+
+        /**
+         * Custom-Ctor creates a chunk without opened and flagged cells.
+         * @param originX The x value of the first cell.
+         * @param originY The y value of the first cell.
+         */
+        private Chunk(final int originX, final int originY) {
+            this.originX = originX;
+            this.originY = originY;
+            this.opened = new long[CHUNK_SIZE];
+            this.flagged = new long[CHUNK_SIZE];
+        }
+
+        private boolean isCompressed() {
+            return this.opened == null;
+        }
+
+        /**
+         * Returns if the chunk contains neither opened nor flagged cells.
+         * @return True, if no cell was changed. False, otherwise.
+         */
+        private boolean isUntouched() {
+            for(int y=0; y < CHUNK_SIZE; ++y) {
+                if(this.opened[y] != 0 || this.flagged[y] != 0) return false;
+            }
+
+            return true;
+        }
+
+        private CellState getState(final int x, final int y) {
+            final long bit = 1L << x;
+            if((row(this.opened, this.compressedOpened, y) & bit) != 0) return CellState.OPEN;
+            if((row(this.flagged, this.compressedFlagged, y) & bit) != 0) return CellState.FLAGGED;
+            return CellState.UNDISCOVERED;
+        }
+
+        private void setState(final int x, final int y, final CellState state) {
+            assert !isCompressed() : "The chunk is compressed!";
+
+            final long bit = 1L << x;
+            this.opened[y] &= ~bit;
+            this.flagged[y] &= ~bit;
+
+            if(state == CellState.OPEN) this.opened[y] |= bit;
+            if(state == CellState.FLAGGED) this.flagged[y] |= bit;
+        }
+
+        private void compress() {
+            this.compressedOpened = compress(this.opened);
+            this.compressedFlagged = compress(this.flagged);
+            this.opened = null;
+            this.flagged = null;
+        }
+
+        private void expand() {
+            this.opened = expand(this.compressedOpened);
+            this.flagged = expand(this.compressedFlagged);
+            this.compressedOpened = null;
+            this.compressedFlagged = null;
+        }
+
+        /**
+         * Returns the row of a layer.
+         * @param layer The uncompressed layer or null.
+         * @param compressed The compressed layer, if the uncompressed layer is null.
+         * @param y The row.
+         * @return The bits of the row.
+         */
+        private static long row(final long[] layer, final long[] compressed, final int y) {
+            if(layer != null) return layer[y];
+
+            final long bit = 1L << y;
+            if((compressed[0] & bit) != 0) return -1L;
+            if((compressed[1] & bit) == 0) return 0L;
+
+            // The position of the row inside the compressed layer is the amount of stored rows before the row.
+            return compressed[2 + Long.bitCount(compressed[1] & (bit - 1))];
+        }
+
+        /**
+         * Compresses a layer into: the mask of the full rows, the mask of the stored rows and the stored rows.
+         * @param layer The uncompressed layer.
+         * @return The compressed layer.
+         */
+        private static long[] compress(final long[] layer) {
+            long full = 0;
+            long stored = 0;
+
+            for(int y=0; y < CHUNK_SIZE; ++y) {
+                if(layer[y] == -1L) full |= 1L << y;
+                else if(layer[y] != 0) stored |= 1L << y;
+            }
+
+            final long[] compressed = new long[2 + Long.bitCount(stored)];
+            compressed[0] = full;
+            compressed[1] = stored;
+
+            int i = 2;
+            for(int y=0; y < CHUNK_SIZE; ++y) {
+                if((stored & (1L << y)) != 0) compressed[i++] = layer[y];
+            }
+
+            return compressed;
+        }
+
+        private static long[] expand(final long[] compressed) {
+            final long[] layer = new long[CHUNK_SIZE];
+
+            for(int y=0; y < CHUNK_SIZE; ++y) {
+                layer[y] = row(null, compressed, y);
+            }
+
+            return layer;
+        }
+    }
+
+    /**
+     * <p>A hash table of the chunks, whose keys are the packed positions of the chunks.</p>
+     * <p>
+     *     The keys are stored as primitive longs with open addressing and linear probing, so looking up a chunk
+     *     doesn't box the key and doesn't create any objects. The table is at most half full and a removed chunk
+     *     moves the following chunks of its probe sequence back, so no deleted markers are needed.
+     * </p>
+     */
+    private static final class ChunkTable {
+
+        /**
+         * The initial amount of slots, which must be a power of two.
+         */
+        private static final int INITIAL_CAPACITY = 16;
+
+        /**
+         * The key of every slot. The key of an empty slot is undefined.
+         */
+        private long[] keys;
+        /**
+         * The chunk of every slot or null, if the slot is empty.
+         */
+        private Chunk[] chunks;
+        /**
+         * The amount of chunks.
+         */
+        private int size;
+
+        private ChunkTable() {
+            this.keys = new long[INITIAL_CAPACITY];
+            this.chunks = new Chunk[INITIAL_CAPACITY];
+        }
+
+        private int size() {
+            return this.size;
+        }
+
+        private int capacity() {
+            return this.chunks.length;
+        }
+
+        /**
+         * Returns the chunk inside the given slot.
+         * @param slot The slot, from 0 to the capacity.
+         * @return The chunk or null, if the slot is empty.
+         */
+        private Chunk chunkAt(final int slot) {
+            return this.chunks[slot];
+        }
+
+        /**
+         * Returns the chunk with the given key.
+         * @param key The packed position of the chunk.
+         * @return The chunk or null, if the chunk doesn't exist.
+         */
+        private Chunk get(final long key) {
+            final int mask = this.chunks.length - 1;
+
+            for(int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+                final Chunk chunk = this.chunks[slot];
+                if(chunk == null || this.keys[slot] == key) return chunk;
+            }
+        }
+
+        /**
+         * Adds the chunk with the given key. The table doesn't contain the key yet.
+         * @param key The packed position of the chunk.
+         * @param chunk The chunk.
+         */
+        private void put(final long key, final Chunk chunk) {
+            assert get(key) == null : "The chunk " + key + " already exists!";
+
+            if(2 * (this.size + 1) > this.chunks.length) resize(2 * this.chunks.length);
+
+            insert(key, chunk);
+            ++this.size;
+        }
+
+        /**
+         * Removes the chunk inside the given slot. The chunks behind the slot, whose probe sequence passes the slot,
+         * are moved back, so a chunk can move into the slot.
+         * @param slot The slot, which contains a chunk.
+         */
+        private void removeAt(final int slot) {
+            assert this.chunks[slot] != null : "The slot " + slot + " is empty!";
+
+            final int mask = this.chunks.length - 1;
+            int hole = slot;
+
+            for(int next = (hole + 1) & mask; this.chunks[next] != null; next = (next + 1) & mask) {
+                // The chunk may move into the hole, if its home slot is not between the hole and its slot.
+                final int home = slot(this.keys[next], mask);
+                if(((next - home) & mask) >= ((next - hole) & mask)) {
+                    this.keys[hole] = this.keys[next];
+                    this.chunks[hole] = this.chunks[next];
+                    hole = next;
+                }
+            }
+
+            this.chunks[hole] = null;
+            --this.size;
+        }
+
+        /**
+         * Removes all chunks and keeps the slots.
+         */
+        private void clear() {
+            Arrays.fill(this.chunks, null);
+            this.size = 0;
+        }
+
+        /**
+         * Returns all chunks in the order of their slots.
+         * @return The chunks.
+         */
+        private Chunk[] toArray() {
+            final Chunk[] array = new Chunk[this.size];
+            int i = 0;
+
+            for(final Chunk chunk : this.chunks) {
+                if(chunk != null) array[i++] = chunk;
+            }
+
+            return array;
+        }
+
+        private void resize(final int capacity) {
+            final long[] oldKeys = this.keys;
+            final Chunk[] oldChunks = this.chunks;
+            this.keys = new long[capacity];
+            this.chunks = new Chunk[capacity];
+
+            for(int slot=0; slot < oldChunks.length; ++slot) {
+                if(oldChunks[slot] != null) insert(oldKeys[slot], oldChunks[slot]);
+            }
+        }
+
+        private void insert(final long key, final Chunk chunk) {
+            final int mask = this.chunks.length - 1;
+            int slot = slot(key, mask);
+
+            while (this.chunks[slot] != null) slot = (slot + 1) & mask;
+
+            this.keys[slot] = key;
+            this.chunks[slot] = chunk;
+        }
+
+        /**
+         * Returns the home slot of the key. The key is mixed, because neighbouring chunks have similar keys.
+         * @param key The packed position of the chunk.
+         * @param mask The capacity minus 1.
+         * @return The home slot.
+         */
+        private static int slot(final long key, final int mask) {
+            final long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+
+    /**
+     * <p>A view to a single cell inside the endless minefield. It always shows the current state of the cell.</p>
+     */
+    private final class EndlessCell implements ICell {
+
+        private final int x;
+        private final int y;
+
+        private EndlessCell(final int x, final int y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public ICellPosition getPosition() {
+            return CellPosition.valueOf(this.x, this.y);
+        }
+
+        @Override
+        public CellContent getCellContent() {
+            /*
+             * Only return the content of the cell when the cell state is open or the game is over! Otherwise return unknown.
+             */
+            if(isGameOver || getState(this.x, this.y) == CellState.OPEN) {
+                return getContent(this.x, this.y);
+            }
+
+            return CellContent.UNKNOWN;
+        }
+
+        @Override
+        public CellState getCellState() {
+            return getState(this.x, this.y);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.x + this.y;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if(!(obj instanceof EndlessCell)) return false;
+
+            final EndlessCell other = (EndlessCell) obj;
+            return other.x == this.x && other.y == this.y;
+        }
+
+        @Override
+        public String toString() {
+            return "Cell [State: " + getCellState() + ", Content: " + getContent(this.x, this.y)
+                    + ", Position: " + getPosition() + "]";
+        }
+    }
+}
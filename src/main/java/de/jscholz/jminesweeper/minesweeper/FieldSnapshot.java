@@ -0,0 +1,231 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+/**
+ * <p>A read-only view of a minefield with bounds. The cells are ordered row by row, the cell at the position (x, y)
+ * has the index <i>y * rows + x</i>.</p>
+ * <p>
+ *     The snapshot doesn't copy anything. The codes are read from the storage of the minefield when they are
+ *     requested, look at {@link UpdateJournal} for the meaning of the codes. Therefore, the snapshot always shows the
+ *     current minefield and is created only once per game.
+ * </p>
+ * <p>
+ *     Every click which changes cells increases the version of the snapshot. The snapshot remembers the cells which
+ *     were changed by the last clicks, so a renderer only has to redraw the cells which were changed since the version
+ *     it has drawn. A renderer should work like this:
+ * </p>
+ * <pre>
+ *     snapshot.forEach(drawCell);
+ *     long drawn = snapshot.getVersion();
+ *     ...
+ *     if(!snapshot.changesSince(drawn, drawCell)) snapshot.forEach(drawCell);
+ *     drawn = snapshot.getVersion();
+ * </pre>
+ */
+public final class FieldSnapshot {
+
+    /**
+     * The maximum amount of changed cells which are remembered. Larger changes are drawn by redrawing the whole field.
+     */
+    private static final int MAX_LOG_CAPACITY = 1 << 16;
+
+    /**
+     * The journal of the minefield, which contains the cells of the last click.
+     */
+    private final UpdateJournal journal;
+    /**
+     * The minefield which provides the codes of the cells.
+     */
+    private final UpdateJournal.Source source;
+    /**
+     * The amount of rows inside the minefield.
+     */
+    private final int rows;
+    /**
+     * The amount of columns inside the minefield.
+     */
+    private final int columns;
+    /**
+     * The ring of the indices of the changed cells.
+     */
+    private final int[] log;
+    /**
+     * The versions in which the cells inside the ring were changed.
+     */
+    private final long[] logVersions;
+    /**
+     * The mask which maps the number of an entry to the slot inside the ring.
+     */
+    private final int mask;
+    /**
+     * The amount of entries which were written into the ring.
+     */
+    private long written;
+    /**
+     * The current version.
+     */
+    private long version;
+    /**
+     * The version of the latest entry which was overwritten. The changes since older versions are not known anymore.
+     */
+    private long lostVersion;
+    /**
+     * The latest version in which all cells were changed.
+     */
+    private long fullVersion;
+
+    /**
+     * Custom-Ctor creates the snapshot of a minefield.
+     * @param rows The amount of rows inside the minefield.
+     * @param columns The amount of columns inside the minefield.
+     * @param journal The journal of the minefield.
+     * @param source The minefield which provides the codes of the cells.
+     */
+    FieldSnapshot(final int rows, final int columns, final UpdateJournal journal, final UpdateJournal.Source source) {
+        assert rows > 0 && columns > 0 : "The minefield has no cells!";
+        assert journal != null && source != null : "The journal or the source is null!";
+
+        this.rows = rows;
+        this.columns = columns;
+        this.journal = journal;
+        this.source = source;
+
+        //The ring is a power of two, so the slot can be masked.
+        final int cells = Math.min(MAX_LOG_CAPACITY, rows * columns);
+        this.log = new int[cells == 1 ? 1 : Integer.highestOneBit(cells - 1) << 1];
+        this.logVersions = new long[this.log.length];
+        this.mask = this.log.length - 1;
+    }
+
+    /**
+     * Returns the amount of rows inside the minefield.
+     * @return The amount of rows.
+     */
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Returns the amount of columns inside the minefield.
+     * @return The amount of columns.
+     */
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * Returns the current version. The version starts with 0 and is increased by every click which changes cells.
+     * @return The current version.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Returns the state code of the cell at the given position.
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     * @return The state code.
+     */
+    public byte getStateCode(final int x, final int y) {
+        assert x >= 0 && x < this.rows && y >= 0 && y < this.columns : "The position is not within bounds!";
+        return this.source.getStateCode(x, y);
+    }
+
+    /**
+     * Returns the content code of the cell at the given position, as the user can see it.
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     * @return The content code.
+     */
+    public byte getContentCode(final int x, final int y) {
+        assert x >= 0 && x < this.rows && y >= 0 && y < this.columns : "The position is not within bounds!";
+        return this.source.getContentCode(x, y);
+    }
+
+    /**
+     * Returns the state of the cell at the given position.
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     * @return The state of the cell.
+     */
+    public CellState getState(final int x, final int y) {
+        return UpdateJournal.toState(getStateCode(x, y));
+    }
+
+    /**
+     * Returns the content of the cell at the given position, as the user can see it.
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     * @return The content of the cell.
+     */
+    public CellContent getContent(final int x, final int y) {
+        return UpdateJournal.toContent(getContentCode(x, y));
+    }
+
+    /**
+     * Calls the visitor for every cell of the minefield, row by row.
+     * @param visitor The visitor.
+     */
+    public void forEach(final UpdateJournal.Visitor visitor) {
+        for(int y=0; y < this.columns; ++y) {
+            for(int x=0; x < this.rows; ++x) {
+                visitor.visit(x, y, this.source.getStateCode(x, y), this.source.getContentCode(x, y));
+            }
+        }
+    }
+
+    /**
+     * <p>Calls the visitor for every cell which was changed since the given version, with the current codes of the
+     * cell. A cell which was changed by several clicks may be visited more than once.</p>
+     * <p>The snapshot only remembers the last changes. If the changes since the given version are not known anymore,
+     * nothing is visited and the whole field has to be redrawn with {@link #forEach(UpdateJournal.Visitor)}. This
+     * also happens after the game is over, because all cells are revealed.</p>
+     * @param version The version which the caller knows.
+     * @param visitor The visitor.
+     * @return True, if all changed cells were visited. False, if the changes are not known anymore.
+     */
+    public boolean changesSince(final long version, final UpdateJournal.Visitor visitor) {
+        assert version >= 0 && version <= this.version : "The version " + version + " is unknown!";
+
+        if(version < this.fullVersion || version < this.lostVersion) return false;
+
+        //Go back to the first change after the given version. The entries are ordered by their version.
+        final long oldest = Math.max(0, this.written - this.log.length);
+        long first = this.written;
+        while (first > oldest && this.logVersions[(int) (first - 1) & this.mask] > version) {
+            --first;
+        }
+
+        for(long i=first; i < this.written; ++i) {
+            final int index = this.log[(int) i & this.mask];
+            final int x = index % this.rows;
+            final int y = index / this.rows;
+            visitor.visit(x, y, this.source.getStateCode(x, y), this.source.getContentCode(x, y));
+        }
+
+        return true;
+    }
+
+    /**
+     * Creates a new version with the cells of the journal. Has to be called after every click.
+     */
+    void commit() {
+        if(this.journal.isEmpty()) return;
+
+        ++this.version;
+
+        if(this.journal.isFull()) {
+            this.fullVersion = this.version;
+            return;
+        }
+
+        for(int i=0; i < this.journal.size(); ++i) {
+            final int slot = (int) this.written & this.mask;
+            if(this.written > this.mask) this.lostVersion = this.logVersions[slot];
+
+            this.log[slot] = this.journal.getIndex(i);
+            this.logVersions[slot] = this.version;
+            ++this.written;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * <p>Opens the area around an empty cell without recursion.</p>
+ * <p>
+ *     The flood fill works on the index of the cells, where the cell at (x, y) has the index <i>y * rows + x</i>. It
+ *     uses an explicit stack and a bitset of the visited cells. Therefore, each cell is visited at most once and the
+ *     size of the minefield is only limited by the memory, not by the size of the call stack.
+ * </p>
+ * <p>
+ *     The flood fill itself doesn't change the minefield. It only reports the cells which should be opened in the
+ *     order they were discovered. The stack, the bitset and the result are reused by every fill.
+ * </p>
+ */
+final class FloodFill {
+
+    /**
+     * The initial capacity of the stack and the result, if the minefield is large.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * The amount of rows inside the minefield.
+     */
+    private final int rows;
+    /**
+     * The amount of columns inside the minefield.
+     */
+    private final int columns;
+    /**
+     * The bitset of all cells which were visited by the current fill.
+     */
+    private final long[] visited;
+    /**
+     * The stack of the cells whose neighbours still have to be visited.
+     */
+    private int[] stack;
+    /**
+     * The cells which were found by the last fill in the order they were discovered.
+     */
+    private int[] discovered;
+    /**
+     * The amount of cells found by the last fill.
+     */
+    private int size;
+
+    /**
+     * Custom-Ctor creates a flood fill for a minefield with the given size.
+     * @param rows The amount of rows inside the minefield.
+     * @param columns The amount of columns inside the minefield.
+     */
+    FloodFill(final int rows, final int columns) {
+        assert rows > 0 && columns > 0 : "The minefield has no cells!";
+
+        final long cellCount = (long) rows * columns;
+        assert cellCount <= Integer.MAX_VALUE : "The minefield has too many cells!";
+
+        this.rows = rows;
+        this.columns = columns;
+        this.visited = new long[(int) ((cellCount + 63) >>> 6)];
+
+        final int capacity = (int) Math.min(cellCount, INITIAL_CAPACITY);
+        this.stack = new int[capacity];
+        this.discovered = new int[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * <p>Finds all cells which will be opened, when the cell with the given index is opened.</p>
+     * <p>
+     *     The start cell is always part of the result. The neighbours of a cell are only visited, if the cell is
+     *     empty. A neighbour is only part of the result, if it can be opened.
+     * </p>
+     * @param start The index of the cell which is opened.
+     * @param grid The minefield which is filled.
+     * @return The amount of cells which were found.
+     */
+    int fill(final int start, final Grid grid) {
+        clear();
+
+        int top = 0;
+        visit(start);
+        this.stack[top++] = start;
+
+        while (top > 0) {
+            final int next = this.stack[--top];
+
+            //Only visit the neighbours when the content is empty.
+            if(!grid.isEmpty(next)) continue;
+
+            final int x = next % this.rows;
+            final int y = next / this.rows;
+            final int maxX = Math.min(x + 1, this.rows - 1);
+            final int maxY = Math.min(y + 1, this.columns - 1);
+
+            for(int nY = Math.max(y - 1, 0); nY <= maxY; ++nY) {
+                for(int nX = Math.max(x - 1, 0); nX <= maxX; ++nX) {
+                    final int neighbour = nY * this.rows + nX;
+
+                    if(isVisited(neighbour) || !grid.canOpen(neighbour)) continue;
+
+                    visit(neighbour);
+
+                    if(top == this.stack.length) this.stack = grow(this.stack);
+                    this.stack[top++] = neighbour;
+                }
+            }
+        }
+
+        return this.size;
+    }
+
+    /**
+     * Returns the cell which was found at the given position by the last fill.
+     * @param i The position inside the discovery order.
+     * @return The index of the cell.
+     */
+    int get(final int i) {
+        assert i >= 0 && i < this.size : "The position " + i + " is not within bounds!";
+        return this.discovered[i];
+    }
+
+    /**
+     * Returns the amount of cells which were found by the last fill.
+     * @return The amount of cells.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Marks the cell as visited and adds it to the result.
+     * @param index The index of the cell.
+     */
+    private void visit(final int index) {
+        this.visited[index >>> 6] |= 1L << index;
+
+        if(this.size == this.discovered.length) this.discovered = grow(this.discovered);
+        this.discovered[this.size++] = index;
+    }
+
+    /**
+     * Returns if the cell was visited by the current fill.
+     * @param index The index of the cell.
+     * @return True, if the cell was visited. False, otherwise.
+     */
+    private boolean isVisited(final int index) {
+        return (this.visited[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Removes the result of the last fill. Only the words of the visited cells are reset.
+     */
+    private void clear() {
+        for(int i=0; i < this.size; ++i) {
+            this.visited[this.discovered[i] >>> 6] = 0L;
+        }
+
+        this.size = 0;
+    }
+
+    /**
+     * Doubles the capacity of the given array.
+     * @param array The array.
+     * @return A copy of the array with the doubled capacity.
+     */
+    private static int[] grow(final int[] array) {
+        return Arrays.copyOf(array, Math.max(array.length * 2, 1));
+    }
+
+    /**
+     * The minefield which is filled by the flood fill.
+     */
+    interface Grid {
+        /**
+         * Returns if the cell with the given index can be opened by the flood fill.
+         * @param index The index of the cell.
+         * @return True, if the cell is undiscovered. False, otherwise.
+         */
+        boolean canOpen(final int index);
+
+        /**
+         * Returns if the cell with the given index has no mines in the moore-neighbourhood.
+         * @param index The index of the cell.
+         * @return True, if the content of the cell is empty. False, otherwise.
+         */
+        boolean isEmpty(final int index);
+    }
+}
@@ -0,0 +1,442 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * <p>Writes minefields with bounds into a compact binary format and reads them again.</p>
+ * <p>The format starts with a header of {@link #HEADER_SIZE} bytes, all values are big-endian:</p>
+ * <pre>
+ *     offset  size  value
+ *          0     4  magic "JMSG"
+ *          4     1  version of the format
+ *          5     1  minefield type, look at {@link MinefieldType}
+ *          6     1  flags: game over, seeded, first click safe, first click pending
+ *          7     1  reserved
+ *          8     4  rows
+ *         12     4  columns
+ *         16     4  total amount of mines
+ *         20     4  placed flags
+ *         24     4  free cells left
+ *         28     8  seed
+ * </pre>
+ * <p>
+ *     The header is followed by three bit planes with one bit per cell in the order of the indices
+ *     <i>y * rows + x</i>: the mines, the opened cells and the flagged cells. Each plane is padded to a full byte. The
+ *     numbers of the cells are not stored, because they are counted again from the mines. Therefore, an expert game
+ *     needs 216 bytes.
+ * </p>
+ * <p>
+ *     The codec reads and writes the buffer directly, beginning at its position, and moves the position behind the
+ *     game. The byte order of the buffer is not changed. A game can be decoded into an existing minefield with the same
+ *     size and amount of mines, which doesn't create any objects. A pending first click protection of a seeded game
+ *     continues the numbers of its seed, so the first click moves the mines like in the original game. The first
+ *     click of other games uses the random generator of the thread which performs the first click.
+ * </p>
+ */
+public final class GameCodec {
+
+    /**
+     * The size of the header in bytes.
+     */
+    public static final int HEADER_SIZE = 36;
+    /**
+     * The current version of the format.
+     */
+    public static final byte VERSION = 1;
+    /**
+     * The first four bytes of every game, which are "JMSG".
+     */
+    static final int MAGIC = 0x4A4D5347;
+
+    private static final int VERSION_OFFSET = 4;
+    private static final int TYPE_OFFSET = 5;
+    private static final int FLAGS_OFFSET = 6;
+    private static final int ROWS_OFFSET = 8;
+    private static final int COLUMNS_OFFSET = 12;
+    private static final int MINES_OFFSET = 16;
+    private static final int PLACED_FLAGS_OFFSET = 20;
+    private static final int FREE_CELLS_OFFSET = 24;
+    private static final int SEED_OFFSET = 28;
+
+    /**
+     * The flag of a game which is over.
+     */
+    private static final int GAME_OVER = 1;
+    /**
+     * The flag of a game whose mines are defined by the seed.
+     */
+    private static final int SEEDED = 1 << 1;
+    /**
+     * The flag of a game whose first click is protected after a reset.
+     */
+    private static final int FIRST_CLICK_SAFE = 1 << 2;
+    /**
+     * The flag of a game whose first click is protected, but was not performed yet.
+     */
+    private static final int FIRST_CLICK_PENDING = 1 << 3;
+
+    /**
+     * The codec only has static methods.
+     */
+    private GameCodec() {
+    }
+
+    /**
+     * Returns the amount of bytes of an encoded game with the given size.
+     * @param rows The amount of rows inside the minefield.
+     * @param columns The amount of columns inside the minefield.
+     * @return The amount of bytes.
+     */
+    public static int encodedSize(final int rows, final int columns) {
+        return HEADER_SIZE + 3 * planeSize(rows * columns);
+    }
+
+    /**
+     * Writes the given minefield into the buffer, beginning at the position of the buffer.
+     * @param minefield The minefield, which must have bounds.
+     * @param buffer The buffer, which needs {@link #encodedSize(int, int)} remaining bytes.
+     * @throws IllegalArgumentException If the minefield has no bounds.
+     * @throws BufferOverflowException If the buffer has not enough remaining bytes.
+     */
+    public static void encode(final IMinefield minefield, final ByteBuffer buffer) {
+        if(!(minefield instanceof Board)) throw new IllegalArgumentException("Only minefields with bounds can be encoded!");
+
+        final Board board = (Board) minefield;
+        final int rows = board.getRows();
+        final int columns = board.getColumns();
+        final int cellCount = rows * columns;
+        final int start = buffer.position();
+
+        if(buffer.remaining() < encodedSize(rows, columns)) throw new BufferOverflowException();
+
+        int flags = 0;
+        if(board.gameOver()) flags |= GAME_OVER;
+        if(board.isSeeded()) flags |= SEEDED;
+        if(board.isFirstClickSafe()) flags |= FIRST_CLICK_SAFE;
+        if(board.isFirstClickPending()) flags |= FIRST_CLICK_PENDING;
+
+        putInt(buffer, start, MAGIC);
+        buffer.put(start + VERSION_OFFSET, VERSION);
+        buffer.put(start + TYPE_OFFSET, (byte) board.getMinefieldType().ordinal());
+        buffer.put(start + FLAGS_OFFSET, (byte) flags);
+        buffer.put(start + FLAGS_OFFSET + 1, (byte) 0);
+        putInt(buffer, start + ROWS_OFFSET, rows);
+        putInt(buffer, start + COLUMNS_OFFSET, columns);
+        putInt(buffer, start + MINES_OFFSET, board.getTotalMines());
+        putInt(buffer, start + PLACED_FLAGS_OFFSET, board.getAmountOfFlags());
+        putInt(buffer, start + FREE_CELLS_OFFSET, board.getFreeCellsLeft());
+        putLong(buffer, start + SEED_OFFSET, board.getSeed());
+
+        // Every plane collects eight cells into one byte.
+        final int planeSize = planeSize(cellCount);
+        final int mines = start + HEADER_SIZE;
+        final int opened = mines + planeSize;
+        final int flagged = opened + planeSize;
+
+        for(int i=0; i < planeSize; ++i) {
+            int mineBits = 0;
+            int openBits = 0;
+            int flagBits = 0;
+
+            final int end = Math.min(8 * i + 8, cellCount);
+            for(int index = 8 * i; index < end; ++index) {
+                final int bit = 1 << (index & 7);
+                if(board.containsMine(index)) mineBits |= bit;
+
+                switch (board.getStateCode(index)) {
+                    case UpdateJournal.STATE_OPEN:
+                        openBits |= bit;
+                        break;
+                    case UpdateJournal.STATE_FLAGGED:
+                        flagBits |= bit;
+                        break;
+                    default:
+                        break;
+                }
+            }
+
+            buffer.put(mines + i, (byte) mineBits);
+            buffer.put(opened + i, (byte) openBits);
+            buffer.put(flagged + i, (byte) flagBits);
+        }
+
+        buffer.position(flagged + planeSize);
+    }
+
+    /**
+     * Reads a game from the buffer, beginning at the position of the buffer, and creates a new minefield of the
+     * encoded type.
+     * @param buffer The buffer.
+     * @return The minefield.
+     * @throws IllegalArgumentException If the buffer doesn't contain a game of this format.
+     */
+    public static IMinefield decode(final ByteBuffer buffer) {
+        final int start = buffer.position();
+        validate(buffer, start);
+
+        final int rows = getInt(buffer, start + ROWS_OFFSET);
+        final int columns = getInt(buffer, start + COLUMNS_OFFSET);
+        final int cellCount = rows * columns;
+        final MinefieldType[] types = MinefieldType.values();
+        final int type = buffer.get(start + TYPE_OFFSET);
+        if(type < 0 || type >= types.length) throw new IllegalArgumentException("The minefield type " + type + " is unknown!");
+
+        // The mines are read into the bitset of the placer, so the minefield counts the numbers only once.
+        final long[] mines = new long[(cellCount + 63) >>> 6];
+        final int plane = start + HEADER_SIZE;
+        for(int i=0; i < planeSize(cellCount); ++i) {
+            mines[i >>> 3] |= (mineByte(buffer, plane, i, cellCount) & 0xFFL) << ((i & 7) << 3);
+        }
+        if(MinePlacer.count(mines) != getInt(buffer, start + MINES_OFFSET)) {
+            throw new IllegalArgumentException("The amount of mines doesn't match the header!");
+        }
+
+        final Board board = (Board) GameFactory.create(types[type], rows, columns, mines);
+        restore(buffer, start, board);
+        return board;
+    }
+
+    /**
+     * Reads a game from the buffer, beginning at the position of the buffer, into the given minefield. The minefield
+     * keeps its type and its storage, so no objects are created.
+     * @param buffer The buffer.
+     * @param minefield The minefield, which must have the same size and amount of mines as the encoded game.
+     * @throws IllegalArgumentException If the buffer doesn't contain a game of this format or the game doesn't fit
+     * the minefield.
+     */
+    public static void decode(final ByteBuffer buffer, final IMinefield minefield) {
+        if(!(minefield instanceof Board)) throw new IllegalArgumentException("Only minefields with bounds can be decoded!");
+
+        final Board board = (Board) minefield;
+        final int start = buffer.position();
+        validate(buffer, start);
+
+        if(getInt(buffer, start + ROWS_OFFSET) != board.getRows()
+                || getInt(buffer, start + COLUMNS_OFFSET) != board.getColumns()
+                || getInt(buffer, start + MINES_OFFSET) != board.getTotalMines()) {
+            throw new IllegalArgumentException("The encoded game doesn't fit the minefield!");
+        }
+
+        final int cellCount = board.getRows() * board.getColumns();
+        final int plane = start + HEADER_SIZE;
+
+        // The minefield is only changed, when the encoded game is valid.
+        int count = 0;
+        for(int i=0; i < planeSize(cellCount); ++i) {
+            count += Integer.bitCount(mineByte(buffer, plane, i, cellCount) & 0xFF);
+        }
+        if(count != board.getTotalMines()) throw new IllegalArgumentException("The amount of mines doesn't match the header!");
+
+        board.clearBoard();
+        for(int i=0; i < planeSize(cellCount); ++i) {
+            for(int bits = mineByte(buffer, plane, i, cellCount) & 0xFF; bits != 0; bits &= bits - 1) {
+                board.addMine(8 * i + Integer.numberOfTrailingZeros(bits));
+            }
+        }
+
+        restore(buffer, start, board);
+    }
+
+    /**
+     * Restores the states, the counters and the flags of the game. The mines are already placed and all cells are
+     * undiscovered, so only the opened and the flagged cells are changed.
+     * @param buffer The buffer.
+     * @param start The position of the game inside the buffer.
+     * @param board The minefield.
+     */
+    private static void restore(final ByteBuffer buffer, final int start, final Board board) {
+        final int cellCount = board.getRows() * board.getColumns();
+        final int planeSize = planeSize(cellCount);
+        final int opened = start + HEADER_SIZE + planeSize;
+        final int flagged = opened + planeSize;
+        // The padding bits of the last byte don't belong to a cell.
+        final int last = (cellCount & 7) == 0 ? 0xFF : (1 << (cellCount & 7)) - 1;
+
+        for(int i=0; i < planeSize; ++i) {
+            final int mask = i == planeSize - 1 ? last : 0xFF;
+            final int open = buffer.get(opened + i) & mask;
+
+            for(int bits = open; bits != 0; bits &= bits - 1) {
+                board.setStateCode(8 * i + Integer.numberOfTrailingZeros(bits), UpdateJournal.STATE_OPEN);
+            }
+            for(int bits = buffer.get(flagged + i) & mask & ~open; bits != 0; bits &= bits - 1) {
+                board.setStateCode(8 * i + Integer.numberOfTrailingZeros(bits), UpdateJournal.STATE_FLAGGED);
+            }
+        }
+
+        // The seed is restored first, because the first click protection of a seeded game continues its numbers.
+        final int flags = buffer.get(start + FLAGS_OFFSET);
+        if((flags & SEEDED) != 0) board.setSeed(getLong(buffer, start + SEED_OFFSET));
+        board.restore(getInt(buffer, start + FREE_CELLS_OFFSET), getInt(buffer, start + PLACED_FLAGS_OFFSET),
+                (flags & GAME_OVER) != 0, (flags & FIRST_CLICK_SAFE) != 0, (flags & FIRST_CLICK_PENDING) != 0);
+
+        buffer.position(flagged + planeSize);
+    }
+
+    /**
+     * Checks the magic, the version and the size of the game.
+     * @param buffer The buffer.
+     * @param start The position of the game inside the buffer.
+     * @throws IllegalArgumentException If the buffer doesn't contain a game of this format.
+     */
+    private static void validate(final ByteBuffer buffer, final int start) {
+        if(buffer.remaining() < HEADER_SIZE || getInt(buffer, start) != MAGIC) {
+            throw new IllegalArgumentException("The buffer doesn't contain a game!");
+        }
+        if(buffer.get(start + VERSION_OFFSET) != VERSION) {
+            throw new IllegalArgumentException("The version " + buffer.get(start + VERSION_OFFSET) + " is not supported!");
+        }
+
+        final int rows = getInt(buffer, start + ROWS_OFFSET);
+        final int columns = getInt(buffer, start + COLUMNS_OFFSET);
+        if(rows <= 0 || columns <= 0 || (long) rows * columns > Integer.MAX_VALUE
+                || buffer.remaining() < encodedSize(rows, columns)) {
+            throw new IllegalArgumentException("The size of the game is not valid. rows: " + rows + ", columns: " + columns);
+        }
+    }
+
+    /**
+     * Returns a byte of the mine plane without the padding bits behind the last cell.
+     * @param buffer The buffer.
+     * @param plane The position of the mine plane inside the buffer.
+     * @param i The index of the byte inside the plane.
+     * @param cellCount The amount of cells.
+     * @return The mines of the eight cells of the byte.
+     */
+    private static int mineByte(final ByteBuffer buffer, final int plane, final int i, final int cellCount) {
+        final int bits = buffer.get(plane + i);
+        final int cells = cellCount - 8 * i;
+        return cells >= 8 ? bits : bits & ((1 << cells) - 1);
+    }
+
+    /**
+     * Returns the amount of bytes of a plane.
+     * @param cellCount The amount of cells.
+     * @return The amount of bytes.
+     */
+    private static int planeSize(final int cellCount) {
+        return (cellCount + 7) >>> 3;
+    }
+
+    /**
+     * Writes a big-endian int at the given index, without looking at the byte order of the buffer.
+     */
+    private static void putInt(final ByteBuffer buffer, final int index, final int value) {
+        buffer.putInt(index, buffer.order() == ByteOrder.BIG_ENDIAN ? value : Integer.reverseBytes(value));
+    }
+
+    /**
+     * Writes a big-endian long at the given index, without looking at the byte order of the buffer.
+     */
+    private static void putLong(final ByteBuffer buffer, final int index, final long value) {
+        buffer.putLong(index, buffer.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value));
+    }
+
+    /**
+     * Reads a big-endian int at the given index, without looking at the byte order of the buffer.
+     */
+    private static int getInt(final ByteBuffer buffer, final int index) {
+        return buffer.order() == ByteOrder.BIG_ENDIAN ? buffer.getInt(index) : Integer.reverseBytes(buffer.getInt(index));
+    }
+
+    /**
+     * Reads a big-endian long at the given index, without looking at the byte order of the buffer.
+     */
+    private static long getLong(final ByteBuffer buffer, final int index) {
+        return buffer.order() == ByteOrder.BIG_ENDIAN ? buffer.getLong(index) : Long.reverseBytes(buffer.getLong(index));
+    }
+
+    /**
+     * <p>The view of a minefield with bounds used by the codec. The cells are addressed by their index
+     * <i>y * rows + x</i>.</p>
+     */
+    interface Board extends IMinefield {
+
+        /**
+         * Returns the implementation of the minefield.
+         * @return The minefield type.
+         */
+        MinefieldType getMinefieldType();
+
+        /**
+         * Returns the state code of the cell, look at {@link UpdateJournal}.
+         * @param index The index of the cell.
+         * @return The state code.
+         */
+        byte getStateCode(int index);
+
+        /**
+         * Returns if the cell contains a mine.
+         * @param index The index of the cell.
+         * @return True, if the cell contains a mine. False, otherwise.
+         */
+        boolean containsMine(int index);
+
+        /**
+         * Returns the amount of free cells, which are not opened yet.
+         * @return The amount of free cells.
+         */
+        int getFreeCellsLeft();
+
+        /**
+         * Returns the seed of the mines.
+         * @return The seed or 0, if the mines are not defined by a seed.
+         */
+        long getSeed();
+
+        /**
+         * Returns if the mines are defined by the seed.
+         * @return True, if the mines are defined by {@link #getSeed()}. False, otherwise.
+         */
+        boolean isSeeded();
+
+        /**
+         * Remembers the seed which defined the mines.
+         * @param seed The seed.
+         */
+        void setSeed(long seed);
+
+        /**
+         * Returns if the first click of every game on this minefield is protected.
+         * @return True, if the first click is safe. False, otherwise.
+         */
+        boolean isFirstClickSafe();
+
+        /**
+         * Returns if the first click is protected, but was not performed yet.
+         * @return True, if the first click is still protected. False, otherwise.
+         */
+        boolean isFirstClickPending();
+
+        /**
+         * Removes all mines, sets all cells to undiscovered and forgets the seed. A new minefield is already clear.
+         */
+        void clearBoard();
+
+        /**
+         * Places a mine on the cell and increases the numbers of its neighbours. The cell doesn't contain a mine yet.
+         * @param index The index of the cell.
+         */
+        void addMine(int index);
+
+        /**
+         * Changes the state of the cell.
+         * @param index The index of the cell.
+         * @param state The state code, look at {@link UpdateJournal}.
+         */
+        void setStateCode(int index, byte state);
+
+        /**
+         * Restores the counters and the flags after the mines, the states and the seed were restored. The update list
+         * contains all cells afterwards.
+         * @param freeCellsLeft The amount of free cells, which are not opened yet.
+         * @param placedFlags The amount of flags.
+         * @param gameOver True, if the game is over. False, otherwise.
+         * @param firstClickSafe True, if the first click of every game on this minefield is protected.
+         * @param firstClickPending True, if the first click is protected, but was not performed yet.
+         */
+        void restore(int freeCellsLeft, int placedFlags, boolean gameOver, boolean firstClickSafe, boolean firstClickPending);
+    }
+}
@@ -0,0 +1,209 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+/**
+ * <p>The immutable configuration of the games created by a {@link GameFactory}.</p>
+ * <p>
+ *     A configuration contains the size of the minefield, the percentage of mines, the implementation of the
+ *     minefield and the first click safety. The size and the percentage of mines are clamped to the custom game
+ *     limits of the {@link GameCreator}. Every change creates a new configuration, so a configuration can be shared
+ *     between threads without locking. Two configurations are equal, if they create the same kind of game.
+ * </p>
+ */
+public final class GameConfiguration {
+
+    /**
+     * The configuration of an easy game with the default settings.
+     */
+    public static final GameConfiguration DEFAULT = of(Difficulty.EASY);
+
+    /**
+     * The amount of rows inside the minefield.
+     */
+    private final int rows;
+    /**
+     * The amount of columns inside the minefield.
+     */
+    private final int columns;
+    /**
+     * The percentage of mines inside the minefield.
+     */
+    private final int minesPercent;
+    /**
+     * The implementation of the minefield.
+     */
+    private final MinefieldType type;
+    /**
+     * The flag if the first click is safe.
+     */
+    private final boolean firstClickSafe;
+
+    /**
+     * Custom-Ctor creates a configuration with the given, valid values.
+     * @param rows The amount of rows inside the minefield.
+     * @param columns The amount of columns inside the minefield.
+     * @param minesPercent The percentage of mines inside the minefield.
+     * @param type The implementation of the minefield.
+     * @param firstClickSafe True, if the first click is safe. False, otherwise.
+     */
+    private GameConfiguration(final int rows, final int columns, final int minesPercent, final MinefieldType type,
+                              final boolean firstClickSafe) {
+        assert type != null : "The given minefield type is null!";
+
+        this.rows = rows;
+        this.columns = columns;
+        this.minesPercent = minesPercent;
+        this.type = type;
+        this.firstClickSafe = firstClickSafe;
+    }
+
+    /**
+     * Creates the configuration of a game with the given difficult setting, a {@link MinefieldType#HASH_MAP} minefield
+     * and without a safe first click.
+     * @param difficulty The difficult setting.
+     * @return The configuration.
+     */
+    public static GameConfiguration of(final Difficulty difficulty) {
+        return of(difficulty.getRows(), difficulty.getColumns(), difficulty.getMinesPercent());
+    }
+
+    /**
+     * Creates the configuration of a custom game, a {@link MinefieldType#HASH_MAP} minefield and without a safe first
+     * click. If the properties are not valid, the method will clamp the given values.
+     * @param rows The amount of rows the minefield should have.
+     * @param columns The amount of columns the minefield should have.
+     * @param minesPercent The percentage of mines inside the minefield.
+     * @return The configuration.
+     */
+    public static GameConfiguration of(final int rows, final int columns, final int minesPercent) {
+        return new GameConfiguration(
+                ensureRange(rows, GameCreator.MIN_ROWS, GameCreator.MAX_ROWS),
+                ensureRange(columns, GameCreator.MIN_COLUMNS, GameCreator.MAX_COLUMNS),
+                ensureRange(minesPercent, GameCreator.MIN_MINES_PERCENT, GameCreator.MAX_MINES_PERCENT),
+                MinefieldType.HASH_MAP, false);
+    }
+
+    /**
+     * Returns a configuration with the given difficult setting and the other values of this configuration.
+     * @param difficulty The difficult setting.
+     * @return The new configuration.
+     */
+    public GameConfiguration withGame(final Difficulty difficulty) {
+        return withGame(difficulty.getRows(), difficulty.getColumns(), difficulty.getMinesPercent());
+    }
+
+    /**
+     * Returns a configuration with the given custom game and the other values of this configuration. If the
+     * properties are not valid, the method will clamp the given values.
+     * @param rows The amount of rows the minefield should have.
+     * @param columns The amount of columns the minefield should have.
+     * @param minesPercent The percentage of mines inside the minefield.
+     * @return The new configuration.
+     */
+    public GameConfiguration withGame(final int rows, final int columns, final int minesPercent) {
+        final GameConfiguration game = of(rows, columns, minesPercent);
+        return new GameConfiguration(game.rows, game.columns, game.minesPercent, this.type, this.firstClickSafe);
+    }
+
+    /**
+     * Returns a configuration with the given implementation of the minefield and the other values of this
+     * configuration.
+     * @param type The implementation of the minefield.
+     * @return The new configuration.
+     */
+    public GameConfiguration withMinefieldType(final MinefieldType type) {
+        return new GameConfiguration(this.rows, this.columns, this.minesPercent, type, this.firstClickSafe);
+    }
+
+    /**
+     * Returns a configuration with the given first click safety and the other values of this configuration.
+     * @param firstClickSafe True, if the first click should be safe. False, otherwise.
+     * @return The new configuration.
+     */
+    public GameConfiguration withFirstClickSafe(final boolean firstClickSafe) {
+        return new GameConfiguration(this.rows, this.columns, this.minesPercent, this.type, firstClickSafe);
+    }
+
+    /**
+     * Returns the amount of rows inside the minefield.
+     * @return The amount of rows.
+     */
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Returns the amount of columns inside the minefield.
+     * @return The amount of columns.
+     */
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * Returns the percentage of mines inside the minefield.
+     * @return The percentage of mines.
+     */
+    public int getMinesPercent() {
+        return this.minesPercent;
+    }
+
+    /**
+     * Returns the amount of mines inside the minefield.
+     * @return The amount of mines.
+     */
+    public int getTotalMines() {
+        return this.rows * this.columns * this.minesPercent / 100;
+    }
+
+    /**
+     * Returns the implementation of the minefield.
+     * @return The minefield type.
+     */
+    public MinefieldType getMinefieldType() {
+        return this.type;
+    }
+
+    /**
+     * Returns if the first click is safe, look at {@link GameCreator#setFirstClickSafe(boolean)}.
+     * @return True, if the first click is safe. False, otherwise.
+     */
+    public boolean isFirstClickSafe() {
+        return this.firstClickSafe;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if(this == obj) return true;
+        if(!(obj instanceof GameConfiguration)) return false;
+
+        final GameConfiguration other = (GameConfiguration) obj;
+        return this.rows == other.rows && this.columns == other.columns && this.minesPercent == other.minesPercent
+                && this.type == other.type && this.firstClickSafe == other.firstClickSafe;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = this.rows;
+        hash = 31 * hash + this.columns;
+        hash = 31 * hash + this.minesPercent;
+        hash = 31 * hash + this.type.hashCode();
+        return 31 * hash + (this.firstClickSafe ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return "GameConfiguration [Rows: " + this.rows + ", Columns: " + this.columns + ", Mines: " + this.minesPercent
+                + "%, Type: " + this.type + ", First click safe: " + this.firstClickSafe + "]";
+    }
+
+    /**
+     * Ensure that the value is within the given range.
+     * @param value The value which will be checked.
+     * @param min The minimum the value can take.
+     * @param max The maximum the value can take.
+     * @return Value, if within range. Min, if the value is below min. Max, if the value is above max.
+     */
+    private static int ensureRange(final int value, final int min, final int max) {
+        return Math.min(Math.max(value, min), max);
+    }
+}
@@ -1,7 +1,11 @@
 package de.jscholz.jminesweeper.minesweeper;
 
-import java.util.function.Consumer;
-import java.util.function.Supplier;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A simple Static-Factory-Pattern which creates a minesweeper game.
@@ -22,6 +26,24 @@ import java.util.function.Supplier;
  * <li>The largest minefield you can create has the width 30 and height 24.</li>
  * <li>the maximum percentage of mines is 93%.</li>
  * </ul>
+ * <p>
+ * Games which are larger than the custom game limits can be created with {@link #createLargeGame(int, int, int)}.
+ * A game without any bounds can be created with {@link #createEndlessGame(long, int)}.
+ * A game which can be created again from a seed is created with {@link #createSeededGame(int, int, int, long)}.
+ * A game which can be cleared without a guess is created with {@link #createNoGuessGame(Difficulty)}.
+ * </p>
+ * <p>
+ * With {@link #enableBoardPool(int, int, int)} the games of {@link #createGame()} are created in the background.
+ * </p>
+ * <p>
+ * The settings of the game creator are stored in one immutable {@link GameConfiguration}, which is replaced
+ * atomically by every setter. Therefore, a game is always created with a consistent configuration, even if other
+ * threads change the settings at the same time. Threads which need their own settings should use their own
+ * {@link GameFactory}, the static methods are a facade of a factory with the current configuration.
+ * </p>
+ * <p>
+ * With {@link #setFirstClickSafe(boolean)} the first click of every created game never hits a mine.
+ * </p>
  */
 public final class GameCreator {
 
@@ -55,58 +77,234 @@ public final class GameCreator {
      */
     public static final int MAX_MINES_PERCENT = 93;
 
-    private static Supplier<IMinefield> currentGame;
-    private static Supplier<IMinefield> createEasyGame;
-    private static Supplier<IMinefield> createExperiencedGame;
-    private static Supplier<IMinefield> createExpertGame;
-    private static Supplier<IMinefield> createCustomGame;
-    private static int rows;
-    private static int columns;
-    private static int mines;
+    /**
+     * The maximum amount of rows allowed for a large game.
+     */
+    public static final int MAX_LARGE_ROWS = 40000;
 
-    static {
+    /**
+     * The maximum amount of columns allowed for a large game.
+     */
+    public static final int MAX_LARGE_COLUMNS = 40000;
 
-        GameCreator.rows = MIN_ROWS;
-        GameCreator.columns = MIN_COLUMNS;
-        GameCreator.mines = MIN_MINES_PERCENT;
+    /**
+     * The generator of the games, which can be cleared without a guess. It uses the common pool.
+     */
+    private static final NoGuessGenerator NO_GUESS_GENERATOR = new NoGuessGenerator();
 
-        GameCreator.createEasyGame = () -> { return createBeginnerGame(); };
-        GameCreator.createExperiencedGame = () -> { return createExperiencedGame(); };
-        GameCreator.createExpertGame = () -> { return createExpertGame(); };
-        GameCreator.createCustomGame = () -> {
+    /**
+     * The maximum amount of board pools. The pool of the configuration, which was not used for the longest time, is
+     * closed when another pool is needed.
+     */
+    static final int MAX_BOARD_POOLS = 4;
 
-            return new Minefield(GameCreator.rows, GameCreator.columns, GameCreator.mines);
-        };
+    /**
+     * The board pools of the recently used configurations in the order of their last use. The map is guarded by
+     * itself.
+     */
+    private static final LinkedHashMap<GameConfiguration, BoardPool> POOLS =
+            new LinkedHashMap<GameConfiguration, BoardPool>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<GameConfiguration, BoardPool> eldest) {
+                    if(size() <= MAX_BOARD_POOLS) return false;
 
-        GameCreator.currentGame = GameCreator.createEasyGame;
-    }
+                    eldest.getValue().close();
+                    return true;
+                }
+            };
 
-    public static void setGame(final int width, final int height, final int minesPercent) {
-        GameCreator.rows = ensureRange(width, MIN_ROWS, MAX_ROWS);
-        GameCreator.columns = ensureRange(height, MIN_COLUMNS, MAX_COLUMNS);
-        GameCreator.mines = ensureRange(minesPercent, MIN_MINES_PERCENT, MAX_MINES_PERCENT);
+    /**
+     * The current configuration of the games. It is replaced by every setter.
+     */
+    private static final AtomicReference<GameConfiguration> CONFIGURATION = new AtomicReference<>(GameConfiguration.DEFAULT);
 
-        GameCreator.currentGame = createCustomGame;
+    /**
+     * The producers of all board pools or null, if the pools are disabled. The producers and the watermarks are
+     * guarded by the pools.
+     */
+    private static ExecutorService producers;
+    private static int lowWatermark;
+    private static int highWatermark;
+
+    /**
+     * Sets the custom game of the current configuration. If the properties are not valid, the method will clamp the
+     * given values.
+     * @param width The amount of rows the minefield should have.
+     * @param height The amount of columns the minefield should have.
+     * @param minesPercent The percentage of mines inside the minefield.
+     */
+    public static void setGame(final int width, final int height, final int minesPercent) {
+        CONFIGURATION.updateAndGet((final GameConfiguration c) -> c.withGame(width, height, minesPercent));
     }
 
+    /**
+     * Sets the difficult setting of the current configuration.
+     * @param difficulty The difficult setting.
+     */
     public static void setGame(final Difficulty difficulty) {
+        assert difficulty != null : "The given difficulty is null!";
 
-        switch (difficulty) {
-            case EASY:
-                GameCreator.currentGame = GameCreator.createEasyGame;
-                break;
-            case EXPERIENCED:
-                GameCreator.currentGame = GameCreator.createExperiencedGame;
-                break;
-            case EXPERT:
-                GameCreator.currentGame = GameCreator.createExpertGame;
-                break;
-        }
+        CONFIGURATION.updateAndGet((final GameConfiguration c) -> c.withGame(difficulty));
+    }
+
+    /**
+     * Sets the implementation of the minefield which will be created by the game creator.
+     * @param type The implementation of the minefield.
+     */
+    public static void setMinefieldType(final MinefieldType type) {
+        assert type != null : "The given minefield type is null!";
+
+        CONFIGURATION.updateAndGet((final GameConfiguration c) -> c.withMinefieldType(type));
+    }
 
+    /**
+     * <p>Sets if the first click of the created games is safe. The option is off by default.</p>
+     * <p>
+     *     The first single click or double click on an undiscovered cell of a safe game never hits a mine. The mines
+     *     of the clicked cell and its moore-neighbourhood are moved to random free cells, before the cell is opened,
+     *     so the click opens an empty area. Only the moved mines and their neighbours are updated, therefore the
+     *     protection costs the same on every minefield, even with 93 percent of mines. If a minefield has less free
+     *     cells than the neighbourhood, only the clicked cell is cleared.
+     * </p>
+     * <p>Note: Endless games are not protected.</p>
+     * @param firstClickSafe True, if the first click should be safe. False, otherwise.
+     */
+    public static void setFirstClickSafe(final boolean firstClickSafe) {
+        CONFIGURATION.updateAndGet((final GameConfiguration c) -> c.withFirstClickSafe(firstClickSafe));
+    }
+
+    /**
+     * Returns if the first click of the created games is safe.
+     * @return True, if the first click is safe. False, otherwise.
+     */
+    public static boolean isFirstClickSafe() {
+        return CONFIGURATION.get().isFirstClickSafe();
     }
 
+    /**
+     * Sets the current configuration of the games.
+     * @param configuration The configuration.
+     */
+    public static void setConfiguration(final GameConfiguration configuration) {
+        assert configuration != null : "The given configuration is null!";
+
+        CONFIGURATION.set(configuration);
+    }
+
+    /**
+     * Returns the current configuration of the games.
+     * @return The configuration, which doesn't change anymore.
+     */
+    public static GameConfiguration getConfiguration() {
+        return CONFIGURATION.get();
+    }
+
+    /**
+     * Returns a factory with the current configuration. The factory doesn't change, when the settings of the game
+     * creator are changed afterwards.
+     * @return The factory.
+     */
+    public static GameFactory getFactory() {
+        return new GameFactory(CONFIGURATION.get());
+    }
+
+    /**
+     * Creates a game with the current configuration.
+     * @return A minesweeper game.
+     */
     public static IMinefield createGame() {
-        return GameCreator.currentGame.get();
+        final GameConfiguration configuration = CONFIGURATION.get();
+
+        final BoardPool pool = getBoardPool(configuration);
+        if(pool != null) return pool.take();
+
+        return GameFactory.create(configuration);
+    }
+
+    /**
+     * <p>Enables the board pools. Afterwards {@link #createGame()} takes the games from a pool of the current
+     * configuration, instead of creating them on the calling thread.</p>
+     * <p>
+     *     Every configuration gets its own pool, when a game of the configuration is created for the first time. A
+     *     pool is refilled by the producer threads up to the high watermark, when it holds no more games than the low
+     *     watermark. If a pool is empty, the game is created on the calling thread. Look at {@link BoardPool}.
+     * </p>
+     * <p>
+     *     At most {@link #MAX_BOARD_POOLS} pools are kept. The pool of the configuration, which was not used for the
+     *     longest time, is closed and its producer stops, so the custom settings of the past don't keep the producers
+     *     busy.
+     * </p>
+     * <p>The pools which were enabled before are closed.</p>
+     * @param lowWatermark A pool is refilled, when it holds no more games than this watermark.
+     * @param highWatermark A pool is refilled up to this watermark.
+     * @param producers The amount of producer threads, which are shared by all pools.
+     */
+    public static synchronized void enableBoardPool(final int lowWatermark, final int highWatermark, final int producers) {
+        assert lowWatermark >= 0 && lowWatermark < highWatermark : "The watermarks are not valid. low: " + lowWatermark + ", high: " + highWatermark;
+        assert producers > 0 : "The amount of producers " + producers + " is not positive!";
+
+        disableBoardPool();
+
+        final AtomicInteger threads = new AtomicInteger();
+        synchronized (POOLS) {
+            GameCreator.lowWatermark = lowWatermark;
+            GameCreator.highWatermark = highWatermark;
+            GameCreator.producers = Executors.newFixedThreadPool(producers, (final Runnable runnable) -> {
+                final Thread thread = new Thread(runnable, "board-producer-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        // The pool of the current configuration starts to fill right now.
+        getBoardPool();
+    }
+
+    /**
+     * Disables the board pools. The pools are closed and the producer threads are stopped.
+     */
+    public static synchronized void disableBoardPool() {
+        // The producers are removed together with the pools, so no pool of the stopped producers can be created.
+        synchronized (POOLS) {
+            if(GameCreator.producers == null) return;
+
+            for(final BoardPool pool : POOLS.values()) {
+                pool.close();
+            }
+            POOLS.clear();
+
+            GameCreator.producers.shutdownNow();
+            GameCreator.producers = null;
+        }
+    }
+
+    /**
+     * Returns the board pool of the current configuration, which provides the hit rate and the refill latency.
+     * @return The board pool or null, if the board pools are disabled.
+     */
+    public static BoardPool getBoardPool() {
+        return getBoardPool(CONFIGURATION.get());
+    }
+
+    /**
+     * Returns the board pool of the given configuration. A closed pool is replaced, because its producer doesn't
+     * refill it anymore. A new pool may close the least recently used pool.
+     * @param configuration The configuration of the games inside the pool.
+     * @return The board pool or null, if the board pools are disabled.
+     */
+    private static BoardPool getBoardPool(final GameConfiguration configuration) {
+        synchronized (POOLS) {
+            final ExecutorService producers = GameCreator.producers;
+            if(producers == null) return null;
+
+            final BoardPool pool = POOLS.get(configuration);
+            if(pool != null && !pool.isClosed()) return pool;
+
+            final BoardPool created = new BoardPool(() -> GameFactory.create(configuration), GameCreator.lowWatermark,
+                    GameCreator.highWatermark, producers);
+            POOLS.put(configuration, created);
+            return created;
+        }
     }
 
     /**
@@ -115,7 +313,7 @@ public final class GameCreator {
      */
     @Deprecated
     public static IMinefield createBeginnerGame() {
-        return new Minefield(Difficulty.EASY);
+        return createMinefield(Difficulty.EASY);
     }
 
     /**
@@ -124,7 +322,7 @@ public final class GameCreator {
      */
     @Deprecated
     public static IMinefield createExperiencedGame() {
-        return new Minefield(Difficulty.EXPERIENCED);
+        return createMinefield(Difficulty.EXPERIENCED);
     }
 
     /**
@@ -133,7 +331,7 @@ public final class GameCreator {
      */
     @Deprecated
     public static IMinefield createExpertGame() {
-        return new Minefield(Difficulty.EXPERT);
+        return createMinefield(Difficulty.EXPERT);
     }
 
     /**
@@ -146,12 +344,107 @@ public final class GameCreator {
      * @return A custom minesweeper game.
      */
     @Deprecated
-    public static IMinefield createCustomGame(int rows, int columns, int minesPercent) {
-        rows = ensureRange(rows, MIN_ROWS, MAX_ROWS);
-        columns = ensureRange(columns, MIN_COLUMNS, MAX_COLUMNS);
+    public static IMinefield createCustomGame(final int rows, final int columns, final int minesPercent) {
+        return GameFactory.create(CONFIGURATION.get().withGame(rows, columns, minesPercent));
+    }
+
+    /**
+     * <p>Creates a custom game whose mines are defined by the given seed. If the properties are not valid, the method
+     * will clamp the given values.</p>
+     * <p>
+     *     The same properties and the same seed always create the same minefield, on every JVM, on every platform and
+     *     for every minefield type. The mines are chosen with the algorithm of Floyd from the indices
+     *     <i>y * rows + x</i> of the cells, the random numbers are created by SplitMix64 with the seed as the initial
+     *     state. Both algorithms are fixed, so a seed can be shared for replays, challenges or bug reports.
+     * </p>
+     * <p>
+     *     If the first click is safe, the mines of the first click are moved with the following random numbers of the
+     *     seed. Therefore, the same seed and the same first click create the same minefield as well.
+     * </p>
+     *
+     * @param rows The amount of rows the minefield should have.
+     * @param columns The amount of columns the minefield should have.
+     * @param minesPercent The percentage of mines inside the minefield.
+     * @param seed The seed which defines the position of the mines.
+     * @return A seeded minesweeper game.
+     */
+    public static IMinefield createSeededGame(final int rows, final int columns, final int minesPercent, final long seed) {
+        return GameFactory.create(CONFIGURATION.get().withGame(rows, columns, minesPercent), seed);
+    }
+
+    /**
+     * <p>Creates a game with the given difficult setting, which can be cleared by logic alone.</p>
+     * <p>
+     *     The first click is already performed by the generator, because the game can only be cleared without a
+     *     guess from this cell. The candidates are created on all cores, look at {@link NoGuessGenerator}. The game
+     *     has the minefield type of the current configuration.
+     * </p>
+     *
+     * @param difficulty The difficult setting of the game.
+     * @return A minesweeper game without guesses.
+     */
+    public static IMinefield createNoGuessGame(final Difficulty difficulty) {
+        return NO_GUESS_GENERATOR.generate(difficulty, 1, CONFIGURATION.get().getMinefieldType()).get(0);
+    }
+
+    /**
+     * Returns the generator of the games without guesses, which provides the metrics of every difficulty.
+     * @return The generator used by {@link #createNoGuessGame(Difficulty)}.
+     */
+    public static NoGuessGenerator getNoGuessGenerator() {
+        return NO_GUESS_GENERATOR;
+    }
+
+    /**
+     * Creates the minefield with the given difficult setting and the current configuration.
+     * @param setting The difficult setting for the minefield.
+     * @return The minefield.
+     */
+    private static IMinefield createMinefield(final Difficulty setting) {
+        return GameFactory.create(CONFIGURATION.get().withGame(setting));
+    }
+
+    /**
+     * <p>Creates a large game with the given properties. If the properties are not valid, the method will clamp the
+     * given values. The rows and the columns can be up to {@link #MAX_LARGE_ROWS} and {@link #MAX_LARGE_COLUMNS}. The
+     * index of every cell still fits into an int.</p>
+     * <p>
+     *     A large game always stores the cells as bitboards. A cell needs 3 bits inside the minefield and 2 more bits
+     *     for the update list and the opening of empty areas. The minefield is created in linear time.
+     * </p>
+     * <p>Note: Don't use {@link IMinefield#getFieldForVisualization()} on large games, because it creates an object
+     * for every cell. Use {@link IMinefield#getSnapshot()} instead.</p>
+     *
+     * @param rows The amount of rows the minefield should have.
+     * @param columns The amount of columns the minefield should have.
+     * @param minesPercent The percentage of mines inside the minefield.
+     * @return A large minesweeper game.
+     */
+    public static IMinefield createLargeGame(int rows, int columns, int minesPercent) {
+        rows = ensureRange(rows, MIN_ROWS, MAX_LARGE_ROWS);
+        columns = ensureRange(columns, MIN_COLUMNS, MAX_LARGE_COLUMNS);
         minesPercent = ensureRange(minesPercent, MIN_MINES_PERCENT, MAX_MINES_PERCENT);
 
-        return new Minefield(rows, columns, minesPercent);
+        return GameFactory.protectFirstClick(new BitboardMinefield(rows, columns, minesPercent),
+                CONFIGURATION.get().isFirstClickSafe(), GameFactory::random);
+    }
+
+    /**
+     * <p>Creates an endless game with the given properties. If the percentage of mines is not valid, the method will
+     * clamp the given value.</p>
+     * <p>
+     *     Every position is inside the minefield. The mines are derived from the seed and the position, so the same
+     *     seed always creates the same minefield. The memory of the game only depends on the explored area.
+     * </p>
+     * <p>Note: The game can't be cleared. {@link IMinefield#getRows()} and {@link IMinefield#getColumns()} return
+     * Integer.MAX_VALUE and {@link IMinefield#getTotalMines()} returns the mines inside the explored area.</p>
+     *
+     * @param seed The seed which defines the position of the mines.
+     * @param minesPercent The percentage of mines inside the minefield.
+     * @return An endless minesweeper game.
+     */
+    public static IMinefield createEndlessGame(final long seed, final int minesPercent) {
+        return new EndlessMinefield(seed, ensureRange(minesPercent, MIN_MINES_PERCENT, MAX_MINES_PERCENT));
     }
 
     /**
@@ -0,0 +1,177 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * <p>Creates minesweeper games with a fixed {@link GameConfiguration}.</p>
+ * <p>
+ *     The factory has no mutable state, so one factory can be shared by any amount of threads without locking and
+ *     every thread gets games of the configuration of the factory. Threads which need different games use different
+ *     factories. The random numbers of each game are drawn from the random generator of the creating thread.
+ * </p>
+ * <p>The static methods of the {@link GameCreator} are a facade of a factory with the current configuration.</p>
+ */
+public final class GameFactory {
+
+    /**
+     * The configuration of the created games.
+     */
+    private final GameConfiguration configuration;
+
+    /**
+     * Custom-Ctor creates a factory with the given configuration.
+     * @param configuration The configuration of the created games.
+     */
+    public GameFactory(final GameConfiguration configuration) {
+        assert configuration != null : "The configuration is null!";
+
+        this.configuration = configuration;
+    }
+
+    /**
+     * Returns the configuration of the created games.
+     * @return The configuration.
+     */
+    public GameConfiguration getConfiguration() {
+        return this.configuration;
+    }
+
+    /**
+     * Returns a factory with the given configuration.
+     * @param configuration The configuration of the created games.
+     * @return This factory, if the configuration is equal. A new factory, otherwise.
+     */
+    public GameFactory withConfiguration(final GameConfiguration configuration) {
+        return this.configuration.equals(configuration) ? this : new GameFactory(configuration);
+    }
+
+    /**
+     * Creates a new game with the configuration of this factory.
+     * @return A minesweeper game.
+     */
+    public IMinefield createGame() {
+        return create(this.configuration);
+    }
+
+    /**
+     * Creates a new game with the configuration of this factory, whose mines are defined by the given seed. Look at
+     * {@link GameCreator#createSeededGame(int, int, int, long)}.
+     * @param seed The seed which defines the position of the mines.
+     * @return A seeded minesweeper game.
+     */
+    public IMinefield createSeededGame(final long seed) {
+        return create(this.configuration, seed);
+    }
+
+    /**
+     * Creates the minefield with the given configuration.
+     * @param configuration The configuration of the minefield.
+     * @return The minefield.
+     */
+    static IMinefield create(final GameConfiguration configuration) {
+        final int rows = configuration.getRows();
+        final int columns = configuration.getColumns();
+        final int minesPercent = configuration.getMinesPercent();
+        final boolean firstClickSafe = configuration.isFirstClickSafe();
+
+        switch (configuration.getMinefieldType()) {
+            case ARRAY:
+                return protectFirstClick(new ArrayMinefield(rows, columns, minesPercent), firstClickSafe, GameFactory::random);
+            case BITBOARD:
+                return protectFirstClick(new BitboardMinefield(rows, columns, minesPercent), firstClickSafe, GameFactory::random);
+            default:
+                return protectFirstClick(new Minefield(rows, columns, minesPercent), firstClickSafe, GameFactory::random);
+        }
+    }
+
+    /**
+     * Creates the minefield with the given configuration, whose mines are defined by the given seed. If the first
+     * click is safe, the mines of the first click are moved with the following random numbers of the seed.
+     * @param configuration The configuration of the minefield.
+     * @param seed The seed which defines the position of the mines.
+     * @return The minefield.
+     */
+    static IMinefield create(final GameConfiguration configuration, final long seed) {
+        final int rows = configuration.getRows();
+        final int columns = configuration.getColumns();
+        final boolean firstClickSafe = configuration.isFirstClickSafe();
+        final SeededRandom random = new SeededRandom(seed);
+        final long[] mines = MinePlacer.sample(rows * columns, configuration.getTotalMines(), random::nextInt);
+
+        switch (configuration.getMinefieldType()) {
+            case ARRAY:
+                return protectFirstClick(seeded(new ArrayMinefield(rows, columns, mines), seed), firstClickSafe, random::nextInt);
+            case BITBOARD:
+                return protectFirstClick(seeded(new BitboardMinefield(rows, columns, mines), seed), firstClickSafe, random::nextInt);
+            default:
+                return protectFirstClick(seeded(new Minefield(rows, columns, mines), seed), firstClickSafe, random::nextInt);
+        }
+    }
+
+    /**
+     * Creates the minefield with the given mines. The first click is not protected.
+     * @param type The implementation of the minefield.
+     * @param rows The amount of rows the minefield should have.
+     * @param columns The amount of columns the minefield should have.
+     * @param mines The bitset of the mines, where the bit of a cell is its index.
+     * @return The minefield.
+     */
+    static IMinefield create(final MinefieldType type, final int rows, final int columns, final long[] mines) {
+        switch (type) {
+            case ARRAY:
+                return new ArrayMinefield(rows, columns, mines);
+            case BITBOARD:
+                return new BitboardMinefield(rows, columns, mines);
+            default:
+                return new Minefield(rows, columns, mines);
+        }
+    }
+
+    /**
+     * Remembers the seed which defined the mines of the given minefield.
+     * @param minefield The created minefield.
+     * @param seed The seed.
+     * @param <T> The type of the minefield.
+     * @return The given minefield.
+     */
+    private static <T extends GameCodec.Board> T seeded(final T minefield, final long seed) {
+        minefield.setSeed(seed);
+        return minefield;
+    }
+
+    /**
+     * Protects the first click of the given minefield, if the first click should be safe.
+     * @param minefield The created minefield.
+     * @param firstClickSafe True, if the first click should be safe. False, otherwise.
+     * @param random The random numbers which move the mines of the first click.
+     * @return The given minefield.
+     */
+    static IMinefield protectFirstClick(final IndexedMinefield minefield, final boolean firstClickSafe,
+                                        final IntUnaryOperator random) {
+        if(firstClickSafe) minefield.protectFirstClick(random);
+        return minefield;
+    }
+
+    /**
+     * Protects the first click of the given minefield, if the first click should be safe.
+     * @param minefield The created minefield.
+     * @param firstClickSafe True, if the first click should be safe. False, otherwise.
+     * @param random The random numbers which move the mines of the first click.
+     * @return The given minefield.
+     */
+    static IMinefield protectFirstClick(final Minefield minefield, final boolean firstClickSafe,
+                                        final IntUnaryOperator random) {
+        if(firstClickSafe) minefield.protectFirstClick(random);
+        return minefield;
+    }
+
+    /**
+     * Returns a random number from the random generator of the thread, which performs the first click. The game may be
+     * created and played by different threads.
+     * @param bound The bound, which is not part of the numbers.
+     * @return The random number.
+     */
+    static int random(final int bound) {
+        return MinePlacer.random().nextInt(bound);
+    }
+}
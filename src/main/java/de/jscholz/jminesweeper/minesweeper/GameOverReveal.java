@@ -0,0 +1,188 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import java.util.NoSuchElementException;
+import java.util.function.LongConsumer;
+
+/**
+ * <p>The cells which are revealed, when the game is over. The cells are divided into three categories: the mines, the
+ * flags on cells without a mine and the remaining undiscovered cells.</p>
+ * <p>
+ *     The reveal is a lazy view of the minefield. Nothing is copied when the game ends. The cells of a category are
+ *     only searched, when the category is counted or iterated. Therefore, a client can stream or page through the
+ *     cells it needs instead of receiving the whole minefield at once.
+ * </p>
+ * <p>The positions are packed, look at {@link ICellPosition#pack(int, int)}.</p>
+ */
+public final class GameOverReveal {
+
+    /**
+     * The categories of the revealed cells.
+     */
+    public enum Category {
+        /**
+         * The cells which contain a mine, no matter if they are flagged or not.
+         */
+        MINE,
+        /**
+         * The flagged cells which don't contain a mine.
+         */
+        WRONG_FLAG,
+        /**
+         * The undiscovered cells which don't contain a mine.
+         */
+        REMAINING
+    }
+
+    /**
+     * The minefield which provides the categories of the cells.
+     */
+    private final Source source;
+    /**
+     * The amount of cells which can be revealed.
+     */
+    private final int cellCount;
+    /**
+     * The amount of cells of each category or -1, if the category was not counted yet.
+     */
+    private final int[] counts;
+
+    /**
+     * Custom-Ctor creates the reveal of a minefield.
+     * @param cellCount The amount of cells which can be revealed.
+     * @param source The minefield which provides the categories of the cells.
+     */
+    GameOverReveal(final int cellCount, final Source source) {
+        assert cellCount >= 0 : "The amount of cells is negativ!";
+        assert source != null : "The source is null!";
+
+        this.cellCount = cellCount;
+        this.source = source;
+        this.counts = new int[] { -1, -1, -1 };
+    }
+
+    /**
+     * Returns the amount of cells of the given category. The cells are counted at the first call.
+     * @param category The category.
+     * @return The amount of cells.
+     */
+    public int count(final Category category) {
+        if(this.counts[category.ordinal()] < 0) {
+            int count = 0;
+            for(int i=0; i < this.cellCount; ++i) {
+                if(this.source.getCategory(i) == category) ++count;
+            }
+
+            this.counts[category.ordinal()] = count;
+        }
+
+        return this.counts[category.ordinal()];
+    }
+
+    /**
+     * Returns a new cursor over the cells of the given category.
+     * @param category The category.
+     * @return The cursor, which is placed before the first cell.
+     */
+    public Cursor cursor(final Category category) {
+        return new Cursor(category);
+    }
+
+    /**
+     * Calls the consumer with the packed position of every cell of the given category.
+     * @param category The category.
+     * @param consumer The consumer.
+     */
+    public void forEach(final Category category, final LongConsumer consumer) {
+        for(int i=0; i < this.cellCount; ++i) {
+            if(this.source.getCategory(i) == category) consumer.accept(this.source.getPosition(i));
+        }
+    }
+
+    /**
+     * <p>A cursor over the cells of one category. The cursor only searches as far as the cells are requested.</p>
+     */
+    public final class Cursor {
+
+        /**
+         * The category of the cells.
+         */
+        private final Category category;
+        /**
+         * The number of the next cell which is checked.
+         */
+        private int next;
+
+        /**
+         * Custom-Ctor creates a cursor before the first cell of the category.
+         * @param category The category.
+         */
+        private Cursor(final Category category) {
+            this.category = category;
+            this.next = 0;
+            skip();
+        }
+
+        /**
+         * Returns if there is another cell.
+         * @return True, if there is another cell. False, otherwise.
+         */
+        public boolean hasNext() {
+            return this.next < cellCount;
+        }
+
+        /**
+         * Returns the packed position of the next cell.
+         * @return The packed position.
+         * @throws NoSuchElementException If there is no other cell.
+         */
+        public long next() {
+            if(!hasNext()) throw new NoSuchElementException();
+
+            final long position = source.getPosition(this.next++);
+            skip();
+            return position;
+        }
+
+        /**
+         * Writes the packed positions of the next cells into the given page.
+         * @param page The page.
+         * @return The amount of positions written, which is smaller than the size of the page only at the end.
+         */
+        public int next(final long[] page) {
+            int size = 0;
+            while (size < page.length && hasNext()) {
+                page[size++] = next();
+            }
+
+            return size;
+        }
+
+        /**
+         * Moves to the next cell of the category.
+         */
+        private void skip() {
+            while (this.next < cellCount && source.getCategory(this.next) != this.category) {
+                ++this.next;
+            }
+        }
+    }
+
+    /**
+     * The minefield which provides the categories of the cells. The cells are numbered from 0 to the amount of cells.
+     */
+    interface Source {
+        /**
+         * Returns the category of the cell with the given number.
+         * @param i The number of the cell.
+         * @return The category or null, if the cell is not revealed.
+         */
+        Category getCategory(final int i);
+
+        /**
+         * Returns the packed position of the cell with the given number.
+         * @param i The number of the cell.
+         * @return The packed position.
+         */
+        long getPosition(final int i);
+    }
+}
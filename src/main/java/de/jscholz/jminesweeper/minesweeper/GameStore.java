@@ -0,0 +1,553 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * <p>A store of suspended games inside a memory-mapped file.</p>
+ * <p>
+ *     The file contains a header and a fixed amount of slots with the same size. A slot holds one game in the format
+ *     of the {@link GameCodec}, so suspending and resuming a game copies a few hundred bytes between the minefield and
+ *     the mapped memory instead of building the minefield on the heap again. A game can be resumed into an existing
+ *     minefield, which doesn't create any objects.
+ * </p>
+ * <p>
+ *     Every slot starts with a header, which contains the generation of the slot, the length and the CRC32 of the
+ *     game and the CRC32 of the header itself. The header is written after the game, therefore a slot with a torn
+ *     write is detected by its checksums. When the store is opened, all slots are checked and slots without a valid
+ *     header or game become free. A game is never returned with a wrong checksum.
+ * </p>
+ * <p>
+ *     The id of a game contains the generation and the index of its slot. The generation increases every time the
+ *     slot is used for a new game, so the id of a removed game doesn't find the next game of the slot. Free slots are
+ *     kept on a stack. The slots are locked in stripes, so games in different stripes are suspended and resumed at the
+ *     same time.
+ * </p>
+ */
+public final class GameStore implements Closeable {
+
+    /**
+     * The first four bytes of the file, which are "JMST".
+     */
+    private static final int MAGIC = 0x4A4D5354;
+    /**
+     * The version of the file format.
+     */
+    private static final int VERSION = 1;
+    /**
+     * The size of the file header in bytes.
+     */
+    static final int FILE_HEADER_SIZE = 64;
+    /**
+     * The size of the slot header in bytes.
+     */
+    static final int SLOT_HEADER_SIZE = 24;
+    /**
+     * The marker of a slot which contains a game, which is "JMSU".
+     */
+    private static final int USED = 0x4A4D5355;
+    /**
+     * The marker of a free slot.
+     */
+    private static final int FREE = 0;
+    /**
+     * The maximum size of a mapped segment. The file is mapped in segments, because a single mapping is limited to 2 GB.
+     */
+    private static final int MAX_SEGMENT_SIZE = 1 << 30;
+    /**
+     * The amount of lock stripes, which is a power of two.
+     */
+    private static final int STRIPES = 64;
+
+    private static final int SLOT_MARKER = 0;
+    private static final int SLOT_GENERATION = 4;
+    private static final int SLOT_LENGTH = 8;
+    private static final int SLOT_GAME_CRC = 12;
+    private static final int SLOT_HEADER_CRC = 16;
+
+    /**
+     * The channel of the file.
+     */
+    private final FileChannel channel;
+    /**
+     * The mapped segments of the slots.
+     */
+    private final MappedByteBuffer[] segments;
+    /**
+     * The views of the segments and the checksum of each thread. A view has its own position, so threads don't
+     * share the position of a segment.
+     */
+    private final ThreadLocal<Views> views;
+    /**
+     * The locks of the slots.
+     */
+    private final Object[] locks;
+    /**
+     * The size of a slot in bytes.
+     */
+    private final int slotSize;
+    /**
+     * The amount of slots.
+     */
+    private final int capacity;
+    /**
+     * The amount of slots per segment.
+     */
+    private final int slotsPerSegment;
+    /**
+     * The stack of the free slots.
+     */
+    private final int[] free;
+    /**
+     * The amount of free slots on the stack.
+     */
+    private int freeCount;
+    /**
+     * The flag if the store was closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Creates or opens a store, look at {@link #open(Path, int, int, int)}.
+     */
+    private GameStore(final FileChannel channel, final int capacity, final int slotSize) throws IOException {
+        this.channel = channel;
+        this.capacity = capacity;
+        this.slotSize = slotSize;
+        this.slotsPerSegment = Math.max(1, MAX_SEGMENT_SIZE / slotSize);
+        this.segments = new MappedByteBuffer[(capacity + this.slotsPerSegment - 1) / this.slotsPerSegment];
+
+        for(int i=0; i < this.segments.length; ++i) {
+            final int slots = Math.min(this.slotsPerSegment, capacity - i * this.slotsPerSegment);
+            final long position = FILE_HEADER_SIZE + (long) i * this.slotsPerSegment * slotSize;
+            this.segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, (long) slots * slotSize);
+        }
+
+        this.views = ThreadLocal.withInitial(() -> new Views(this.segments));
+        this.locks = new Object[STRIPES];
+        for(int i=0; i < this.locks.length; ++i) {
+            this.locks[i] = new Object();
+        }
+        this.free = new int[capacity];
+    }
+
+    /**
+     * <p>Opens the store inside the given file. A new file is created with the given amount of slots, where each slot
+     * fits a game with the given size. An existing file keeps its slots and its games, the slots with a torn write
+     * become free.</p>
+     * @param file The file of the store.
+     * @param capacity The amount of slots of a new file.
+     * @param rows The maximum amount of rows of a game.
+     * @param columns The maximum amount of columns of a game.
+     * @return The store.
+     * @throws IOException If the file can't be opened or doesn't contain a store of the given slot size.
+     */
+    public static GameStore open(final Path file, final int capacity, final int rows, final int columns) throws IOException {
+        assert capacity > 0 : "The capacity " + capacity + " is not positive!";
+
+        // Every slot starts at a multiple of eight bytes.
+        final int slotSize = (SLOT_HEADER_SIZE + GameCodec.encodedSize(rows, columns) + 7) & ~7;
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+
+        try {
+            final ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+            final GameStore store;
+
+            if(channel.size() == 0) {
+                header.putInt(MAGIC).putInt(VERSION).putInt(slotSize).putInt(capacity).flip();
+                channel.write(header, 0);
+                channel.truncate(FILE_HEADER_SIZE + (long) capacity * slotSize);
+                // The size is reserved by writing the last byte, the slots contain zeros and are free.
+                channel.write(ByteBuffer.allocate(1), FILE_HEADER_SIZE + (long) capacity * slotSize - 1);
+
+                store = new GameStore(channel, capacity, slotSize);
+            } else {
+                channel.read(header, 0);
+                header.flip();
+                if(header.remaining() < 16 || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                    throw new IOException("The file " + file + " doesn't contain a game store!");
+                }
+
+                final int storedSlotSize = header.getInt();
+                final int storedCapacity = header.getInt();
+                if(storedSlotSize < slotSize || storedCapacity <= 0
+                        || channel.size() < FILE_HEADER_SIZE + (long) storedCapacity * storedSlotSize) {
+                    throw new IOException("The game store " + file + " doesn't fit games with " + rows + " rows and " + columns + " columns!");
+                }
+
+                store = new GameStore(channel, storedCapacity, storedSlotSize);
+            }
+
+            store.recover();
+            return store;
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the given game into a free slot.
+     * @param game The game, which must have bounds and fit into a slot.
+     * @return The id of the game.
+     * @throws IllegalStateException If there is no free slot or the store was closed.
+     * @throws IllegalArgumentException If the game has no bounds or doesn't fit into a slot.
+     */
+    public long suspend(final IMinefield game) {
+        ensureFits(game);
+
+        final int slot = takeFreeSlot();
+        if(slot < 0) throw new IllegalStateException("The game store is full!");
+
+        synchronized (lock(slot)) {
+            final ByteBuffer segment = segment(slot);
+            final int base = offset(slot);
+            final int generation = segment.getInt(base + SLOT_GENERATION) + 1;
+
+            write(slot, generation, game);
+            return id(generation, slot);
+        }
+    }
+
+    /**
+     * Overwrites the game with the given id.
+     * @param id The id of the game.
+     * @param game The game, which must have bounds and fit into a slot.
+     * @return True, if the game was written. False, if the store doesn't contain a game with the id.
+     * @throws IllegalArgumentException If the game has no bounds or doesn't fit into a slot.
+     */
+    public boolean suspend(final long id, final IMinefield game) {
+        ensureFits(game);
+
+        final int slot = slot(id);
+        if(slot < 0) return false;
+
+        synchronized (lock(slot)) {
+            final ByteBuffer segment = segment(slot);
+            final int base = offset(slot);
+            if(!contains(segment, base, generation(id))) return false;
+
+            write(slot, generation(id), game);
+            return true;
+        }
+    }
+
+    /**
+     * Reads the game with the given id into a new minefield. The game stays inside the store.
+     * @param id The id of the game.
+     * @return The minefield or null, if the store doesn't contain a valid game with the id.
+     */
+    public IMinefield resume(final long id) {
+        final int slot = slot(id);
+        if(slot < 0) return null;
+
+        synchronized (lock(slot)) {
+            final ByteBuffer game = game(slot, generation(id));
+            return game != null ? GameCodec.decode(game) : null;
+        }
+    }
+
+    /**
+     * Reads the game with the given id into the given minefield, which doesn't create any objects. The game stays
+     * inside the store.
+     * @param id The id of the game.
+     * @param minefield The minefield, which must have the same size and amount of mines as the game.
+     * @return True, if the game was read. False, if the store doesn't contain a valid game with the id.
+     * @throws IllegalArgumentException If the game doesn't fit the minefield.
+     */
+    public boolean resume(final long id, final IMinefield minefield) {
+        final int slot = slot(id);
+        if(slot < 0) return false;
+
+        synchronized (lock(slot)) {
+            final ByteBuffer game = game(slot, generation(id));
+            if(game == null) return false;
+
+            GameCodec.decode(game, minefield);
+            return true;
+        }
+    }
+
+    /**
+     * Removes the game with the given id and frees its slot.
+     * @param id The id of the game.
+     * @return True, if the game was removed. False, if the store doesn't contain a game with the id.
+     */
+    public boolean remove(final long id) {
+        final int slot = slot(id);
+        if(slot < 0) return false;
+
+        synchronized (lock(slot)) {
+            final ByteBuffer segment = segment(slot);
+            final int base = offset(slot);
+            if(!contains(segment, base, generation(id))) return false;
+
+            // The generation is kept, so the next game of the slot gets a new id.
+            writeHeader(segment, base, FREE, generation(id), 0, 0);
+        }
+
+        putFreeSlot(slot);
+        return true;
+    }
+
+    /**
+     * Returns the amount of games inside the store.
+     * @return The amount of used slots.
+     */
+    public synchronized int size() {
+        return this.capacity - this.freeCount;
+    }
+
+    /**
+     * Returns the amount of slots.
+     * @return The maximum amount of games.
+     */
+    public int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Returns the size of a slot in bytes.
+     * @return The size of a slot.
+     */
+    public int getSlotSize() {
+        return this.slotSize;
+    }
+
+    /**
+     * Writes the changed slots to the storage device.
+     */
+    public void flush() {
+        for(final MappedByteBuffer segment : this.segments) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Writes the changed slots to the storage device and closes the file. The mapped memory is released by the garbage
+     * collector.
+     * @throws IOException If the file can't be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if(this.closed) return;
+
+        this.closed = true;
+        flush();
+        this.channel.close();
+    }
+
+    /**
+     * Checks all slots and pushes the free slots and the slots with a torn write on the stack of free slots.
+     */
+    private void recover() {
+        // The stack is filled from the last slot, so the first slot is taken first.
+        for(int slot = this.capacity - 1; slot >= 0; --slot) {
+            final ByteBuffer segment = segment(slot);
+            final int base = offset(slot);
+
+            if(segment.getInt(base + SLOT_MARKER) == USED && isValid(slot)) continue;
+
+            // The generation is kept, even if the header is torn, so the ids of lost games don't come back soon.
+            writeHeader(segment, base, FREE, segment.getInt(base + SLOT_GENERATION), 0, 0);
+            this.free[this.freeCount++] = slot;
+        }
+    }
+
+    /**
+     * Writes the game into the slot. The game is written before the header, so a torn write doesn't leave a valid
+     * header with a broken game.
+     */
+    private void write(final int slot, final int generation, final IMinefield game) {
+        final Views views = this.views.get();
+        final ByteBuffer segment = segment(slot);
+        final ByteBuffer view = views.segments[slot / this.slotsPerSegment];
+        final int base = offset(slot);
+        final int start = base + SLOT_HEADER_SIZE;
+
+        // The marker is removed first, so a crash during the write never leaves the old header with a new game.
+        segment.putInt(base + SLOT_MARKER, FREE);
+
+        view.limit(base + this.slotSize).position(start);
+        GameCodec.encode(game, view);
+        final int length = view.position() - start;
+
+        writeHeader(segment, base, USED, generation, length, crc(views, view, start, length));
+    }
+
+    /**
+     * Returns a view of the game inside the slot, if the slot contains a valid game of the generation.
+     * @return The view, whose position is the start of the game, or null.
+     */
+    private ByteBuffer game(final int slot, final int generation) {
+        final ByteBuffer segment = segment(slot);
+        final int base = offset(slot);
+        if(!contains(segment, base, generation) || !isValid(slot)) return null;
+
+        final ByteBuffer view = this.views.get().segments[slot / this.slotsPerSegment];
+        view.limit(base + this.slotSize).position(base + SLOT_HEADER_SIZE);
+        return view;
+    }
+
+    /**
+     * Returns if the slot contains a game of the given generation. The checksums are not checked.
+     */
+    private static boolean contains(final ByteBuffer segment, final int base, final int generation) {
+        return segment.getInt(base + SLOT_MARKER) == USED && segment.getInt(base + SLOT_GENERATION) == generation;
+    }
+
+    /**
+     * Returns if the header and the game of the slot have valid checksums.
+     */
+    private boolean isValid(final int slot) {
+        final ByteBuffer segment = segment(slot);
+        final int base = offset(slot);
+        if(headerCrc(segment, base) != segment.getInt(base + SLOT_HEADER_CRC)) return false;
+
+        final int length = segment.getInt(base + SLOT_LENGTH);
+        if(length <= 0 || length > this.slotSize - SLOT_HEADER_SIZE) return false;
+
+        final Views views = this.views.get();
+        final ByteBuffer view = views.segments[slot / this.slotsPerSegment];
+        return crc(views, view, base + SLOT_HEADER_SIZE, length) == segment.getInt(base + SLOT_GAME_CRC);
+    }
+
+    /**
+     * Writes the header of a slot. The checksum of the header is written last.
+     */
+    private static void writeHeader(final ByteBuffer segment, final int base, final int marker, final int generation,
+                                    final int length, final int gameCrc) {
+        segment.putInt(base + SLOT_GENERATION, generation);
+        segment.putInt(base + SLOT_LENGTH, length);
+        segment.putInt(base + SLOT_GAME_CRC, gameCrc);
+        segment.putInt(base + SLOT_MARKER, marker);
+        segment.putInt(base + SLOT_HEADER_CRC, headerCrc(segment, base));
+    }
+
+    /**
+     * Returns the checksum of the first four values of the slot header. The checksum of the header is small, so it is
+     * calculated without a CRC32 object.
+     */
+    private static int headerCrc(final ByteBuffer segment, final int base) {
+        int crc = 0xFFFFFFFF;
+        for(int i = base; i < base + SLOT_HEADER_CRC; ++i) {
+            crc ^= segment.get(i) & 0xFF;
+            for(int bit=0; bit < 8; ++bit) {
+                crc = (crc >>> 1) ^ (0xEDB88320 & -(crc & 1));
+            }
+        }
+        return ~crc;
+    }
+
+    /**
+     * Returns the CRC32 of the given bytes of the view.
+     */
+    private static int crc(final Views views, final ByteBuffer view, final int start, final int length) {
+        final int limit = view.limit();
+        final int position = view.position();
+
+        views.crc.reset();
+        view.limit(start + length).position(start);
+        views.crc.update(view);
+        view.limit(limit).position(position);
+
+        return (int) views.crc.getValue();
+    }
+
+    /**
+     * Checks that the given game fits into a slot.
+     */
+    private void ensureFits(final IMinefield game) {
+        if(this.closed) throw new IllegalStateException("The game store is closed!");
+        if(!(game instanceof GameCodec.Board)) throw new IllegalArgumentException("Only minefields with bounds can be suspended!");
+        if(SLOT_HEADER_SIZE + GameCodec.encodedSize(game.getRows(), game.getColumns()) > this.slotSize) {
+            throw new IllegalArgumentException("The game doesn't fit into a slot of " + this.slotSize + " bytes!");
+        }
+    }
+
+    /**
+     * Takes a slot from the stack of free slots.
+     * @return The slot or -1, if there is no free slot.
+     */
+    private synchronized int takeFreeSlot() {
+        return this.freeCount == 0 ? -1 : this.free[--this.freeCount];
+    }
+
+    /**
+     * Puts the slot on the stack of free slots.
+     */
+    private synchronized void putFreeSlot(final int slot) {
+        assert this.freeCount < this.capacity : "The stack of free slots is full!";
+        this.free[this.freeCount++] = slot;
+    }
+
+    /**
+     * Returns the id of the game with the given generation inside the given slot.
+     */
+    private static long id(final int generation, final int slot) {
+        return ((long) generation << 32) | slot;
+    }
+
+    /**
+     * Returns the slot of the id or -1, if the id doesn't belong to a slot.
+     */
+    private int slot(final long id) {
+        if(this.closed) throw new IllegalStateException("The game store is closed!");
+
+        final int slot = (int) id;
+        return slot >= 0 && slot < this.capacity && generation(id) != 0 ? slot : -1;
+    }
+
+    /**
+     * Returns the generation of the id.
+     */
+    private static int generation(final long id) {
+        return (int) (id >>> 32);
+    }
+
+    private Object lock(final int slot) {
+        return this.locks[slot & (STRIPES - 1)];
+    }
+
+    private ByteBuffer segment(final int slot) {
+        return this.segments[slot / this.slotsPerSegment];
+    }
+
+    private int offset(final int slot) {
+        return (slot % this.slotsPerSegment) * this.slotSize;
+    }
+
+    /**
+     * <p>The views of the segments and the checksum of one thread.</p>
+     */
+    private static final class Views {
+
+        /**
+         * The duplicates of the segments with their own position and limit.
+         */
+        private final ByteBuffer[] segments;
+        /**
+         * The checksum of the games.
+         */
+        private final CRC32 crc;
+
+        /**
+         * Custom-Ctor creates the views of the given segments.
+         * @param segments The mapped segments.
+         */
+        Views(final MappedByteBuffer[] segments) {
+            this.segments = new ByteBuffer[segments.length];
+            for(int i=0; i < segments.length; ++i) {
+                this.segments[i] = segments[i].duplicate();
+            }
+            this.crc = new CRC32();
+        }
+    }
+}
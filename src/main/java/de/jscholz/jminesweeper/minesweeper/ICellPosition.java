@@ -30,4 +30,44 @@ public interface ICellPosition extends Comparable<ICellPosition> {
      */
     boolean compare(final int x, final int y);
 
+    /**
+     * <p>Returns the position with the given values.</p>
+     * <p>The positions are flyweights. Positions of small minefields are created only once and shared by all
+     * minefields, so you should use this method instead of creating new positions.</p>
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     * @return The position.
+     */
+    static ICellPosition valueOf(final int x, final int y) {
+        return CellPosition.valueOf(x, y);
+    }
+
+    /**
+     * Packs the given values into a long, which can be used by the click methods of the {@link IMinefield} without
+     * creating a position. The x value is stored inside the upper 32 bits and the y value inside the lower 32 bits.
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     * @return The packed position.
+     */
+    static long pack(final int x, final int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns the x value of a packed position.
+     * @param position The packed position.
+     * @return The value of x.
+     */
+    static int unpackX(final long position) {
+        return (int) (position >> 32);
+    }
+
+    /**
+     * Returns the y value of a packed position.
+     * @param position The packed position.
+     * @return The value of y.
+     */
+    static int unpackY(final long position) {
+        return (int) position;
+    }
 }
@@ -10,8 +10,6 @@ public interface IMinefield {
 
     //TODO Create a sorted visualization field.
     //TODO Double Click method
-    //TODO Restart game method
-    //TODO https://stackoverflow.com/questions/1738128/minesweeper-solving-algorithm
 
     /**
      * Flags the cell at the given position or removes the flag from the cell.
@@ -42,9 +40,19 @@ public interface IMinefield {
      */
     OpenReturn secondaryClick(final int x, final int y);
 
+    /**
+     * Flags the cell at the given packed position or removes the flag from the cell.
+     * @param position The packed position of the cell, look at {@link ICellPosition#pack(int, int)}.
+     * @return The same values as {@link #secondaryClick(int, int)}.
+     */
+    default OpenReturn secondaryClick(final long position) {
+        return secondaryClick(ICellPosition.unpackX(position), ICellPosition.unpackY(position));
+    }
+
     /**
      * Returns a map with all the existing cell positions and empty cells.
-     * Note: The map is sorted by the cell positions, where the first entry is x:0,y:0.
+     * Note: The map is sorted by the cell positions, where the first entry is x:0,y:0. The map is a copy of the
+     * minefield, a renderer should use {@link #getSnapshot()} instead.
      * @return A minefield for the visualization.
      */
     Map<ICellPosition, ICell> getFieldForVisualization();
@@ -55,6 +63,35 @@ public interface IMinefield {
      */
     Set<ICell> getUpdateCells();
 
+    /**
+     * Returns the journal of the cells, which where opened or flagged in the last call. The journal contains the same
+     * cells as {@link #getUpdateCells()}, but it can be read without creating any objects. The journal is reused by
+     * every call. A minefield which only provides {@link #getUpdateCells()} returns null.
+     * @return The journal of the last call or null, if the minefield has no journal.
+     */
+    default UpdateJournal getUpdateJournal() {
+        return null;
+    }
+
+    /**
+     * Returns the cells which are revealed, because the game is over. The reveal is a lazy view of the minefield,
+     * which can be streamed or paged. The update list still contains all cells, when the game is over. A minefield
+     * which only provides {@link #getUpdateCells()} returns null.
+     * @return The reveal or null, if the game is not over or the minefield has no reveal.
+     */
+    default GameOverReveal getGameOverReveal() {
+        return null;
+    }
+
+    /**
+     * Returns the read-only view of the minefield, which can tell the cells changed since a version. The snapshot is
+     * created once and shows always the current minefield. The solvers only solve minefields with a snapshot.
+     * @return The snapshot or null, if the minefield has no bounds or provides no snapshot.
+     */
+    default FieldSnapshot getSnapshot() {
+        return null;
+    }
+
     /**
      * Validates the given minefield position.
      * @param position a given minefield position
@@ -62,6 +99,17 @@ public interface IMinefield {
      */
     boolean validatePosition(final ICellPosition position);
 
+    /**
+     * Validates the given minefield position without creating a position. The default implementation creates the
+     * position and calls {@link #validatePosition(ICellPosition)}.
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     * @return True, if the position is inside the minefield. False, otherwise.
+     */
+    default boolean validatePosition(final int x, final int y) {
+        return validatePosition(ICellPosition.valueOf(x, y));
+    }
+
     /**
      * Returns if the game is over.
      * @return True, if the game is over. False, otherwise.
@@ -85,6 +133,15 @@ public interface IMinefield {
      */
     OpenReturn singleClick(final int x, final int y);
 
+    /**
+     * Opens a cell in the field at the given packed position.
+     * @param position The packed position of the cell, look at {@link ICellPosition#pack(int, int)}.
+     * @return The same values as {@link #singleClick(int, int)}.
+     */
+    default OpenReturn singleClick(final long position) {
+        return singleClick(ICellPosition.unpackX(position), ICellPosition.unpackY(position));
+    }
+
     /**
      * Opens a cell in the field at the given position.
      *
@@ -118,6 +175,15 @@ public interface IMinefield {
      */
     OpenReturn doubleClick(final int x, final int y);
 
+    /**
+     * Opens a cell in the field at the given packed position and the moore-neighbourhood.
+     * @param position The packed position of the cell, look at {@link ICellPosition#pack(int, int)}.
+     * @return The same values as {@link #doubleClick(int, int)}.
+     */
+    default OpenReturn doubleClick(final long position) {
+        return doubleClick(ICellPosition.unpackX(position), ICellPosition.unpackY(position));
+    }
+
     /**
      * Opens a cell in the field at the given position and the moore-neighbourhood.
      *
@@ -134,6 +200,23 @@ public interface IMinefield {
      */
     OpenReturn doubleClick(final ICellPosition position);
 
+    /**
+     * <p>Starts a new game on this minefield, where the mines are defined by the given seed.</p>
+     * <p>
+     *     The states of all cells, the flags and the counters are reset and the new mines are placed into the existing
+     *     storage of the minefield. Therefore, a session which plays many games in a row doesn't create a new minefield
+     *     for every game. The new game has the same size and amount of mines. A minefield with bounds gets the same
+     *     mines as {@link GameCreator#createSeededGame(int, int, int, long)} with the same seed. If the first click of
+     *     the minefield was protected, the first click of the new game is protected as well.
+     * </p>
+     * <p>
+     *     The update list contains all cells after the reset, because every cell may have changed. An endless
+     *     minefield only adds the explored cells of the old game.
+     * </p>
+     * @param seed The seed which defines the position of the mines.
+     */
+    void reset(final long seed);
+
     /**
      * Returns the total amount of mines inside the minefield.
      * @return The amount of mines.
@@ -0,0 +1,92 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+/**
+ * <p>A set view of the cells inside an {@link UpdateJournal}. It is used by the minefields with bounds, where each
+ * cell is identified by the index <i>y * rows + x</i>.</p>
+ * <p>
+ *     The set doesn't store any cells. The membership is answered by the bitset of the journal and the cells are
+ *     created by the given factory when the set is iterated. Therefore, the set doesn't depend on the hashcode of
+ *     the cells.
+ * </p>
+ */
+class IndexCellSet extends AbstractSet<ICell> {
+
+    /**
+     * The journal which contains the cells.
+     */
+    private final UpdateJournal journal;
+    /**
+     * Creates the cell for a given index, when the set is iterated.
+     */
+    private final IntFunction<ICell> cellFactory;
+    /**
+     * Resolves the index of a given cell or returns -1, if the cell is not part of the minefield.
+     */
+    private final CellIndexer indexer;
+
+    /**
+     * Custom-Ctor creates a set view of the given journal.
+     * @param journal The journal which contains the cells.
+     * @param cellFactory Creates the cell for a given index.
+     * @param indexer Resolves the index of a given cell.
+     */
+    IndexCellSet(final UpdateJournal journal, final IntFunction<ICell> cellFactory, final CellIndexer indexer) {
+        assert journal != null : "The journal is null!";
+        assert cellFactory != null : "The cell factory is null!";
+        assert indexer != null : "The indexer is null!";
+
+        this.journal = journal;
+        this.cellFactory = cellFactory;
+        this.indexer = indexer;
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        if(!(o instanceof ICell)) return false;
+
+        final int index = this.indexer.indexOf((ICell) o);
+        return index >= 0 && this.journal.containsIndex(index);
+    }
+
+    @Override
+    public int size() {
+        return this.journal.size();
+    }
+
+    @Override
+    public Iterator<ICell> iterator() {
+        return new Iterator<ICell>() {
+
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return this.next < journal.size();
+            }
+
+            @Override
+            public ICell next() {
+                if(!hasNext()) throw new NoSuchElementException();
+
+                return cellFactory.apply(journal.getIndex(this.next++));
+            }
+        };
+    }
+
+    /**
+     * Resolves the index of a cell inside the minefield.
+     */
+    interface CellIndexer {
+        /**
+         * Returns the index of the given cell.
+         * @param cell The cell.
+         * @return The index of the cell or -1, if the cell is not part of the minefield.
+         */
+        int indexOf(final ICell cell);
+    }
+}
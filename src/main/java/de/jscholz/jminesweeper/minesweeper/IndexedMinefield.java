@@ -0,0 +1,879 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import java.util.*;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * <p>The base class of all minefields which don't store the cells as objects.</p>
+ * <p>
+ *     The cells are stored row by row. The cell at the position (x, y) has the index <i>y * rows + x</i>. The
+ *     neighbours of a cell are calculated with the index instead of being stored inside each cell. Therefore, the
+ *     single click, double click and secondary click don't allocate any objects.
+ * </p>
+ * <p>
+ *     The subclasses only decide how the state of the cells and the mines are stored. The game handling behaves
+ *     exactly like the {@link Minefield}.
+ * </p>
+ */
+abstract class IndexedMinefield implements IMinefield, GameCodec.Board {
+
+    /**
+     * The state code of an opened cell.
+     */
+    static final byte OPEN = UpdateJournal.STATE_OPEN;
+    /**
+     * The state code of an undiscovered cell.
+     */
+    static final byte UNDISCOVERED = UpdateJournal.STATE_UNDISCOVERED;
+    /**
+     * The state code of a flagged cell.
+     */
+    static final byte FLAGGED = UpdateJournal.STATE_FLAGGED;
+    /**
+     * The click code of the single click.
+     */
+    private static final int CLICK_SINGLE = 0;
+    /**
+     * The click code of the double click.
+     */
+    private static final int CLICK_DOUBLE = 1;
+    /**
+     * The click code of the secondary click.
+     */
+    private static final int CLICK_SECONDARY = 2;
+    /**
+     * Maps the state codes to the cell states.
+     */
+    private static final CellState[] STATES = { CellState.OPEN, CellState.UNDISCOVERED, CellState.FLAGGED };
+    /**
+     * Maps the amount of mines in the moore-neighbourhood to the cell content.
+     */
+    private static final CellContent[] NUMBERS = {
+            CellContent.EMPTY, CellContent.ONE, CellContent.TWO, CellContent.THREE, CellContent.FOUR,
+            CellContent.FIVE, CellContent.SIX, CellContent.SEVEN, CellContent.EIGHT
+    };
+
+    /**
+     * This journal will contain all cells which where updated in the last single click, double click or secondary click.
+     */
+    private final UpdateJournal journal;
+    /**
+     * The set view of the journal.
+     */
+    private final IndexCellSet updatedCells;
+    /**
+     * The read-only view of the minefield, which gets a new version after every click.
+     */
+    private final FieldSnapshot snapshot;
+    /**
+     * The flood fill which is used to open the neighbours of empty cells.
+     */
+    private final FloodFill floodFill;
+    /**
+     * The view of this minefield used by the flood fill and the chord.
+     */
+    private final Chord.Grid grid;
+    /**
+     * The chord which is used by the double click.
+     */
+    private final Chord chord;
+    /**
+     * The total amount of mines within the minefield.
+     */
+    private final int totalAmountOfMines;
+    /**
+     * The amount of rows inside the minefield.
+     */
+    final int rows;
+    /**
+     * The amount of columns inside the minefield.
+     */
+    final int columns;
+    /**
+     * The amount of cells inside the minefield.
+     */
+    final int cellCount;
+    /**
+     * The amount of free cells inside the minefield.
+     */
+    private int freeCellsLeft;
+    /**
+     * The amount of flags inside the minefield.
+     */
+    private int placedFlags;
+    /**
+     * The flag if the game is already over.
+     */
+    private boolean isGameOver;
+    /**
+     * The cells which are revealed or null, if the game is not over.
+     */
+    private GameOverReveal reveal;
+    /**
+     * The random numbers used to move the mines out of the first click or null, if the first click is not protected
+     * or was already performed.
+     */
+    private IntUnaryOperator firstClickRandom;
+    /**
+     * The flag if the first click of every game on this minefield is protected.
+     */
+    private boolean firstClickSafe;
+    /**
+     * The random generator of the seeded games started by {@link #reset(long)} or null, if the minefield was never reset.
+     */
+    private SeededRandom resetRandom;
+    /**
+     * The random numbers of the reset random generator.
+     */
+    private IntUnaryOperator resetNumbers;
+    /**
+     * The bitset of the mines placed by {@link #reset(long)} or null, if the minefield was never reset.
+     */
+    private long[] resetMines;
+    /**
+     * The seed which defined the mines or 0, if the mines are not defined by a seed.
+     */
+    private long seed;
+    /**
+     * The flag if the mines are defined by the seed.
+     */
+    private boolean seeded;
+
+    /**
+     * Creates an empty minefield. The subclass has to place the mines by calling {@link #placeMines(long[])}, after
+     * the storage of the cells was created.
+     * @param rows The rows of the field.
+     * @param columns The columns of the field.
+     * @param totalAmountOfMines The amount of mines which will be placed.
+     */
+    IndexedMinefield(final int rows, final int columns, final int totalAmountOfMines) {
+
+        /*
+         * The game aspect that the given values are valid because only the factory pattern can instanciate a minefield.
+         * The indexed minefields are also used for large games, therefore only the index has to fit into an int.
+         */
+        assert rows > 0 && columns > 0 : "the minefield has no cells. rows: " + rows + ", columns: " + columns;
+        assert (long) rows * columns <= Integer.MAX_VALUE : "the minefield has too many cells. rows: " + rows + ", columns: " + columns;
+
+        this.rows = rows;
+        this.columns = columns;
+        this.cellCount = rows * columns;
+        this.totalAmountOfMines = totalAmountOfMines;
+        this.freeCellsLeft = this.cellCount - this.totalAmountOfMines;
+        this.placedFlags = 0;
+        this.isGameOver = false;
+
+        this.floodFill = new FloodFill(rows, columns);
+        this.chord = new Chord(rows, columns);
+        this.grid = new Chord.Grid() {
+            @Override
+            public boolean canOpen(final int index) {
+                return getState(index) == UNDISCOVERED;
+            }
+
+            @Override
+            public boolean isEmpty(final int index) {
+                return getMinesInNeighbourhood(index) == 0;
+            }
+
+            @Override
+            public boolean isFlagged(final int index) {
+                return getState(index) == FLAGGED;
+            }
+
+            @Override
+            public boolean isMine(final int index) {
+                return IndexedMinefield.this.isMine(index);
+            }
+        };
+        final UpdateJournal.Source source = new UpdateJournal.Source() {
+            @Override
+            public byte getStateCode(final int x, final int y) {
+                return getState(y * rows + x);
+            }
+
+            @Override
+            public byte getContentCode(final int x, final int y) {
+                final int index = y * rows + x;
+                if(getState(index) != OPEN && !isGameOver) return UpdateJournal.CONTENT_UNKNOWN;
+
+                return isMine(index) ? UpdateJournal.CONTENT_MINE : (byte) getMinesInNeighbourhood(index);
+            }
+        };
+        this.journal = new UpdateJournal(rows, columns, source);
+        this.snapshot = new FieldSnapshot(rows, columns, this.journal, source);
+        this.updatedCells = new IndexCellSet(this.journal, IndexedCell::new, this::indexOf);
+    }
+
+    /**
+     * Returns if the cell with the given index contains a mine.
+     * @param index The index of the cell.
+     * @return True, if the cell contains a mine. False, otherwise.
+     */
+    abstract boolean isMine(final int index);
+
+    /**
+     * Returns the amount of mines in the moore-neighbourhood of the cell with the given index. The cell itself must
+     * not contain a mine.
+     * @param index The index of the cell.
+     * @return The amount of mines in the moore-neighbourhood.
+     */
+    abstract int getMinesInNeighbourhood(final int index);
+
+    /**
+     * Returns the state code of the cell with the given index.
+     * @param index The index of the cell.
+     * @return The state code: {@link #OPEN}, {@link #UNDISCOVERED} or {@link #FLAGGED}.
+     */
+    abstract byte getState(final int index);
+
+    /**
+     * Changes the state code of the cell with the given index.
+     * @param index The index of the cell.
+     * @param state The state code: {@link #OPEN}, {@link #UNDISCOVERED} or {@link #FLAGGED}.
+     */
+    abstract void setState(final int index, final byte state);
+
+    /**
+     * Removes all mines and sets all cells to undiscovered.
+     */
+    abstract void clearCells();
+
+    /**
+     * Marks the cell with the given index as mine. The cell doesn't contain a mine yet.
+     * @param index The index of the cell.
+     */
+    abstract void markAsMine(final int index);
+
+    /**
+     * Removes the mine of the cell with the given index. The cell contains a mine.
+     * @param index The index of the cell.
+     */
+    abstract void unmarkMine(final int index);
+
+    /**
+     * Protects the first single click or double click on an undiscovered cell. The mines of the clicked cell and its
+     * moore-neighbourhood are moved away, before the cell is opened. Look at
+     * {@link MinePlacer#clearFirstClick(int, int, int, int, IntUnaryOperator, MinePlacer.Mines)}.
+     * @param random Returns a random number from 0 to the given bound, which chooses the new cells of the mines.
+     */
+    void protectFirstClick(final IntUnaryOperator random) {
+        assert random != null : "The random numbers are null!";
+
+        this.firstClickRandom = random;
+        this.firstClickSafe = true;
+    }
+
+    @Override
+    public void reset(final long seed) {
+        startResetRandom(seed);
+        clearCells();
+        MinePlacer.sample(this.cellCount, this.totalAmountOfMines, this.resetNumbers, this.resetMines);
+        setMines(this.resetMines);
+        setSeed(seed);
+
+        this.freeCellsLeft = this.cellCount - this.totalAmountOfMines;
+        this.placedFlags = 0;
+        this.isGameOver = false;
+        this.reveal = null;
+        // Like a seeded game, the mines of the first click are moved with the following numbers of the seed.
+        this.firstClickRandom = this.firstClickSafe ? this.resetNumbers : null;
+
+        // Every cell may have changed, so the renderer has to draw the whole minefield.
+        this.journal.clear();
+        this.journal.fill();
+        this.snapshot.commit();
+    }
+
+    /**
+     * Starts the random generator of the seeded games with the given seed. The generator, its numbers and the bitset
+     * are created by the first call and reused by every further call.
+     * @param seed The seed.
+     */
+    private void startResetRandom(final long seed) {
+        if(this.resetRandom == null) {
+            this.resetRandom = new SeededRandom(seed);
+            this.resetNumbers = this.resetRandom::nextInt;
+            this.resetMines = new long[(int) ((this.cellCount + 63L) >>> 6)];
+        } else {
+            this.resetRandom.setSeed(seed);
+        }
+    }
+
+    /**
+     * Returns the random numbers of a restored first click protection. The numbers of a seeded game continue behind
+     * the numbers which placed the mines, like the numbers of a new seeded game, so the first click moves the mines to
+     * the same cells as in the original game. Other games use the random generator of the thread which performs the
+     * first click.
+     * @return The random numbers of the first click.
+     */
+    private IntUnaryOperator restoredFirstClickRandom() {
+        if(!this.seeded) return GameFactory::random;
+
+        // The numbers which placed the mines are drawn again and dropped, the restored mines are the sampled ones.
+        startResetRandom(this.seed);
+        MinePlacer.sample(this.cellCount, this.totalAmountOfMines, this.resetNumbers, this.resetMines);
+        return this.resetNumbers;
+    }
+
+    @Override
+    public byte getStateCode(final int index) {
+        return getState(index);
+    }
+
+    @Override
+    public boolean containsMine(final int index) {
+        return isMine(index);
+    }
+
+    @Override
+    public long getSeed() {
+        return this.seed;
+    }
+
+    @Override
+    public boolean isSeeded() {
+        return this.seeded;
+    }
+
+    @Override
+    public void setSeed(final long seed) {
+        this.seed = seed;
+        this.seeded = true;
+    }
+
+    @Override
+    public boolean isFirstClickSafe() {
+        return this.firstClickSafe;
+    }
+
+    @Override
+    public boolean isFirstClickPending() {
+        return this.firstClickRandom != null;
+    }
+
+    @Override
+    public void clearBoard() {
+        clearCells();
+        this.seed = 0;
+        this.seeded = false;
+    }
+
+    @Override
+    public void addMine(final int index) {
+        markAsMine(index);
+    }
+
+    @Override
+    public void setStateCode(final int index, final byte state) {
+        setState(index, state);
+    }
+
+    @Override
+    public void restore(final int freeCellsLeft, final int placedFlags, final boolean gameOver,
+                        final boolean firstClickSafe, final boolean firstClickPending) {
+        this.freeCellsLeft = freeCellsLeft;
+        this.placedFlags = placedFlags;
+        this.firstClickSafe = firstClickSafe;
+        this.firstClickRandom = firstClickPending ? restoredFirstClickRandom() : null;
+        this.isGameOver = false;
+        this.reveal = null;
+        this.journal.clear();
+
+        // Every cell may have changed, so the renderer has to draw the whole minefield.
+        if(gameOver) setGameOver();
+        else this.journal.fill();
+        this.snapshot.commit();
+    }
+
+    @Override
+    public Map<ICellPosition, ICell> getFieldForVisualization() {
+        final TreeMap<ICellPosition, ICell> copyField = new TreeMap<>();
+
+        for(int index=0; index < this.cellCount; ++index) {
+            final ICellPosition p = CellPosition.valueOf(index % this.rows, index / this.rows);
+            copyField.put(p, new Cell(p));
+        }
+
+        return copyField;
+    }
+
+    @Override
+    public Set<ICell> getUpdateCells() {
+        return this.updatedCells;
+    }
+
+    @Override
+    public UpdateJournal getUpdateJournal() {
+        return this.journal;
+    }
+
+    @Override
+    public GameOverReveal getGameOverReveal() {
+        return this.reveal;
+    }
+
+    @Override
+    public FieldSnapshot getSnapshot() {
+        return this.snapshot;
+    }
+
+    @Override
+    public boolean validatePosition(final ICellPosition position) {
+        if(position == null) return false;
+
+        return validatePosition(position.getX(), position.getY());
+    }
+
+    @Override
+    public boolean validatePosition(final int x, final int y) {
+        return x >= 0 && x < this.rows && y >= 0 && y < this.columns;
+    }
+
+    @Override
+    public boolean gameOver() {
+        return this.isGameOver;
+    }
+
+    @Override
+    public OpenReturn secondaryClick(final ICellPosition position) {
+        if(position == null) return modifyCell(-1, -1, CLICK_SECONDARY);
+        return modifyCell(position.getX(), position.getY(), CLICK_SECONDARY);
+    }
+
+    @Override
+    public OpenReturn secondaryClick(final int x, final int y) {
+        return modifyCell(x, y, CLICK_SECONDARY);
+    }
+
+    @Override
+    public OpenReturn singleClick(final int x, final int y) {
+        return modifyCell(x, y, CLICK_SINGLE);
+    }
+
+    @Override
+    public OpenReturn singleClick(final ICellPosition position) {
+        if(position == null) return modifyCell(-1, -1, CLICK_SINGLE);
+        return modifyCell(position.getX(), position.getY(), CLICK_SINGLE);
+    }
+
+    @Override
+    public OpenReturn doubleClick(final int x, final int y) {
+        return modifyCell(x, y, CLICK_DOUBLE);
+    }
+
+    @Override
+    public OpenReturn doubleClick(final ICellPosition position) {
+        if(position == null) return modifyCell(-1, -1, CLICK_DOUBLE);
+        return modifyCell(position.getX(), position.getY(), CLICK_DOUBLE);
+    }
+
+    /**
+     * <p>Tries to modify the cell at the given position. Look at {@link Minefield} for the requirements.</p>
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     * @param click The code of the click which should be performed.
+     * @return The specific performAction return value.
+     */
+    private OpenReturn modifyCell(final int x, final int y, final int click) {
+
+        if(gameOver()) return OpenReturn.GAME_IS_ALREADY_OVER;
+
+        // Check if the given position is valid.
+        if(!validatePosition(x, y)) return OpenReturn.NOT_VALID;
+
+        //Clear the journal because it contains all cells which where opened in the last step.
+        this.journal.clear();
+
+        final int index = y * this.rows + x;
+        final OpenReturn result;
+
+        if(this.firstClickRandom != null && click != CLICK_SECONDARY && getState(index) == UNDISCOVERED) {
+            clearFirstClick(index);
+        }
+
+        switch (click) {
+            case CLICK_SINGLE:
+                result = singleClick(index);
+                break;
+            case CLICK_DOUBLE:
+                result = doubleClick(index);
+                break;
+            default:
+                result = secondaryClick(index);
+                break;
+        }
+
+        this.snapshot.commit();
+        return result;
+    }
+
+    /**
+     * Moves the mines out of the first clicked cell and its neighbourhood. Only the moved mines and their neighbours
+     * are changed, the minefield is not created again.
+     * @param index The index of the first clicked cell.
+     */
+    private void clearFirstClick(final int index) {
+        final IntUnaryOperator random = this.firstClickRandom;
+        this.firstClickRandom = null;
+
+        MinePlacer.clearFirstClick(this.rows, this.columns, this.cellCount - this.totalAmountOfMines, index, random,
+                new MinePlacer.Mines() {
+                    @Override
+                    public boolean isMine(final int index) {
+                        return IndexedMinefield.this.isMine(index);
+                    }
+
+                    @Override
+                    public void moveMine(final int from, final int to) {
+                        unmarkMine(from);
+                        markAsMine(to);
+                    }
+                });
+    }
+
+    /**
+     * Performs the single click on the cell with the given index.
+     * @param index The index of the cell.
+     * @return The specific performAction return value.
+     */
+    private OpenReturn singleClick(final int index) {
+        switch (getState(index)) {
+            case OPEN:
+                return OpenReturn.IS_ALREADY_OPEN;
+            case FLAGGED:
+                return OpenReturn.WAS_FLAGGED;
+            default:
+                // The cell contained a mine which ends the game now.
+                if(isMine(index)) {
+                    setGameOver();
+                    return OpenReturn.WAS_MINE;
+                }
+
+                this.freeCellsLeft -= open(index);
+
+                if(this.freeCellsLeft > 0) {
+                    return OpenReturn.OPEN;
+                }
+
+                assert allCellsRevealed() : "The game is cleared, but not all cells are revealed!";
+                setGameOver();
+                return OpenReturn.GAME_CLEARED;
+        }
+    }
+
+    /**
+     * Performs the secondary click on the cell with the given index.
+     * @param index The index of the cell.
+     * @return The specific performAction return value.
+     */
+    private OpenReturn secondaryClick(final int index) {
+        switch (getState(index)) {
+            case OPEN:
+                return OpenReturn.IS_ALREADY_OPEN;
+            case FLAGGED:
+                setState(index, UNDISCOVERED);
+                --this.placedFlags;
+                this.journal.add(index);
+                return OpenReturn.REMOVE_FLAG;
+            default:
+                setState(index, FLAGGED);
+                ++this.placedFlags;
+                this.journal.add(index);
+                return OpenReturn.NOW_FLAGGED;
+        }
+    }
+
+    /**
+     * Performs the double click on the cell with the given index.
+     * @param index The index of the cell.
+     * @return The specific performAction return value.
+     */
+    private OpenReturn doubleClick(final int index) {
+        if(getState(index) != UNDISCOVERED) return openNeighbourhood(index);
+
+        // The cell contained a mine which ends the game now.
+        if(isMine(index)) {
+            setGameOver();
+            return OpenReturn.WAS_MINE;
+        }
+
+        //Set state to open. Don't use open, because it may opens all neighbours.
+        setState(index, OPEN);
+        this.journal.add(index);
+
+        --this.freeCellsLeft;
+
+        if(this.freeCellsLeft > 0) {
+            return openNeighbourhood(index);
+        }
+
+        /*
+         * There are no cells left therefore the game is cleared.
+         */
+        assert allCellsRevealed() : "The game is cleared, but not all cells are revealed!";
+        setGameOver();
+        return OpenReturn.GAME_CLEARED;
+    }
+
+    /**
+     * Opens the moore-neighbourhood of the cell with the given index. The neighbourhood of empty cells will be
+     * opened as well. Look at {@link Chord} for the details.
+     * @param index The index of the cell.
+     * @return The specific performAction return value.
+     */
+    private OpenReturn openNeighbourhood(final int index) {
+        final int found = this.chord.chord(index, this.grid);
+
+        // An undiscovered neighbour contained a mine which ends the game now.
+        if(found == Chord.MINE) {
+            setGameOver();
+            return OpenReturn.WAS_MINE;
+        }
+
+        // The chord found every cell only once, therefore each cell is opened and counted once.
+        for(int i=0; i < found; ++i) {
+            final int next = this.chord.get(i);
+            setState(next, OPEN);
+            this.journal.add(next);
+        }
+
+        this.freeCellsLeft -= found;
+        assert this.freeCellsLeft >= 0 : "the amount of free cells is negativ!";
+
+        if(this.freeCellsLeft == 0) {
+            assert allCellsRevealed() : "The game is cleared, but not all cells are revealed!";
+            setGameOver();
+            return OpenReturn.GAME_CLEARED;
+        }
+
+        // all cells in the moore neighbourhood are flagged, just return WAS_FLAGGED.
+        if(this.chord.getFlagCount() == this.chord.getNeighbourCount()) return OpenReturn.WAS_FLAGGED;
+
+        // all cells in the moore neighbourhood are already opened, just return IS_ALREADY_OPEN.
+        if(this.chord.getOpenCount() == this.chord.getNeighbourCount()) return OpenReturn.IS_ALREADY_OPEN;
+
+        return OpenReturn.OPEN;
+    }
+
+    /**
+     * Opens the cell with the given index. If the cell is empty, all cells in the neighborhood will also be opened.
+     * @param index The index of the cell.
+     * @return The amount of opened cells.
+     */
+    private int open(final int index) {
+        final int opened = this.floodFill.fill(index, this.grid);
+
+        // Open the cells in the order they were discovered.
+        for(int i=0; i < opened; ++i) {
+            final int next = this.floodFill.get(i);
+
+            setState(next, OPEN);
+            this.journal.add(next);
+        }
+
+        return opened;
+    }
+
+    @Override
+    public int getTotalMines() {
+        return this.totalAmountOfMines;
+    }
+
+    @Override
+    public int getAmountOfFlags() {
+        return this.placedFlags;
+    }
+
+    @Override
+    public int getRows() {
+        return this.rows;
+    }
+
+    @Override
+    public int getColumns() {
+        return this.columns;
+    }
+
+    public int getFreeCellsLeft() { return this.freeCellsLeft; }
+
+    /**
+     * Returns the state of the cell at the given position.
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     * @return The state of the cell.
+     */
+    CellState getCellState(final int x, final int y) {
+        return STATES[getState(y * this.rows + x)];
+    }
+
+    /**
+     * Returns the content of the cell at the given position, without looking at the state of the cell.
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     * @return The content of the cell.
+     */
+    CellContent getContent(final int x, final int y) {
+        return getContent(y * this.rows + x);
+    }
+
+    /**
+     * Returns the content of the cell with the given index, without looking at the state of the cell.
+     * @param index The index of the cell.
+     * @return The content of the cell.
+     */
+    private CellContent getContent(final int index) {
+        return isMine(index) ? CellContent.MINE : NUMBERS[getMinesInNeighbourhood(index)];
+    }
+
+    /**
+     * Returns if all cells without a mine are opened.
+     * @return True, if all cells without a mine are opened. False, otherwise.
+     */
+    boolean allCellsRevealed() {
+        for(int index=0; index < this.cellCount; ++index) {
+            if(getState(index) != OPEN && !isMine(index)) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Set the game over and add all cells to the performAction cell list.
+     */
+    private void setGameOver() {
+        this.isGameOver = true;
+        this.journal.clear();
+        this.journal.fill();
+
+        this.reveal = new GameOverReveal(this.cellCount, new GameOverReveal.Source() {
+            @Override
+            public GameOverReveal.Category getCategory(final int index) {
+                final boolean mine = isMine(index);
+                if(mine) return GameOverReveal.Category.MINE;
+
+                switch (getState(index)) {
+                    case FLAGGED:
+                        return GameOverReveal.Category.WRONG_FLAG;
+                    case UNDISCOVERED:
+                        return GameOverReveal.Category.REMAINING;
+                    default:
+                        return null;
+                }
+            }
+
+            @Override
+            public long getPosition(final int index) {
+                return ICellPosition.pack(index % rows, index / rows);
+            }
+        });
+    }
+
+    /**
+     * Places the correct amount of mines inside the minefield.
+     * @param mines The bitset of the mines or null, if the mines should be placed randomly.
+     */
+    final void placeMines(final long[] mines) {
+        if(mines != null) {
+            assert MinePlacer.count(mines) == this.totalAmountOfMines : "The amount of mines is not equal to the total amount!";
+
+            setMines(mines);
+            return;
+        }
+
+        // The placer draws one random number per mine with the random generator of the current thread.
+        setMines(MinePlacer.sample(this.cellCount, this.totalAmountOfMines, MinePlacer.random()::nextInt));
+    }
+
+    /**
+     * Stores the placed mines. The subclasses can store the whole bitset at once, otherwise each mine is
+     * marked on its own.
+     * @param mines The bitset of the mines, where the bit of a cell is its index.
+     */
+    void setMines(final long[] mines) {
+        for(final int index : MinePlacer.toIndices(mines, this.totalAmountOfMines)) {
+            markAsMine(index);
+        }
+    }
+
+    /**
+     * Returns the index of the given cell.
+     * @param cell The cell.
+     * @return The index of the cell or -1, if the cell is not a cell of this minefield.
+     */
+    private int indexOf(final ICell cell) {
+        if(!(cell instanceof IndexedCell)) return -1;
+
+        final IndexedCell indexedCell = (IndexedCell) cell;
+        return indexedCell.getMinefield() == this ? indexedCell.index : -1;
+    }
+
+    /**
+     * <p>A view to a single cell inside the minefield. It will be created when the updated cells are iterated and
+     * always shows the current state of the cell.</p>
+     */
+    private final class IndexedCell implements ICell {
+
+        /**
+         * The index of the cell.
+         */
+        private final int index;
+
+        /**
+         * Custom-Ctor creates a view to the cell with the given index.
+         * @param index The index of the cell.
+         */
+        IndexedCell(final int index) {
+            this.index = index;
+        }
+
+        /**
+         * Returns the minefield of this cell.
+         * @return The minefield.
+         */
+        private IndexedMinefield getMinefield() {
+            return IndexedMinefield.this;
+        }
+
+        @Override
+        public ICellPosition getPosition() {
+            return CellPosition.valueOf(this.index % rows, this.index / rows);
+        }
+
+        @Override
+        public CellContent getCellContent() {
+            /*
+             * Only return the content of the cell when the cell state is open or the game is over! Otherwise return unknown.
+             */
+            if(getState(this.index) == OPEN || isGameOver) {
+                return getContent(this.index);
+            }
+
+            return CellContent.UNKNOWN;
+        }
+
+        @Override
+        public CellState getCellState() {
+            return STATES[getState(this.index)];
+        }
+
+        @Override
+        public int hashCode() {
+            return this.index;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if(!(obj instanceof IndexedCell)) return false;
+
+            final IndexedCell other = (IndexedCell) obj;
+            return other.getMinefield() == getMinefield() && other.index == this.index;
+        }
+
+        @Override
+        public String toString() {
+            return "Cell [State: " + getCellState() + ", Content: " + getContent(this.index)
+                    + ", Position: " + getPosition() + "]";
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * <p>Places the mines of a minefield with bounds.</p>
+ * <p>
+ *     The mines are sampled with the algorithm of Floyd over the indices <i>y * rows + x</i> of the cells. It draws
+ *     exactly one random number per mine, no matter how large the minefield is, and stores the mines as a bitset.
+ *     Afterwards the amount of mines in the moore-neighbourhood of every cell is counted in a single pass over the
+ *     mines.
+ * </p>
+ * <p>
+ *     Each thread uses its own {@link SplittableRandom}, which is split from a common root once per thread.
+ *     Therefore, threads which create minefields at the same time don't share a random generator.
+ * </p>
+ */
+final class MinePlacer {
+
+    /**
+     * The content code of a mine, look at {@link UpdateJournal}.
+     */
+    static final byte MINE = UpdateJournal.CONTENT_MINE;
+
+    /**
+     * The root of the random generators of all threads. It is only used, when a thread needs its generator.
+     */
+    private static final SplittableRandom ROOT = new SplittableRandom();
+    /**
+     * The random generator of each thread.
+     */
+    private static final ThreadLocal<SplittableRandom> RANDOM = ThreadLocal.withInitial(() -> {
+        synchronized (ROOT) {
+            return ROOT.split();
+        }
+    });
+
+    /**
+     * The placer only has static methods.
+     */
+    private MinePlacer() {
+    }
+
+    /**
+     * Returns the random generator of the current thread.
+     * @return The random generator, which must not be shared with other threads.
+     */
+    static SplittableRandom random() {
+        return RANDOM.get();
+    }
+
+    /**
+     * <p>Chooses the given amount of cells uniformly at random.</p>
+     * <p>
+     *     The algorithm of Floyd takes each index from 0 to cellCount - mines - 1 into account and adds one index for
+     *     every random number. If the random index was already chosen, the current largest index is chosen instead.
+     *     Every subset of the cells has the same probability. The random numbers are drawn in a fixed order, so the
+     *     same numbers always choose the same cells.
+     * </p>
+     * @param cellCount The amount of cells.
+     * @param mines The amount of mines.
+     * @param random Returns a random number from 0 to the given bound, for example the nextInt of a
+     *               {@link SplittableRandom} or a {@link SeededRandom}.
+     * @return The bitset of the mines, where the bit of a cell is its index.
+     */
+    static long[] sample(final int cellCount, final int mines, final IntUnaryOperator random) {
+        final long[] bits = new long[(int) ((cellCount + 63L) >>> 6)];
+        sample(cellCount, mines, random, bits);
+        return bits;
+    }
+
+    /**
+     * Chooses the given amount of cells uniformly at random and stores them inside the given bitset. The bitset is
+     * cleared before, so an existing bitset can be reused. The same random numbers choose the same cells as
+     * {@link #sample(int, int, IntUnaryOperator)}.
+     * @param cellCount The amount of cells.
+     * @param mines The amount of mines.
+     * @param random Returns a random number from 0 to the given bound.
+     * @param bits The bitset of the mines, which has one bit per cell.
+     */
+    static void sample(final int cellCount, final int mines, final IntUnaryOperator random, final long[] bits) {
+        assert cellCount > 0 : "The minefield has no cells!";
+        assert mines >= 0 && mines <= cellCount : "The amount of mines " + mines + " is not within bounds!";
+        assert bits.length == (int) ((cellCount + 63L) >>> 6) : "The bitset doesn't fit the minefield!";
+
+        Arrays.fill(bits, 0L);
+
+        for(int j = cellCount - mines; j < cellCount; ++j) {
+            final int t = random.applyAsInt(j + 1);
+            final int index = (bits[t >>> 6] & (1L << t)) == 0 ? t : j;
+
+            bits[index >>> 6] |= 1L << index;
+        }
+    }
+
+    /**
+     * Returns the indices of the mines in ascending order.
+     * @param bits The bitset of the mines.
+     * @param mines The amount of mines inside the bitset.
+     * @return The indices of the mines.
+     */
+    static int[] toIndices(final long[] bits, final int mines) {
+        final int[] indices = new int[mines];
+        int size = 0;
+
+        for(int word=0; word < bits.length; ++word) {
+            for(long w = bits[word]; w != 0; w &= w - 1) {
+                indices[size++] = (word << 6) + Long.numberOfTrailingZeros(w);
+            }
+        }
+
+        assert size == mines : "The bitset contains " + size + " mines instead of " + mines + "!";
+        return indices;
+    }
+
+    /**
+     * Returns the bitset of the mines at the given indices.
+     * @param cellCount The amount of cells.
+     * @param indices The indices of the mines.
+     * @return The bitset of the mines, where the bit of a cell is its index.
+     */
+    static long[] toBits(final int cellCount, final int[] indices) {
+        final long[] bits = new long[(int) ((cellCount + 63L) >>> 6)];
+
+        for(final int index : indices) {
+            assert index >= 0 && index < cellCount : "The index " + index + " is not within bounds!";
+            assert (bits[index >>> 6] & (1L << index)) == 0 : "The cell " + index + " is already a mine!";
+
+            bits[index >>> 6] |= 1L << index;
+        }
+
+        return bits;
+    }
+
+    /**
+     * Returns the amount of mines inside the bitset.
+     * @param bits The bitset of the mines.
+     * @return The amount of mines.
+     */
+    static int count(final long[] bits) {
+        int count = 0;
+        for(final long word : bits) {
+            count += Long.bitCount(word);
+        }
+
+        return count;
+    }
+
+    /**
+     * <p>Moves the mines out of the cell of the first click and its moore-neighbourhood, so the first click always
+     * opens an empty area.</p>
+     * <p>
+     *     Every mine inside the neighbourhood is moved to a random free cell outside of the neighbourhood. A target is
+     *     drawn again, if it already contains a mine. Only the moved mines change the minefield, so the minefield
+     *     only has to patch the neighbours of the old and the new cell. If the free cells can't take the whole
+     *     neighbourhood, which happens on small minefields with many mines, only the clicked cell is cleared.
+     * </p>
+     * @param rows The amount of rows inside the minefield.
+     * @param columns The amount of columns inside the minefield.
+     * @param freeCells The amount of cells without a mine.
+     * @param index The index of the first clicked cell.
+     * @param random Returns a random number from 0 to the given bound.
+     * @param mines The mines of the minefield.
+     * @return The amount of moved mines.
+     */
+    static int clearFirstClick(final int rows, final int columns, final int freeCells, final int index,
+                               final IntUnaryOperator random, final Mines mines) {
+        assert freeCells > 0 : "The minefield has no free cells!";
+
+        final int x = index % rows;
+        final int y = index / rows;
+        int minX = Math.max(x - 1, 0);
+        int minY = Math.max(y - 1, 0);
+        int maxX = Math.min(x + 1, rows - 1);
+        int maxY = Math.min(y + 1, columns - 1);
+
+        // The mines of the neighbourhood need enough free cells outside of the neighbourhood.
+        if((maxX - minX + 1) * (maxY - minY + 1) > freeCells) {
+            minX = maxX = x;
+            minY = maxY = y;
+        }
+
+        final int cellCount = rows * columns;
+        int moved = 0;
+
+        for(int nY = minY; nY <= maxY; ++nY) {
+            for(int nX = minX; nX <= maxX; ++nX) {
+                final int from = nY * rows + nX;
+                if(!mines.isMine(from)) continue;
+
+                int to;
+                int toX;
+                int toY;
+                do {
+                    to = random.applyAsInt(cellCount);
+                    toX = to % rows;
+                    toY = to / rows;
+                } while (mines.isMine(to) || (toX >= minX && toX <= maxX && toY >= minY && toY <= maxY));
+
+                mines.moveMine(from, to);
+                ++moved;
+            }
+        }
+
+        return moved;
+    }
+
+    /**
+     * Writes the content codes of all cells. The neighbours of every mine are increased once, afterwards the mines are
+     * set. Therefore, the content is created with a single pass over the mines.
+     * @param rows The amount of rows inside the minefield.
+     * @param columns The amount of columns inside the minefield.
+     * @param bits The bitset of the mines.
+     * @param contents The content codes of the cells, which have to be 0.
+     */
+    static void countNeighbours(final int rows, final int columns, final long[] bits, final byte[] contents) {
+        assert contents.length == rows * columns : "The contents don't fit the minefield!";
+
+        for(int word=0; word < bits.length; ++word) {
+            for(long w = bits[word]; w != 0; w &= w - 1) {
+                final int index = (word << 6) + Long.numberOfTrailingZeros(w);
+                final int x = index % rows;
+                final int y = index / rows;
+                final int maxX = Math.min(x + 1, rows - 1);
+                final int maxY = Math.min(y + 1, columns - 1);
+
+                for(int nY = Math.max(y - 1, 0); nY <= maxY; ++nY) {
+                    for(int nX = Math.max(x - 1, 0); nX <= maxX; ++nX) {
+                        ++contents[nY * rows + nX];
+                    }
+                }
+            }
+        }
+
+        // The mines were counted by their neighbours as well, now they become mines.
+        for(int word=0; word < bits.length; ++word) {
+            for(long w = bits[word]; w != 0; w &= w - 1) {
+                contents[(word << 6) + Long.numberOfTrailingZeros(w)] = MINE;
+            }
+        }
+    }
+
+    /**
+     * The mines of a minefield, which can be moved after they were placed.
+     */
+    interface Mines {
+
+        /**
+         * Returns if the cell with the given index contains a mine.
+         * @param index The index of the cell.
+         * @return True, if the cell contains a mine. False, otherwise.
+         */
+        boolean isMine(int index);
+
+        /**
+         * Moves the mine to another cell and updates the amount of mines in the neighbourhood of both cells.
+         * @param from The index of the cell, which contains the mine.
+         * @param to The index of the cell, which doesn't contain a mine.
+         */
+        void moveMine(int from, int to);
+    }
+}
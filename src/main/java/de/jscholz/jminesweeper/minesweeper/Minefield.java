@@ -1,21 +1,49 @@
 package de.jscholz.jminesweeper.minesweeper;
 
 import java.util.*;
+import java.util.function.IntUnaryOperator;
 
 /**
  * <p>The implementation of the IMinefield. It will represent the game board of this game. The board holds all cells and
  * is responsible for the game handling.</p>
  */
-class Minefield implements IMinefield {
+class Minefield implements IMinefield, GameCodec.Board {
 
     /**
-     * This represents the minefield in the game. All valid positions and cells will be store in this map.
+     * This represents the minefield in the game. All cells are stored row by row, the cell at the position (x, y)
+     * has the index y * rows + x. The index is the identity of the cell inside the minefield.
      */
-    private final HashMap<ICellPosition, Cell> field;
+    private final Cell[] cells;
     /**
-     * This set will contain all cells which where updated in the last single click, double click or secondary click.
+     * The read only map view of the cells. It finds the cells by the index and not by the hashcode.
      */
-    private final HashSet<ICell> updatedCells;
+    private final Map<ICellPosition, Cell> field;
+    /**
+     * This journal will contain all cells which where updated in the last single click, double click or secondary click.
+     * The cells are stored in the order they were opened. It isn't final, because it needs the size of the minefield
+     * and the click return states, which use the journal, are created before.
+     */
+    private UpdateJournal journal;
+    /**
+     * The set view of the journal. The membership depends on the index of the cells and not on the hashcode.
+     */
+    private final IndexCellSet updatedCells;
+    /**
+     * The read-only view of the minefield, which gets a new version after every click.
+     */
+    private final FieldSnapshot snapshot;
+    /**
+     * The flood fill which is used to open the neighbours of empty cells.
+     */
+    private final FloodFill floodFill;
+    /**
+     * The view of this minefield used by the flood fill and the chord.
+     */
+    private final Chord.Grid grid;
+    /**
+     * The chord which is used by the double click.
+     */
+    private final Chord chord;
     /**
      * State return values for the single click.
      */
@@ -53,12 +81,70 @@ class Minefield implements IMinefield {
      * The flag if the game is already over.
      */
     private boolean isGameOver;
+    /**
+     * The cells which are revealed or null, if the game is not over.
+     */
+    private GameOverReveal reveal;
+    /**
+     * The random numbers used to move the mines out of the first click or null, if the first click is not protected
+     * or was already performed.
+     */
+    private IntUnaryOperator firstClickRandom;
+    /**
+     * The flag if the first click of every game on this minefield is protected.
+     */
+    private boolean firstClickSafe;
+    /**
+     * The random generator of the seeded games started by {@link #reset(long)} or null, if the minefield was never reset.
+     */
+    private SeededRandom resetRandom;
+    /**
+     * The random numbers of the reset random generator.
+     */
+    private IntUnaryOperator resetNumbers;
+    /**
+     * The bitset of the mines placed by {@link #reset(long)} or null, if the minefield was never reset.
+     */
+    private long[] resetMines;
+    /**
+     * The content codes counted by {@link #reset(long)} or null, if the minefield was never reset.
+     */
+    private byte[] resetContents;
+    /**
+     * The seed which defined the mines or 0, if the mines are not defined by a seed.
+     */
+    private long seed;
+    /**
+     * The flag if the mines are defined by the seed.
+     */
+    private boolean seeded;
 
     {
         this.placedFlags = 0;
         this.isGameOver = false;
-        this.field = new HashMap<>();
-        this.updatedCells = new HashSet<>();
+        this.field = new FieldView();
+
+        this.grid = new Chord.Grid() {
+            @Override
+            public boolean canOpen(final int index) {
+                return cells[index].getCellState() == CellState.UNDISCOVERED;
+            }
+
+            @Override
+            public boolean isEmpty(final int index) {
+                return cells[index].getContent() == CellContent.EMPTY;
+            }
+
+            @Override
+            public boolean isFlagged(final int index) {
+                return cells[index].getCellState() == CellState.FLAGGED;
+            }
+
+            @Override
+            public boolean isMine(final int index) {
+                return cells[index].getContent() == CellContent.MINE;
+            }
+        };
 
         this.singleClickReturnStates = new HashMap<>();
         this.singleClickReturnStates.put(CellState.OPEN, (final Cell cell) -> OpenReturn.IS_ALREADY_OPEN);
@@ -75,14 +161,14 @@ class Minefield implements IMinefield {
                 return OpenReturn.WAS_MINE;
             }
 
-            cell.open(this.updatedCells);
+            open(cell);
 
             /**
-             * Why do we subtract here updateCells.size from freeCellsLeft instead of using -1?
+             * Why do we subtract here journal.size from freeCellsLeft instead of using -1?
              * Because we open multiple cells when the cell content of the cell is empty. Thus, we need to subtract
              * all cells we have opened in this round.
              */
-            this.freeCellsLeft -= this.updatedCells.size();
+            this.freeCellsLeft -= this.journal.size();
 
             if(this.freeCellsLeft > 0) {
                 return OpenReturn.OPEN;
@@ -106,108 +192,7 @@ class Minefield implements IMinefield {
         });
 
         this.doubleClickReturnStates = new HashMap<>();
-        this.doubleClickReturnStates.put(CellState.OPEN, (final Cell cell) -> {
-            /**
-             * get Cell
-             * What to expect:
-             * - we get the neighbours and iterate over them:
-             * - try to open cell
-             * - if the neighbour is already open -> increase open cell count
-             * - if the neighbour is flagged -> increase flag cell count
-             * - if the neighbour undiscovered -> open
-             *      - if cell is mine -> game over and return was mine
-             *      - otherwise -> add cell to updated list
-             * - was mine => return game over
-             * - flag count == neighbour size => return was_flagged
-             * - open cell == neighbour size => return cell are already open
-             */
-            final Set<Cell> neighbours = cell.getNeighbours();
-            assert neighbours != null : "The set neighbours was null!";
-            assert neighbours.size() > 0 : "The amount of neighbours is 0!";
-
-            // This queue holds all cells which should be opened.
-            final Queue<Cell> cellsToOpen = new LinkedList<>();
-            boolean mineWasFound = false;
-            boolean gameWasCleared = false;
-            int flagCount = 0;
-            int openCount = 0;
-
-            cellsToOpen.addAll(neighbours);
-            Cell next = cellsToOpen.poll();
-
-            while (next != null && !mineWasFound && !gameWasCleared ) {
-
-                final CellState state = next.getCellState();
-
-                switch (state) {
-                    case OPEN:
-                        ++openCount;
-                        break;
-                    case FLAGGED:
-                        ++flagCount;
-                        break;
-                    case UNDISCOVERED:
-                        final CellContent content = next.getContent();
-                        switch (content) {
-                            case MINE:
-                                setGameOver();
-                                mineWasFound = true;
-                                break;
-                            case EMPTY:
-                                // Add all neighbours of this empty cell to the queue.
-                                final Set<Cell> neighboursOfEmpty = next.getNeighbours();
-                                cellsToOpen.addAll(neighboursOfEmpty);
-
-                                // TODO this results in problems, where cells are not opened in the visible field
-
-                                // Fall through because we still want to do the same as with the numbers.
-                            default:
-                                next.setState(CellState.OPEN);
-                                this.updatedCells.add(next);
-
-                                --this.freeCellsLeft;
-
-                                assert this.freeCellsLeft >= 0 : "the amount of free cells is negativ!";
-
-                                if(this.freeCellsLeft == 0) {
-                                    setGameOver();
-                                    gameWasCleared = true;
-                                }
-                                break;
-                        }
-                }
-
-                next = cellsToOpen.poll();
-            }
-
-            /**
-             * When a mine was opened, just return WAS_MINE.
-             */
-            if(mineWasFound) return OpenReturn.WAS_MINE;
-
-            /**
-             * The game was cleared during double click, return GAME_CLEARED.
-             */
-            if(gameWasCleared) return OpenReturn.GAME_CLEARED;
-
-            /**
-             * all cells in the moore neighbourhood are flagged, just return WAS_FLAGGED.
-             */
-            if(flagCount == neighbours.size()) return OpenReturn.WAS_FLAGGED;
-
-            /**
-             * all cells in the moore neighbourhood are already opened, just return IS_ALREADY_OPEN.
-             */
-            if(openCount == neighbours.size()) return OpenReturn.IS_ALREADY_OPEN;
-
-            /**
-             * Otherwise return open.
-             *
-             * Note: Here you can't return openReturn, because the last cell in the neighbourhood could be flagged
-             * and then we would return was_flagged.
-             */
-            return OpenReturn.OPEN;
-        });
+        this.doubleClickReturnStates.put(CellState.OPEN, this::openNeighbourhood);
         this.doubleClickReturnStates.put(CellState.FLAGGED, (final Cell cell) -> {
             // Do nothing on this cell, but to stuff on the neighbours.
             final ClickReturnStates returnStates = this.doubleClickReturnStates.get(CellState.OPEN);
@@ -232,7 +217,7 @@ class Minefield implements IMinefield {
             cell.setState(CellState.OPEN);
 
             //Add this cell to the updated cell list.
-            this.updatedCells.add(cell);
+            this.journal.add(indexOf(cell));
 
             --this.freeCellsLeft;
 
@@ -269,24 +254,154 @@ class Minefield implements IMinefield {
      * @param minesPercent The percent of mines inside the field.
      */
     Minefield(final int rows, final int columns, final int minesPercent) {
+        this(rows, columns, (rows*columns) * minesPercent / 100, null);
+
+        assert minesPercent >= 8 && minesPercent <= 93 : "the given minesPercent was not within bounds. valid [8 < " + minesPercent + " < 93]";
+    }
+
+    /**
+     * Custom-Ctor creates a minefield with the mines at the given indices.
+     * @param rows The rows of the field.
+     * @param columns The columns of the field.
+     * @param mines The indices <i>y * rows + x</i> of the cells which contain a mine.
+     */
+    Minefield(final int rows, final int columns, final int[] mines) {
+        this(rows, columns, mines.length, MinePlacer.toBits(rows * columns, mines));
+    }
+
+    /**
+     * Custom-Ctor creates a minefield with the mines of the given bitset.
+     * @param rows The rows of the field.
+     * @param columns The columns of the field.
+     * @param mines The bitset of the mines, where the bit of a cell is its index.
+     */
+    Minefield(final int rows, final int columns, final long[] mines) {
+        this(rows, columns, MinePlacer.count(mines), mines);
+    }
+
+    /**
+     * Creates the minefield and places the mines.
+     * @param rows The rows of the field.
+     * @param columns The columns of the field.
+     * @param totalAmountOfMines The amount of mines which will be placed.
+     * @param mines The bitset of the mines or null, if the mines should be placed randomly.
+     */
+    private Minefield(final int rows, final int columns, final int totalAmountOfMines, final long[] mines) {
 
         /*
          * The game aspect that the given values are valid because only the factory pattern can instanciate a minefield.
          */
         assert rows >= 8 && rows <= 30 : "the given rows was not within bounds. valid [8 < " + rows + " < 30]";
         assert columns >= 8 && columns <= 24 : "the given columns was not within bounds. valid [8 < " + rows + " < 24]";
-        assert minesPercent >= 8 && minesPercent <= 93 : "the given minesPercent was not within bounds. valid [8 < " + rows + " < 93]";
 
         this.rows = rows;
         this.columns = columns;
-        this.totalAmountOfMines = (rows*columns) * minesPercent / 100;
+        this.totalAmountOfMines = totalAmountOfMines;
 
         // Calculate the amount of free cells.
         this.freeCellsLeft = (this.rows * this.columns) - this.totalAmountOfMines;
+        this.cells = new Cell[this.rows * this.columns];
+        this.floodFill = new FloodFill(rows, columns);
+        this.chord = new Chord(rows, columns);
+        final UpdateJournal.Source source = new UpdateJournal.Source() {
+            @Override
+            public byte getStateCode(final int x, final int y) {
+                return UpdateJournal.toStateCode(cells[y * rows + x].getCellState());
+            }
+
+            @Override
+            public byte getContentCode(final int x, final int y) {
+                return UpdateJournal.toContentCode(cells[y * rows + x].getCellContent());
+            }
+        };
+        this.journal = new UpdateJournal(rows, columns, source);
+        this.snapshot = new FieldSnapshot(rows, columns, this.journal, source);
+        this.updatedCells = new IndexCellSet(this.journal, (final int index) -> this.cells[index], this::indexOf);
 
         createEmptyMinefield(rows, columns);
         addNeighboursToCells();
-        placeMines();
+        placeMines(mines);
+    }
+
+    @Override
+    public MinefieldType getMinefieldType() {
+        return MinefieldType.HASH_MAP;
+    }
+
+    @Override
+    public byte getStateCode(final int index) {
+        return UpdateJournal.toStateCode(this.cells[index].getCellState());
+    }
+
+    @Override
+    public boolean containsMine(final int index) {
+        return this.cells[index].getContent() == CellContent.MINE;
+    }
+
+    @Override
+    public long getSeed() {
+        return this.seed;
+    }
+
+    @Override
+    public boolean isSeeded() {
+        return this.seeded;
+    }
+
+    @Override
+    public void setSeed(final long seed) {
+        this.seed = seed;
+        this.seeded = true;
+    }
+
+    @Override
+    public boolean isFirstClickSafe() {
+        return this.firstClickSafe;
+    }
+
+    @Override
+    public boolean isFirstClickPending() {
+        return this.firstClickRandom != null;
+    }
+
+    @Override
+    public void clearBoard() {
+        for(final Cell cell : this.cells) {
+            cell.setState(CellState.UNDISCOVERED);
+            cell.setContent(CellContent.EMPTY);
+        }
+
+        this.seed = 0;
+        this.seeded = false;
+    }
+
+    @Override
+    public void addMine(final int index) {
+        assert this.cells[index].getContent() != CellContent.MINE : "The cell " + index + " is already a mine!";
+
+        this.cells[index].markAsMine();
+    }
+
+    @Override
+    public void setStateCode(final int index, final byte state) {
+        this.cells[index].setState(UpdateJournal.toState(state));
+    }
+
+    @Override
+    public void restore(final int freeCellsLeft, final int placedFlags, final boolean gameOver,
+                        final boolean firstClickSafe, final boolean firstClickPending) {
+        this.freeCellsLeft = freeCellsLeft;
+        this.placedFlags = placedFlags;
+        this.firstClickSafe = firstClickSafe;
+        this.firstClickRandom = firstClickPending ? restoredFirstClickRandom() : null;
+        this.isGameOver = false;
+        this.reveal = null;
+        this.journal.clear();
+
+        // Every cell may have changed, so the renderer has to draw the whole minefield.
+        if(gameOver) setGameOver();
+        else this.journal.fill();
+        this.snapshot.commit();
     }
 
     @Override
@@ -296,9 +411,9 @@ class Minefield implements IMinefield {
          * Create Map with same CellPositions, but with different cell for visualisation.
          * Note: That the cell will be replaced later with the cells inside this.field.
          */
-        for(final Map.Entry<ICellPosition, Cell> entry : field.entrySet()) {
+        for(final Cell cell : this.cells) {
 
-            final ICellPosition p = entry.getKey();
+            final ICellPosition p = cell.getPosition();
 
             final ICell newCell = new Cell(p);
             copyField.put(p, newCell);
@@ -308,12 +423,12 @@ class Minefield implements IMinefield {
     }
 
     /**
-     * Returns a unmodifiable view to the map this.field.
+     * Returns a unmodifiable view to the cells of the minefield. The entries are ordered by the index of the cells.
      *
-     * @return A copy of the minefield.
+     * @return A view of the minefield.
      */
     public Map<ICellPosition, Cell> getOriginalField() {
-        return Collections.unmodifiableMap(field);
+        return this.field;
     }
 
     @Override
@@ -321,6 +436,21 @@ class Minefield implements IMinefield {
         return this.updatedCells;
     }
 
+    @Override
+    public UpdateJournal getUpdateJournal() {
+        return this.journal;
+    }
+
+    @Override
+    public GameOverReveal getGameOverReveal() {
+        return this.reveal;
+    }
+
+    @Override
+    public FieldSnapshot getSnapshot() {
+        return this.snapshot;
+    }
+
     /**
      * Returns if the given position is valid.
      * @param position A given minefield position
@@ -329,8 +459,13 @@ class Minefield implements IMinefield {
     public boolean validatePosition(final ICellPosition position) {
         if(position == null) return false;
 
-        //If the position is not inside the map, it isn't valid.
-        return this.field.containsKey(position);
+        return validatePosition(position.getX(), position.getY());
+    }
+
+    @Override
+    public boolean validatePosition(final int x, final int y) {
+        //If the position is not inside the bounds, it isn't valid.
+        return x >= 0 && x < this.rows && y >= 0 && y < this.columns;
     }
 
     @Override
@@ -340,7 +475,7 @@ class Minefield implements IMinefield {
 
     @Override
     public OpenReturn secondaryClick(final int x, final int y) {
-        return secondaryClick(new CellPosition(x, y));
+        return modifyCell(x, y, secondaryClickReturnStates);
     }
 
     @Override
@@ -351,12 +486,13 @@ class Minefield implements IMinefield {
          * - FLAGGED, remove the flag by calling flagCell and return the specific return value of the method flag cell.
          * - UNDISCOVERED, set the flag by calling flagCell and return the specific return value of the method flag cell.
          */
-        return modifyCell(position, secondaryClickReturnStates);
+        if(position == null) return modifyCell(-1, -1, secondaryClickReturnStates);
+        return modifyCell(position.getX(), position.getY(), secondaryClickReturnStates);
     }
 
     @Override
     public OpenReturn singleClick(int x, int y) {
-        return singleClick(new CellPosition(x, y));
+        return modifyCell(x, y, singleClickReturnStates);
     }
 
     @Override
@@ -370,17 +506,19 @@ class Minefield implements IMinefield {
          *   * Otherwise perform a cell.performAction on this cell. Then check if the are still undiscovered cells left in the game.
          *     Return OPEN if there still undiscovered cells left. GAME_CLEARED, otherwise.
          */
-        return modifyCell(position, singleClickReturnStates);
+        if(position == null) return modifyCell(-1, -1, singleClickReturnStates);
+        return modifyCell(position.getX(), position.getY(), singleClickReturnStates);
     }
 
     @Override
     public OpenReturn doubleClick(final int x, final int y) {
-        return doubleClick(new CellPosition(x, y));
+        return modifyCell(x, y, doubleClickReturnStates);
     }
 
     @Override
     public OpenReturn doubleClick(final ICellPosition position) {
-        return modifyCell(position, doubleClickReturnStates);
+        if(position == null) return modifyCell(-1, -1, doubleClickReturnStates);
+        return modifyCell(position.getX(), position.getY(), doubleClickReturnStates);
     }
 
     /**
@@ -395,11 +533,12 @@ class Minefield implements IMinefield {
      *     Based on the state of the cell, the method performs an action and returns specific performAction return value.
      *     Please look at the methods single click, double click and secondaryClick what actions are performed.
      * </p>
-     * @param position The position of the cell who gets modified.
+     * @param x The x value of the position of the cell who gets modified.
+     * @param y The y value of the position of the cell who gets modified.
      * @param returnStates The specific return states used to modify the cell.
      * @return The specific performAction return values based on the state map.
      */
-    private OpenReturn modifyCell(final ICellPosition position, final HashMap<CellState, ClickReturnStates> returnStates) {
+    private OpenReturn modifyCell(final int x, final int y, final HashMap<CellState, ClickReturnStates> returnStates) {
 
         assert returnStates != null : "Given state map is null!";
         assert returnStates.size() > 0 : "There are no entries inside the state map!";
@@ -407,24 +546,31 @@ class Minefield implements IMinefield {
         if(gameOver()) return OpenReturn.GAME_IS_ALREADY_OVER;
 
         // Check if the given position is valid.
-        if(!validatePosition(position)) return OpenReturn.NOT_VALID;
+        if(!validatePosition(x, y)) return OpenReturn.NOT_VALID;
 
-        //Clear the updatedCells Set because it contains all cells which where opened in the last step.
-        this.updatedCells.clear();
+        //Clear the journal because it contains all cells which where opened in the last step.
+        this.journal.clear();
 
         //Get the cell corresponding to the position. We expect that this position exists.
-        final Cell cell = this.field.get(position);
+        final Cell cell = this.cells[y * this.rows + x];
         assert cell != null : "Cell " + cell + " should not be null!";
 
         //Get the current cell state. We expect that this state is not null.
         final CellState state = cell.getCellState();
         assert state != null : "State of Cell " + cell + " is null!";
 
+        // The mines of the first single click or double click are moved away, before the cell is opened.
+        if(this.firstClickRandom != null && returnStates != this.secondaryClickReturnStates && state == CellState.UNDISCOVERED) {
+            clearFirstClick(cell);
+        }
+
         // Return the performAction return value for the cell state. We expect that the state is inside the given state map.
         final ClickReturnStates openCell = returnStates.get(state);
         assert openCell != null : "The given performAction cell was null, which means the state was not inside the state map.";
 
-        return openCell.performAction(cell);
+        final OpenReturn result = openCell.performAction(cell);
+        this.snapshot.commit();
+        return result;
     }
 
     @Override
@@ -454,13 +600,115 @@ class Minefield implements IMinefield {
      */
     private void setGameOver() {
         this.isGameOver = true;
-        this.updatedCells.clear();
+        this.journal.clear();
+
+        //Add all cells to the performAction list. The cells show their content, because they know the minefield.
+        this.journal.fill();
+
+        this.reveal = new GameOverReveal(this.cells.length, new GameOverReveal.Source() {
+            @Override
+            public GameOverReveal.Category getCategory(final int index) {
+                final Cell cell = cells[index];
+                if(cell.getContent() == CellContent.MINE) return GameOverReveal.Category.MINE;
+
+                switch (cell.getCellState()) {
+                    case FLAGGED:
+                        return GameOverReveal.Category.WRONG_FLAG;
+                    case UNDISCOVERED:
+                        return GameOverReveal.Category.REMAINING;
+                    default:
+                        return null;
+                }
+            }
+
+            @Override
+            public long getPosition(final int index) {
+                return ICellPosition.pack(index % rows, index / rows);
+            }
+        });
+    }
 
-        //Add all cells to the performAction list.
-        //Just adding is not enough. Also set the state of the cells to open.
-        for(final Cell cell : this.field.values()) {
-            cell.setGameOver(true);
-            this.updatedCells.add(cell);
+    /**
+     * Opens the moore-neighbourhood of the given cell. The neighbourhood of empty cells will be opened as well. Look
+     * at {@link Chord} for the details.
+     * @param cell The cell which is double clicked.
+     * @return The specific performAction return value.
+     */
+    private OpenReturn openNeighbourhood(final Cell cell) {
+        /**
+         * get Cell
+         * What to expect:
+         * - the chord checks the neighbours first:
+         * - if an undiscovered neighbour is a mine -> game over and return was mine
+         * - otherwise the chord finds the undiscovered neighbours and the areas around the empty ones
+         * - every found cell is opened and added to the updated list exactly once
+         * - no free cells left => return game cleared
+         * - flag count == neighbour size => return was_flagged
+         * - open cell == neighbour size => return cell are already open
+         */
+        final int found = this.chord.chord(indexOf(cell), this.grid);
+
+        /**
+         * When a mine was found, just return WAS_MINE.
+         */
+        if(found == Chord.MINE) {
+            setGameOver();
+            return OpenReturn.WAS_MINE;
+        }
+
+        for(int i=0; i < found; ++i) {
+            final int index = this.chord.get(i);
+            this.cells[index].setState(CellState.OPEN);
+            this.journal.add(index);
+        }
+
+        this.freeCellsLeft -= found;
+        assert this.freeCellsLeft >= 0 : "the amount of free cells is negativ!";
+
+        /**
+         * The game was cleared during double click, return GAME_CLEARED.
+         */
+        if(this.freeCellsLeft == 0) {
+            setGameOver();
+            return OpenReturn.GAME_CLEARED;
+        }
+
+        /**
+         * all cells in the moore neighbourhood are flagged, just return WAS_FLAGGED.
+         */
+        if(this.chord.getFlagCount() == this.chord.getNeighbourCount()) return OpenReturn.WAS_FLAGGED;
+
+        /**
+         * all cells in the moore neighbourhood are already opened, just return IS_ALREADY_OPEN.
+         */
+        if(this.chord.getOpenCount() == this.chord.getNeighbourCount()) return OpenReturn.IS_ALREADY_OPEN;
+
+        /**
+         * Otherwise return open.
+         *
+         * Note: Here you can't return openReturn, because the last cell in the neighbourhood could be flagged
+         * and then we would return was_flagged.
+         */
+        return OpenReturn.OPEN;
+    }
+
+    /**
+     * <p>Opens the given cell. If the cell is empty, all cells in the neighborhood will also be opened.</p>
+     * <p>The opened cells are added to the updated cells in the order they were discovered.</p>
+     * @param cell The cell which should be opened.
+     */
+    private void open(final Cell cell) {
+        final ICellPosition position = cell.getPosition();
+        final int opened = this.floodFill.fill(position.getY() * this.rows + position.getX(), this.grid);
+
+        for(int i=0; i < opened; ++i) {
+            final int index = this.floodFill.get(i);
+
+            /*
+             * Add the cell after the state change. The journal reads the new state of the cell.
+             */
+            this.cells[index].setState(CellState.OPEN);
+            this.journal.add(index);
         }
     }
 
@@ -473,10 +721,12 @@ class Minefield implements IMinefield {
 
         for (int y = 0; y < cols; ++y) {
             for(int x=0; x < rows; ++x) {
-                final CellPosition position = new CellPosition(x, y);
+                final CellPosition position = CellPosition.valueOf(x, y);
+
                 final Cell c = new Cell(position);
+                c.setMinefield(this);
 
-                this.field.put(position, c);
+                this.cells[y * rows + x] = c;
             }
         }
     }
@@ -487,21 +737,19 @@ class Minefield implements IMinefield {
     private void addNeighboursToCells() {
 
         // Iterate over all position in the minefield and add the neighbours to the cells.
-        for(final Map.Entry<ICellPosition, Cell> entry : this.field.entrySet()) {
+        for(final Cell c : this.cells) {
             /*
              * Here we are calling getMooreNeighbourhood. The moore neighbourhood would normally return 8 neighbours because
              * that is the definition of a moore neighbourhood. But around the border of the minefield the cells don't have
              * a moore neighbourhood. In those cases the method getMooreNeighbourhood don't return the full moore neighbourhood
              * instead only a small part of the neighbourhood will be returned.
              */
-            //The key is the cell position.
-            final List<Cell> neighbours = getMooreNeighbourhood(entry.getKey());
+            final List<Cell> neighbours = getMooreNeighbourhood(c.getPosition());
             assert neighbours != null : "The list of neighbours is null!";
             // The size should be always greater than 0 because all cells inside the minefield have neighbours by definition.
             assert neighbours.size() > 0 : "The amount of neighbour should be greater than 0!";
 
-            // Get the cell to the position and add the neighbours to the cell.
-            final Cell c = entry.getValue();
+            // Add the neighbours to the cell.
             c.addNeighbours(neighbours);
         }
 
@@ -548,11 +796,12 @@ class Minefield implements IMinefield {
                  * Calculate the neigbour cell position and check if this position is valid.
                  * Around the borders the cell may have less neighbours than the moore neighbourhood.
                  */
-                final CellPosition moore = new CellPosition( pX + x, pY + y);
-                if(validatePosition(moore)) {
+                final int mooreX = pX + x;
+                final int mooreY = pY + y;
+                if(validatePosition(mooreX, mooreY)) {
 
                     // Get the neighbour and add this to the list of neighbours.
-                    final Cell c = this.field.get(moore);
+                    final Cell c = this.cells[mooreY * this.rows + mooreX];
                     neighbours.add(c);
                 }
             }
@@ -564,26 +813,151 @@ class Minefield implements IMinefield {
 
     /**
      * Places the correct amount of mines inside the minefield.
+     * @param bits The bitset of the mines or null, if the mines should be placed randomly.
      */
-    private void placeMines() {
+    private void placeMines(final long[] bits) {
         /*
-         * Get all keys position of the minefield. Then shuffle those positions.
-         *
-         * After shuffling take n positions from all position beginning from 0.
-         * When setting the cells to mines. Update the neighbours of the cell to increase the content.
+         * The placer chooses the mines with one random number per mine. Afterwards the content of all cells is counted
+         * in a single pass over the mines and set at once, instead of increasing the neighbours of every mine.
          */
-        final ArrayList<ICellPosition> positions = new ArrayList<>(this.field.keySet());
-        Collections.shuffle(positions);
+        final long[] mines = bits != null ? bits
+                : MinePlacer.sample(this.cells.length, this.totalAmountOfMines, MinePlacer.random()::nextInt);
+
+        placeMines(mines, new byte[this.cells.length]);
+    }
+
+    /**
+     * Sets the content of all cells to the mines of the given bitset.
+     * @param mines The bitset of the mines.
+     * @param contents The content codes of the cells, which have to be 0.
+     */
+    private void placeMines(final long[] mines, final byte[] contents) {
+        assert MinePlacer.count(mines) == this.totalAmountOfMines : "The amount of mines is not equal to the total amount!";
 
-        for(int i=0; i < this.totalAmountOfMines; ++i) {
-            final ICellPosition position = positions.get(i);
+        MinePlacer.countNeighbours(this.rows, this.columns, mines, contents);
 
-            // Get the cell to the position and mark the cell as mine.
-            final Cell cell = this.field.get(position);
-            cell.markAsMine();
+        for(int index=0; index < this.cells.length; ++index) {
+            this.cells[index].setContent(UpdateJournal.toContent(contents[index]));
         }
     }
 
+    /**
+     * Protects the first single click or double click on an undiscovered cell. The mines of the clicked cell and its
+     * moore-neighbourhood are moved away, before the cell is opened. Look at
+     * {@link MinePlacer#clearFirstClick(int, int, int, int, IntUnaryOperator, MinePlacer.Mines)}.
+     * @param random Returns a random number from 0 to the given bound, which chooses the new cells of the mines.
+     */
+    void protectFirstClick(final IntUnaryOperator random) {
+        assert random != null : "The random numbers are null!";
+
+        this.firstClickRandom = random;
+        this.firstClickSafe = true;
+    }
+
+    @Override
+    public void reset(final long seed) {
+        startResetRandom(seed);
+        Arrays.fill(this.resetContents, (byte) 0);
+
+        // The cells and their neighbours are kept, only the state and the content change.
+        for(final Cell cell : this.cells) {
+            cell.setState(CellState.UNDISCOVERED);
+        }
+        MinePlacer.sample(this.cells.length, this.totalAmountOfMines, this.resetNumbers, this.resetMines);
+        placeMines(this.resetMines, this.resetContents);
+        setSeed(seed);
+
+        this.freeCellsLeft = this.cells.length - this.totalAmountOfMines;
+        this.placedFlags = 0;
+        this.isGameOver = false;
+        this.reveal = null;
+        // Like a seeded game, the mines of the first click are moved with the following numbers of the seed.
+        this.firstClickRandom = this.firstClickSafe ? this.resetNumbers : null;
+
+        // Every cell may have changed, so the renderer has to draw the whole minefield.
+        this.journal.clear();
+        this.journal.fill();
+        this.snapshot.commit();
+    }
+
+    /**
+     * Starts the random generator of the seeded games with the given seed. The generator, its numbers and the buffers
+     * are created by the first call and reused by every further call.
+     * @param seed The seed.
+     */
+    private void startResetRandom(final long seed) {
+        if(this.resetRandom == null) {
+            this.resetRandom = new SeededRandom(seed);
+            this.resetNumbers = this.resetRandom::nextInt;
+            this.resetMines = new long[(int) ((this.cells.length + 63L) >>> 6)];
+            this.resetContents = new byte[this.cells.length];
+        } else {
+            this.resetRandom.setSeed(seed);
+        }
+    }
+
+    /**
+     * Returns the random numbers of a restored first click protection. The numbers of a seeded game continue behind
+     * the numbers which placed the mines, like the numbers of a new seeded game, so the first click moves the mines to
+     * the same cells as in the original game. Other games use the random generator of the thread which performs the
+     * first click.
+     * @return The random numbers of the first click.
+     */
+    private IntUnaryOperator restoredFirstClickRandom() {
+        if(!this.seeded) return GameFactory::random;
+
+        // The numbers which placed the mines are drawn again and dropped, the restored mines are the sampled ones.
+        startResetRandom(this.seed);
+        MinePlacer.sample(this.cells.length, this.totalAmountOfMines, this.resetNumbers, this.resetMines);
+        return this.resetNumbers;
+    }
+
+    /**
+     * Moves the mines out of the first clicked cell and its neighbourhood. Only the moved mines and their neighbours
+     * are changed, the minefield is not created again.
+     * @param cell The first clicked cell.
+     */
+    private void clearFirstClick(final Cell cell) {
+        final IntUnaryOperator random = this.firstClickRandom;
+        this.firstClickRandom = null;
+
+        MinePlacer.clearFirstClick(this.rows, this.columns, this.cells.length - this.totalAmountOfMines, indexOf(cell),
+                random, new MinePlacer.Mines() {
+                    @Override
+                    public boolean isMine(final int index) {
+                        return cells[index].getContent() == CellContent.MINE;
+                    }
+
+                    @Override
+                    public void moveMine(final int from, final int to) {
+                        removeMine(cells[from]);
+                        cells[to].markAsMine();
+                    }
+                });
+    }
+
+    /**
+     * Removes the mine of the given cell. The cell gets the amount of mines in its neighbourhood and the neighbours
+     * without a mine decrease their number.
+     * @param cell The cell, which contains a mine.
+     */
+    private void removeMine(final Cell cell) {
+        assert cell.getContent() == CellContent.MINE : "The cell " + cell + " is not a mine!";
+
+        byte mines = 0;
+        for(final Cell c : cell.getNeighbours()) {
+            final CellContent content = c.getContent();
+
+            if(content == CellContent.MINE) {
+                ++mines;
+            } else {
+                c.setContent(UpdateJournal.toContent((byte) (content.getMinesInNeighbourhood() - 1)));
+            }
+        }
+
+        cell.setContent(UpdateJournal.toContent(mines));
+    }
+
     /**
      * Mark the given cell as flag or remove the flag and set the cell as undiscovered.
      * @param cell The cell which should be flagged or set as undiscovered.
@@ -614,7 +988,84 @@ class Minefield implements IMinefield {
         }
 
         // Add the cell to the updated cell list.
-        this.updatedCells.add(cell);
+        this.journal.add(indexOf(cell));
+    }
+
+    /**
+     * Returns the index of the given cell.
+     * @param cell The cell.
+     * @return The index of the cell or -1, if the cell is not a cell of this minefield.
+     */
+    private int indexOf(final ICell cell) {
+        if(cell == null) return -1;
+
+        final ICellPosition position = cell.getPosition();
+        if(position == null || !validatePosition(position)) return -1;
+
+        final int index = position.getY() * this.rows + position.getX();
+        return this.cells[index] == cell ? index : -1;
+    }
+
+    /**
+     * <p>The read only map view of the cells. The cell of a position is found by the index of the position.</p>
+     */
+    private final class FieldView extends AbstractMap<ICellPosition, Cell> {
+
+        @Override
+        public Cell get(final Object key) {
+            if(!(key instanceof ICellPosition)) return null;
+
+            final ICellPosition position = (ICellPosition) key;
+            if(!validatePosition(position)) return null;
+
+            return cells[position.getY() * rows + position.getX()];
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return cells.length;
+        }
+
+        @Override
+        public Set<Entry<ICellPosition, Cell>> entrySet() {
+            return new AbstractSet<Entry<ICellPosition, Cell>>() {
+                @Override
+                public Iterator<Entry<ICellPosition, Cell>> iterator() {
+                    return new Iterator<Entry<ICellPosition, Cell>>() {
+
+                        private int next = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return this.next < cells.length;
+                        }
+
+                        @Override
+                        public Entry<ICellPosition, Cell> next() {
+                            if(!hasNext()) throw new NoSuchElementException();
+
+                            final Cell cell = cells[this.next++];
+                            return new SimpleImmutableEntry<>(cell.getPosition(), cell);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return cells.length;
+                }
+            };
+        }
+
+        @Override
+        public Collection<Cell> values() {
+            return Collections.unmodifiableList(Arrays.asList(cells));
+        }
     }
 
     /**
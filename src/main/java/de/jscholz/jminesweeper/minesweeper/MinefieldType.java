@@ -0,0 +1,21 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+/**
+ * All implementations of the minefield which can be created by the {@link GameCreator}.
+ */
+public enum MinefieldType {
+    /**
+     * The minefield stores every cell as an object inside a map. Each cell knows its neighbours.
+     */
+    HASH_MAP,
+    /**
+     * The minefield stores the state and the content of the cells inside byte arrays. The neighbours are calculated
+     * by the index of the cell. Clicking on the minefield doesn't allocate any objects.
+     */
+    ARRAY,
+    /**
+     * The minefield stores the mines, the opened cells and the flagged cells as bitboards with one bit per cell. The
+     * content of the cells is calculated from the mine bitboard.
+     */
+    BITBOARD
+}
@@ -0,0 +1,285 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Creates minefields, which can be cleared by logic alone.</p>
+ * <p>
+ *     The generator places the mines of a candidate at random, with a free area around the first click in the center
+ *     of the minefield. Afterwards a deterministic solver plays the candidate from the first click, look at
+ *     {@link NoGuessSolver}. A candidate which needs a guess is rejected and the next candidate is created.
+ * </p>
+ * <p>
+ *     The candidates are created by all workers of a {@link ForkJoinPool} at the same time. Each worker uses the
+ *     random generator of its thread and its own solver, so the workers don't share any state except the amount of
+ *     missing minefields. The type of the created minefields is given to the generator, so it doesn't depend on the
+ *     configuration of the {@link GameCreator}. The first click is already performed, because the minefield can only
+ *     be cleared without a guess from this cell.
+ * </p>
+ * <p>The generator counts the candidates, the rejected candidates and the time per difficulty, look at {@link Metrics}.</p>
+ */
+public final class NoGuessGenerator {
+
+    /**
+     * The pool which creates the candidates.
+     */
+    private final ForkJoinPool pool;
+    /**
+     * The type of the created minefields, if no type is given.
+     */
+    private final MinefieldType type;
+    /**
+     * The metrics of every difficulty.
+     */
+    private final Map<Difficulty, Metrics> metrics;
+
+    /**
+     * Default-Ctor creates a generator which uses the common pool and creates minefields of the default type.
+     */
+    public NoGuessGenerator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Custom-Ctor creates a generator which uses the given pool and creates minefields of the default type.
+     * @param pool The pool which creates the candidates.
+     */
+    public NoGuessGenerator(final ForkJoinPool pool) {
+        this(pool, GameConfiguration.DEFAULT.getMinefieldType());
+    }
+
+    /**
+     * Custom-Ctor creates a generator which uses the given pool and creates minefields of the given type.
+     * @param pool The pool which creates the candidates.
+     * @param type The type of the created minefields.
+     */
+    public NoGuessGenerator(final ForkJoinPool pool, final MinefieldType type) {
+        assert pool != null : "The pool is null!";
+        assert type != null : "The type is null!";
+
+        this.pool = pool;
+        this.type = type;
+
+        final EnumMap<Difficulty, Metrics> metrics = new EnumMap<>(Difficulty.class);
+        for(final Difficulty difficulty : Difficulty.values()) {
+            metrics.put(difficulty, new Metrics());
+        }
+        this.metrics = Collections.unmodifiableMap(metrics);
+    }
+
+    /**
+     * Creates a minefield with the given difficulty, which can be cleared without a guess.
+     * @param difficulty The difficulty of the minefield.
+     * @return The minefield, where the first click is already performed.
+     */
+    public IMinefield generate(final Difficulty difficulty) {
+        return generate(difficulty, 1).get(0);
+    }
+
+    /**
+     * Creates the given amount of minefields with the given difficulty, which can be cleared without a guess.
+     * @param difficulty The difficulty of the minefields.
+     * @param count The amount of minefields.
+     * @return The minefields, where the first click is already performed.
+     */
+    public List<IMinefield> generate(final Difficulty difficulty, final int count) {
+        return generate(difficulty, count, this.type);
+    }
+
+    /**
+     * Creates the given amount of minefields with the given difficulty and type, which can be cleared without a guess.
+     * @param difficulty The difficulty of the minefields.
+     * @param count The amount of minefields.
+     * @param type The type of the minefields.
+     * @return The minefields, where the first click is already performed.
+     */
+    public List<IMinefield> generate(final Difficulty difficulty, final int count, final MinefieldType type) {
+        assert difficulty != null : "The difficulty is null!";
+        assert count > 0 : "The amount of minefields " + count + " is not positive!";
+        assert type != null : "The type is null!";
+
+        final int rows = difficulty.getRows();
+        final int columns = difficulty.getColumns();
+        final int cellCount = rows * columns;
+        final int totalAmountOfMines = cellCount * difficulty.getMinesPercent() / 100;
+        final int first = firstClick(rows, columns);
+        final Metrics metrics = this.metrics.get(difficulty);
+
+        final AtomicInteger missing = new AtomicInteger(count);
+        final ConcurrentLinkedQueue<long[]> layouts = new ConcurrentLinkedQueue<>();
+        final List<ForkJoinTask<?>> workers = new ArrayList<>();
+        final long start = System.nanoTime();
+
+        // Every worker creates candidates, until enough minefields were found.
+        for(int i=0; i < this.pool.getParallelism(); ++i) {
+            workers.add(this.pool.submit(() -> {
+                final NoGuessSolver solver = new NoGuessSolver(rows, columns);
+
+                while (missing.get() > 0) {
+                    final long[] mines = candidate(rows, columns, totalAmountOfMines, first);
+                    metrics.candidates.increment();
+
+                    if(!solver.solve(mines, first)) {
+                        metrics.rejected.increment();
+                        continue;
+                    }
+
+                    // Other workers may have found the last minefield at the same time.
+                    if(missing.getAndDecrement() > 0) layouts.add(mines);
+                }
+            }));
+        }
+
+        for(final ForkJoinTask<?> worker : workers) {
+            worker.join();
+        }
+        metrics.nanos.add(System.nanoTime() - start);
+        metrics.boards.add(count);
+
+        final List<IMinefield> minefields = new ArrayList<>(count);
+        for(final long[] mines : layouts) {
+            final IMinefield minefield = GameFactory.create(type, rows, columns, mines);
+            minefield.singleClick(first % rows, first / rows);
+            minefields.add(minefield);
+        }
+
+        assert minefields.size() == count : "The generator created " + minefields.size() + " instead of " + count + " minefields!";
+        return minefields;
+    }
+
+    /**
+     * Returns the metrics of the given difficulty.
+     * @param difficulty The difficulty.
+     * @return The metrics, which are updated by the generator.
+     */
+    public Metrics getMetrics(final Difficulty difficulty) {
+        return this.metrics.get(difficulty);
+    }
+
+    /**
+     * Returns the index of the first click, which is the center of the minefield.
+     * @param rows The amount of rows inside the minefield.
+     * @param columns The amount of columns inside the minefield.
+     * @return The index of the first clicked cell.
+     */
+    static int firstClick(final int rows, final int columns) {
+        return (columns / 2) * rows + rows / 2;
+    }
+
+    /**
+     * Creates the mines of a candidate with the random generator of the current thread. The first click and its
+     * neighbourhood don't contain a mine.
+     * @param rows The amount of rows inside the minefield.
+     * @param columns The amount of columns inside the minefield.
+     * @param totalAmountOfMines The amount of mines.
+     * @param first The index of the first clicked cell.
+     * @return The bitset of the mines.
+     */
+    private static long[] candidate(final int rows, final int columns, final int totalAmountOfMines, final int first) {
+        final int cellCount = rows * columns;
+        final long[] mines = MinePlacer.sample(cellCount, totalAmountOfMines, MinePlacer.random()::nextInt);
+
+        MinePlacer.clearFirstClick(rows, columns, cellCount - totalAmountOfMines, first, MinePlacer.random()::nextInt,
+                new MinePlacer.Mines() {
+                    @Override
+                    public boolean isMine(final int index) {
+                        return (mines[index >>> 6] & (1L << index)) != 0;
+                    }
+
+                    @Override
+                    public void moveMine(final int from, final int to) {
+                        mines[from >>> 6] &= ~(1L << from);
+                        mines[to >>> 6] |= 1L << to;
+                    }
+                });
+
+        return mines;
+    }
+
+    /**
+     * <p>The metrics of the generator for one difficulty. All values are summed up since the generator was created.</p>
+     * <p>The metrics can be read while the generator is running.</p>
+     */
+    public static final class Metrics {
+
+        /**
+         * The amount of created candidates.
+         */
+        private final LongAdder candidates = new LongAdder();
+        /**
+         * The amount of candidates, which needed a guess.
+         */
+        private final LongAdder rejected = new LongAdder();
+        /**
+         * The amount of returned minefields.
+         */
+        private final LongAdder boards = new LongAdder();
+        /**
+         * The time the generator needed to create the returned minefields in nanoseconds.
+         */
+        private final LongAdder nanos = new LongAdder();
+
+        /**
+         * The metrics are only created by the generator.
+         */
+        private Metrics() {
+        }
+
+        /**
+         * Returns the amount of created candidates.
+         * @return The amount of candidates.
+         */
+        public long getCandidates() {
+            return this.candidates.sum();
+        }
+
+        /**
+         * Returns the amount of candidates, which needed a guess.
+         * @return The amount of rejected candidates.
+         */
+        public long getRejected() {
+            return this.rejected.sum();
+        }
+
+        /**
+         * Returns the amount of returned minefields.
+         * @return The amount of minefields.
+         */
+        public long getBoards() {
+            return this.boards.sum();
+        }
+
+        /**
+         * Returns the part of the candidates, which needed a guess.
+         * @return The rejection rate from 0 to 1 or 0, if no candidate was created.
+         */
+        public double getRejectionRate() {
+            final long candidates = getCandidates();
+            return candidates == 0 ? 0 : (double) getRejected() / candidates;
+        }
+
+        /**
+         * Returns the amount of returned minefields per second of generation time.
+         * @return The throughput of the generator or 0, if no minefield was created.
+         */
+        public double getBoardsPerSecond() {
+            final long nanos = this.nanos.sum();
+            return nanos == 0 ? 0 : getBoards() * 1e9 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Metrics [Boards: %d, Candidates: %d, Rejection rate: %.3f, Boards per second: %.1f]",
+                    getBoards(), getCandidates(), getRejectionRate(), getBoardsPerSecond());
+        }
+    }
+}
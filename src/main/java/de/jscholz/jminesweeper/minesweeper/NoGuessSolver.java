@@ -0,0 +1,347 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * <p>A deterministic solver, which decides if a minefield can be cleared from the first click without guessing.</p>
+ * <p>
+ *     The solver only knows the contents of the opened cells, like a player. It repeats the following rules until
+ *     all free cells are opened or no rule makes progress:
+ * </p>
+ * <ul>
+ *     <li>If a number has as many flagged neighbours as mines, all other neighbours are opened. If it has as many
+ *     undiscovered and flagged neighbours as mines, all undiscovered neighbours are flagged.</li>
+ *     <li>If the undiscovered neighbours of a number are a subset of the undiscovered neighbours of a nearby number,
+ *     the difference of both numbers are the mines of the remaining cells. The remaining cells are opened or flagged,
+ *     if the difference is 0 or the amount of remaining cells.</li>
+ *     <li>If all mines are flagged, all undiscovered cells are opened. If the undiscovered cells are the missing
+ *     mines, they are flagged.</li>
+ * </ul>
+ * <p>
+ *     The rules never guess, so the solver never opens a mine. The opened cells are stored in the order they were
+ *     opened. A solver is used by one thread only and can solve several minefields of the same size.
+ * </p>
+ */
+final class NoGuessSolver {
+
+    /**
+     * The state of an undiscovered cell.
+     */
+    private static final byte UNDISCOVERED = 0;
+    /**
+     * The state of an opened cell.
+     */
+    private static final byte OPEN = 1;
+    /**
+     * The state of a flagged cell.
+     */
+    private static final byte FLAGGED = 2;
+
+    /**
+     * The amount of rows inside the minefield.
+     */
+    private final int rows;
+    /**
+     * The amount of columns inside the minefield.
+     */
+    private final int columns;
+    /**
+     * The content codes of the cells, look at {@link MinePlacer#countNeighbours(int, int, long[], byte[])}.
+     */
+    private final byte[] contents;
+    /**
+     * The states of the cells, as far as the solver knows them.
+     */
+    private final byte[] states;
+    /**
+     * The opened cells in the order they were opened.
+     */
+    private final int[] order;
+    /**
+     * The stack which is used to open the neighbours of empty cells.
+     */
+    private final int[] stack;
+    /**
+     * The amount of mines inside the minefield.
+     */
+    private int mines;
+    /**
+     * The amount of opened cells.
+     */
+    private int opened;
+    /**
+     * The amount of flagged cells.
+     */
+    private int flagged;
+
+    /**
+     * Custom-Ctor creates a solver for minefields of the given size.
+     * @param rows The amount of rows inside the minefield.
+     * @param columns The amount of columns inside the minefield.
+     */
+    NoGuessSolver(final int rows, final int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.contents = new byte[rows * columns];
+        this.states = new byte[rows * columns];
+        this.order = new int[rows * columns];
+        this.stack = new int[rows * columns];
+    }
+
+    /**
+     * Solves the given minefield from the given first click.
+     * @param mines The bitset of the mines, where the bit of a cell is its index.
+     * @param first The index of the first clicked cell, which must not contain a mine.
+     * @return True, if all free cells were opened without a guess. False, if a guess is needed.
+     */
+    boolean solve(final long[] mines, final int first) {
+        Arrays.fill(this.contents, (byte) 0);
+        Arrays.fill(this.states, UNDISCOVERED);
+        MinePlacer.countNeighbours(this.rows, this.columns, mines, this.contents);
+
+        this.mines = MinePlacer.count(mines);
+        this.opened = 0;
+        this.flagged = 0;
+
+        assert this.contents[first] != MinePlacer.MINE : "The first click is a mine!";
+        open(first);
+
+        final int freeCells = this.contents.length - this.mines;
+        while (this.opened < freeCells) {
+            if(!applyNumbers() && !applySubsets() && !applyMineCount()) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the amount of opened cells of the last solve.
+     * @return The amount of opened cells.
+     */
+    int size() {
+        return this.opened;
+    }
+
+    /**
+     * Returns the cell, which was opened at the given position.
+     * @param i The position of the cell inside the order, beginning at 0.
+     * @return The index of the cell.
+     */
+    int get(final int i) {
+        assert i >= 0 && i < this.opened : "The position " + i + " is not within bounds!";
+        return this.order[i];
+    }
+
+    /**
+     * Applies the rule of the single numbers to every opened cell.
+     * @return True, if a cell was opened or flagged. False, otherwise.
+     */
+    private boolean applyNumbers() {
+        boolean progress = false;
+
+        for(int index=0; index < this.contents.length; ++index) {
+            if(this.states[index] != OPEN || this.contents[index] == 0) continue;
+
+            final int undiscovered = count(index, UNDISCOVERED);
+            if(undiscovered == 0) continue;
+
+            final int missing = this.contents[index] - count(index, FLAGGED);
+            if(missing == 0) {
+                openNeighbours(index, -1);
+                progress = true;
+            } else if(missing == undiscovered) {
+                flagNeighbours(index, -1);
+                progress = true;
+            }
+        }
+
+        return progress;
+    }
+
+    /**
+     * Applies the rule of the subsets to the first pair of numbers, where it makes progress.
+     * @return True, if a cell was opened or flagged. False, otherwise.
+     */
+    private boolean applySubsets() {
+        for(int a=0; a < this.contents.length; ++a) {
+            if(this.states[a] != OPEN || this.contents[a] == 0) continue;
+
+            final int undiscoveredA = count(a, UNDISCOVERED);
+            if(undiscoveredA == 0) continue;
+
+            final int ax = a % this.rows;
+            final int ay = a / this.rows;
+            final int missingA = this.contents[a] - count(a, FLAGGED);
+
+            // Only numbers within a distance of 2 can share undiscovered neighbours.
+            for(int by = Math.max(ay - 2, 0); by <= Math.min(ay + 2, this.columns - 1); ++by) {
+                for(int bx = Math.max(ax - 2, 0); bx <= Math.min(ax + 2, this.rows - 1); ++bx) {
+                    final int b = by * this.rows + bx;
+                    if(b == a || this.states[b] != OPEN || this.contents[b] == 0) continue;
+
+                    final int remaining = count(b, UNDISCOVERED) - undiscoveredA;
+                    if(remaining <= 0 || !isSubset(a, b)) continue;
+
+                    final int missing = this.contents[b] - count(b, FLAGGED) - missingA;
+                    if(missing == 0) {
+                        openNeighbours(b, a);
+                        return true;
+                    }
+                    if(missing == remaining) {
+                        flagNeighbours(b, a);
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Applies the rule of the amount of mines to the whole minefield.
+     * @return True, if a cell was opened or flagged. False, otherwise.
+     */
+    private boolean applyMineCount() {
+        final int missing = this.mines - this.flagged;
+        final int undiscovered = this.contents.length - this.opened - this.flagged;
+        if(undiscovered == 0 || (missing != 0 && missing != undiscovered)) return false;
+
+        for(int index=0; index < this.contents.length; ++index) {
+            if(this.states[index] != UNDISCOVERED) continue;
+
+            if(missing == 0) open(index);
+            else flag(index);
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns if the undiscovered neighbours of the first cell are neighbours of the second cell as well.
+     * @param a The index of the first cell.
+     * @param b The index of the second cell.
+     * @return True, if the undiscovered neighbours of a are a subset of the neighbours of b.
+     */
+    private boolean isSubset(final int a, final int b) {
+        final int x = a % this.rows;
+        final int y = a / this.rows;
+
+        for(int nY = Math.max(y - 1, 0); nY <= Math.min(y + 1, this.columns - 1); ++nY) {
+            for(int nX = Math.max(x - 1, 0); nX <= Math.min(x + 1, this.rows - 1); ++nX) {
+                final int n = nY * this.rows + nX;
+                if(this.states[n] == UNDISCOVERED && !isNeighbour(n, b)) return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns if both cells are inside the moore-neighbourhood of each other.
+     * @param a The index of the first cell.
+     * @param b The index of the second cell.
+     * @return True, if the cells are neighbours or the same cell. False, otherwise.
+     */
+    private boolean isNeighbour(final int a, final int b) {
+        return Math.abs(a % this.rows - b % this.rows) <= 1 && Math.abs(a / this.rows - b / this.rows) <= 1;
+    }
+
+    /**
+     * Returns the amount of neighbours with the given state.
+     * @param index The index of the cell.
+     * @param state The state of the neighbours.
+     * @return The amount of neighbours.
+     */
+    private int count(final int index, final byte state) {
+        final int x = index % this.rows;
+        final int y = index / this.rows;
+        int count = 0;
+
+        for(int nY = Math.max(y - 1, 0); nY <= Math.min(y + 1, this.columns - 1); ++nY) {
+            for(int nX = Math.max(x - 1, 0); nX <= Math.min(x + 1, this.rows - 1); ++nX) {
+                if(this.states[nY * this.rows + nX] == state) ++count;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Opens the undiscovered neighbours of the given cell.
+     * @param index The index of the cell.
+     * @param except The neighbours of this cell are not opened or -1, if all neighbours are opened.
+     */
+    private void openNeighbours(final int index, final int except) {
+        final int x = index % this.rows;
+        final int y = index / this.rows;
+
+        for(int nY = Math.max(y - 1, 0); nY <= Math.min(y + 1, this.columns - 1); ++nY) {
+            for(int nX = Math.max(x - 1, 0); nX <= Math.min(x + 1, this.rows - 1); ++nX) {
+                final int n = nY * this.rows + nX;
+                if(except < 0 || !isNeighbour(n, except)) open(n);
+            }
+        }
+    }
+
+    /**
+     * Flags the undiscovered neighbours of the given cell.
+     * @param index The index of the cell.
+     * @param except The neighbours of this cell are not flagged or -1, if all neighbours are flagged.
+     */
+    private void flagNeighbours(final int index, final int except) {
+        final int x = index % this.rows;
+        final int y = index / this.rows;
+
+        for(int nY = Math.max(y - 1, 0); nY <= Math.min(y + 1, this.columns - 1); ++nY) {
+            for(int nX = Math.max(x - 1, 0); nX <= Math.min(x + 1, this.rows - 1); ++nX) {
+                final int n = nY * this.rows + nX;
+                if(this.states[n] == UNDISCOVERED && (except < 0 || !isNeighbour(n, except))) flag(n);
+            }
+        }
+    }
+
+    /**
+     * Flags the given cell, which must contain a mine.
+     * @param index The index of the cell.
+     */
+    private void flag(final int index) {
+        assert this.contents[index] == MinePlacer.MINE : "The solver flagged the free cell " + index + "!";
+
+        this.states[index] = FLAGGED;
+        ++this.flagged;
+    }
+
+    /**
+     * Opens the given cell, if it is undiscovered. If the cell is empty, all cells in the neighbourhood will also be
+     * opened.
+     * @param index The index of the cell.
+     */
+    private void open(final int index) {
+        if(this.states[index] != UNDISCOVERED) return;
+
+        int size = 0;
+        this.stack[size++] = index;
+        this.states[index] = OPEN;
+
+        while (size > 0) {
+            final int next = this.stack[--size];
+            assert this.contents[next] != MinePlacer.MINE : "The solver opened the mine " + next + "!";
+
+            this.order[this.opened++] = next;
+            if(this.contents[next] != 0) continue;
+
+            final int x = next % this.rows;
+            final int y = next / this.rows;
+            for(int nY = Math.max(y - 1, 0); nY <= Math.min(y + 1, this.columns - 1); ++nY) {
+                for(int nX = Math.max(x - 1, 0); nX <= Math.min(x + 1, this.rows - 1); ++nX) {
+                    final int n = nY * this.rows + nX;
+                    if(this.states[n] != UNDISCOVERED) continue;
+
+                    this.states[n] = OPEN;
+                    this.stack[size++] = n;
+                }
+            }
+        }
+    }
+}
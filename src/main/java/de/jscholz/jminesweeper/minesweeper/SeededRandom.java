@@ -0,0 +1,83 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+/**
+ * <p>The random generator of seeded games. The algorithm is part of the specification of seeded games and must never
+ * change, otherwise a seed would create another minefield after an update.</p>
+ * <p>The generator is SplitMix64:</p>
+ * <pre>
+ *     state = state + 0x9E3779B97F4A7C15
+ *     z = state
+ *     z = (z ^ (z &gt;&gt;&gt; 30)) * 0xBF58476D1CE4E5B9
+ *     z = (z ^ (z &gt;&gt;&gt; 27)) * 0x94D049BB133111EB
+ *     return z ^ (z &gt;&gt;&gt; 31)
+ * </pre>
+ * <p>
+ *     The initial state is the seed. A random number below a bound is taken from the upper 32 bits of the next long
+ *     with the multiply-shift method of Lemire. Values which would prefer some numbers are rejected and drawn again.
+ *     Only the arithmetic of long values is used, so the numbers are the same on every JVM and every platform.
+ * </p>
+ * <p>The generator is not thread-safe, every seeded game uses its own generator.</p>
+ */
+final class SeededRandom {
+
+    /**
+     * The increment of the state, which is the golden ratio.
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The current state.
+     */
+    private long state;
+
+    /**
+     * Custom-Ctor creates a generator with the given seed.
+     * @param seed The seed.
+     */
+    SeededRandom(final long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * Starts the generator again with the given seed. The following numbers are the same as the numbers of a new
+     * generator with this seed.
+     * @param seed The seed.
+     */
+    void setSeed(final long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * Returns the next random long.
+     * @return The next long, where all bits are random.
+     */
+    long nextLong() {
+        long z = (this.state += GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns a random int from 0 to the given bound, where every number has the same probability.
+     * @param bound The bound, which is not part of the numbers.
+     * @return The random number.
+     */
+    int nextInt(final int bound) {
+        assert bound > 0 : "The bound " + bound + " is not positive!";
+
+        long product = (nextLong() >>> 32) * bound;
+        long low = product & 0xFFFFFFFFL;
+
+        if(low < bound) {
+            // The lowest (2^32 mod bound) values would prefer some numbers.
+            final long threshold = (0x100000000L - bound) % bound;
+            while (low < threshold) {
+                product = (nextLong() >>> 32) * bound;
+                low = product & 0xFFFFFFFFL;
+            }
+        }
+
+        return (int) (product >>> 32);
+    }
+}
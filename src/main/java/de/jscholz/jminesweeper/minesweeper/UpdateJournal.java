@@ -0,0 +1,460 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * <p>The journal contains all cells which were changed by the last single click, double click or secondary click.
+ * It is the primitive version of {@link IMinefield#getUpdateCells()}.</p>
+ * <p>
+ *     Each entry consists of the position of the cell and the codes of the new state and the new content. The journal
+ *     is reused by every click, so reading the journal doesn't create any objects. The entries are only valid until
+ *     the next click.
+ * </p>
+ * <p>The codes are:</p>
+ * <ul>
+ *     <li>State: the ordinal of the {@link CellState}. OPEN is 0, UNDISCOVERED is 1 and FLAGGED is 2.</li>
+ *     <li>Content: the amount of mines in the moore-neighbourhood from 0 to 8, -1 for a mine and -2 for an unknown
+ *     content.</li>
+ * </ul>
+ * <p>
+ *     The journal of a minefield with bounds also knows the index <i>y * rows + x</i> of each cell. When the game is
+ *     over, the journal contains all cells of the minefield. In this case the entries are not stored, but read from
+ *     the minefield when they are requested. The journal of a minefield without bounds contains the cells of all
+ *     explored chunks instead, whose positions are also calculated when they are requested.
+ * </p>
+ */
+public final class UpdateJournal {
+
+    /**
+     * The state code of an opened cell.
+     */
+    public static final byte STATE_OPEN = 0;
+    /**
+     * The state code of an undiscovered cell.
+     */
+    public static final byte STATE_UNDISCOVERED = 1;
+    /**
+     * The state code of a flagged cell.
+     */
+    public static final byte STATE_FLAGGED = 2;
+    /**
+     * The content code of a cell with an unknown content.
+     */
+    public static final byte CONTENT_UNKNOWN = -2;
+    /**
+     * The content code of a mine.
+     */
+    public static final byte CONTENT_MINE = -1;
+    /**
+     * The initial capacity of the entries.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+    /**
+     * Maps the state codes to the cell states.
+     */
+    private static final CellState[] STATES = CellState.values();
+    /**
+     * Maps the content codes plus 2 to the cell contents.
+     */
+    private static final CellContent[] CONTENTS = {
+            CellContent.UNKNOWN, CellContent.MINE, CellContent.EMPTY, CellContent.ONE, CellContent.TWO,
+            CellContent.THREE, CellContent.FOUR, CellContent.FIVE, CellContent.SIX, CellContent.SEVEN,
+            CellContent.EIGHT
+    };
+
+    /**
+     * The minefield which provides the codes of the cells.
+     */
+    private final Source source;
+    /**
+     * The amount of rows inside the minefield or 0, if the minefield has no bounds.
+     */
+    private final int rows;
+    /**
+     * The amount of cells inside the minefield or 0, if the minefield has no bounds.
+     */
+    private final int cellCount;
+    /**
+     * The bitset which contains a bit for every cell inside the journal or null, if the minefield has no bounds.
+     */
+    private final long[] members;
+    /**
+     * The packed positions of the cells in the order they were added.
+     */
+    private long[] positions;
+    /**
+     * The state codes of the cells in the order they were added.
+     */
+    private byte[] states;
+    /**
+     * The content codes of the cells in the order they were added.
+     */
+    private byte[] contents;
+    /**
+     * The amount of entries.
+     */
+    private int size;
+    /**
+     * The flag if the journal contains all cells of the minefield. In this case the entries are not stored.
+     */
+    private boolean full;
+    /**
+     * The positions of the entries of a full journal of a minefield without bounds or null, if the entries are the
+     * indices of the cells.
+     */
+    private Positions fullPositions;
+
+    /**
+     * Custom-Ctor creates an empty journal for a minefield with bounds.
+     * @param rows The amount of rows inside the minefield.
+     * @param columns The amount of columns inside the minefield.
+     * @param source The minefield which provides the codes of the cells.
+     */
+    UpdateJournal(final int rows, final int columns, final Source source) {
+        assert rows > 0 && columns > 0 : "The minefield has no cells!";
+        assert (long) rows * columns <= Integer.MAX_VALUE : "The minefield has too many cells!";
+
+        this.source = source;
+        this.rows = rows;
+        this.cellCount = rows * columns;
+        this.members = new long[(int) ((this.cellCount + 63L) >>> 6)];
+        this.positions = new long[INITIAL_CAPACITY];
+        this.states = new byte[INITIAL_CAPACITY];
+        this.contents = new byte[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Custom-Ctor creates an empty journal for a minefield without bounds.
+     * @param source The minefield which provides the codes of the cells.
+     */
+    UpdateJournal(final Source source) {
+        this.source = source;
+        this.rows = 0;
+        this.cellCount = 0;
+        this.members = null;
+        this.positions = new long[INITIAL_CAPACITY];
+        this.states = new byte[INITIAL_CAPACITY];
+        this.contents = new byte[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Returns the amount of changed cells.
+     * @return The amount of entries.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns if no cell was changed.
+     * @return True, if the journal is empty. False, otherwise.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Returns the packed position of the entry, look at {@link ICellPosition#pack(int, int)}.
+     * @param i The number of the entry.
+     * @return The packed position of the cell.
+     */
+    public long getPosition(final int i) {
+        assert i >= 0 && i < this.size : "The entry " + i + " is not within bounds!";
+        if(!this.full) return this.positions[i];
+        return this.fullPositions == null ? ICellPosition.pack(i % this.rows, i / this.rows)
+                : this.fullPositions.getPosition(i);
+    }
+
+    /**
+     * Returns the x value of the position of the entry.
+     * @param i The number of the entry.
+     * @return The x value of the position.
+     */
+    public int getX(final int i) {
+        return ICellPosition.unpackX(getPosition(i));
+    }
+
+    /**
+     * Returns the y value of the position of the entry.
+     * @param i The number of the entry.
+     * @return The y value of the position.
+     */
+    public int getY(final int i) {
+        return ICellPosition.unpackY(getPosition(i));
+    }
+
+    /**
+     * Returns the index <i>y * rows + x</i> of the entry. The minefield must have bounds.
+     * @param i The number of the entry.
+     * @return The index of the cell.
+     */
+    public int getIndex(final int i) {
+        assert this.rows > 0 : "The minefield has no bounds!";
+
+        if(this.full) return i;
+
+        final long position = getPosition(i);
+        return ICellPosition.unpackY(position) * this.rows + ICellPosition.unpackX(position);
+    }
+
+    /**
+     * Returns the code of the new state of the entry.
+     * @param i The number of the entry.
+     * @return The state code.
+     */
+    public byte getStateCode(final int i) {
+        assert i >= 0 && i < this.size : "The entry " + i + " is not within bounds!";
+        if(!this.full) return this.states[i];
+
+        final long position = getPosition(i);
+        return this.source.getStateCode(ICellPosition.unpackX(position), ICellPosition.unpackY(position));
+    }
+
+    /**
+     * Returns the code of the new content of the entry.
+     * @param i The number of the entry.
+     * @return The content code.
+     */
+    public byte getContentCode(final int i) {
+        assert i >= 0 && i < this.size : "The entry " + i + " is not within bounds!";
+        if(!this.full) return this.contents[i];
+
+        final long position = getPosition(i);
+        return this.source.getContentCode(ICellPosition.unpackX(position), ICellPosition.unpackY(position));
+    }
+
+    /**
+     * Returns the new state of the entry.
+     * @param i The number of the entry.
+     * @return The state of the cell.
+     */
+    public CellState getState(final int i) {
+        return toState(getStateCode(i));
+    }
+
+    /**
+     * Returns the new content of the entry.
+     * @param i The number of the entry.
+     * @return The content of the cell.
+     */
+    public CellContent getContent(final int i) {
+        return toContent(getContentCode(i));
+    }
+
+    /**
+     * Returns if the journal contains all cells of the minefield, because the game is over.
+     * @return True, if the journal contains all cells. False, otherwise.
+     */
+    boolean isFull() {
+        return this.full;
+    }
+
+    /**
+     * Calls the visitor for every entry in the order the cells were changed.
+     * @param visitor The visitor.
+     */
+    public void forEach(final Visitor visitor) {
+        for(int i=0; i < this.size; ++i) {
+            final long position = getPosition(i);
+            visitor.visit(ICellPosition.unpackX(position), ICellPosition.unpackY(position),
+                    getStateCode(i), getContentCode(i));
+        }
+    }
+
+    /**
+     * Returns the cell state of the given state code.
+     * @param code The state code.
+     * @return The cell state.
+     */
+    public static CellState toState(final byte code) {
+        return STATES[code];
+    }
+
+    /**
+     * Returns the cell content of the given content code.
+     * @param code The content code.
+     * @return The cell content.
+     */
+    public static CellContent toContent(final byte code) {
+        return CONTENTS[code + 2];
+    }
+
+    /**
+     * Returns the state code of the given cell state.
+     * @param state The cell state.
+     * @return The state code.
+     */
+    static byte toStateCode(final CellState state) {
+        return (byte) state.ordinal();
+    }
+
+    /**
+     * Returns the content code of the given cell content.
+     * @param content The cell content.
+     * @return The content code.
+     */
+    static byte toContentCode(final CellContent content) {
+        return (byte) content.getMinesInNeighbourhood();
+    }
+
+    /**
+     * Adds the cell with the given index to the journal. The minefield must have bounds. The codes are read from the
+     * minefield, therefore the cell has to be changed before it is added.
+     * @param index The index of the cell.
+     * @return True, if the cell was added. False, if the cell was already inside the journal.
+     */
+    boolean add(final int index) {
+        assert this.members != null : "The minefield has no bounds!";
+        assert !this.full : "The journal contains already all cells!";
+
+        final long bit = 1L << index;
+        final int word = index >>> 6;
+
+        if((this.members[word] & bit) != 0) return false;
+
+        this.members[word] |= bit;
+        append(index % this.rows, index / this.rows);
+        return true;
+    }
+
+    /**
+     * Adds the cell at the given position to the journal. The codes are read from the minefield, therefore the cell
+     * has to be changed before it is added. The journal of a minefield without bounds doesn't check if the cell is
+     * already inside the journal.
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     */
+    void add(final int x, final int y) {
+        if(this.members != null) {
+            add(y * this.rows + x);
+            return;
+        }
+
+        append(x, y);
+    }
+
+    /**
+     * Adds all cells of the minefield to the journal. The minefield must have bounds and the journal must be empty.
+     * Neither the entries nor the bitset are written, so the journal is filled in constant time.
+     */
+    void fill() {
+        assert this.members != null : "The minefield has no bounds!";
+        assert this.size == 0 : "The journal is not empty!";
+
+        this.size = this.cellCount;
+        this.full = true;
+    }
+
+    /**
+     * Adds the given amount of cells to the journal of a minefield without bounds, whose positions are calculated when
+     * they are requested. The journal must be empty. Like {@link #fill()}, no entries are written, so the journal is
+     * filled in constant time. The codes are read from the minefield, therefore the cells must not change until the
+     * journal is cleared.
+     * @param size The amount of cells.
+     * @param positions Returns the packed position of every entry.
+     */
+    void fill(final int size, final Positions positions) {
+        assert this.members == null : "The minefield has bounds!";
+        assert this.size == 0 : "The journal is not empty!";
+        assert size >= 0 : "The amount of cells " + size + " is negative!";
+
+        this.size = size;
+        this.full = true;
+        this.fullPositions = positions;
+    }
+
+    /**
+     * Returns if the cell with the given index is inside the journal. The minefield must have bounds.
+     * @param index The index of the cell.
+     * @return True, if the cell is inside the journal. False, otherwise.
+     */
+    boolean containsIndex(final int index) {
+        assert this.members != null : "The minefield has no bounds!";
+        return this.full || (this.members[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Removes all entries. Only the words of the cells inside the journal are reset instead of the whole bitset. A
+     * full journal didn't write the bitset at all.
+     */
+    void clear() {
+        if(this.members != null && !this.full) {
+            for(int i=0; i < this.size; ++i) {
+                final long position = this.positions[i];
+                final int index = ICellPosition.unpackY(position) * this.rows + ICellPosition.unpackX(position);
+                this.members[index >>> 6] = 0L;
+            }
+        }
+
+        this.size = 0;
+        this.full = false;
+        this.fullPositions = null;
+    }
+
+    /**
+     * Stores a new entry with the current codes of the cell.
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     */
+    private void append(final int x, final int y) {
+        if(this.size == this.positions.length) {
+            final int capacity = 2 * this.size;
+            this.positions = Arrays.copyOf(this.positions, capacity);
+            this.states = Arrays.copyOf(this.states, capacity);
+            this.contents = Arrays.copyOf(this.contents, capacity);
+        }
+
+        this.positions[this.size] = ICellPosition.pack(x, y);
+        this.states[this.size] = this.source.getStateCode(x, y);
+        this.contents[this.size] = this.source.getContentCode(x, y);
+        ++this.size;
+    }
+
+    /**
+     * Receives the entries of the journal without creating any objects.
+     */
+    public interface Visitor {
+        /**
+         * Is called for every entry of the journal.
+         * @param x The x value of the position.
+         * @param y The y value of the position.
+         * @param state The state code.
+         * @param content The content code.
+         */
+        void visit(final int x, final int y, final byte state, final byte content);
+    }
+
+    /**
+     * Calculates the positions of a full journal of a minefield without bounds.
+     */
+    interface Positions {
+        /**
+         * Returns the packed position of the entry, look at {@link ICellPosition#pack(int, int)}.
+         * @param i The number of the entry.
+         * @return The packed position of the cell.
+         */
+        long getPosition(final int i);
+    }
+
+    /**
+     * The minefield which provides the codes of the cells.
+     */
+    interface Source {
+        /**
+         * Returns the state code of the cell at the given position.
+         * @param x The x value of the position.
+         * @param y The y value of the position.
+         * @return The state code.
+         */
+        byte getStateCode(final int x, final int y);
+
+        /**
+         * Returns the content code of the cell at the given position, as the user can see it. The content is
+         * unknown, if the cell is not opened and the game is not over.
+         * @param x The x value of the position.
+         * @param y The y value of the position.
+         * @return The content code.
+         */
+        byte getContentCode(final int x, final int y);
+    }
+}
@@ -0,0 +1,279 @@
+package de.jscholz.jminesweeper.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * <p>The backtracking search, which counts the mine layouts of a component of the {@link Frontier}.</p>
+ * <p>
+ *     The search knows the amount of mines and unassigned variables of every constraint. Assigning a variable
+ *     updates its constraints and fails, if a constraint has too many mines or can't get enough mines anymore. The
+ *     layouts are counted by their amount of mines. When a variable is assigned a mine, the layouts found below are
+ *     added to the mines of the variable, so a layout is counted without visiting all its variables again.
+ * </p>
+ * <p>A branch of a large component is split into two tasks with copies of the state, so several workers of a
+ * {@link ForkJoinPool} search the same component.</p>
+ */
+@SuppressWarnings("serial") // The tasks are never serialized.
+final class ComponentSearch extends RecursiveTask<ComponentSearch.Counts> {
+
+    /**
+     * The minimum amount of unassigned variables of a branch, which is split into two tasks.
+     */
+    private static final int SPLIT_VARIABLES = 20;
+    /**
+     * The amount of first variables of a component, whose branches are split into tasks.
+     */
+    private static final int SPLIT_DEPTH = 4;
+
+    private final Frontier frontier;
+    /**
+     * The first variable of the component inside the variables of all components.
+     */
+    private final int start;
+    /**
+     * The amount of variables of the component.
+     */
+    private final int size;
+    /**
+     * The position of the next variable, which is assigned by this search.
+     */
+    private final int position;
+    /**
+     * The amount of mines, which were assigned before the position.
+     */
+    private final int assigned;
+    /**
+     * The amount of mines of every constraint.
+     */
+    private final int[] mines;
+    /**
+     * The amount of unassigned variables of every constraint.
+     */
+    private final int[] unassigned;
+
+    /**
+     * Custom-Ctor creates the search of a whole component.
+     * @param frontier The frontier.
+     * @param component The component.
+     */
+    ComponentSearch(final Frontier frontier, final int component) {
+        this.frontier = frontier;
+        this.start = frontier.componentStart[component];
+        this.size = frontier.componentSize(component);
+        this.position = 0;
+        this.assigned = 0;
+        this.mines = new int[frontier.constraintCount()];
+        this.unassigned = new int[frontier.constraintCount()];
+
+        for(int constraint=0; constraint < frontier.constraintCount(); ++constraint) {
+            this.unassigned[constraint] = frontier.constraintStart[constraint + 1] - frontier.constraintStart[constraint];
+        }
+    }
+
+    /**
+     * Custom-Ctor creates the search of a branch with a copy of the state of its parent.
+     */
+    private ComponentSearch(final ComponentSearch parent, final int value) {
+        this.frontier = parent.frontier;
+        this.start = parent.start;
+        this.size = parent.size;
+        this.position = parent.position + 1;
+        this.assigned = parent.assigned + value;
+        this.mines = parent.mines.clone();
+        this.unassigned = parent.unassigned.clone();
+    }
+
+    /**
+     * Counts the layouts of the components without counts at the same time.
+     * @param pool The pool which searches the components.
+     * @param frontier The frontier.
+     * @param counts The counts of every component, which are already known, or null. The missing counts are added.
+     * @return The counts of every component.
+     */
+    static Counts[] count(final ForkJoinPool pool, final Frontier frontier, final Counts[] counts) {
+        assert counts.length == frontier.componentCount() : "The counts don't belong to the frontier!";
+
+        final List<ComponentSearch> searches = new ArrayList<>();
+        for(int component=0; component < counts.length; ++component) {
+            if(counts[component] == null) searches.add(new ComponentSearch(frontier, component));
+        }
+        if(searches.isEmpty()) return counts;
+
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                ForkJoinTask.invokeAll(searches);
+                return null;
+            }
+        });
+
+        int next = 0;
+        for(int component=0; component < counts.length; ++component) {
+            if(counts[component] == null) counts[component] = searches.get(next++).join();
+        }
+        return counts;
+    }
+
+    @Override
+    protected Counts compute() {
+        final Counts counts = new Counts(this.size);
+
+        if(this.size - this.position < SPLIT_VARIABLES || this.position >= SPLIT_DEPTH) {
+            search(this.position, this.assigned, counts);
+            return counts;
+        }
+
+        // Both values of the next variable are searched by their own task.
+        final int variable = variable(this.position);
+        final ComponentSearch mine = new ComponentSearch(this, 1);
+        final ComponentSearch safe = new ComponentSearch(this, 0);
+        final boolean mineValid = mine.assign(variable, 1);
+        final boolean safeValid = safe.assign(variable, 0);
+
+        if(mineValid) mine.fork();
+        if(safeValid) counts.add(safe.compute());
+        if(mineValid) {
+            final Counts mines = mine.join();
+            counts.add(mines);
+            for(int k=0; k <= this.size; ++k) {
+                counts.mines[this.position][k] += mines.solutions[k];
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Assigns all variables from the given position on and counts the layouts.
+     * @param position The position of the next variable.
+     * @param assigned The amount of mines, which were assigned before the position.
+     * @param counts The counts of the component.
+     */
+    private void search(final int position, final int assigned, final Counts counts) {
+        if(position == this.size) {
+            ++counts.solutions[assigned];
+            return;
+        }
+
+        final int variable = variable(position);
+
+        if(assign(variable, 1)) {
+            // The layouts below have between assigned + 1 and assigned + 1 + remaining mines. The difference of the
+            // layouts before and after the branch are the layouts with a mine in the variable.
+            final int from = assigned + 1;
+            final int to = from + this.size - position - 1;
+            final long[] mines = counts.mines[position];
+
+            for(int k=from; k <= to; ++k) {
+                mines[k] -= counts.solutions[k];
+            }
+            search(position + 1, from, counts);
+            for(int k=from; k <= to; ++k) {
+                mines[k] += counts.solutions[k];
+            }
+        }
+        unassign(variable, 1);
+
+        if(assign(variable, 0)) search(position + 1, assigned, counts);
+        unassign(variable, 0);
+    }
+
+    /**
+     * Assigns the value to the variable and updates all its constraints.
+     * @return True, if all constraints can still be satisfied.
+     */
+    private boolean assign(final int variable, final int value) {
+        boolean valid = true;
+
+        for(int i = this.frontier.variableStart[variable]; i < this.frontier.variableStart[variable + 1]; ++i) {
+            final int constraint = this.frontier.variableConstraints[i];
+            final int mines = this.mines[constraint] += value;
+            final int unassigned = --this.unassigned[constraint];
+            final int need = this.frontier.need[constraint];
+
+            if(mines > need || mines + unassigned < need) valid = false;
+        }
+
+        return valid;
+    }
+
+    /**
+     * Removes the value from the variable, the constraints are updated even if the assignment was not valid.
+     */
+    private void unassign(final int variable, final int value) {
+        for(int i = this.frontier.variableStart[variable]; i < this.frontier.variableStart[variable + 1]; ++i) {
+            final int constraint = this.frontier.variableConstraints[i];
+            this.mines[constraint] -= value;
+            ++this.unassigned[constraint];
+        }
+    }
+
+    private int variable(final int position) {
+        return this.frontier.componentVariables[this.start + position];
+    }
+
+    /**
+     * <p>The layouts of a component by their amount of mines and the layouts with a mine in every variable.</p>
+     */
+    static final class Counts {
+
+        /**
+         * The amount of layouts with k mines at the index k.
+         */
+        final long[] solutions;
+        /**
+         * The amount of layouts with k mines and a mine in the variable, in the order of the variables of the
+         * component.
+         */
+        final long[][] mines;
+
+        /**
+         * Custom-Ctor creates empty counts.
+         * @param variables The amount of variables of the component.
+         */
+        Counts(final int variables) {
+            this.solutions = new long[variables + 1];
+            this.mines = new long[variables][variables + 1];
+        }
+
+        /**
+         * Adds the other counts to these counts.
+         * @param other The counts of another branch of the same component.
+         */
+        void add(final Counts other) {
+            for(int k=0; k < this.solutions.length; ++k) {
+                this.solutions[k] += other.solutions[k];
+            }
+            for(int i=0; i < this.mines.length; ++i) {
+                for(int k=0; k < this.solutions.length; ++k) {
+                    this.mines[i][k] += other.mines[i][k];
+                }
+            }
+        }
+
+        /**
+         * Returns the amount of layouts.
+         */
+        long total() {
+            long total = 0;
+            for(final long solutions : this.solutions) {
+                total += solutions;
+            }
+            return total;
+        }
+
+        /**
+         * Returns the amount of layouts with a mine in the variable at the given position.
+         */
+        long mines(final int position) {
+            long mines = 0;
+            for(final long count : this.mines[position]) {
+                mines += count;
+            }
+            return mines;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package de.jscholz.jminesweeper.solver;
+
+import de.jscholz.jminesweeper.minesweeper.ICellPosition;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * <p>The cells which are certainly safe and certainly mines, because every mine layout which fits the visible numbers
+ * agrees on them.</p>
+ * <p>The cells are stored as bitsets with the index <i>y * rows + x</i>. The sets of positions are created when they
+ * are requested.</p>
+ */
+public final class Deductions {
+
+    /**
+     * The amount of rows inside the minefield.
+     */
+    private final int rows;
+    /**
+     * The bitset of the safe cells.
+     */
+    private final long[] safe;
+    /**
+     * The bitset of the mines.
+     */
+    private final long[] mines;
+    /**
+     * The amount of undiscovered cells next to the numbers.
+     */
+    private final int frontierSize;
+    /**
+     * The amount of independent components of the frontier.
+     */
+    private final int components;
+
+    /**
+     * Custom-Ctor creates the deductions.
+     * @param rows The amount of rows inside the minefield.
+     * @param safe The bitset of the safe cells.
+     * @param mines The bitset of the mines.
+     * @param frontierSize The amount of undiscovered cells next to the numbers.
+     * @param components The amount of independent components of the frontier.
+     */
+    Deductions(final int rows, final long[] safe, final long[] mines, final int frontierSize, final int components) {
+        this.rows = rows;
+        this.safe = safe;
+        this.mines = mines;
+        this.frontierSize = frontierSize;
+        this.components = components;
+    }
+
+    /**
+     * Returns if the cell at the given position is certainly safe.
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     * @return True, if no mine layout has a mine in the cell.
+     */
+    public boolean isSafe(final int x, final int y) {
+        return contains(this.safe, y * this.rows + x);
+    }
+
+    /**
+     * Returns if the cell at the given position is certainly a mine.
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     * @return True, if every mine layout has a mine in the cell.
+     */
+    public boolean isMine(final int x, final int y) {
+        return contains(this.mines, y * this.rows + x);
+    }
+
+    /**
+     * Returns the amount of safe cells.
+     * @return The amount of certainly safe cells.
+     */
+    public int getSafeCount() {
+        return count(this.safe);
+    }
+
+    /**
+     * Returns the amount of mines.
+     * @return The amount of certain mines.
+     */
+    public int getMineCount() {
+        return count(this.mines);
+    }
+
+    /**
+     * Returns the positions of the safe cells, ordered by their index.
+     * @return A new set of the certainly safe cells.
+     */
+    public Set<ICellPosition> getSafeCells() {
+        return positions(this.safe);
+    }
+
+    /**
+     * Returns the positions of the mines, ordered by their index.
+     * @return A new set of the certain mines.
+     */
+    public Set<ICellPosition> getMines() {
+        return positions(this.mines);
+    }
+
+    /**
+     * Returns the amount of undiscovered cells next to the opened numbers.
+     * @return The size of the frontier.
+     */
+    public int getFrontierSize() {
+        return this.frontierSize;
+    }
+
+    /**
+     * Returns the amount of independent components of the frontier, which were searched.
+     * @return The amount of components.
+     */
+    public int getComponents() {
+        return this.components;
+    }
+
+    private Set<ICellPosition> positions(final long[] bits) {
+        final Set<ICellPosition> positions = new LinkedHashSet<>();
+
+        for(int word=0; word < bits.length; ++word) {
+            for(long rest = bits[word]; rest != 0; rest &= rest - 1) {
+                final int index = (word << 6) + Long.numberOfTrailingZeros(rest);
+                positions.add(ICellPosition.valueOf(index % this.rows, index / this.rows));
+            }
+        }
+
+        return Collections.unmodifiableSet(positions);
+    }
+
+    private static boolean contains(final long[] bits, final int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static int count(final long[] bits) {
+        int count = 0;
+        for(final long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Deductions [Safe: %d, Mines: %d, Frontier: %d, Components: %d]", getSafeCount(),
+                getMineCount(), this.frontierSize, this.components);
+    }
+}
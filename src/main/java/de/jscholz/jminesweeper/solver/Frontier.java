@@ -0,0 +1,393 @@
+package de.jscholz.jminesweeper.solver;
+
+import de.jscholz.jminesweeper.minesweeper.FieldSnapshot;
+import de.jscholz.jminesweeper.minesweeper.UpdateJournal;
+
+import java.util.Arrays;
+
+/**
+ * <p>The constraints of the visible minefield.</p>
+ * <p>
+ *     Every opened number with undiscovered neighbours is a constraint: the sum of its undiscovered neighbours is its
+ *     content minus its flagged neighbours. The undiscovered neighbours of the numbers are the variables. The flags are
+ *     trusted like a player does. All other undiscovered cells are the interior, which is not touched by any number.
+ * </p>
+ * <p>
+ *     The cells which are forced by the single-point rules, look at {@link SinglePointSolver}, are found first and are
+ *     not variables. A forced mine counts like a flag. The forced cells would connect components, which are
+ *     otherwise independent.
+ * </p>
+ * <p>
+ *     The constraints and the variables are stored in compressed rows: the variables of the constraint <i>c</i> are
+ *     stored from <i>constraintStart[c]</i> to <i>constraintStart[c + 1]</i>, the same applies to the constraints of a
+ *     variable. The variables are split into components, which don't share a constraint. The variables of a component
+ *     are ordered by a breadth-first search, so the constraints of a component are complete early during a
+ *     backtracking search.
+ * </p>
+ */
+final class Frontier {
+
+    /**
+     * The amount of rows inside the minefield.
+     */
+    final int rows;
+    /**
+     * The amount of columns inside the minefield.
+     */
+    final int columns;
+    /**
+     * The cell index of every variable.
+     */
+    final int[] cells;
+    /**
+     * The variable of every cell or -1, if the cell is not a variable.
+     */
+    final int[] variableOf;
+    /**
+     * The amount of mines of every constraint, which are neither flagged nor forced.
+     */
+    final int[] need;
+    /**
+     * The cell index of the number of every constraint.
+     */
+    final int[] numbers;
+    /**
+     * The start of the variables of every constraint inside constraintVariables, with an additional end.
+     */
+    final int[] constraintStart;
+    /**
+     * The variables of all constraints.
+     */
+    final int[] constraintVariables;
+    /**
+     * The start of the constraints of every variable inside variableConstraints, with an additional end.
+     */
+    final int[] variableStart;
+    /**
+     * The constraints of all variables.
+     */
+    final int[] variableConstraints;
+    /**
+     * The start of the variables of every component inside componentVariables, with an additional end.
+     */
+    final int[] componentStart;
+    /**
+     * The variables of all components, in the order of a breadth-first search.
+     */
+    final int[] componentVariables;
+    /**
+     * The component of every variable.
+     */
+    final int[] componentOf;
+    /**
+     * The bitset of the cells, which are forced to be safe.
+     */
+    final long[] forcedSafe;
+    /**
+     * The bitset of the cells, which are forced to be mines.
+     */
+    final long[] forcedMines;
+    /**
+     * The amount of flagged cells.
+     */
+    final int flagged;
+    /**
+     * The amount of undiscovered cells, which are not flagged.
+     */
+    final int undiscovered;
+    /**
+     * The amount of cells, which are forced to be safe.
+     */
+    final int forcedSafeCount;
+    /**
+     * The amount of cells, which are forced to be mines.
+     */
+    final int forcedMineCount;
+
+    /**
+     * Custom-Ctor creates the constraints of the snapshot.
+     * @param snapshot The snapshot of the minefield.
+     */
+    Frontier(final FieldSnapshot snapshot) {
+        this.rows = snapshot.getRows();
+        this.columns = snapshot.getColumns();
+
+        final int cellCount = this.rows * this.columns;
+        final byte[] states = new byte[cellCount];
+        final byte[] contents = new byte[cellCount];
+        int flagged = 0;
+        int undiscovered = 0;
+
+        for(int y=0; y < this.columns; ++y) {
+            for(int x=0; x < this.rows; ++x) {
+                final int index = y * this.rows + x;
+                states[index] = snapshot.getStateCode(x, y);
+                contents[index] = snapshot.getContentCode(x, y);
+
+                if(states[index] == UpdateJournal.STATE_FLAGGED) ++flagged;
+                if(states[index] == UpdateJournal.STATE_UNDISCOVERED) ++undiscovered;
+            }
+        }
+        this.flagged = flagged;
+        this.undiscovered = undiscovered;
+
+        this.forcedSafe = new long[(cellCount + 63) >>> 6];
+        this.forcedMines = new long[this.forcedSafe.length];
+        final int[] forced = force(states, contents);
+        this.forcedSafeCount = forced[0];
+        this.forcedMineCount = forced[1];
+
+        // Every constraint has at most 8 variables.
+        this.variableOf = new int[cellCount];
+        Arrays.fill(this.variableOf, -1);
+        int[] cells = new int[64];
+        int[] need = new int[64];
+        int[] numbers = new int[64];
+        int[] constraintStart = new int[65];
+        int[] constraintVariables = new int[512];
+        int variableCount = 0;
+        int constraintCount = 0;
+
+        for(int index=0; index < cellCount; ++index) {
+            if(states[index] != UpdateJournal.STATE_OPEN || contents[index] < 0) continue;
+
+            final int x = index % this.rows;
+            final int y = index / this.rows;
+            final int start = constraintStart[constraintCount];
+            int end = start;
+            int flags = 0;
+
+            if(constraintVariables.length < start + 8) {
+                constraintVariables = Arrays.copyOf(constraintVariables, constraintVariables.length * 2);
+            }
+
+            for(int ny = Math.max(0, y - 1); ny <= Math.min(this.columns - 1, y + 1); ++ny) {
+                for(int nx = Math.max(0, x - 1); nx <= Math.min(this.rows - 1, x + 1); ++nx) {
+                    final int neighbour = ny * this.rows + nx;
+
+                    if(states[neighbour] == UpdateJournal.STATE_FLAGGED || contains(this.forcedMines, neighbour)) {
+                        ++flags;
+                    } else if(states[neighbour] == UpdateJournal.STATE_UNDISCOVERED && !contains(this.forcedSafe, neighbour)) {
+                        if(this.variableOf[neighbour] < 0) {
+                            if(variableCount == cells.length) cells = Arrays.copyOf(cells, cells.length * 2);
+                            cells[variableCount] = neighbour;
+                            this.variableOf[neighbour] = variableCount++;
+                        }
+                        constraintVariables[end++] = this.variableOf[neighbour];
+                    }
+                }
+            }
+
+            if(end == start) continue;
+
+            if(constraintCount + 1 == need.length) {
+                need = Arrays.copyOf(need, need.length * 2);
+                numbers = Arrays.copyOf(numbers, numbers.length * 2);
+                constraintStart = Arrays.copyOf(constraintStart, constraintStart.length * 2);
+            }
+            need[constraintCount] = contents[index] - flags;
+            numbers[constraintCount] = index;
+            constraintStart[++constraintCount] = end;
+        }
+
+        this.cells = Arrays.copyOf(cells, variableCount);
+        this.need = Arrays.copyOf(need, constraintCount);
+        this.numbers = Arrays.copyOf(numbers, constraintCount);
+        this.constraintStart = Arrays.copyOf(constraintStart, constraintCount + 1);
+        this.constraintVariables = Arrays.copyOf(constraintVariables, this.constraintStart[constraintCount]);
+
+        // The constraints of the variables are the transposed compressed rows.
+        this.variableStart = new int[variableCount + 1];
+        for(final int variable : this.constraintVariables) {
+            ++this.variableStart[variable + 1];
+        }
+        for(int variable=0; variable < variableCount; ++variable) {
+            this.variableStart[variable + 1] += this.variableStart[variable];
+        }
+        this.variableConstraints = new int[this.constraintVariables.length];
+        final int[] fill = Arrays.copyOf(this.variableStart, variableCount);
+        for(int constraint=0; constraint < constraintCount; ++constraint) {
+            for(int i = this.constraintStart[constraint]; i < this.constraintStart[constraint + 1]; ++i) {
+                this.variableConstraints[fill[this.constraintVariables[i]]++] = constraint;
+            }
+        }
+
+        // Every breadth-first search from an unvisited variable finds the next component. The second search starts
+        // at the last variable of the first search, which is at an end of the component. So the search order sweeps
+        // along the component and the constraints are complete early.
+        this.componentOf = new int[variableCount];
+        Arrays.fill(this.componentOf, -1);
+        this.componentVariables = new int[variableCount];
+        final int[] visited = new int[variableCount];
+        int[] componentStart = new int[16];
+        int componentCount = 0;
+        int tail = 0;
+
+        for(int first=0; first < variableCount; ++first) {
+            if(this.componentOf[first] >= 0) continue;
+
+            if(componentCount + 1 == componentStart.length) {
+                componentStart = Arrays.copyOf(componentStart, componentStart.length * 2);
+            }
+            final int end = search(first, this.componentOf, componentCount, tail);
+            search(this.componentVariables[end - 1], visited, componentCount + 1, tail);
+
+            tail = end;
+            componentStart[++componentCount] = tail;
+        }
+        this.componentStart = Arrays.copyOf(componentStart, componentCount + 1);
+    }
+
+    /**
+     * Writes the variables of a component in the order of a breadth-first search into the variables of the components.
+     * @param first The first variable of the search.
+     * @param marks The marks of the visited variables.
+     * @param mark The mark of this search, the variables without this mark are not visited yet.
+     * @param head The position of the first variable inside the variables of the components.
+     * @return The position after the last variable of the component.
+     */
+    private int search(final int first, final int[] marks, final int mark, int head) {
+        int tail = head;
+        this.componentVariables[tail++] = first;
+        marks[first] = mark;
+
+        while (head < tail) {
+            final int variable = this.componentVariables[head++];
+            for(int i = this.variableStart[variable]; i < this.variableStart[variable + 1]; ++i) {
+                final int constraint = this.variableConstraints[i];
+                for(int j = this.constraintStart[constraint]; j < this.constraintStart[constraint + 1]; ++j) {
+                    final int next = this.constraintVariables[j];
+                    if(marks[next] == mark) continue;
+
+                    marks[next] = mark;
+                    this.componentVariables[tail++] = next;
+                }
+            }
+        }
+
+        return tail;
+    }
+
+    /**
+     * Applies the single-point rules to all numbers, until no rule makes progress. A forced cell puts its numbers on
+     * the stack again.
+     * @return The amount of forced safe cells and the amount of forced mines.
+     */
+    private int[] force(final byte[] states, final byte[] contents) {
+        final int[] stack = new int[states.length];
+        final long[] stacked = new long[this.forcedSafe.length];
+        final int[] forced = new int[2];
+        int size = 0;
+
+        for(int index=0; index < states.length; ++index) {
+            if(states[index] == UpdateJournal.STATE_OPEN && contents[index] > 0) {
+                stack[size++] = index;
+                stacked[index >>> 6] |= 1L << index;
+            }
+        }
+
+        while (size > 0) {
+            final int index = stack[--size];
+            stacked[index >>> 6] &= ~(1L << index);
+
+            final int x = index % this.rows;
+            final int y = index / this.rows;
+            int mines = 0;
+            int unknown = 0;
+
+            for(int ny = Math.max(0, y - 1); ny <= Math.min(this.columns - 1, y + 1); ++ny) {
+                for(int nx = Math.max(0, x - 1); nx <= Math.min(this.rows - 1, x + 1); ++nx) {
+                    final int neighbour = ny * this.rows + nx;
+                    if(states[neighbour] == UpdateJournal.STATE_FLAGGED || contains(this.forcedMines, neighbour)) {
+                        ++mines;
+                    } else if(isUnknown(states, neighbour)) {
+                        ++unknown;
+                    }
+                }
+            }
+
+            final long[] target;
+            if(unknown == 0) {
+                continue;
+            } else if(mines == contents[index]) {
+                target = this.forcedSafe;
+                forced[0] += unknown;
+            } else if(mines + unknown == contents[index]) {
+                target = this.forcedMines;
+                forced[1] += unknown;
+            } else {
+                continue;
+            }
+
+            for(int ny = Math.max(0, y - 1); ny <= Math.min(this.columns - 1, y + 1); ++ny) {
+                for(int nx = Math.max(0, x - 1); nx <= Math.min(this.rows - 1, x + 1); ++nx) {
+                    final int neighbour = ny * this.rows + nx;
+                    if(!isUnknown(states, neighbour)) continue;
+
+                    target[neighbour >>> 6] |= 1L << neighbour;
+
+                    // The numbers around the forced cell are examined again.
+                    for(int my = Math.max(0, ny - 1); my <= Math.min(this.columns - 1, ny + 1); ++my) {
+                        for(int mx = Math.max(0, nx - 1); mx <= Math.min(this.rows - 1, nx + 1); ++mx) {
+                            final int number = my * this.rows + mx;
+                            if(states[number] != UpdateJournal.STATE_OPEN || contents[number] <= 0
+                                    || contains(stacked, number)) continue;
+
+                            stack[size++] = number;
+                            stacked[number >>> 6] |= 1L << number;
+                        }
+                    }
+                }
+            }
+        }
+
+        return forced;
+    }
+
+    /**
+     * Returns if the cell is undiscovered and not forced.
+     */
+    private boolean isUnknown(final byte[] states, final int index) {
+        return states[index] == UpdateJournal.STATE_UNDISCOVERED && !contains(this.forcedSafe, index)
+                && !contains(this.forcedMines, index);
+    }
+
+    static boolean contains(final long[] bits, final int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Returns the amount of variables.
+     */
+    int variableCount() {
+        return this.cells.length;
+    }
+
+    /**
+     * Returns the amount of constraints.
+     */
+    int constraintCount() {
+        return this.need.length;
+    }
+
+    /**
+     * Returns the amount of components.
+     */
+    int componentCount() {
+        return this.componentStart.length - 1;
+    }
+
+    /**
+     * Returns the amount of variables of the given component.
+     */
+    int componentSize(final int component) {
+        return this.componentStart[component + 1] - this.componentStart[component];
+    }
+
+    /**
+     * Returns the amount of undiscovered cells, which are not flagged, not forced and not touched by any number.
+     */
+    int interior() {
+        return this.undiscovered - this.forcedSafeCount - this.forcedMineCount - variableCount();
+    }
+}
@@ -0,0 +1,83 @@
+package de.jscholz.jminesweeper.solver;
+
+import de.jscholz.jminesweeper.minesweeper.FieldSnapshot;
+import de.jscholz.jminesweeper.minesweeper.IMinefield;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p>A constraint solver, which finds the cells that are safe or mines in every mine layout of the frontier.</p>
+ * <p>
+ *     The solver is used when the single-point rules stall, look at {@link SinglePointSolver}. It reads the
+ *     constraints of the visible numbers, look at {@link Frontier}, and splits the undiscovered cells next to the
+ *     numbers into components, which don't share a number. Every component is enumerated with a backtracking search,
+ *     which stops a branch as soon as a number has too many or too few mines left, look at {@link ComponentSearch}.
+ *     A cell is certainly safe, if no layout of its component has a mine in it, and certainly a mine, if every layout
+ *     has a mine in it.
+ * </p>
+ * <p>
+ *     The components are searched at the same time by the workers of a {@link ForkJoinPool}. A large component is
+ *     split at its first variables, so its branches are searched by several workers, too. The solver has no state
+ *     and can be used by several threads.
+ * </p>
+ */
+public final class FrontierSolver {
+
+    /**
+     * The pool which searches the components.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Default-Ctor creates a solver which uses the common pool.
+     */
+    public FrontierSolver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Custom-Ctor creates a solver which uses the given pool.
+     * @param pool The pool which searches the components.
+     */
+    public FrontierSolver(final ForkJoinPool pool) {
+        assert pool != null : "The pool is null!";
+
+        this.pool = pool;
+    }
+
+    /**
+     * Finds the cells, which are certainly safe or certainly mines.
+     * @param minefield The minefield, which must have bounds.
+     * @return The deductions of the current minefield.
+     * @throws IllegalArgumentException If the minefield has no snapshot, because it has no bounds.
+     */
+    public Deductions solve(final IMinefield minefield) {
+        final FieldSnapshot snapshot = minefield == null ? null : minefield.getSnapshot();
+        if(snapshot == null) throw new IllegalArgumentException("Only minefields with bounds can be solved!");
+
+        final Frontier frontier = new Frontier(snapshot);
+        final ComponentSearch.Counts[] counts = ComponentSearch.count(this.pool, frontier,
+                new ComponentSearch.Counts[frontier.componentCount()]);
+
+        final long[] safe = frontier.forcedSafe.clone();
+        final long[] mines = frontier.forcedMines.clone();
+
+        for(int component=0; component < counts.length; ++component) {
+            final ComponentSearch.Counts result = counts[component];
+            final long total = result.total();
+            // A component without a layout has wrong flags, nothing is known about it.
+            if(total == 0) continue;
+
+            final int start = frontier.componentStart[component];
+            for(int position=0; position < result.mines.length; ++position) {
+                final int cell = frontier.cells[frontier.componentVariables[start + position]];
+                final long layouts = result.mines(position);
+                if(layouts == 0) safe[cell >>> 6] |= 1L << cell;
+                if(layouts == total) mines[cell >>> 6] |= 1L << cell;
+            }
+        }
+
+        return new Deductions(frontier.rows, safe, mines,
+                frontier.variableCount() + frontier.forcedSafeCount + frontier.forcedMineCount, frontier.componentCount());
+    }
+}
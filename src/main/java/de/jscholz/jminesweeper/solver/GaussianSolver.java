@@ -0,0 +1,679 @@
+package de.jscholz.jminesweeper.solver;
+
+import de.jscholz.jminesweeper.minesweeper.FieldSnapshot;
+import de.jscholz.jminesweeper.minesweeper.ICellPosition;
+import de.jscholz.jminesweeper.minesweeper.IMinefield;
+import de.jscholz.jminesweeper.minesweeper.UpdateJournal;
+
+import java.util.Arrays;
+
+/**
+ * <p>A deterministic solver, which finds safe cells and mines with the Gaussian elimination of the visible numbers.</p>
+ * <p>
+ *     Every opened number is an equation: the sum of its unknown neighbours is its content minus its known mines. The
+ *     unknown neighbours are the variables, which are numbered by the solver. A row of the system stores the variables
+ *     with the coefficient +1 and -1 in two bitsets, so two rows are added word by word. The system is kept in a
+ *     reduced row echelon form: every pivot variable only appears inside its own row. A row, whose coefficients
+ *     would leave -1 to +1 by an elimination, is not eliminated and stays as it is, which is always correct.
+ * </p>
+ * <p>
+ *     A row with the sum of its +1 variables as value has mines in all +1 variables and safe cells in all -1
+ *     variables, a row with the negative sum of its -1 variables as value vice versa. The original equations of the
+ *     numbers are kept beside the reduced rows, so the solver finds at least the cells of the single-point rules, look
+ *     at {@link SinglePointSolver}. A found cell is substituted into all rows, which leads to the next rows until no
+ *     row makes progress.
+ * </p>
+ * <p>
+ *     The solver follows the minefield with its {@link FieldSnapshot} like the single-point solver. After a click,
+ *     {@link #update()} only adds the equations of the new numbers and substitutes the opened and flagged cells, so the
+ *     system is not eliminated again from scratch. The known mines are the flagged cells and the mines found by the
+ *     solver, a flagged cell stays known as mine when the flag is removed later. The solver is used by one thread only.
+ * </p>
+ */
+public final class GaussianSolver {
+
+    /**
+     * The cell is not known by the solver.
+     */
+    private static final byte NONE = 0;
+    /**
+     * The solver knows that the cell is safe.
+     */
+    private static final byte SAFE = 1;
+    /**
+     * The solver knows that the cell is a mine.
+     */
+    private static final byte MINE = 2;
+
+    /**
+     * The minefield which is solved.
+     */
+    private final IMinefield minefield;
+    /**
+     * The snapshot of the minefield.
+     */
+    private final FieldSnapshot snapshot;
+    /**
+     * The visitor which reads the changed cells of the snapshot.
+     */
+    private final UpdateJournal.Visitor visitor = this::visit;
+    /**
+     * The amount of rows inside the minefield.
+     */
+    private final int rows;
+    /**
+     * The amount of columns inside the minefield.
+     */
+    private final int columns;
+    /**
+     * The state codes of the cells, as far as the solver read them.
+     */
+    private final byte[] states;
+    /**
+     * The knowledge of the solver about every cell.
+     */
+    private final byte[] known;
+    /**
+     * The variable of every cell or -1, if the cell is not a variable.
+     */
+    private final int[] variableOf;
+    /**
+     * The found safe cells in the order they were found.
+     */
+    private final int[] safes;
+    /**
+     * The amount of found safe cells, which may be opened already.
+     */
+    private int safeCount;
+
+    /**
+     * The cell of every variable.
+     */
+    private int[] cellOf = new int[64];
+    /**
+     * The row of every pivot variable or -1, if the variable is not a pivot.
+     */
+    private int[] pivotRow = new int[64];
+    /**
+     * The bitset of the pivot variables.
+     */
+    private long[] pivots = new long[1];
+    /**
+     * The bitset of the pivot variables, which were already eliminated from a row.
+     */
+    private long[] tried = new long[1];
+    /**
+     * The stack of the released variables, which are used again.
+     */
+    private int[] released = new int[64];
+    /**
+     * The amount of released variables.
+     */
+    private int releasedCount;
+    /**
+     * The amount of variables, which were ever used since the last clear.
+     */
+    private int variableCount;
+    /**
+     * The amount of words of every row.
+     */
+    private int words = 1;
+
+    /**
+     * The bitset of the variables with the coefficient +1 of every row.
+     */
+    private long[][] plus = new long[16][];
+    /**
+     * The bitset of the variables with the coefficient -1 of every row.
+     */
+    private long[][] minus = new long[16][];
+    /**
+     * The value of every row.
+     */
+    private int[] values = new int[16];
+    /**
+     * The pivot variable of every row or -1, if the row is original or has no pivot.
+     */
+    private int[] pivotOf = new int[16];
+    /**
+     * True for the original equation of a number, which is never eliminated.
+     */
+    private boolean[] original = new boolean[16];
+    /**
+     * The amount of rows.
+     */
+    private int rowCount;
+    /**
+     * The stack of the rows, which need a pivot.
+     */
+    private int[] pending = new int[16];
+    /**
+     * The cells and their knowledge, which were found by a row.
+     */
+    private int[] found = new int[64];
+
+    /**
+     * The version of the snapshot, which the solver knows, or -1, if the whole field has to be read.
+     */
+    private long version = -1;
+    /**
+     * The amount of clicks performed by {@link #solve()}.
+     */
+    private long moves;
+
+    /**
+     * Custom-Ctor creates a solver for the given minefield. The solver reads the minefield with the first update.
+     * @param minefield The minefield, which must have bounds.
+     * @throws IllegalArgumentException If the minefield has no snapshot, because it has no bounds.
+     */
+    public GaussianSolver(final IMinefield minefield) {
+        if(minefield == null || minefield.getSnapshot() == null) {
+            throw new IllegalArgumentException("Only minefields with bounds can be solved!");
+        }
+
+        this.minefield = minefield;
+        this.snapshot = minefield.getSnapshot();
+        this.rows = this.snapshot.getRows();
+        this.columns = this.snapshot.getColumns();
+
+        final int cellCount = this.rows * this.columns;
+        this.states = new byte[cellCount];
+        this.known = new byte[cellCount];
+        this.variableOf = new int[cellCount];
+        this.safes = new int[cellCount];
+    }
+
+    /**
+     * Reads the cells which were changed since the last update, updates the system and finds the new cells.
+     * Has to be called after every click, which was not performed by the solver.
+     */
+    public void update() {
+        if(this.version < 0 || !this.snapshot.changesSince(this.version, this.visitor)) {
+            clear();
+            this.snapshot.forEach(this.visitor);
+        }
+        this.version = this.snapshot.getVersion();
+
+        deduce();
+        compact();
+    }
+
+    /**
+     * <p>Plays the minefield by opening the safe cells, until the game is over or no row makes progress. The found
+     * mines are not flagged.</p>
+     * <p>The solver doesn't guess, so the first click has to be performed before.</p>
+     * @return <ul>
+     *     <li>CLEARED, if the game was cleared.</li>
+     *     <li>STALLED, if no safe cell is known or the game was already over.</li>
+     *     <li>LOST, if a safe cell contained a mine, which only happens with wrong flags.</li>
+     * </ul>
+     */
+    public SinglePointSolver.Result solve() {
+        update();
+
+        while (!this.minefield.gameOver()) {
+            final long safe = nextSafe();
+            if(safe < 0) return SinglePointSolver.Result.STALLED;
+
+            final IMinefield.OpenReturn result = this.minefield.singleClick(safe);
+            ++this.moves;
+
+            if(result == IMinefield.OpenReturn.GAME_CLEARED) return SinglePointSolver.Result.CLEARED;
+            if(result == IMinefield.OpenReturn.WAS_MINE) return SinglePointSolver.Result.LOST;
+
+            update();
+        }
+
+        return SinglePointSolver.Result.STALLED;
+    }
+
+    /**
+     * Returns a safe cell, which is still undiscovered. The cell stays safe until it is opened.
+     * @return The packed position of the cell, look at {@link ICellPosition#pack(int, int)}, or -1, if no
+     * undiscovered cell is known as safe.
+     */
+    public long nextSafe() {
+        while (this.safeCount > 0) {
+            final int index = this.safes[this.safeCount - 1];
+            if(this.states[index] == UpdateJournal.STATE_UNDISCOVERED) {
+                return ICellPosition.pack(index % this.rows, index / this.rows);
+            }
+
+            --this.safeCount;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns if the solver knows that the undiscovered cell at the given position is safe.
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     * @return True, if the cell is undiscovered and safe.
+     */
+    public boolean isSafe(final int x, final int y) {
+        final int index = index(x, y);
+        return this.known[index] == SAFE && this.states[index] == UpdateJournal.STATE_UNDISCOVERED;
+    }
+
+    /**
+     * Returns if the cell at the given position is a known mine, which is a flagged cell or a mine found by the solver.
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     * @return True, if the cell is not opened and a known mine.
+     */
+    public boolean isMine(final int x, final int y) {
+        final int index = index(x, y);
+        return this.known[index] == MINE && this.states[index] != UpdateJournal.STATE_OPEN;
+    }
+
+    /**
+     * Returns the rank of the reduced system, which is the amount of rows with a pivot variable.
+     * @return The rank of the system.
+     */
+    public int getRank() {
+        int rank = 0;
+        for(final long word : this.pivots) {
+            rank += Long.bitCount(word);
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the amount of clicks, which were performed by {@link #solve()}.
+     * @return The amount of clicks since the solver was created.
+     */
+    public long getMoves() {
+        return this.moves;
+    }
+
+    /**
+     * Forgets everything, because the whole field is read again.
+     */
+    private void clear() {
+        Arrays.fill(this.states, UpdateJournal.STATE_UNDISCOVERED);
+        Arrays.fill(this.known, NONE);
+        Arrays.fill(this.variableOf, -1);
+        Arrays.fill(this.pivots, 0);
+        this.safeCount = 0;
+        this.releasedCount = 0;
+        this.variableCount = 0;
+        this.rowCount = 0;
+    }
+
+    /**
+     * Reads a changed cell. An opened cell is safe and adds the equation of its number, a flagged cell is a mine.
+     */
+    private void visit(final int x, final int y, final byte state, final byte content) {
+        final int index = index(x, y);
+        if(this.states[index] == state) return;
+
+        this.states[index] = state;
+        if(state == UpdateJournal.STATE_OPEN) {
+            know(index, SAFE);
+            if(content >= 0) addEquation(index, content);
+        } else if(state == UpdateJournal.STATE_FLAGGED) {
+            know(index, MINE);
+        }
+    }
+
+    /**
+     * Adds the equation of the number as original row and as reduced row.
+     */
+    private void addEquation(final int index, final int content) {
+        final int x = index % this.rows;
+        final int y = index / this.rows;
+        int value = content;
+        int variables = 0;
+
+        for(int ny = Math.max(0, y - 1); ny <= Math.min(this.columns - 1, y + 1); ++ny) {
+            for(int nx = Math.max(0, x - 1); nx <= Math.min(this.rows - 1, x + 1); ++nx) {
+                final int neighbour = ny * this.rows + nx;
+                if(this.known[neighbour] == MINE) --value;
+                if(this.known[neighbour] == NONE && this.states[neighbour] == UpdateJournal.STATE_UNDISCOVERED) {
+                    ++variables;
+                }
+            }
+        }
+        if(variables == 0) return;
+
+        final int originalRow = newRow(true);
+        final int reducedRow = newRow(false);
+        this.values[originalRow] = value;
+        this.values[reducedRow] = value;
+
+        for(int ny = Math.max(0, y - 1); ny <= Math.min(this.columns - 1, y + 1); ++ny) {
+            for(int nx = Math.max(0, x - 1); nx <= Math.min(this.rows - 1, x + 1); ++nx) {
+                final int neighbour = ny * this.rows + nx;
+                if(this.known[neighbour] != NONE || this.states[neighbour] != UpdateJournal.STATE_UNDISCOVERED) continue;
+
+                // The variable may grow the rows, so the rows are read after it.
+                final int variable = variable(neighbour);
+                this.plus[originalRow][variable >>> 6] |= 1L << variable;
+                this.plus[reducedRow][variable >>> 6] |= 1L << variable;
+            }
+        }
+
+        reduce(reducedRow);
+        pivot(reducedRow);
+    }
+
+    /**
+     * Marks the cell as safe or as mine and substitutes its variable into all rows.
+     */
+    private void know(final int index, final byte knowledge) {
+        if(this.known[index] != NONE) return;
+
+        this.known[index] = knowledge;
+        if(knowledge == SAFE && this.states[index] == UpdateJournal.STATE_UNDISCOVERED) {
+            this.safes[this.safeCount++] = index;
+        }
+
+        final int variable = this.variableOf[index];
+        if(variable >= 0) substitute(variable, knowledge == MINE ? 1 : 0);
+    }
+
+    /**
+     * Applies the rows until no row finds a new cell.
+     */
+    private void deduce() {
+        boolean progress = true;
+
+        while (progress) {
+            progress = false;
+            for(int row=0; row < this.rowCount; ++row) {
+                final int count = forced(row);
+                for(int i=0; i < count; i += 2) {
+                    know(this.found[i], (byte) this.found[i + 1]);
+                }
+                progress |= count > 0;
+            }
+        }
+    }
+
+    /**
+     * Collects the cells of the row, if the value of the row forces all its variables.
+     * @return The amount of entries inside found, which are pairs of a cell and its knowledge.
+     */
+    private int forced(final int row) {
+        final long[] plus = this.plus[row];
+        final long[] minus = this.minus[row];
+        int plusCount = 0;
+        int minusCount = 0;
+
+        for(int word=0; word < this.words; ++word) {
+            plusCount += Long.bitCount(plus[word]);
+            minusCount += Long.bitCount(minus[word]);
+        }
+        if(plusCount + minusCount == 0) return 0;
+
+        final byte plusKnowledge;
+        if(this.values[row] == plusCount) {
+            plusKnowledge = MINE;
+        } else if(this.values[row] == -minusCount) {
+            plusKnowledge = SAFE;
+        } else {
+            return 0;
+        }
+        final byte minusKnowledge = plusKnowledge == MINE ? SAFE : MINE;
+
+        if(this.found.length < 2 * (plusCount + minusCount)) this.found = new int[2 * (plusCount + minusCount)];
+        int count = 0;
+        for(int word=0; word < this.words; ++word) {
+            for(long rest = plus[word]; rest != 0; rest &= rest - 1) {
+                this.found[count++] = this.cellOf[(word << 6) + Long.numberOfTrailingZeros(rest)];
+                this.found[count++] = plusKnowledge;
+            }
+            for(long rest = minus[word]; rest != 0; rest &= rest - 1) {
+                this.found[count++] = this.cellOf[(word << 6) + Long.numberOfTrailingZeros(rest)];
+                this.found[count++] = minusKnowledge;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Replaces the variable with its value inside all rows and releases the variable. A row which loses its pivot
+     * gets a new one.
+     */
+    private void substitute(final int variable, final int value) {
+        final int word = variable >>> 6;
+        final long bit = 1L << variable;
+
+        for(int row=0; row < this.rowCount; ++row) {
+            if((this.plus[row][word] & bit) != 0) {
+                this.plus[row][word] &= ~bit;
+                this.values[row] -= value;
+            } else if((this.minus[row][word] & bit) != 0) {
+                this.minus[row][word] &= ~bit;
+                this.values[row] += value;
+            }
+        }
+
+        final int row = this.pivotRow[variable];
+        if(row >= 0) {
+            this.pivotRow[variable] = -1;
+            this.pivots[word] &= ~bit;
+            this.pivotOf[row] = -1;
+            reduce(row);
+            pivot(row);
+        }
+
+        this.variableOf[this.cellOf[variable]] = -1;
+        this.released[this.releasedCount++] = variable;
+    }
+
+    /**
+     * Eliminates all pivot variables from the reduced row, as far as the coefficients stay between -1 and +1.
+     */
+    private void reduce(final int row) {
+        final long[] plus = this.plus[row];
+        final long[] minus = this.minus[row];
+
+        // An elimination may add pivot variables in any word, so every elimination starts at the first word again.
+        int word = 0;
+        while (word < this.words) {
+            final long candidates = (plus[word] | minus[word]) & this.pivots[word] & ~this.tried[word];
+            if(candidates == 0) {
+                ++word;
+                continue;
+            }
+
+            final long bit = Long.lowestOneBit(candidates);
+            this.tried[word] |= bit;
+
+            final int variable = (word << 6) + Long.numberOfTrailingZeros(bit);
+            eliminate(row, this.pivotRow[variable], variable);
+            word = 0;
+        }
+
+        Arrays.fill(this.tried, 0);
+    }
+
+    /**
+     * Makes the first variable of the reduced row, which is not a pivot yet, to the pivot of the row and eliminates it
+     * from all other reduced rows. The other rows without a pivot, which get a new variable, are pivoted as well.
+     */
+    private void pivot(final int row) {
+        int pendingCount = 0;
+        this.pending[pendingCount++] = row;
+
+        while (pendingCount > 0) {
+            final int current = this.pending[--pendingCount];
+            if(this.pivotOf[current] >= 0) continue;
+
+            final int variable = freeVariable(current);
+            if(variable < 0) continue;
+
+            // The pivot gets the coefficient +1.
+            final int word = variable >>> 6;
+            final long bit = 1L << variable;
+            if((this.minus[current][word] & bit) != 0) {
+                final long[] plus = this.plus[current];
+                this.plus[current] = this.minus[current];
+                this.minus[current] = plus;
+                this.values[current] = -this.values[current];
+            }
+            this.pivotOf[current] = variable;
+            this.pivotRow[variable] = current;
+            this.pivots[word] |= bit;
+
+            for(int other=0; other < this.rowCount; ++other) {
+                if(other == current || this.original[other]) continue;
+                if(((this.plus[other][word] | this.minus[other][word]) & bit) == 0) continue;
+
+                if(eliminate(other, current, variable) && this.pivotOf[other] < 0) {
+                    if(pendingCount == this.pending.length) this.pending = Arrays.copyOf(this.pending, 2 * pendingCount);
+                    this.pending[pendingCount++] = other;
+                }
+            }
+        }
+    }
+
+    /**
+     * Subtracts the source row from the target row, so the variable disappears from the target row. The source row has
+     * the coefficient +1 at the variable.
+     * @return True, if the rows were combined, false if a coefficient would leave -1 to +1 or the target row would
+     * lose its pivot.
+     */
+    private boolean eliminate(final int target, final int source, final int variable) {
+        final long[] targetPlus = this.plus[target];
+        final long[] targetMinus = this.minus[target];
+        final int sign = (targetPlus[variable >>> 6] & (1L << variable)) != 0 ? 1 : -1;
+
+        // The target row adds the source row with the opposite sign of its coefficient.
+        final long[] addPlus = sign > 0 ? this.minus[source] : this.plus[source];
+        final long[] addMinus = sign > 0 ? this.plus[source] : this.minus[source];
+
+        final int pivot = this.pivotOf[target];
+        if(pivot >= 0 && ((addPlus[pivot >>> 6] | addMinus[pivot >>> 6]) & (1L << pivot)) != 0) return false;
+        for(int word=0; word < this.words; ++word) {
+            if(((targetPlus[word] & addPlus[word]) | (targetMinus[word] & addMinus[word])) != 0) return false;
+        }
+
+        for(int word=0; word < this.words; ++word) {
+            final long targetZero = ~(targetPlus[word] | targetMinus[word]);
+            final long addZero = ~(addPlus[word] | addMinus[word]);
+            final long resultPlus = (targetPlus[word] & addZero) | (targetZero & addPlus[word]);
+            final long resultMinus = (targetMinus[word] & addZero) | (targetZero & addMinus[word]);
+            targetPlus[word] = resultPlus;
+            targetMinus[word] = resultMinus;
+        }
+        this.values[target] -= sign * this.values[source];
+
+        return true;
+    }
+
+    /**
+     * Returns the first variable of the row, which is not a pivot, or -1, if there is none.
+     */
+    private int freeVariable(final int row) {
+        for(int word=0; word < this.words; ++word) {
+            final long free = (this.plus[row][word] | this.minus[row][word]) & ~this.pivots[word];
+            if(free != 0) return (word << 6) + Long.numberOfTrailingZeros(free);
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the variable of the cell and creates it, if the cell is not a variable yet.
+     */
+    private int variable(final int index) {
+        if(this.variableOf[index] >= 0) return this.variableOf[index];
+
+        final int variable = this.releasedCount > 0 ? this.released[--this.releasedCount] : this.variableCount++;
+        if(variable == this.cellOf.length) growVariables();
+
+        this.variableOf[index] = variable;
+        this.cellOf[variable] = index;
+        this.pivotRow[variable] = -1;
+        return variable;
+    }
+
+    /**
+     * Doubles the amount of variables, which fit into a row.
+     */
+    private void growVariables() {
+        final int capacity = 2 * this.cellOf.length;
+        this.cellOf = Arrays.copyOf(this.cellOf, capacity);
+        this.pivotRow = Arrays.copyOf(this.pivotRow, capacity);
+        this.released = Arrays.copyOf(this.released, capacity);
+
+        this.words = capacity >>> 6;
+        this.pivots = Arrays.copyOf(this.pivots, this.words);
+        this.tried = new long[this.words];
+        for(int row=0; row < this.plus.length; ++row) {
+            if(this.plus[row] == null) continue;
+            this.plus[row] = Arrays.copyOf(this.plus[row], this.words);
+            this.minus[row] = Arrays.copyOf(this.minus[row], this.words);
+        }
+    }
+
+    /**
+     * Adds an empty row.
+     * @param original True for the original equation of a number.
+     * @return The new row.
+     */
+    private int newRow(final boolean original) {
+        if(this.rowCount == this.values.length) {
+            final int capacity = 2 * this.rowCount;
+            this.plus = Arrays.copyOf(this.plus, capacity);
+            this.minus = Arrays.copyOf(this.minus, capacity);
+            this.values = Arrays.copyOf(this.values, capacity);
+            this.pivotOf = Arrays.copyOf(this.pivotOf, capacity);
+            this.original = Arrays.copyOf(this.original, capacity);
+        }
+
+        final int row = this.rowCount++;
+        if(this.plus[row] == null) {
+            this.plus[row] = new long[this.words];
+            this.minus[row] = new long[this.words];
+        } else {
+            Arrays.fill(this.plus[row], 0);
+            Arrays.fill(this.minus[row], 0);
+        }
+        this.values[row] = 0;
+        this.pivotOf[row] = -1;
+        this.original[row] = original;
+        return row;
+    }
+
+    /**
+     * Removes the rows without variables. The arrays of a removed row are kept for the next row.
+     */
+    private void compact() {
+        int row = 0;
+        while (row < this.rowCount) {
+            if(!isEmpty(row)) {
+                ++row;
+                continue;
+            }
+
+            final int last = --this.rowCount;
+            if(row == last) break;
+
+            final long[] plus = this.plus[row];
+            final long[] minus = this.minus[row];
+            this.plus[row] = this.plus[last];
+            this.minus[row] = this.minus[last];
+            this.values[row] = this.values[last];
+            this.pivotOf[row] = this.pivotOf[last];
+            this.original[row] = this.original[last];
+            this.plus[last] = plus;
+            this.minus[last] = minus;
+            if(this.pivotOf[row] >= 0) this.pivotRow[this.pivotOf[row]] = row;
+        }
+    }
+
+    private boolean isEmpty(final int row) {
+        for(int word=0; word < this.words; ++word) {
+            if((this.plus[row][word] | this.minus[row][word]) != 0) return false;
+        }
+        return true;
+    }
+
+    private int index(final int x, final int y) {
+        assert x >= 0 && x < this.rows && y >= 0 && y < this.columns : "The position " + x + ":" + y + " is not valid!";
+        return y * this.rows + x;
+    }
+}
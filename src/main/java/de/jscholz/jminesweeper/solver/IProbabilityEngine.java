@@ -0,0 +1,21 @@
+package de.jscholz.jminesweeper.solver;
+
+import de.jscholz.jminesweeper.minesweeper.IMinefield;
+
+/**
+ * <p>Calculates the probability of every cell to contain a mine.</p>
+ * <p>
+ *     The {@link ProbabilityEngine} calculates the exact probabilities. The {@link MonteCarloEngine} estimates them
+ *     within a time budget, if the frontier is too large for an exact calculation.
+ * </p>
+ */
+public interface IProbabilityEngine {
+
+    /**
+     * Calculates the probabilities of the current minefield.
+     * @param minefield The minefield, which must have bounds.
+     * @return The probability of every cell.
+     * @throws IllegalArgumentException If the minefield has no snapshot, because it has no bounds.
+     */
+    Probabilities compute(IMinefield minefield);
+}
@@ -0,0 +1,191 @@
+package de.jscholz.jminesweeper.solver;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>Draws random mine layouts of components of the {@link Frontier} until a deadline.</p>
+ * <p>
+ *     A layout is drawn by assigning the variables of a component in the order of the search, look at
+ *     {@link ComponentSearch}. A variable gets a random value, if both values fit its constraints, otherwise the
+ *     value which fits. A layout which can't be completed is dropped. Every layout has the inverse of its chance to
+ *     be drawn as importance weight, so the sum of the weights estimates the amount of layouts.
+ * </p>
+ * <p>
+ *     Every sampler has its own random generator and its own layouts, so the samplers don't share any state. The drawn
+ *     layouts are spread over several batches, which are independent estimations.
+ * </p>
+ */
+@SuppressWarnings("serial") // The samplers are never serialized.
+final class LayoutSampler extends RecursiveAction {
+
+    /**
+     * The minimum chance of both values of a variable.
+     */
+    private static final double MIN_CHANCE = 0.1;
+
+    private final Frontier frontier;
+    /**
+     * The components, which are sampled.
+     */
+    private final int[] components;
+    private final SplittableRandom random;
+    /**
+     * The time in nanoseconds, when the sampling stops.
+     */
+    private final long deadline;
+    /**
+     * The layouts of every batch and every sampled component.
+     */
+    final Layouts[][] batches;
+    /**
+     * The amount of layouts, which were drawn for every component.
+     */
+    long samples;
+    /**
+     * The amount of mines of every constraint.
+     */
+    private final int[] mines;
+    /**
+     * The amount of unassigned variables of every constraint.
+     */
+    private final int[] unassigned;
+    /**
+     * The value of every variable of the drawn layout of every sampled component.
+     */
+    private final byte[][] values;
+
+    /**
+     * Custom-Ctor creates a sampler.
+     * @param frontier The frontier.
+     * @param components The components, which are sampled.
+     * @param batches The amount of batches.
+     * @param random The random generator, which is used by this sampler only.
+     * @param deadline The time in nanoseconds, when the sampling stops.
+     */
+    LayoutSampler(final Frontier frontier, final int[] components, final int batches, final SplittableRandom random,
+                  final long deadline) {
+        this.frontier = frontier;
+        this.components = components;
+        this.random = random;
+        this.deadline = deadline;
+        this.batches = new Layouts[batches][components.length];
+        this.mines = new int[frontier.constraintCount()];
+        this.unassigned = new int[frontier.constraintCount()];
+        this.values = new byte[components.length][];
+
+        for(int constraint=0; constraint < frontier.constraintCount(); ++constraint) {
+            this.unassigned[constraint] = frontier.constraintStart[constraint + 1] - frontier.constraintStart[constraint];
+        }
+        for(int i=0; i < components.length; ++i) {
+            final int size = frontier.componentSize(components[i]);
+            this.values[i] = new byte[size];
+            for(int batch=0; batch < batches; ++batch) {
+                this.batches[batch][i] = new Layouts(size);
+            }
+        }
+    }
+
+    @Override
+    protected void compute() {
+        // At least one layout is drawn, even if the deadline has already passed.
+        do {
+            final Layouts[] batch = this.batches[(int) (this.samples % this.batches.length)];
+            for(int i=0; i < this.components.length; ++i) {
+                draw(i, batch[i]);
+            }
+            ++this.samples;
+        } while(System.nanoTime() - this.deadline < 0);
+    }
+
+    /**
+     * Draws a layout of a component and adds it to the layouts, if it could be completed.
+     * @param i The index of the component inside the sampled components.
+     * @param layouts The layouts of the component.
+     */
+    private void draw(final int i, final Layouts layouts) {
+        final int start = this.frontier.componentStart[this.components[i]];
+        final byte[] values = this.values[i];
+        double logWeight = 0;
+        int mineCount = 0;
+        int position = 0;
+
+        for(; position < values.length; ++position) {
+            final int variable = this.frontier.componentVariables[start + position];
+            final boolean mine = fits(variable, 1);
+            final boolean safe = fits(variable, 0);
+            if(!mine && !safe) break;
+
+            final byte value;
+            if(mine && safe) {
+                final double chance = chance(variable);
+                value = (byte) (this.random.nextDouble() < chance ? 1 : 0);
+                logWeight -= Math.log(value == 1 ? chance : 1 - chance);
+            } else {
+                value = (byte) (mine ? 1 : 0);
+            }
+
+            assign(variable, value);
+            values[position] = value;
+            mineCount += value;
+        }
+
+        if(position == values.length) layouts.add(logWeight, values, mineCount);
+
+        for(int assigned=0; assigned < position; ++assigned) {
+            unassign(this.frontier.componentVariables[start + assigned], values[assigned]);
+        }
+    }
+
+    /**
+     * Returns the chance to draw a mine, which is the mean of the missing mines per unassigned variable of the
+     * constraints of the variable. So the layouts are drawn closer to their real frequency than by a coin flip, which
+     * keeps the spread of the weights small. The chance is kept away from 0 and 1, so no layout gets a huge weight.
+     */
+    private double chance(final int variable) {
+        double sum = 0;
+        for(int i = this.frontier.variableStart[variable]; i < this.frontier.variableStart[variable + 1]; ++i) {
+            final int constraint = this.frontier.variableConstraints[i];
+            sum += (double) (this.frontier.need[constraint] - this.mines[constraint]) / this.unassigned[constraint];
+        }
+
+        final double chance = sum / (this.frontier.variableStart[variable + 1] - this.frontier.variableStart[variable]);
+        return Math.max(MIN_CHANCE, Math.min(1 - MIN_CHANCE, chance));
+    }
+
+    /**
+     * Returns true, if all constraints of the variable can still be satisfied with the given value.
+     */
+    private boolean fits(final int variable, final int value) {
+        for(int i = this.frontier.variableStart[variable]; i < this.frontier.variableStart[variable + 1]; ++i) {
+            final int constraint = this.frontier.variableConstraints[i];
+            final int mines = this.mines[constraint] + value;
+            final int need = this.frontier.need[constraint];
+
+            if(mines > need || mines + this.unassigned[constraint] - 1 < need) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Assigns the value to the variable and updates all its constraints.
+     */
+    private void assign(final int variable, final int value) {
+        for(int i = this.frontier.variableStart[variable]; i < this.frontier.variableStart[variable + 1]; ++i) {
+            final int constraint = this.frontier.variableConstraints[i];
+            this.mines[constraint] += value;
+            --this.unassigned[constraint];
+        }
+    }
+
+    /**
+     * Removes the value from the variable.
+     */
+    private void unassign(final int variable, final int value) {
+        for(int i = this.frontier.variableStart[variable]; i < this.frontier.variableStart[variable + 1]; ++i) {
+            final int constraint = this.frontier.variableConstraints[i];
+            this.mines[constraint] -= value;
+            ++this.unassigned[constraint];
+        }
+    }
+}
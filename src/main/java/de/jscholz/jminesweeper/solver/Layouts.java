@@ -0,0 +1,147 @@
+package de.jscholz.jminesweeper.solver;
+
+/**
+ * <p>The weights of the mine layouts of a component by their amount of mines.</p>
+ * <p>
+ *     A weight is the amount of layouts, if the layouts were counted, or the sum of the importance weights of the
+ *     drawn layouts, if they were sampled. The weights are stored relative to a scale in log-space, so the weights of
+ *     large components don't overflow. The scale grows with the largest weight and the stored weights are shrunk
+ *     along.
+ * </p>
+ */
+final class Layouts {
+
+    /**
+     * The weight of the layouts with k mines at the index k, relative to the scale.
+     */
+    final double[] solutions;
+    /**
+     * The weight of the layouts with k mines and a mine in the variable, at the index k and the position of the
+     * variable inside the component. A row is null, if there is no layout with k mines.
+     */
+    final double[][] mines;
+    /**
+     * The logarithm of the factor of all weights.
+     */
+    double scale;
+
+    /**
+     * Custom-Ctor creates layouts without any weight.
+     * @param variables The amount of variables of the component.
+     */
+    Layouts(final int variables) {
+        this.solutions = new double[variables + 1];
+        this.mines = new double[variables + 1][];
+    }
+
+    /**
+     * Creates the layouts of the counts of a search.
+     * @param counts The counts of a component, look at {@link ComponentSearch}.
+     * @return The layouts with the scale 0.
+     */
+    static Layouts of(final ComponentSearch.Counts counts) {
+        final int variables = counts.mines.length;
+        final Layouts layouts = new Layouts(variables);
+
+        for(int k=0; k <= variables; ++k) {
+            if(counts.solutions[k] == 0) continue;
+
+            layouts.solutions[k] = counts.solutions[k];
+            layouts.mines[k] = new double[variables];
+            for(int position=0; position < variables; ++position) {
+                layouts.mines[k][position] = counts.mines[position][k];
+            }
+        }
+
+        return layouts;
+    }
+
+    /**
+     * Adds a drawn layout.
+     * @param logWeight The logarithm of the importance weight of the layout.
+     * @param values The value of every variable of the component, 1 for a mine.
+     * @param mineCount The amount of mines of the layout.
+     */
+    void add(final double logWeight, final byte[] values, final int mineCount) {
+        rescale(logWeight);
+
+        final double weight = Math.exp(logWeight - this.scale);
+        this.solutions[mineCount] += weight;
+        if(mineCount == 0) return;
+
+        if(this.mines[mineCount] == null) this.mines[mineCount] = new double[values.length];
+        final double[] mines = this.mines[mineCount];
+        for(int position=0; position < values.length; ++position) {
+            if(values[position] != 0) mines[position] += weight;
+        }
+    }
+
+    /**
+     * Adds the weights of other layouts of the same component.
+     * @param other The other layouts.
+     */
+    void add(final Layouts other) {
+        if(other.isEmpty()) return;
+        rescale(other.scale);
+
+        final double factor = Math.exp(other.scale - this.scale);
+        for(int k=0; k < this.solutions.length; ++k) {
+            this.solutions[k] += other.solutions[k] * factor;
+            if(other.mines[k] == null) continue;
+
+            if(this.mines[k] == null) this.mines[k] = new double[other.mines[k].length];
+            for(int position=0; position < this.mines[k].length; ++position) {
+                this.mines[k][position] += other.mines[k][position] * factor;
+            }
+        }
+    }
+
+    /**
+     * Returns true, if no layout has a weight.
+     */
+    boolean isEmpty() {
+        for(final double solutions : this.solutions) {
+            if(solutions > 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the logarithm of the weight of the layouts with k mines or negative infinity, if there is none.
+     */
+    double logSolutions(final int k) {
+        return this.solutions[k] > 0 ? Math.log(this.solutions[k]) + this.scale : Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Returns the logarithm of the weight of the layouts with k mines and a mine in the variable at the given
+     * position or negative infinity, if there is none.
+     */
+    double logMines(final int k, final int position) {
+        final double[] mines = this.mines[k];
+        return mines != null && mines[position] > 0
+                ? Math.log(mines[position]) + this.scale : Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Raises the scale to the given weight and shrinks the stored weights along.
+     */
+    private void rescale(final double logWeight) {
+        if(isEmpty()) {
+            this.scale = logWeight;
+            return;
+        }
+        if(logWeight <= this.scale) return;
+
+        final double factor = Math.exp(this.scale - logWeight);
+        for(int k=0; k < this.solutions.length; ++k) {
+            this.solutions[k] *= factor;
+            if(this.mines[k] == null) continue;
+
+            for(int position=0; position < this.mines[k].length; ++position) {
+                this.mines[k][position] *= factor;
+            }
+        }
+        this.scale = logWeight;
+    }
+}
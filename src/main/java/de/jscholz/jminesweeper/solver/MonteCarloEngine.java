@@ -0,0 +1,266 @@
+package de.jscholz.jminesweeper.solver;
+
+import de.jscholz.jminesweeper.minesweeper.FieldSnapshot;
+import de.jscholz.jminesweeper.minesweeper.IMinefield;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Estimates the probability of every undiscovered cell to contain a mine within a time budget.</p>
+ * <p>
+ *     The exact calculation of the {@link ProbabilityEngine} enumerates every layout of a component, which takes too
+ *     long for large and highly connected frontiers. This engine counts the small components exactly and draws random
+ *     layouts of the large components, which fit all numbers and flags, look at {@link LayoutSampler}. The drawn
+ *     layouts are weighted with the remaining mines of the interior like the exact layouts, look at
+ *     {@link Weighting}.
+ * </p>
+ * <p>
+ *     Every worker of the {@link ForkJoinPool} runs its own sampler until the budget is spent, so the estimation
+ *     improves with the budget. The layouts of every sampler are split into batches, which are independent
+ *     estimations. The spread of the batches gives the confidence interval of every cell with the Student-t
+ *     distribution, because a pool with few workers has only a few batches, look at
+ *     {@link Probabilities#getConfidenceInterval(int, int)}. If no component is large enough, the probabilities are
+ *     exact. The engine has no state and can be used by several threads.
+ * </p>
+ */
+public final class MonteCarloEngine implements IProbabilityEngine {
+
+    /**
+     * The maximum amount of variables of a component, which is counted exactly.
+     */
+    static final int EXACT_VARIABLES = 24;
+    /**
+     * The minimum amount of batches of all samplers together. A pool with few workers gets more batches per sampler,
+     * so the spread of the batches is a stable estimation of the variance.
+     */
+    private static final int BATCHES = 16;
+    /**
+     * The 97.5% quantiles of the Student-t distribution with 1 to 30 degrees of freedom.
+     */
+    private static final double[] T_QUANTILES = {
+            12.7062, 4.3027, 3.1824, 2.7764, 2.5706, 2.4469, 2.3646, 2.3060, 2.2622, 2.2281,
+            2.2010, 2.1788, 2.1604, 2.1448, 2.1314, 2.1199, 2.1098, 2.1009, 2.0930, 2.0860,
+            2.0796, 2.0739, 2.0687, 2.0639, 2.0595, 2.0555, 2.0518, 2.0484, 2.0452, 2.0423
+    };
+    /**
+     * The 97.5% quantile of the standard normal distribution.
+     */
+    private static final double NORMAL_QUANTILE = 1.959964;
+
+    /**
+     * The pool which runs the searches and the samplers.
+     */
+    private final ForkJoinPool pool;
+    /**
+     * The default time budget in nanoseconds.
+     */
+    private final long budget;
+    /**
+     * The maximum amount of variables of a component, which is counted exactly.
+     */
+    private final int exactVariables;
+
+    /**
+     * Custom-Ctor creates an engine which uses the common pool.
+     * @param budget The default time budget of a calculation.
+     * @param unit The unit of the budget.
+     */
+    public MonteCarloEngine(final long budget, final TimeUnit unit) {
+        this(ForkJoinPool.commonPool(), budget, unit);
+    }
+
+    /**
+     * Custom-Ctor creates an engine which uses the given pool.
+     * @param pool The pool which runs the searches and the samplers.
+     * @param budget The default time budget of a calculation.
+     * @param unit The unit of the budget.
+     */
+    public MonteCarloEngine(final ForkJoinPool pool, final long budget, final TimeUnit unit) {
+        this(pool, unit.toNanos(budget), EXACT_VARIABLES);
+    }
+
+    /**
+     * Custom-Ctor creates an engine which counts only the components up to the given size exactly.
+     * @param pool The pool which runs the searches and the samplers.
+     * @param budget The default time budget in nanoseconds.
+     * @param exactVariables The maximum amount of variables of a component, which is counted exactly.
+     */
+    MonteCarloEngine(final ForkJoinPool pool, final long budget, final int exactVariables) {
+        assert pool != null : "The pool is null!";
+        assert budget >= 0 : "The budget is negative!";
+
+        this.pool = pool;
+        this.budget = budget;
+        this.exactVariables = exactVariables;
+    }
+
+    /**
+     * Estimates the probabilities of the current minefield within the default time budget.
+     * @param minefield The minefield, which must have bounds.
+     * @return The probability of every cell.
+     * @throws IllegalArgumentException If the minefield has no snapshot, because it has no bounds.
+     */
+    @Override
+    public Probabilities compute(final IMinefield minefield) {
+        return compute(minefield, this.budget, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Estimates the probabilities of the current minefield within the given time budget. Every sampler draws at least
+     * one layout of every large component, even if the budget is spent by the exact components.
+     * @param minefield The minefield, which must have bounds.
+     * @param budget The time budget of the calculation.
+     * @param unit The unit of the budget.
+     * @return The probability of every cell.
+     * @throws IllegalArgumentException If the minefield has no snapshot, because it has no bounds.
+     */
+    public Probabilities compute(final IMinefield minefield, final long budget, final TimeUnit unit) {
+        final long deadline = System.nanoTime() + unit.toNanos(budget);
+        final FieldSnapshot snapshot = minefield == null ? null : minefield.getSnapshot();
+        if(snapshot == null) throw new IllegalArgumentException("Only minefields with bounds can be solved!");
+
+        final Frontier frontier = new Frontier(snapshot);
+        final int componentCount = frontier.componentCount();
+        final List<ComponentSearch> searches = new ArrayList<>();
+        final int[] exact = new int[componentCount];
+        final int[] sampled = new int[componentCount];
+        int exactCount = 0;
+        int sampledCount = 0;
+
+        for(int component=0; component < componentCount; ++component) {
+            if(frontier.componentSize(component) <= this.exactVariables) {
+                searches.add(new ComponentSearch(frontier, component));
+                exact[exactCount++] = component;
+            } else {
+                sampled[sampledCount++] = component;
+            }
+        }
+
+        // The random generators are split before the samplers run, because splitting is not thread-safe.
+        final SplittableRandom root = new SplittableRandom();
+        final List<LayoutSampler> samplers = new ArrayList<>();
+        final int[] components = Arrays.copyOf(sampled, sampledCount);
+        if(sampledCount > 0) {
+            final int parallelism = this.pool.getParallelism();
+            final int batches = (BATCHES + parallelism - 1) / parallelism;
+            for(int i=0; i < parallelism; ++i) {
+                samplers.add(new LayoutSampler(frontier, components, batches, root.split(), deadline));
+            }
+        }
+
+        this.pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(searches);
+                ForkJoinTask.invokeAll(samplers);
+            }
+        });
+
+        final Layouts[] layouts = new Layouts[componentCount];
+        for(int i=0; i < exactCount; ++i) {
+            layouts[exact[i]] = Layouts.of(searches.get(i).join());
+        }
+
+        final Weighting weighting = new Weighting(snapshot, frontier, minefield.getTotalMines());
+        if(sampledCount == 0) return weighting.weigh(layouts);
+
+        long samples = 0;
+        for(final LayoutSampler sampler : samplers) {
+            samples += sampler.samples;
+        }
+        return estimate(weighting, frontier, layouts, components, samplers, samples);
+    }
+
+    /**
+     * Estimates the probabilities by the mean of the probabilities of the batches. The spread of the batches gives
+     * the half-width of the confidence interval of every cell. A batch without a layout of a component is left out.
+     * If no batch is left, the layouts of all batches are added together. The half-width is 1, if less than two
+     * batches are left.
+     * @param layouts The layouts of all components, the sampled layouts are replaced by the layouts of every batch.
+     */
+    private static Probabilities estimate(final Weighting weighting, final Frontier frontier, final Layouts[] layouts,
+                                          final int[] sampled, final List<LayoutSampler> samplers,
+                                          final long samples) {
+        final int cellCount = frontier.rows * frontier.columns;
+        final double[] sum = new double[cellCount];
+        final double[] squares = new double[cellCount];
+        double interior = 0;
+        Probabilities last = null;
+        int batches = 0;
+
+        for(final LayoutSampler sampler : samplers) {
+            for(final Layouts[] batch : sampler.batches) {
+                boolean complete = true;
+                for(int i=0; i < sampled.length; ++i) {
+                    complete &= !batch[i].isEmpty();
+                    layouts[sampled[i]] = batch[i];
+                }
+                if(!complete) continue;
+
+                last = weighting.weigh(layouts);
+                for(int index=0; index < cellCount; ++index) {
+                    final double probability = last.probability(index);
+                    sum[index] += probability;
+                    squares[index] += probability * probability;
+                }
+                interior += last.getInteriorProbability();
+                ++batches;
+            }
+        }
+
+        final double[] confidence = new double[cellCount];
+        Arrays.fill(confidence, 1);
+
+        if(last == null) {
+            for(int i=0; i < sampled.length; ++i) {
+                layouts[sampled[i]] = new Layouts(frontier.componentSize(sampled[i]));
+                for(final LayoutSampler sampler : samplers) {
+                    for(final Layouts[] batch : sampler.batches) {
+                        layouts[sampled[i]].add(batch[i]);
+                    }
+                }
+            }
+            final Probabilities pooled = weighting.weigh(layouts);
+            for(int index=0; index < cellCount; ++index) {
+                sum[index] = pooled.probability(index);
+            }
+            return new Probabilities(pooled, sum, pooled.getInteriorProbability(), confidence, samples);
+        }
+
+        // The variance is estimated from a few batches, so the interval uses the Student-t distribution.
+        final double quantile = batches < 2 ? 0 : quantile(batches - 1);
+        for(int index=0; index < cellCount; ++index) {
+            final double mean = sum[index] / batches;
+            sum[index] = mean;
+            if(batches < 2) continue;
+
+            final double variance = Math.max(0, (squares[index] - batches * mean * mean) / (batches - 1));
+            confidence[index] = Math.min(1, quantile * Math.sqrt(variance / batches));
+        }
+        return new Probabilities(last, sum, interior / batches, confidence, samples);
+    }
+
+    /**
+     * Returns the 97.5% quantile of the Student-t distribution, which gives a two-sided 95% confidence interval. Up to
+     * 30 degrees of freedom the quantile is taken from a table, above it is approximated by the expansion of Cornish
+     * and Fisher around the quantile of the normal distribution.
+     * @param degrees The degrees of freedom, which must be positive.
+     * @return The quantile.
+     */
+    static double quantile(final int degrees) {
+        assert degrees > 0 : "The degrees of freedom " + degrees + " are not positive!";
+
+        if(degrees <= T_QUANTILES.length) return T_QUANTILES[degrees - 1];
+
+        final double z = NORMAL_QUANTILE;
+        final double z3 = z * z * z;
+        return z + (z3 + z) / (4.0 * degrees) + (5 * z3 * z * z + 16 * z3 + 3 * z) / (96.0 * degrees * degrees);
+    }
+}
@@ -0,0 +1,151 @@
+package de.jscholz.jminesweeper.solver;
+
+import de.jscholz.jminesweeper.minesweeper.ICellPosition;
+
+/**
+ * <p>The probability of every cell to contain a mine.</p>
+ * <p>
+ *     Opened cells have the probability 0 and flagged cells the probability 1, because the flags are trusted. The
+ *     undiscovered cells which are not touched by any number share the same probability, look at
+ *     {@link #getInteriorProbability()}. If the numbers and the flags don't fit any mine layout, the probabilities of
+ *     the undiscovered cells are NaN.
+ * </p>
+ * <p>
+ *     The probabilities of an estimation have a confidence interval, look at {@link #getConfidenceInterval(int, int)}.
+ *     The interval of an exact calculation is always 0.
+ * </p>
+ */
+public final class Probabilities {
+
+    /**
+     * The amount of rows inside the minefield.
+     */
+    private final int rows;
+    /**
+     * The probability of every cell with the index <i>y * rows + x</i>.
+     */
+    private final double[] probabilities;
+    /**
+     * The bitset of the undiscovered cells, which are not flagged.
+     */
+    private final long[] undiscovered;
+    /**
+     * The probability of the cells, which are not touched by any number.
+     */
+    private final double interior;
+    /**
+     * The half-width of the confidence interval of every cell or null, if the probabilities are exact.
+     */
+    private final double[] confidence;
+    /**
+     * The amount of drawn layouts of every sampled component.
+     */
+    private final long samples;
+
+    /**
+     * Custom-Ctor creates exact probabilities.
+     * @param rows The amount of rows inside the minefield.
+     * @param probabilities The probability of every cell.
+     * @param undiscovered The bitset of the undiscovered cells, which are not flagged.
+     * @param interior The probability of the cells, which are not touched by any number.
+     */
+    Probabilities(final int rows, final double[] probabilities, final long[] undiscovered, final double interior) {
+        this.rows = rows;
+        this.probabilities = probabilities;
+        this.undiscovered = undiscovered;
+        this.interior = interior;
+        this.confidence = null;
+        this.samples = 0;
+    }
+
+    /**
+     * Custom-Ctor creates estimated probabilities.
+     * @param template The probabilities of the same minefield, whose cells are taken.
+     * @param probabilities The estimated probability of every cell.
+     * @param interior The estimated probability of the cells, which are not touched by any number.
+     * @param confidence The half-width of the confidence interval of every cell.
+     * @param samples The amount of drawn layouts of every sampled component.
+     */
+    Probabilities(final Probabilities template, final double[] probabilities, final double interior,
+                  final double[] confidence, final long samples) {
+        this.rows = template.rows;
+        this.probabilities = probabilities;
+        this.undiscovered = template.undiscovered;
+        this.interior = interior;
+        this.confidence = confidence;
+        this.samples = samples;
+    }
+
+    /**
+     * Returns the probability that the cell at the given position contains a mine.
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     * @return The probability from 0 to 1.
+     */
+    public double getMineProbability(final int x, final int y) {
+        return this.probabilities[y * this.rows + x];
+    }
+
+    /**
+     * Returns the half-width of the 95% confidence interval of the probability of the cell at the given position. The
+     * probability is inside the interval from the estimation minus the half-width to the estimation plus the
+     * half-width with a chance of 95%.
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     * @return The half-width, which is 0 for an exact probability.
+     */
+    public double getConfidenceInterval(final int x, final int y) {
+        return this.confidence == null ? 0 : this.confidence[y * this.rows + x];
+    }
+
+    /**
+     * Returns the amount of layouts, which were drawn for every sampled component.
+     * @return The amount of layouts, which is 0 for an exact calculation.
+     */
+    public long getSamples() {
+        return this.samples;
+    }
+
+    /**
+     * Returns true, if the probabilities were calculated exactly.
+     * @return True, if the probabilities are exact.
+     */
+    public boolean isExact() {
+        return this.confidence == null;
+    }
+
+    /**
+     * Returns the probability of the undiscovered cells, which are not touched by any number.
+     * @return The probability from 0 to 1 or NaN, if there are no such cells.
+     */
+    public double getInteriorProbability() {
+        return this.interior;
+    }
+
+    /**
+     * Returns the undiscovered cell with the lowest probability. The first cell wins, if several cells have the same
+     * probability.
+     * @return The packed position of the cell, look at {@link ICellPosition#pack(int, int)}, or -1, if there is no
+     * undiscovered cell with a probability.
+     */
+    public long getSafestCell() {
+        int safest = -1;
+
+        for(int word=0; word < this.undiscovered.length; ++word) {
+            for(long rest = this.undiscovered[word]; rest != 0; rest &= rest - 1) {
+                final int index = (word << 6) + Long.numberOfTrailingZeros(rest);
+                if(safest < 0 || this.probabilities[index] < this.probabilities[safest]) safest = index;
+            }
+        }
+
+        return safest < 0 || Double.isNaN(this.probabilities[safest])
+                ? -1 : ICellPosition.pack(safest % this.rows, safest / this.rows);
+    }
+
+    /**
+     * Returns the probability of the cell with the given index.
+     */
+    double probability(final int index) {
+        return this.probabilities[index];
+    }
+}
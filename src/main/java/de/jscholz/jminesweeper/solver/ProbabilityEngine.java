@@ -0,0 +1,167 @@
+package de.jscholz.jminesweeper.solver;
+
+import de.jscholz.jminesweeper.minesweeper.FieldSnapshot;
+import de.jscholz.jminesweeper.minesweeper.IMinefield;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p>Calculates the exact probability of every undiscovered cell to contain a mine.</p>
+ * <p>
+ *     The layouts of every component of the {@link Frontier} are counted by their amount of mines, look at
+ *     {@link ComponentSearch}, and combined with the remaining mines of the interior, look at {@link Weighting}. The
+ *     counts are combined in log-space, so the binomial coefficients of large and dense minefields don't overflow.
+ * </p>
+ * <p>
+ *     The counts of every component are cached with its variables and constraints as key.
+ *     The next calculation only searches the components, whose constraints were changed by the last clicks. The
+ *     engine is used by one thread only, because of its cache.
+ * </p>
+ */
+public final class ProbabilityEngine implements IProbabilityEngine {
+
+    /**
+     * The pool which searches the components.
+     */
+    private final ForkJoinPool pool;
+    /**
+     * The counts of the components of the last calculation.
+     */
+    private Map<Key, ComponentSearch.Counts> cache = new HashMap<>();
+    /**
+     * The amount of components, which were taken from the cache.
+     */
+    private long cachedComponents;
+    /**
+     * The amount of components, which were searched.
+     */
+    private long searchedComponents;
+
+    /**
+     * Default-Ctor creates an engine which uses the common pool.
+     */
+    public ProbabilityEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Custom-Ctor creates an engine which uses the given pool.
+     * @param pool The pool which searches the components.
+     */
+    public ProbabilityEngine(final ForkJoinPool pool) {
+        assert pool != null : "The pool is null!";
+
+        this.pool = pool;
+    }
+
+    @Override
+    public Probabilities compute(final IMinefield minefield) {
+        final FieldSnapshot snapshot = minefield == null ? null : minefield.getSnapshot();
+        if(snapshot == null) throw new IllegalArgumentException("Only minefields with bounds can be solved!");
+
+        final Frontier frontier = new Frontier(snapshot);
+        final int componentCount = frontier.componentCount();
+        final Key[] keys = new Key[componentCount];
+        final ComponentSearch.Counts[] counts = new ComponentSearch.Counts[componentCount];
+
+        // Only the components without counts in the cache are searched.
+        final int[] seen = new int[frontier.constraintCount()];
+        for(int component=0; component < componentCount; ++component) {
+            keys[component] = key(frontier, component, seen);
+            counts[component] = this.cache.get(keys[component]);
+            if(counts[component] != null) ++this.cachedComponents; else ++this.searchedComponents;
+        }
+        ComponentSearch.count(this.pool, frontier, counts);
+
+        final Map<Key, ComponentSearch.Counts> cache = new HashMap<>();
+        for(int component=0; component < componentCount; ++component) {
+            cache.put(keys[component], counts[component]);
+        }
+        this.cache = cache;
+
+        final Layouts[] layouts = new Layouts[componentCount];
+        for(int component=0; component < componentCount; ++component) {
+            layouts[component] = Layouts.of(counts[component]);
+        }
+        return new Weighting(snapshot, frontier, minefield.getTotalMines()).weigh(layouts);
+    }
+
+    /**
+     * Returns the amount of components, which were taken from the cache since the engine was created.
+     * @return The amount of cached components.
+     */
+    public long getCachedComponents() {
+        return this.cachedComponents;
+    }
+
+    /**
+     * Returns the amount of components, which were searched since the engine was created.
+     * @return The amount of searched components.
+     */
+    public long getSearchedComponents() {
+        return this.searchedComponents;
+    }
+
+    /**
+     * Creates the key of a component, which contains its variables in the order of the search and its constraints.
+     * @param seen The marks of the constraints, which are already part of a key.
+     */
+    private static Key key(final Frontier frontier, final int component, final int[] seen) {
+        final int start = frontier.componentStart[component];
+        final int size = frontier.componentSize(component);
+        int[] constraints = new int[size];
+        int constraintCount = 0;
+
+        for(int position=0; position < size; ++position) {
+            final int variable = frontier.componentVariables[start + position];
+            for(int i = frontier.variableStart[variable]; i < frontier.variableStart[variable + 1]; ++i) {
+                final int constraint = frontier.variableConstraints[i];
+                if(seen[constraint] == component + 1) continue;
+
+                seen[constraint] = component + 1;
+                if(constraintCount == constraints.length) constraints = Arrays.copyOf(constraints, constraintCount * 2);
+                constraints[constraintCount++] = constraint;
+            }
+        }
+        Arrays.sort(constraints, 0, constraintCount);
+
+        final int[] values = new int[1 + size + 2 * constraintCount];
+        values[0] = size;
+        for(int position=0; position < size; ++position) {
+            values[1 + position] = frontier.cells[frontier.componentVariables[start + position]];
+        }
+        for(int i=0; i < constraintCount; ++i) {
+            values[1 + size + 2 * i] = frontier.numbers[constraints[i]];
+            values[2 + size + 2 * i] = frontier.need[constraints[i]];
+        }
+
+        return new Key(values);
+    }
+
+    /**
+     * The key of the counts of a component inside the cache.
+     */
+    private static final class Key {
+
+        private final int[] values;
+        private final int hash;
+
+        Key(final int[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof Key && Arrays.equals(this.values, ((Key) obj).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+}
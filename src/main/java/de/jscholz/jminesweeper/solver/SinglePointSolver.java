@@ -0,0 +1,430 @@
+package de.jscholz.jminesweeper.solver;
+
+import de.jscholz.jminesweeper.minesweeper.FieldSnapshot;
+import de.jscholz.jminesweeper.minesweeper.ICellPosition;
+import de.jscholz.jminesweeper.minesweeper.IMinefield;
+import de.jscholz.jminesweeper.minesweeper.UpdateJournal;
+
+import java.util.Arrays;
+
+/**
+ * <p>A deterministic solver, which finds safe cells and mines with single-point rules.</p>
+ * <p>
+ *     The solver keeps the frontier, which are the opened numbers with undiscovered neighbours. For every number of the
+ *     frontier it applies the following rules:
+ * </p>
+ * <ul>
+ *     <li>If the number has as many known mines around it as its content, all unknown neighbours are safe.</li>
+ *     <li>If the number has as many known mines and unknown neighbours as its content, all unknown neighbours are
+ *     mines.</li>
+ * </ul>
+ * <p>
+ *     The known mines are the flagged cells and the mines found by the solver, so the solver trusts the flags like a
+ *     player. A cell which was found with a flag stays known, when the flag is removed later. A new safe cell or mine
+ *     changes the counts of its neighbours, which are examined again until no rule makes progress.
+ * </p>
+ * <p>
+ *     The solver follows the minefield with its {@link FieldSnapshot}. After a click, {@link #update()} only reads the
+ *     cells which were changed since the last update, which are the cells of {@link IMinefield#getUpdateCells()}, and
+ *     only examines the numbers around them. The whole field is only read when the snapshot doesn't know the changes
+ *     anymore, for instance after a reset. The solver doesn't create any objects after it was created and is used by
+ *     one thread only.
+ * </p>
+ */
+public final class SinglePointSolver {
+
+    /**
+     * The cell is not known by the solver.
+     */
+    private static final byte NONE = 0;
+    /**
+     * The solver knows that the cell is safe.
+     */
+    private static final byte SAFE = 1;
+    /**
+     * The solver knows that the cell is a mine.
+     */
+    private static final byte MINE = 2;
+
+    /**
+     * The minefield which is solved.
+     */
+    private final IMinefield minefield;
+    /**
+     * The snapshot of the minefield.
+     */
+    private final FieldSnapshot snapshot;
+    /**
+     * The visitor which reads the changed cells of the snapshot.
+     */
+    private final UpdateJournal.Visitor visitor = this::visit;
+    /**
+     * The amount of rows inside the minefield.
+     */
+    private final int rows;
+    /**
+     * The amount of columns inside the minefield.
+     */
+    private final int columns;
+    /**
+     * The state codes of the cells, as far as the solver read them.
+     */
+    private final byte[] states;
+    /**
+     * The content codes of the cells, as far as the solver read them.
+     */
+    private final byte[] contents;
+    /**
+     * The knowledge of the solver about every cell.
+     */
+    private final byte[] known;
+    /**
+     * The amount of undiscovered neighbours of every cell, which are neither safe nor mines.
+     */
+    private final byte[] unknown;
+    /**
+     * The amount of flagged neighbours and found mines around every cell.
+     */
+    private final byte[] mines;
+    /**
+     * The bitset of the frontier, which are the opened cells with unknown neighbours.
+     */
+    private final long[] frontier;
+    /**
+     * The bitset of the numbers inside the queue.
+     */
+    private final long[] queued;
+    /**
+     * The stack of the numbers which have to be examined.
+     */
+    private final int[] queue;
+    /**
+     * The found safe cells in the order they were found.
+     */
+    private final int[] safes;
+    /**
+     * The amount of numbers inside the queue.
+     */
+    private int queueSize;
+    /**
+     * The amount of found safe cells, which may be opened already.
+     */
+    private int safeCount;
+    /**
+     * The amount of opened cells of the frontier.
+     */
+    private int frontierSize;
+    /**
+     * The version of the snapshot, which the solver knows, or -1, if the whole field has to be read.
+     */
+    private long version = -1;
+    /**
+     * The amount of clicks performed by {@link #solve()}.
+     */
+    private long moves;
+
+    /**
+     * Custom-Ctor creates a solver for the given minefield. The solver reads the minefield with the first update.
+     * @param minefield The minefield, which must have bounds.
+     * @throws IllegalArgumentException If the minefield has no snapshot, because it has no bounds.
+     */
+    public SinglePointSolver(final IMinefield minefield) {
+        if(minefield == null || minefield.getSnapshot() == null) {
+            throw new IllegalArgumentException("Only minefields with bounds can be solved!");
+        }
+
+        this.minefield = minefield;
+        this.snapshot = minefield.getSnapshot();
+        this.rows = this.snapshot.getRows();
+        this.columns = this.snapshot.getColumns();
+
+        final int cellCount = this.rows * this.columns;
+        this.states = new byte[cellCount];
+        this.contents = new byte[cellCount];
+        this.known = new byte[cellCount];
+        this.unknown = new byte[cellCount];
+        this.mines = new byte[cellCount];
+        this.frontier = new long[(cellCount + 63) >>> 6];
+        this.queued = new long[this.frontier.length];
+        this.queue = new int[cellCount];
+        this.safes = new int[cellCount];
+    }
+
+    /**
+     * Reads the cells which were changed since the last update and applies the rules to the numbers around them.
+     * Has to be called after every click, which was not performed by the solver.
+     */
+    public void update() {
+        if(this.version < 0 || !this.snapshot.changesSince(this.version, this.visitor)) {
+            clear();
+            this.snapshot.forEach(this.visitor);
+        }
+        this.version = this.snapshot.getVersion();
+
+        deduce();
+    }
+
+    /**
+     * <p>Plays the minefield by opening the safe cells, until the game is over or no rule makes progress. The found
+     * mines are not flagged.</p>
+     * <p>The solver doesn't guess, so the first click has to be performed before.</p>
+     * @return <ul>
+     *     <li>CLEARED, if the game was cleared.</li>
+     *     <li>STALLED, if no safe cell is known or the game was already over.</li>
+     *     <li>LOST, if a safe cell contained a mine, which only happens with wrong flags.</li>
+     * </ul>
+     */
+    public Result solve() {
+        update();
+
+        while (!this.minefield.gameOver()) {
+            final long safe = nextSafe();
+            if(safe < 0) return Result.STALLED;
+
+            final IMinefield.OpenReturn result = this.minefield.singleClick(safe);
+            ++this.moves;
+
+            if(result == IMinefield.OpenReturn.GAME_CLEARED) return Result.CLEARED;
+            if(result == IMinefield.OpenReturn.WAS_MINE) return Result.LOST;
+
+            update();
+        }
+
+        return Result.STALLED;
+    }
+
+    /**
+     * Returns a safe cell, which is still undiscovered. The cell stays safe until it is opened.
+     * @return The packed position of the cell, look at {@link ICellPosition#pack(int, int)}, or -1, if no
+     * undiscovered cell is known as safe.
+     */
+    public long nextSafe() {
+        while (this.safeCount > 0) {
+            final int index = this.safes[this.safeCount - 1];
+            if(this.states[index] == UpdateJournal.STATE_UNDISCOVERED) {
+                return ICellPosition.pack(index % this.rows, index / this.rows);
+            }
+
+            --this.safeCount;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns if the solver knows that the undiscovered cell at the given position is safe.
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     * @return True, if the cell is undiscovered and safe.
+     */
+    public boolean isSafe(final int x, final int y) {
+        final int index = index(x, y);
+        return this.known[index] == SAFE && this.states[index] == UpdateJournal.STATE_UNDISCOVERED;
+    }
+
+    /**
+     * Returns if the cell at the given position is a known mine, which is a flagged cell or a mine found by the solver.
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     * @return True, if the cell is not opened and a known mine.
+     */
+    public boolean isMine(final int x, final int y) {
+        return isKnownMine(index(x, y)) == 1;
+    }
+
+    /**
+     * Returns if the cell at the given position is part of the frontier.
+     * @param x The x value of the position.
+     * @param y The y value of the position.
+     * @return True, if the cell is opened and has undiscovered neighbours, which are neither safe nor mines.
+     */
+    public boolean isFrontier(final int x, final int y) {
+        final int index = index(x, y);
+        return (this.frontier[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Returns the amount of cells inside the frontier.
+     * @return The amount of opened cells with unknown neighbours.
+     */
+    public int getFrontierSize() {
+        return this.frontierSize;
+    }
+
+    /**
+     * Returns the amount of clicks, which were performed by {@link #solve()}.
+     * @return The amount of clicks since the solver was created.
+     */
+    public long getMoves() {
+        return this.moves;
+    }
+
+    /**
+     * Forgets everything, because the whole field is read again.
+     */
+    private void clear() {
+        for(int index=0; index < this.states.length; ++index) {
+            this.states[index] = UpdateJournal.STATE_UNDISCOVERED;
+            this.contents[index] = UpdateJournal.CONTENT_UNKNOWN;
+            this.known[index] = NONE;
+            this.mines[index] = 0;
+            this.unknown[index] = (byte) countNeighbours(index);
+        }
+
+        Arrays.fill(this.frontier, 0);
+        Arrays.fill(this.queued, 0);
+        this.queueSize = 0;
+        this.safeCount = 0;
+        this.frontierSize = 0;
+    }
+
+    /**
+     * Reads a changed cell. A cell may be visited more than once, therefore only a changed state updates the
+     * neighbours.
+     */
+    private void visit(final int x, final int y, final byte state, final byte content) {
+        final int index = index(x, y);
+        this.contents[index] = content;
+        if(this.states[index] == state) return;
+
+        final int unknownBefore = isUnknown(index);
+        final int mineBefore = isKnownMine(index);
+        this.states[index] = state;
+
+        changed(index, unknownBefore, mineBefore);
+        refresh(index);
+    }
+
+    /**
+     * Applies the rules to the numbers inside the queue, until the queue is empty.
+     */
+    private void deduce() {
+        while (this.queueSize > 0) {
+            final int index = this.queue[--this.queueSize];
+            this.queued[index >>> 6] &= ~(1L << index);
+
+            if((this.frontier[index >>> 6] & (1L << index)) == 0) continue;
+
+            final int content = this.contents[index];
+            if(this.mines[index] == content) {
+                markNeighbours(index, SAFE);
+            } else if(this.mines[index] + this.unknown[index] == content) {
+                markNeighbours(index, MINE);
+            }
+        }
+    }
+
+    /**
+     * Marks all unknown neighbours of the cell as safe or as mines.
+     */
+    private void markNeighbours(final int index, final byte knowledge) {
+        final int x = index % this.rows;
+        final int y = index / this.rows;
+
+        for(int ny = Math.max(0, y - 1); ny <= Math.min(this.columns - 1, y + 1); ++ny) {
+            for(int nx = Math.max(0, x - 1); nx <= Math.min(this.rows - 1, x + 1); ++nx) {
+                final int neighbour = ny * this.rows + nx;
+                if(isUnknown(neighbour) == 0) continue;
+
+                this.known[neighbour] = knowledge;
+                if(knowledge == SAFE) this.safes[this.safeCount++] = neighbour;
+                changed(neighbour, 1, 0);
+            }
+        }
+    }
+
+    /**
+     * Updates the counts of the neighbours after the given cell has changed.
+     * @param index The index of the changed cell.
+     * @param unknownBefore 1, if the cell was unknown before.
+     * @param mineBefore 1, if the cell was a known mine before.
+     */
+    private void changed(final int index, final int unknownBefore, final int mineBefore) {
+        final int unknownDelta = isUnknown(index) - unknownBefore;
+        final int mineDelta = isKnownMine(index) - mineBefore;
+        if(unknownDelta == 0 && mineDelta == 0) return;
+
+        final int x = index % this.rows;
+        final int y = index / this.rows;
+
+        for(int ny = Math.max(0, y - 1); ny <= Math.min(this.columns - 1, y + 1); ++ny) {
+            for(int nx = Math.max(0, x - 1); nx <= Math.min(this.rows - 1, x + 1); ++nx) {
+                final int neighbour = ny * this.rows + nx;
+                if(neighbour == index) continue;
+
+                this.unknown[neighbour] += unknownDelta;
+                this.mines[neighbour] += mineDelta;
+                refresh(neighbour);
+            }
+        }
+    }
+
+    /**
+     * Adds the cell to the frontier and the queue, if it is an opened number with unknown neighbours. Otherwise the
+     * cell is removed from the frontier.
+     */
+    private void refresh(final int index) {
+        final long bit = 1L << index;
+        final boolean member = this.states[index] == UpdateJournal.STATE_OPEN && this.contents[index] >= 0
+                && this.unknown[index] > 0;
+
+        if(member != ((this.frontier[index >>> 6] & bit) != 0)) {
+            this.frontier[index >>> 6] ^= bit;
+            this.frontierSize += member ? 1 : -1;
+        }
+
+        if(member && (this.queued[index >>> 6] & bit) == 0) {
+            this.queued[index >>> 6] |= bit;
+            this.queue[this.queueSize++] = index;
+        }
+    }
+
+    /**
+     * Returns 1, if the cell is undiscovered and neither safe nor a mine, otherwise 0.
+     */
+    private int isUnknown(final int index) {
+        return this.states[index] == UpdateJournal.STATE_UNDISCOVERED && this.known[index] == NONE ? 1 : 0;
+    }
+
+    /**
+     * Returns 1, if the cell is flagged or a found mine, otherwise 0.
+     */
+    private int isKnownMine(final int index) {
+        return this.states[index] == UpdateJournal.STATE_FLAGGED
+                || (this.known[index] == MINE && this.states[index] != UpdateJournal.STATE_OPEN) ? 1 : 0;
+    }
+
+    /**
+     * Returns the amount of neighbours of the cell inside the minefield.
+     */
+    private int countNeighbours(final int index) {
+        final int x = index % this.rows;
+        final int y = index / this.rows;
+        final int width = Math.min(this.rows - 1, x + 1) - Math.max(0, x - 1) + 1;
+        final int height = Math.min(this.columns - 1, y + 1) - Math.max(0, y - 1) + 1;
+        return width * height - 1;
+    }
+
+    private int index(final int x, final int y) {
+        assert x >= 0 && x < this.rows && y >= 0 && y < this.columns : "The position " + x + ":" + y + " is not valid!";
+        return y * this.rows + x;
+    }
+
+    /**
+     * The result of {@link #solve()}.
+     */
+    public enum Result {
+        /**
+         * The game was cleared.
+         */
+        CLEARED,
+        /**
+         * No rule makes progress, a guess is needed.
+         */
+        STALLED,
+        /**
+         * A safe cell contained a mine, because a flag was wrong.
+         */
+        LOST
+    }
+}
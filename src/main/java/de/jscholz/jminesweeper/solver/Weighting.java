@@ -0,0 +1,183 @@
+package de.jscholz.jminesweeper.solver;
+
+import de.jscholz.jminesweeper.minesweeper.FieldSnapshot;
+import de.jscholz.jminesweeper.minesweeper.UpdateJournal;
+
+import java.util.Arrays;
+
+/**
+ * <p>Combines the layouts of the components of a {@link Frontier} with the interior to the probabilities.</p>
+ * <p>
+ *     The remaining mines are the total mines minus the flags and the forced mines. A combination of layouts with K
+ *     mines leaves the remaining mines minus K for the interior, which are the undiscovered cells not touched by any
+ *     number. So every combination is weighted with the binomial coefficient of the interior cells and the mines left
+ *     for them. The probability of a cell is the weight of the combinations with a mine in the cell divided by the
+ *     weight of all combinations. The weights are combined by convolutions in log-space, so the binomial coefficients
+ *     of large and dense minefields don't overflow.
+ * </p>
+ * <p>A constant factor of the weights of a component doesn't change the probabilities.</p>
+ */
+final class Weighting {
+
+    private final FieldSnapshot snapshot;
+    private final Frontier frontier;
+    /**
+     * The amount of interior cells.
+     */
+    private final int interior;
+    /**
+     * The amount of mines, which are neither flagged nor forced.
+     */
+    private final int remaining;
+    /**
+     * The logarithms of the factorials up to the interior.
+     */
+    private final double[] logFactorials;
+
+    /**
+     * Custom-Ctor creates the weighting of a frontier.
+     * @param snapshot The snapshot of the frontier.
+     * @param frontier The frontier.
+     * @param totalMines The amount of mines inside the minefield.
+     */
+    Weighting(final FieldSnapshot snapshot, final Frontier frontier, final int totalMines) {
+        this.snapshot = snapshot;
+        this.frontier = frontier;
+        this.interior = frontier.interior();
+        this.remaining = totalMines - frontier.flagged - frontier.forcedMineCount;
+        this.logFactorials = new double[this.interior + 1];
+
+        for(int i=2; i <= this.interior; ++i) {
+            this.logFactorials[i] = this.logFactorials[i - 1] + Math.log(i);
+        }
+    }
+
+    /**
+     * Calculates the probabilities of the given layouts.
+     * @param layouts The layouts of every component.
+     * @return The probabilities, which are NaN for the undiscovered cells, if no combination fits the mines.
+     */
+    Probabilities weigh(final Layouts[] layouts) {
+        final Frontier frontier = this.frontier;
+        final int componentCount = layouts.length;
+
+        // The prefixes and suffixes are the convolutions of the components before and after a component.
+        final double[][] logSolutions = new double[componentCount][];
+        final double[][] prefixes = new double[componentCount + 1][];
+        final double[][] suffixes = new double[componentCount + 1][];
+        prefixes[0] = new double[] { 0 };
+        suffixes[componentCount] = new double[] { 0 };
+
+        for(int component=0; component < componentCount; ++component) {
+            logSolutions[component] = new double[layouts[component].solutions.length];
+            for(int k=0; k < logSolutions[component].length; ++k) {
+                logSolutions[component][k] = layouts[component].logSolutions(k);
+            }
+            prefixes[component + 1] = convolve(prefixes[component], logSolutions[component]);
+        }
+        for(int component = componentCount - 1; component >= 0; --component) {
+            suffixes[component] = convolve(logSolutions[component], suffixes[component + 1]);
+        }
+
+        final double[] all = prefixes[componentCount];
+        double logTotal = Double.NEGATIVE_INFINITY;
+        double logInterior = Double.NEGATIVE_INFINITY;
+        for(int mines=0; mines < all.length; ++mines) {
+            logTotal = logAdd(logTotal, all[mines] + logChoose(this.interior, this.remaining - mines));
+            if(this.interior > 0) {
+                logInterior = logAdd(logInterior, all[mines] + logChoose(this.interior - 1, this.remaining - mines - 1));
+            }
+        }
+
+        final int rows = frontier.rows;
+        final int cellCount = rows * frontier.columns;
+        final double[] probabilities = new double[cellCount];
+        final long[] undiscovered = new long[(cellCount + 63) >>> 6];
+        final boolean valid = logTotal != Double.NEGATIVE_INFINITY;
+        final double interiorProbability = valid && this.interior > 0 ? Math.exp(logInterior - logTotal) : Double.NaN;
+
+        for(int index=0; index < cellCount; ++index) {
+            final byte state = this.snapshot.getStateCode(index % rows, index / rows);
+            if(state == UpdateJournal.STATE_FLAGGED) probabilities[index] = 1;
+            if(state != UpdateJournal.STATE_UNDISCOVERED) continue;
+
+            undiscovered[index >>> 6] |= 1L << index;
+            if(!valid) {
+                probabilities[index] = Double.NaN;
+            } else if(Frontier.contains(frontier.forcedMines, index)) {
+                probabilities[index] = 1;
+            } else if(!Frontier.contains(frontier.forcedSafe, index) && frontier.variableOf[index] < 0) {
+                probabilities[index] = interiorProbability;
+            }
+        }
+
+        if(!valid) return new Probabilities(rows, probabilities, undiscovered, Double.NaN);
+
+        for(int component=0; component < componentCount; ++component) {
+            // The weight of k mines inside the component contains all combinations of the other components.
+            final double[] others = convolve(prefixes[component], suffixes[component + 1]);
+            final double[] weights = new double[logSolutions[component].length];
+            Arrays.fill(weights, Double.NEGATIVE_INFINITY);
+
+            for(int mines=0; mines < weights.length; ++mines) {
+                if(logSolutions[component][mines] == Double.NEGATIVE_INFINITY) continue;
+                for(int rest=0; rest < others.length; ++rest) {
+                    weights[mines] = logAdd(weights[mines],
+                            others[rest] + logChoose(this.interior, this.remaining - mines - rest));
+                }
+            }
+
+            final int start = frontier.componentStart[component];
+            final int size = frontier.componentSize(component);
+            for(int position=0; position < size; ++position) {
+                double logMines = Double.NEGATIVE_INFINITY;
+                for(int mines=0; mines < weights.length; ++mines) {
+                    if(weights[mines] != Double.NEGATIVE_INFINITY) {
+                        logMines = logAdd(logMines, layouts[component].logMines(mines, position) + weights[mines]);
+                    }
+                }
+
+                final int cell = frontier.cells[frontier.componentVariables[start + position]];
+                probabilities[cell] = Math.min(1, Math.exp(logMines - logTotal));
+            }
+        }
+
+        return new Probabilities(rows, probabilities, undiscovered, interiorProbability);
+    }
+
+    /**
+     * Returns the logarithm of the binomial coefficient n over k or negative infinity, if it is 0.
+     */
+    private double logChoose(final int n, final int k) {
+        if(k < 0 || k > n) return Double.NEGATIVE_INFINITY;
+        return this.logFactorials[n] - this.logFactorials[k] - this.logFactorials[n - k];
+    }
+
+    /**
+     * Returns the convolution of two distributions in log-space.
+     */
+    private static double[] convolve(final double[] first, final double[] second) {
+        final double[] result = new double[first.length + second.length - 1];
+        Arrays.fill(result, Double.NEGATIVE_INFINITY);
+
+        for(int i=0; i < first.length; ++i) {
+            if(first[i] == Double.NEGATIVE_INFINITY) continue;
+            for(int j=0; j < second.length; ++j) {
+                result[i + j] = logAdd(result[i + j], first[i] + second[j]);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the logarithm of the sum of two values, which are given as logarithms.
+     */
+    private static double logAdd(final double a, final double b) {
+        if(a == Double.NEGATIVE_INFINITY) return b;
+        if(b == Double.NEGATIVE_INFINITY) return a;
+
+        final double max = Math.max(a, b);
+        return max + Math.log1p(Math.exp(Math.min(a, b) - max));
+    }
+}
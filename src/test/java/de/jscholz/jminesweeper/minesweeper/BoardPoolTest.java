@@ -0,0 +1,213 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BoardPoolTest {
+
+    @After
+    public void reset() {
+        GameCreator.disableBoardPool();
+        GameCreator.setGame(Difficulty.EASY);
+    }
+
+    @Test
+    public void takeAndRefillTest() throws InterruptedException {
+        final ExecutorService producers = Executors.newSingleThreadExecutor();
+        final AtomicInteger created = new AtomicInteger();
+
+        try {
+            final BoardPool pool = new BoardPool(() -> {
+                created.incrementAndGet();
+                return new Minefield(Difficulty.EASY);
+            }, 2, 5, producers);
+
+            awaitSize(pool, 5);
+            Assert.assertEquals(5, created.get());
+            Assert.assertEquals(1, pool.getRefills());
+            Assert.assertTrue(pool.getLastRefillNanos() > 0);
+
+            // The pool is refilled, when it holds no more than 2 games.
+            final Set<IMinefield> games = new HashSet<>();
+            for(int i=0; i < 3; ++i) games.add(pool.take());
+            Assert.assertEquals(3, games.size());
+            Assert.assertEquals(3, pool.getHits());
+            Assert.assertEquals(0, pool.getMisses());
+
+            awaitSize(pool, 5);
+            Assert.assertEquals(8, created.get());
+            Assert.assertTrue(pool.getAverageRefillNanos() > 0);
+        } finally {
+            producers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void emptyPoolCreatesOnCallerTest() {
+        final AtomicInteger created = new AtomicInteger();
+
+        // The producers never run, so every game is created on the calling thread.
+        final BoardPool pool = new BoardPool(() -> {
+            created.incrementAndGet();
+            return new Minefield(Difficulty.EASY);
+        }, 1, 3, (final Runnable producer) -> { });
+
+        Assert.assertNotNull(pool.take());
+        Assert.assertNotNull(pool.take());
+        Assert.assertEquals(2, created.get());
+        Assert.assertEquals(0, pool.getHits());
+        Assert.assertEquals(2, pool.getMisses());
+        Assert.assertEquals(0, pool.getHitRate(), 0);
+    }
+
+    @Test
+    public void gameCreatorUsesPoolTest() throws InterruptedException {
+        Assert.assertNull(GameCreator.getBoardPool());
+
+        GameCreator.setGame(Difficulty.EXPERT);
+        GameCreator.enableBoardPool(1, 4, 2);
+
+        final BoardPool expert = GameCreator.getBoardPool();
+        awaitSize(expert, 4);
+
+        final IMinefield game = GameCreator.createGame();
+        Assert.assertEquals(30, game.getRows());
+        Assert.assertEquals(16, game.getColumns());
+        Assert.assertEquals(1, expert.getHits());
+        Assert.assertEquals(1.0, expert.getHitRate(), 0);
+
+        // Another setting has its own pool.
+        GameCreator.setGame(10, 12, 20);
+        final BoardPool custom = GameCreator.getBoardPool();
+        Assert.assertNotSame(expert, custom);
+        awaitSize(custom, 4);
+        Assert.assertEquals(10, GameCreator.createGame().getRows());
+        Assert.assertSame(custom, GameCreator.getBoardPool());
+
+        GameCreator.disableBoardPool();
+        Assert.assertNull(GameCreator.getBoardPool());
+        Assert.assertEquals(10, GameCreator.createGame().getRows());
+    }
+
+    @Test
+    public void leastRecentlyUsedPoolIsClosedTest() {
+        GameCreator.enableBoardPool(1, 2, 1);
+        final BoardPool[] pools = new BoardPool[GameCreator.MAX_BOARD_POOLS + 1];
+
+        for(int i=0; i < GameCreator.MAX_BOARD_POOLS; ++i) {
+            GameCreator.setGame(10 + i, 10, 20);
+            pools[i] = GameCreator.getBoardPool();
+        }
+
+        // The first setting is used again, so the second setting is the least recently used one.
+        GameCreator.setGame(10, 10, 20);
+        Assert.assertSame(pools[0], GameCreator.getBoardPool());
+        GameCreator.setGame(20, 10, 20);
+        pools[GameCreator.MAX_BOARD_POOLS] = GameCreator.getBoardPool();
+
+        Assert.assertFalse(pools[0].isClosed());
+        Assert.assertTrue(pools[1].isClosed());
+        for(int i=2; i <= GameCreator.MAX_BOARD_POOLS; ++i) {
+            Assert.assertFalse(pools[i].isClosed());
+        }
+
+        // A closed pool still creates games, the setting gets a new pool.
+        Assert.assertEquals(11, pools[1].take().getRows());
+        GameCreator.setGame(11, 10, 20);
+        Assert.assertNotSame(pools[1], GameCreator.getBoardPool());
+
+        GameCreator.disableBoardPool();
+        Assert.assertTrue(pools[0].isClosed());
+    }
+
+    @Test
+    public void closeWhileProducingTest() throws InterruptedException {
+        final ExecutorService producers = Executors.newSingleThreadExecutor();
+        final CountDownLatch producing = new CountDownLatch(1);
+        final CountDownLatch closed = new CountDownLatch(1);
+
+        final BoardPool pool = new BoardPool(() -> {
+            producing.countDown();
+            try {
+                closed.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new Minefield(Difficulty.EASY);
+        }, 1, 3, producers);
+
+        // The pool is closed, while the producer creates a board. The board is dropped.
+        producing.await();
+        pool.close();
+        closed.countDown();
+        producers.shutdown();
+        Assert.assertTrue(producers.awaitTermination(10, TimeUnit.SECONDS));
+        Assert.assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void rejectedRefillClosesPoolTest() {
+        final BoardPool pool = new BoardPool(() -> new Minefield(Difficulty.EASY), 1, 3, (final Runnable producer) -> {
+            throw new RejectedExecutionException();
+        });
+
+        Assert.assertTrue(pool.isClosed());
+        Assert.assertNotNull(pool.take());
+    }
+
+    @Test
+    public void toggleWhileCreatingGamesTest() throws InterruptedException {
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final List<Thread> players = new ArrayList<>();
+        for(int i=0; i < 4; ++i) {
+            final Thread player = new Thread(() -> {
+                while (running.get()) GameCreator.createGame();
+            });
+            player.start();
+            players.add(player);
+        }
+
+        try {
+            for(int i=0; i < 200; ++i) {
+                GameCreator.enableBoardPool(1, 3, 1);
+                GameCreator.disableBoardPool();
+
+                // The players create games while the pools are disabled, which must not leave a pool behind.
+                Thread.yield();
+            }
+            GameCreator.enableBoardPool(1, 3, 1);
+        } finally {
+            running.set(false);
+            for(final Thread player : players) player.join();
+        }
+
+        // The pool of the current configuration belongs to the running producers and is refilled.
+        final BoardPool pool = GameCreator.getBoardPool();
+        Assert.assertFalse(pool.isClosed());
+        for(int i=0; i < 3; ++i) pool.take();
+        awaitSize(pool, 3);
+    }
+
+    private static void awaitSize(final BoardPool pool, final int size) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10000;
+
+        // The refill is counted after the last game was added.
+        while (pool.size() < size || pool.getRefills() == 0) {
+            Assert.assertTrue("The pool was not filled in time: " + pool, System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+}
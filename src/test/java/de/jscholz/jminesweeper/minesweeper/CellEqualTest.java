@@ -32,7 +32,9 @@ public class CellEqualTest {
         return Arrays.asList(new Object[][]{
                 { new Cell(), null, false, false},
                 { new Cell(), new Object(), false, false},
-                { new Cell(0,0), c, false, false},
+                { new Cell(0,0), c, true, false},
+                { new Cell(0,1), c, false, false},
+                { new Cell(0,0), new CellPosition(0,0), false, false},
                 { c, c, true, true},
                 { c, new Cell(c), true, false},
                 { new Cell(), new Cell(), true, false}
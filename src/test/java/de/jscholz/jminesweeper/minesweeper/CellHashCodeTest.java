@@ -28,7 +28,8 @@ public class CellHashCodeTest {
                 {new Cell(), new Cell(), true},
                 {new Cell(new CellPosition(1,1), CellContent.MINE, CellState.UNDISCOVERED), new Cell(new CellPosition(1,1), CellContent.MINE, CellState.UNDISCOVERED), true},
                 {new Cell(), new Cell(new CellPosition(), CellContent.EMPTY, CellState.UNDISCOVERED), true},
-                {new Cell(), new Cell(new CellPosition(), CellContent.EIGHT, CellState.UNDISCOVERED), false},
+                {new Cell(), new Cell(new CellPosition(), CellContent.EIGHT, CellState.UNDISCOVERED), true},
+                {new Cell(), new Cell(new CellPosition(), CellContent.EIGHT, CellState.FLAGGED), true},
                 {new Cell(), new Cell(new CellPosition(1,1), CellContent.EIGHT, CellState.OPEN), false},
                 {new Cell(1, 2), new Cell(3, 4), false},
                 {new Cell(0, 37), new Cell(1, 0), false},
@@ -0,0 +1,75 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class CellIdentityTest {
+
+    @Test
+    public void cellStaysInsideSetAfterChangeTest() {
+        final Cell cell = new Cell(3, 4);
+        final Set<Cell> set = new HashSet<>();
+        set.add(cell);
+
+        cell.setState(CellState.FLAGGED);
+        Assert.assertTrue(set.contains(cell));
+
+        cell.setContent(CellContent.EIGHT);
+        cell.setState(CellState.OPEN);
+        Assert.assertTrue(set.contains(cell));
+        Assert.assertTrue(set.contains(new Cell(3, 4)));
+        Assert.assertFalse(set.contains(new Cell(4, 3)));
+    }
+
+    @Test
+    public void neighboursStayInsideSetAfterOpenTest() {
+        final Minefield minefield = (Minefield) GameCreator.createExpertGame();
+
+        for(final Cell cell : minefield.getOriginalField().values()) {
+            if(cell.getContent() == CellContent.MINE) continue;
+
+            minefield.singleClick(cell.getPosition());
+            if(minefield.gameOver()) break;
+        }
+
+        // The states changed after the cells were added to the neighbourhood.
+        for(final Cell cell : minefield.getOriginalField().values()) {
+            for(final Cell neighbour : cell.getNeighbours()) {
+                Assert.assertTrue(neighbour.getNeighbours().contains(cell));
+            }
+        }
+    }
+
+    @Test
+    public void largePositionsAreDistinctTest() {
+        // The hashcodes of large positions may collide, but the positions are not equal.
+        final CellPosition a = new CellPosition(50000, 0);
+        final CellPosition b = new CellPosition(-50000, 0);
+        Assert.assertNotEquals(a, b);
+
+        final Set<ICellPosition> set = new HashSet<>();
+        for(int x=-100000; x < 100000; x += 997) {
+            set.add(new CellPosition(x, x));
+            set.add(new CellPosition(x, -x));
+        }
+        Assert.assertEquals(2 * 201, set.size());
+    }
+
+    @Test
+    public void originalFieldTest() {
+        final Minefield minefield = (Minefield) GameCreator.createExpertGame();
+        final int cells = minefield.getRows() * minefield.getColumns();
+
+        Assert.assertEquals(cells, minefield.getOriginalField().size());
+        Assert.assertEquals(cells, minefield.getOriginalField().values().size());
+        Assert.assertTrue(minefield.getOriginalField().containsKey(new CellPosition(29, 15)));
+        Assert.assertFalse(minefield.getOriginalField().containsKey(new CellPosition(30, 15)));
+
+        final Cell cell = minefield.getOriginalField().get(new CellPosition(7, 9));
+        Assert.assertTrue(cell.getPosition().compare(7, 9));
+        Assert.assertSame(cell, minefield.getOriginalField().get(ICellPosition.valueOf(7, 9)));
+    }
+}
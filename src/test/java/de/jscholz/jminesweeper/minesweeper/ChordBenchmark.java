@@ -0,0 +1,108 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import java.util.Random;
+
+/**
+ * <p>Measures the cost of the double click on dense and sparse boards for every minefield type.</p>
+ * <p>
+ *     All mines are flagged before the board is played, so every double click opens cells until the game is
+ *     cleared. On sparse boards a double click opens large areas, on dense boards it opens few cells.
+ * </p>
+ * <p>The benchmark is not part of the test run. Start it after <i>mvn test-compile</i> with:</p>
+ * <pre>java -cp target/classes:target/test-classes de.jscholz.jminesweeper.minesweeper.ChordBenchmark</pre>
+ */
+public class ChordBenchmark {
+
+    private static final int DENSE_PERCENT = 35;
+    private static final int SPARSE_PERCENT = 8;
+    private static final int GAMES = 2000;
+    private static final int LARGE_SIZE = 1000;
+    private static final int LARGE_GAMES = 5;
+    private static final int RUNS = 5;
+
+    public static void main(final String[] args) {
+        System.out.println(String.format("%-10s %-8s %-11s %12s %14s %14s",
+                "type", "board", "density", "chords", "ns/chord", "ns/opened"));
+
+        for(final MinefieldType type : MinefieldType.values()) {
+            // Warm up the JIT.
+            run(type, 30, 24, DENSE_PERCENT, GAMES, 1);
+            run(type, 30, 24, SPARSE_PERCENT, GAMES, 1);
+
+            report(type, "30x24", "dense", run(type, 30, 24, DENSE_PERCENT, GAMES, RUNS));
+            report(type, "30x24", "sparse", run(type, 30, 24, SPARSE_PERCENT, GAMES, RUNS));
+        }
+
+        // The minefield with cell objects is limited to the custom game size.
+        for(final MinefieldType type : new MinefieldType[] { MinefieldType.ARRAY, MinefieldType.BITBOARD }) {
+            final String board = LARGE_SIZE + "x" + LARGE_SIZE;
+            report(type, board, "dense", run(type, LARGE_SIZE, LARGE_SIZE, DENSE_PERCENT, LARGE_GAMES, RUNS));
+            report(type, board, "sparse", run(type, LARGE_SIZE, LARGE_SIZE, SPARSE_PERCENT, LARGE_GAMES, RUNS));
+        }
+    }
+
+    /**
+     * Returns the best result of all runs as { chords, nanos, opened cells }.
+     */
+    private static long[] run(final MinefieldType type, final int rows, final int columns, final int minesPercent,
+                              final int games, final int runs) {
+        long[] best = null;
+
+        for(int run=0; run < runs; ++run) {
+            final Random random = new Random(run);
+            final long[] result = new long[3];
+
+            for(int game=0; game < games; ++game) {
+                final IMinefield field = create(type, rows, columns, minesPercent);
+                flagMines(field);
+
+                while (!field.gameOver()) {
+                    final int x = random.nextInt(rows);
+                    final int y = random.nextInt(columns);
+
+                    final long start = System.nanoTime();
+                    field.doubleClick(x, y);
+                    result[1] += System.nanoTime() - start;
+
+                    ++result[0];
+                    if(!field.gameOver()) result[2] += field.getUpdateJournal().size();
+                }
+            }
+
+            if(best == null || result[1] < best[1]) best = result;
+        }
+
+        return best;
+    }
+
+    private static IMinefield create(final MinefieldType type, final int rows, final int columns, final int minesPercent) {
+        switch (type) {
+            case ARRAY:
+                return new ArrayMinefield(rows, columns, minesPercent);
+            case BITBOARD:
+                return new BitboardMinefield(rows, columns, minesPercent);
+            default:
+                return new Minefield(rows, columns, minesPercent);
+        }
+    }
+
+    private static void flagMines(final IMinefield field) {
+        if(field instanceof Minefield) {
+            for(final Cell c : ((Minefield) field).getOriginalField().values()) {
+                if(c.getContent() == CellContent.MINE) field.secondaryClick(c.getPosition());
+            }
+            return;
+        }
+
+        final IndexedMinefield indexed = (IndexedMinefield) field;
+        for(int index=0; index < indexed.cellCount; ++index) {
+            if(indexed.isMine(index)) field.secondaryClick(index % indexed.rows, index / indexed.rows);
+        }
+    }
+
+    private static void report(final MinefieldType type, final String board, final String density, final long[] result) {
+        System.out.println(String.format("%-10s %-8s %-11s %12d %14.1f %14.1f",
+                type, board, density, result[0], (double) result[1] / result[0],
+                (double) result[1] / Math.max(result[2], 1)));
+    }
+}
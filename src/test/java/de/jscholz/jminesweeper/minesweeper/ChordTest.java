@@ -0,0 +1,164 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+public class ChordTest {
+
+    @After
+    public void reset() {
+        GameCreator.setMinefieldType(MinefieldType.HASH_MAP);
+    }
+
+    @Test
+    public void chordLargeEmptyFieldTest() {
+        final int rows = 3000;
+        final int columns = 2000;
+        final int center = (columns / 2) * rows + rows / 2;
+        final Grid grid = new Grid(rows * columns);
+        grid.open.set(center);
+
+        final Chord chord = new Chord(rows, columns);
+        final int found = chord.chord(center, grid);
+        Assert.assertEquals(rows * columns - 1, found);
+
+        // Each cell is reported exactly once, although the empty cells share their neighbours.
+        final BitSet reported = new BitSet(rows * columns);
+        for(int i=0; i < found; ++i) {
+            final int index = chord.get(i);
+            Assert.assertFalse(reported.get(index));
+            reported.set(index);
+        }
+        Assert.assertFalse(reported.get(center));
+
+        Assert.assertEquals(8, chord.getNeighbourCount());
+        Assert.assertEquals(0, chord.getOpenCount());
+        Assert.assertEquals(0, chord.getFlagCount());
+    }
+
+    @Test
+    public void chordCountsNeighbourhoodTest() {
+        final int rows = 10;
+        final int columns = 10;
+        final Grid grid = new Grid(rows * columns);
+
+        // The corner has 3 neighbours: one open, one flagged and one number.
+        grid.open.set(0);
+        grid.open.set(1);
+        grid.flagged.set(rows);
+        grid.numbers.set(rows + 1);
+
+        final Chord chord = new Chord(rows, columns);
+        Assert.assertEquals(1, chord.chord(0, grid));
+        Assert.assertEquals(rows + 1, chord.get(0));
+        Assert.assertEquals(3, chord.getNeighbourCount());
+        Assert.assertEquals(1, chord.getOpenCount());
+        Assert.assertEquals(1, chord.getFlagCount());
+
+        // The chord is reused and the counts are reset.
+        grid.flagged.set(rows + 1);
+        Assert.assertEquals(0, chord.chord(0, grid));
+        Assert.assertEquals(2, chord.getFlagCount());
+    }
+
+    @Test
+    public void chordStopsAtMineTest() {
+        final int rows = 10;
+        final int columns = 10;
+        final Grid grid = new Grid(rows * columns);
+        grid.open.set(55);
+        grid.mines.set(66);
+
+        final Chord chord = new Chord(rows, columns);
+        Assert.assertEquals(Chord.MINE, chord.chord(55, grid));
+        Assert.assertEquals(0, chord.size());
+
+        // A flagged mine is not opened.
+        grid.flagged.set(66);
+        grid.numbers.set(56);
+        grid.numbers.set(65);
+        grid.numbers.set(67);
+        grid.numbers.set(76);
+        final int found = chord.chord(55, grid);
+        Assert.assertNotEquals(Chord.MINE, found);
+        for(int i=0; i < found; ++i) Assert.assertNotEquals(66, chord.get(i));
+    }
+
+    @Test
+    public void doubleClickCountsEveryCellOnceTest() {
+        final Random random = new Random(2024);
+
+        for(final MinefieldType type : MinefieldType.values()) {
+            GameCreator.setMinefieldType(type);
+
+            for(int game=0; game < 200; ++game) {
+                final IMinefield field = GameCreator.createExpertGame();
+
+                while (!field.gameOver()) {
+                    final int freeCellsLeft = freeCellsLeft(field);
+                    final int x = random.nextInt(field.getRows());
+                    final int y = random.nextInt(field.getColumns());
+
+                    if(random.nextInt(3) == 0) {
+                        field.secondaryClick(x, y);
+                    } else {
+                        field.doubleClick(x, y);
+                    }
+
+                    if(field.gameOver()) break;
+
+                    // Every opened cell is reported once and counted once.
+                    int opened = 0;
+                    for(int i=0; i < field.getUpdateJournal().size(); ++i) {
+                        if(field.getUpdateJournal().getState(i) == CellState.OPEN) ++opened;
+                    }
+                    Assert.assertEquals(freeCellsLeft - opened, freeCellsLeft(field));
+                }
+            }
+        }
+    }
+
+    private static int freeCellsLeft(final IMinefield field) {
+        if(field instanceof Minefield) return ((Minefield) field).getFreeCellsLeft();
+        return ((IndexedMinefield) field).getFreeCellsLeft();
+    }
+
+    private static final class Grid implements Chord.Grid {
+
+        private final BitSet open;
+        private final BitSet flagged;
+        private final BitSet numbers;
+        private final BitSet mines;
+
+        private Grid(final int cellCount) {
+            this.open = new BitSet(cellCount);
+            this.flagged = new BitSet(cellCount);
+            this.numbers = new BitSet(cellCount);
+            this.mines = new BitSet(cellCount);
+        }
+
+        @Override
+        public boolean canOpen(final int index) {
+            return !this.open.get(index) && !this.flagged.get(index);
+        }
+
+        @Override
+        public boolean isEmpty(final int index) {
+            return !this.numbers.get(index);
+        }
+
+        @Override
+        public boolean isFlagged(final int index) {
+            return this.flagged.get(index);
+        }
+
+        @Override
+        public boolean isMine(final int index) {
+            return this.mines.get(index);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * <p>Measures the bytes allocated by the click methods of every minefield type. The games are created before the
+ * measurement, so only the clicks are measured.</p>
+ * <p>The benchmark is not part of the test run. Start it after <i>mvn test-compile</i> with:</p>
+ * <pre>java -cp target/classes:target/test-classes de.jscholz.jminesweeper.minesweeper.ClickAllocationBenchmark</pre>
+ * <p>It needs a HotSpot based JVM, which supports the measurement of the allocated bytes per thread.</p>
+ */
+public class ClickAllocationBenchmark {
+
+    private static final int GAMES = 1000;
+    private static final int WARMUP_RUNS = 10;
+
+    public static void main(final String[] args) {
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long thread = Thread.currentThread().getId();
+
+        System.out.println(String.format("%-10s %-10s %14s %14s", "type", "click", "clicks", "bytes/click"));
+
+        for(final MinefieldType type : MinefieldType.values()) {
+            GameCreator.setMinefieldType(type);
+
+            for(final String click : new String[] { "single", "double", "secondary", "packed" }) {
+                // Warm up the JIT, so the escape analysis is done before the measurement.
+                for(int run=0; run < WARMUP_RUNS; ++run) play(createGames(GAMES), click);
+
+                final IMinefield[] games = createGames(GAMES);
+                final long before = threads.getThreadAllocatedBytes(thread);
+                final long clicks = play(games, click);
+                final long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+                System.out.println(String.format("%-10s %-10s %14d %14.2f", type, click, clicks, (double) allocated / clicks));
+            }
+        }
+    }
+
+    private static IMinefield[] createGames(final int amount) {
+        final IMinefield[] games = new IMinefield[amount];
+        for(int i=0; i < amount; ++i) games[i] = GameCreator.createExpertGame();
+        return games;
+    }
+
+    /**
+     * Clicks on every cell of every game row by row until the game is over.
+     * @param games The games.
+     * @param click The click which is performed.
+     * @return The amount of clicks.
+     */
+    private static long play(final IMinefield[] games, final String click) {
+        long clicks = 0;
+
+        for(final IMinefield game : games) {
+            for(int y=0; y < game.getColumns() && !game.gameOver(); ++y) {
+                for(int x=0; x < game.getRows() && !game.gameOver(); ++x) {
+                    switch (click) {
+                        case "single":
+                            game.singleClick(x, y);
+                            break;
+                        case "double":
+                            game.doubleClick(x, y);
+                            break;
+                        case "secondary":
+                            game.secondaryClick(x, y);
+                            break;
+                        default:
+                            game.singleClick(ICellPosition.pack(x, y));
+                            break;
+                    }
+                    ++clicks;
+                }
+            }
+        }
+
+        return clicks;
+    }
+}
@@ -0,0 +1,228 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class EndlessMinefieldTest {
+
+    private static final long SEED = 42L;
+
+    @Test
+    public void sameSeedSameMinefieldTest() {
+        final EndlessMinefield first = (EndlessMinefield) GameCreator.createEndlessGame(SEED, 20);
+        final EndlessMinefield second = (EndlessMinefield) GameCreator.createEndlessGame(SEED, 20);
+        final EndlessMinefield other = (EndlessMinefield) GameCreator.createEndlessGame(SEED + 1, 20);
+
+        int mines = 0;
+        int differences = 0;
+        for(int y=-50; y < 50; ++y) {
+            for(int x=-50; x < 50; ++x) {
+                Assert.assertEquals(first.isMine(x, y), second.isMine(x, y));
+                if(first.isMine(x, y)) ++mines;
+                if(first.isMine(x, y) != other.isMine(x, y)) ++differences;
+            }
+        }
+
+        // Roughly 20 percent of the 10000 cells are mines.
+        Assert.assertTrue(mines > 1700 && mines < 2300);
+        Assert.assertTrue(differences > 0);
+    }
+
+    @Test
+    public void contentTest() {
+        final EndlessMinefield minefield = (EndlessMinefield) GameCreator.createEndlessGame(SEED, 30);
+
+        for(int y=-20; y < 20; ++y) {
+            for(int x=-20; x < 20; ++x) {
+                if(minefield.isMine(x, y)) {
+                    Assert.assertEquals(CellContent.MINE, minefield.getContent(x, y));
+                    continue;
+                }
+
+                int mines = 0;
+                for(int nY = y - 1; nY <= y + 1; ++nY) {
+                    for(int nX = x - 1; nX <= x + 1; ++nX) {
+                        if(minefield.isMine(nX, nY)) ++mines;
+                    }
+                }
+                Assert.assertEquals(mines, minefield.getMinesInNeighbourhood(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void singleClickOpensEmptyAreaTest() {
+        final EndlessMinefield minefield = (EndlessMinefield) GameCreator.createEndlessGame(SEED, 16);
+
+        final ICellPosition empty = findEmptyCell(minefield, 0, 0);
+        Assert.assertEquals(IMinefield.OpenReturn.OPEN, minefield.singleClick(empty));
+        Assert.assertTrue(minefield.getUpdateCells().size() > 1);
+        Assert.assertFalse(minefield.gameOver());
+
+        for(final ICell c : minefield.getUpdateCells()) {
+            Assert.assertEquals(CellState.OPEN, c.getCellState());
+            Assert.assertNotEquals(CellContent.MINE, c.getCellContent());
+            Assert.assertNotEquals(CellContent.UNKNOWN, c.getCellContent());
+
+            // Every neighbour of an opened empty cell is opened too.
+            if(c.getCellContent() == CellContent.EMPTY) {
+                final int x = c.getPosition().getX();
+                final int y = c.getPosition().getY();
+                for(int nY = y - 1; nY <= y + 1; ++nY) {
+                    for(int nX = x - 1; nX <= x + 1; ++nX) {
+                        Assert.assertEquals(CellState.OPEN, minefield.getState(nX, nY));
+                    }
+                }
+            }
+        }
+
+        Assert.assertEquals(IMinefield.OpenReturn.IS_ALREADY_OPEN, minefield.singleClick(empty));
+    }
+
+    @Test
+    public void clickFarAwayTest() {
+        final EndlessMinefield minefield = (EndlessMinefield) GameCreator.createEndlessGame(SEED, 16);
+
+        for(final int value : new int[] {Integer.MIN_VALUE, -1000000000, 1000000000, Integer.MAX_VALUE}) {
+            final ICellPosition position = new CellPosition(value, value);
+            Assert.assertTrue(minefield.validatePosition(position));
+            Assert.assertEquals(IMinefield.OpenReturn.NOW_FLAGGED, minefield.secondaryClick(position));
+            Assert.assertEquals(CellState.FLAGGED, minefield.getState(value, value));
+        }
+
+        Assert.assertEquals(4, minefield.getAmountOfFlags());
+        Assert.assertEquals(4, minefield.getChunkCount());
+    }
+
+    @Test
+    public void wasMineTest() {
+        final EndlessMinefield minefield = (EndlessMinefield) GameCreator.createEndlessGame(SEED, 50);
+
+        Assert.assertEquals(IMinefield.OpenReturn.NOW_FLAGGED, minefield.secondaryClick(0, 0));
+
+        int x = 0;
+        while (!minefield.isMine(x, 100)) ++x;
+
+        Assert.assertEquals(IMinefield.OpenReturn.WAS_MINE, minefield.singleClick(x, 100));
+        Assert.assertTrue(minefield.gameOver());
+        Assert.assertEquals(IMinefield.OpenReturn.GAME_IS_ALREADY_OVER, minefield.singleClick(x, 100));
+
+        // All cells of the explored chunks are revealed.
+        Assert.assertEquals(64 * 64, minefield.getUpdateCells().size());
+        for(final ICell c : minefield.getUpdateCells()) {
+            Assert.assertNotEquals(CellContent.UNKNOWN, c.getCellContent());
+        }
+    }
+
+    @Test
+    public void gameOverJournalTest() {
+        final EndlessMinefield minefield = (EndlessMinefield) GameCreator.createEndlessGame(SEED, 50);
+
+        // A flag in each of 100 chunks, which are far away from each other.
+        for(int i=0; i < 100; ++i) {
+            minefield.secondaryClick(i * 1000, -i * 1000);
+        }
+        int x = 0;
+        while (!minefield.isMine(x, 100)) ++x;
+        minefield.singleClick(x, 100);
+
+        final int chunks = minefield.getChunkCount();
+        final UpdateJournal journal = minefield.getUpdateJournal();
+        Assert.assertTrue(chunks >= 100);
+        Assert.assertEquals(chunks * 64 * 64, journal.size());
+
+        final Set<Long> positions = new HashSet<>();
+        for(int i=0; i < journal.size(); ++i) {
+            positions.add(journal.getPosition(i));
+            Assert.assertEquals(UpdateJournal.toStateCode(minefield.getState(journal.getX(i), journal.getY(i))),
+                    journal.getStateCode(i));
+            Assert.assertNotEquals(UpdateJournal.CONTENT_UNKNOWN, journal.getContentCode(i));
+        }
+        Assert.assertEquals(journal.size(), positions.size());
+        Assert.assertTrue(positions.contains(ICellPosition.pack(99000, -99000)));
+    }
+
+    @Test
+    public void untouchedChunksAreRemovedTest() {
+        final EndlessMinefield minefield = (EndlessMinefield) GameCreator.createEndlessGame(SEED, 16);
+
+        // Flag one cell inside each of 600 chunks of a grid and remove every second flag again.
+        for(int i=0; i < 600; ++i) {
+            minefield.secondaryClick((i % 30 - 15) * 64, (i / 30 - 10) * 64);
+        }
+        for(int i=0; i < 600; i += 2) {
+            minefield.secondaryClick((i % 30 - 15) * 64, (i / 30 - 10) * 64);
+        }
+
+        // The chunks are compressed, while there are too many expanded chunks. The chunks without flags are removed.
+        Assert.assertTrue(minefield.getChunkCount() < 600);
+        Assert.assertTrue(minefield.getExpandedChunkCount() <= 257);
+
+        for(int i=0; i < 600; ++i) {
+            final CellState expected = i % 2 == 0 ? CellState.UNDISCOVERED : CellState.FLAGGED;
+            Assert.assertEquals(expected, minefield.getState((i % 30 - 15) * 64, (i / 30 - 10) * 64));
+        }
+        Assert.assertEquals(300, minefield.getAmountOfFlags());
+    }
+
+    @Test
+    public void memoryProportionalToExploredAreaTest() {
+        final EndlessMinefield minefield = (EndlessMinefield) GameCreator.createEndlessGame(SEED, 16);
+
+        // Nothing is stored before the first click.
+        Assert.assertEquals(0, minefield.getChunkCount());
+        Assert.assertEquals(CellState.UNDISCOVERED, minefield.getState(123456, -654321));
+        Assert.assertEquals(0, minefield.getChunkCount());
+
+        // Flag one cell inside each of 1000 chunks along a line.
+        for(int i=0; i < 1000; ++i) {
+            Assert.assertEquals(IMinefield.OpenReturn.NOW_FLAGGED, minefield.secondaryClick(i * 64, 0));
+        }
+
+        Assert.assertEquals(1000, minefield.getChunkCount());
+        Assert.assertTrue(minefield.getExpandedChunkCount() <= 257);
+
+        // Compressed chunks still know their flags.
+        for(int i=0; i < 1000; ++i) {
+            Assert.assertEquals(CellState.FLAGGED, minefield.getState(i * 64, 0));
+            Assert.assertEquals(CellState.UNDISCOVERED, minefield.getState(i * 64 + 1, 0));
+        }
+
+        // A compressed chunk is expanded again when it is changed.
+        Assert.assertEquals(IMinefield.OpenReturn.REMOVE_FLAG, minefield.secondaryClick(0, 0));
+        Assert.assertEquals(CellState.UNDISCOVERED, minefield.getState(0, 0));
+        Assert.assertEquals(999, minefield.getAmountOfFlags());
+    }
+
+    @Test
+    public void removeUntouchedChunksTest() {
+        final EndlessMinefield minefield = (EndlessMinefield) GameCreator.createEndlessGame(SEED, 16);
+
+        // Flag and unflag a cell inside each chunk, so the chunks contain neither opened nor flagged cells.
+        for(int i=0; i < 300; ++i) {
+            minefield.secondaryClick(i * 64, 0);
+            minefield.secondaryClick(i * 64, 0);
+        }
+
+        Assert.assertTrue(minefield.getChunkCount() <= 257);
+        Assert.assertEquals(0, minefield.getAmountOfFlags());
+    }
+
+    @Test
+    public void doubleClickTest() {
+        final EndlessMinefield minefield = (EndlessMinefield) GameCreator.createEndlessGame(SEED, 16);
+
+        final ICellPosition empty = findEmptyCell(minefield, 500, 500);
+        Assert.assertEquals(IMinefield.OpenReturn.OPEN, minefield.doubleClick(empty));
+        Assert.assertEquals(IMinefield.OpenReturn.IS_ALREADY_OPEN, minefield.doubleClick(empty));
+        Assert.assertTrue(minefield.getUpdateCells().isEmpty());
+    }
+
+    private static ICellPosition findEmptyCell(final EndlessMinefield minefield, int x, final int y) {
+        while (minefield.getContent(x, y) != CellContent.EMPTY) ++x;
+        return new CellPosition(x, y);
+    }
+}
@@ -0,0 +1,139 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+
+@RunWith(Parameterized.class)
+public class FieldSnapshotTest {
+
+    @Parameterized.Parameter()
+    public MinefieldType type;
+
+    @Parameterized.Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][]{
+                { MinefieldType.HASH_MAP },
+                { MinefieldType.ARRAY },
+                { MinefieldType.BITBOARD }
+        });
+    }
+
+    @After
+    public void reset() {
+        GameCreator.setMinefieldType(MinefieldType.HASH_MAP);
+    }
+
+    @Test
+    public void changesSinceTest() {
+        GameCreator.setMinefieldType(type);
+        final Random random = new Random(1234);
+
+        for(int game=0; game < 200; ++game) {
+            final IMinefield field = GameCreator.createExpertGame();
+            final FieldSnapshot snapshot = field.getSnapshot();
+            Assert.assertSame(snapshot, field.getSnapshot());
+            Assert.assertEquals(0, snapshot.getVersion());
+
+            final short[] frame = new short[field.getRows() * field.getColumns()];
+            snapshot.forEach((x, y, state, content) -> frame[y * field.getRows() + x] = code(state, content));
+            long drawn = snapshot.getVersion();
+
+            while (!field.gameOver()) {
+                // The renderer doesn't draw after every click.
+                for(int click = random.nextInt(3); click >= 0 && !field.gameOver(); --click) {
+                    final long version = snapshot.getVersion();
+                    final int x = random.nextInt(field.getRows());
+                    final int y = random.nextInt(field.getColumns());
+
+                    switch (random.nextInt(4)) {
+                        case 0:
+                            field.secondaryClick(x, y);
+                            break;
+                        case 1:
+                            field.doubleClick(x, y);
+                            break;
+                        default:
+                            field.singleClick(x, y);
+                            break;
+                    }
+
+                    Assert.assertEquals(version + (field.getUpdateJournal().isEmpty() ? 0 : 1), snapshot.getVersion());
+                }
+
+                final UpdateJournal.Visitor draw = (x, y, state, content) -> frame[y * field.getRows() + x] = code(state, content);
+                final boolean known = snapshot.changesSince(drawn, draw);
+                Assert.assertEquals(!field.gameOver(), known);
+                if(!known) snapshot.forEach(draw);
+                drawn = snapshot.getVersion();
+
+                for(int y=0; y < field.getColumns(); ++y) {
+                    for(int x=0; x < field.getRows(); ++x) {
+                        final short expected = code(snapshot.getStateCode(x, y), snapshot.getContentCode(x, y));
+                        Assert.assertEquals(expected, frame[y * field.getRows() + x]);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void snapshotIsNotACopyTest() {
+        GameCreator.setMinefieldType(type);
+        final IMinefield field = GameCreator.createBeginnerGame();
+        final FieldSnapshot snapshot = field.getSnapshot();
+
+        Assert.assertEquals(CellState.UNDISCOVERED, snapshot.getState(2, 3));
+        field.secondaryClick(2, 3);
+        Assert.assertEquals(CellState.FLAGGED, snapshot.getState(2, 3));
+        Assert.assertEquals(CellContent.UNKNOWN, snapshot.getContent(2, 3));
+        Assert.assertEquals(1, snapshot.getVersion());
+
+        // A click which doesn't change anything doesn't create a version.
+        Assert.assertEquals(IMinefield.OpenReturn.NOT_VALID, field.singleClick(-1, 0));
+        field.singleClick(2, 3);
+        Assert.assertEquals(1, snapshot.getVersion());
+
+        final int[] visited = new int[1];
+        Assert.assertTrue(snapshot.changesSince(0, (x, y, state, content) -> {
+            Assert.assertEquals(2, x);
+            Assert.assertEquals(3, y);
+            ++visited[0];
+        }));
+        Assert.assertTrue(snapshot.changesSince(1, (x, y, state, content) -> ++visited[0]));
+        Assert.assertEquals(1, visited[0]);
+    }
+
+    @Test
+    public void lostChangesTest() {
+        // The first click opens more cells than the snapshot remembers, because there is only one mine in a corner.
+        final IMinefield field = type == MinefieldType.BITBOARD
+                ? new BitboardMinefield(400, 400, new int[] { 0 })
+                : new ArrayMinefield(400, 400, new int[] { 0 });
+        final FieldSnapshot snapshot = field.getSnapshot();
+
+        field.secondaryClick(399, 399);
+        Assert.assertEquals(IMinefield.OpenReturn.OPEN, field.singleClick(200, 200));
+        Assert.assertTrue(field.getUpdateJournal().size() > 1 << 16);
+        Assert.assertEquals(2, snapshot.getVersion());
+
+        Assert.assertFalse(snapshot.changesSince(0, (x, y, state, content) -> Assert.fail()));
+        Assert.assertFalse(snapshot.changesSince(1, (x, y, state, content) -> Assert.fail()));
+        Assert.assertTrue(snapshot.changesSince(2, (x, y, state, content) -> Assert.fail()));
+    }
+
+    @Test
+    public void endlessHasNoSnapshotTest() {
+        Assert.assertNull(GameCreator.createEndlessGame(1, 20).getSnapshot());
+    }
+
+    private static short code(final byte state, final byte content) {
+        return (short) (state << 8 | (content & 0xFF));
+    }
+}
@@ -0,0 +1,184 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.*;
+
+@RunWith(Parameterized.class)
+public class FirstClickSafetyTest {
+
+    @Parameterized.Parameter()
+    public MinefieldType type;
+
+    @Parameterized.Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][]{
+                { MinefieldType.HASH_MAP },
+                { MinefieldType.ARRAY },
+                { MinefieldType.BITBOARD }
+        });
+    }
+
+    @Before
+    public void setUp() {
+        GameCreator.setMinefieldType(type);
+        GameCreator.setFirstClickSafe(true);
+    }
+
+    @After
+    public void reset() {
+        GameCreator.setMinefieldType(MinefieldType.HASH_MAP);
+        GameCreator.setFirstClickSafe(false);
+        GameCreator.setGame(Difficulty.EASY);
+    }
+
+    @Test
+    public void densestFieldOpensEmptyAreaTest() {
+        final Random random = new Random(93);
+        GameCreator.setGame(GameCreator.MAX_ROWS, GameCreator.MAX_COLUMNS, GameCreator.MAX_MINES_PERCENT);
+
+        for(int game=0; game < 500; ++game) {
+            final IMinefield field = GameCreator.createGame();
+            final int x = random.nextInt(field.getRows());
+            final int y = random.nextInt(field.getColumns());
+            final Set<Integer> before = mines(field);
+
+            final IMinefield.OpenReturn result = field.singleClick(x, y);
+            Assert.assertTrue(result == IMinefield.OpenReturn.OPEN || result == IMinefield.OpenReturn.GAME_CLEARED);
+
+            // The neighbourhood is free, so the clicked cell is empty.
+            final Set<Integer> after = mines(field);
+            Assert.assertEquals(field.getTotalMines(), after.size());
+            for(final int index : neighbourhood(field, x, y)) {
+                Assert.assertFalse(after.contains(index));
+            }
+            Assert.assertEquals(CellContent.EMPTY, content(field, y * field.getRows() + x));
+            assertContentMatchesMines(field, after);
+
+            // Only the mines of the neighbourhood were moved.
+            final Set<Integer> removed = new HashSet<>(before);
+            removed.removeAll(after);
+            final Set<Integer> added = new HashSet<>(after);
+            added.removeAll(before);
+            Assert.assertEquals(removed.size(), added.size());
+            Assert.assertTrue(neighbourhood(field, x, y).containsAll(removed));
+        }
+    }
+
+    @Test
+    public void smallestDensestFieldClearsClickedCellTest() {
+        GameCreator.setGame(GameCreator.MIN_ROWS, GameCreator.MIN_COLUMNS, GameCreator.MAX_MINES_PERCENT);
+
+        for(int game=0; game < 500; ++game) {
+            final IMinefield field = GameCreator.createGame();
+            final int x = 1 + game % 6;
+            final int y = 1 + (game / 6) % 6;
+
+            // The 5 free cells can't take the neighbourhood of 9 cells, only the clicked cell is cleared.
+            Assert.assertNotEquals(IMinefield.OpenReturn.WAS_MINE, field.singleClick(x, y));
+            assertContentMatchesMines(field, mines(field));
+        }
+    }
+
+    @Test
+    public void doubleClickIsProtectedTest() {
+        GameCreator.setGame(GameCreator.MAX_ROWS, GameCreator.MAX_COLUMNS, GameCreator.MAX_MINES_PERCENT);
+
+        for(int game=0; game < 100; ++game) {
+            final IMinefield field = GameCreator.createGame();
+            Assert.assertNotEquals(IMinefield.OpenReturn.WAS_MINE, field.doubleClick(game % 30, game % 24));
+        }
+    }
+
+    @Test
+    public void onlyFirstClickIsProtectedTest() {
+        GameCreator.setGame(GameCreator.MAX_ROWS, GameCreator.MAX_COLUMNS, GameCreator.MAX_MINES_PERCENT);
+        final IMinefield field = GameCreator.createGame();
+
+        // Flags don't use the protection.
+        Assert.assertEquals(IMinefield.OpenReturn.NOW_FLAGGED, field.secondaryClick(0, 0));
+        Assert.assertEquals(IMinefield.OpenReturn.REMOVE_FLAG, field.secondaryClick(0, 0));
+        Assert.assertNotEquals(IMinefield.OpenReturn.WAS_MINE, field.singleClick(15, 12));
+
+        // The mines don't move anymore.
+        final Set<Integer> mines = mines(field);
+        final int mine = mines.iterator().next();
+        Assert.assertEquals(IMinefield.OpenReturn.WAS_MINE, field.singleClick(mine % field.getRows(), mine / field.getRows()));
+        Assert.assertEquals(mines, mines(field));
+    }
+
+    @Test
+    public void seededGameMovesSameMinesTest() {
+        for(long seed=0; seed < 20; ++seed) {
+            final IMinefield first = GameCreator.createSeededGame(30, 24, 93, seed);
+            final IMinefield second = GameCreator.createSeededGame(30, 24, 93, seed);
+            first.singleClick(10, 10);
+            second.singleClick(10, 10);
+
+            Assert.assertEquals(mines(first), mines(second));
+        }
+    }
+
+    @Test
+    public void optionIsOffByDefaultTest() {
+        GameCreator.setFirstClickSafe(false);
+        Assert.assertFalse(GameCreator.isFirstClickSafe());
+
+        final IMinefield field = GameCreator.createSeededGame(8, 8, 16, 42);
+        Assert.assertEquals(IMinefield.OpenReturn.WAS_MINE, field.singleClick(2, 0));
+    }
+
+    private static void assertContentMatchesMines(final IMinefield field, final Set<Integer> mines) {
+        final int rows = field.getRows();
+
+        for(int index=0; index < rows * field.getColumns(); ++index) {
+            if(mines.contains(index)) {
+                Assert.assertEquals(CellContent.MINE, content(field, index));
+                continue;
+            }
+
+            int count = 0;
+            for(final int neighbour : neighbourhood(field, index % rows, index / rows)) {
+                if(mines.contains(neighbour)) ++count;
+            }
+            Assert.assertEquals(count, content(field, index).getMinesInNeighbourhood());
+        }
+    }
+
+    private static Set<Integer> neighbourhood(final IMinefield field, final int x, final int y) {
+        final Set<Integer> neighbourhood = new HashSet<>();
+
+        for(int nY = Math.max(y - 1, 0); nY <= Math.min(y + 1, field.getColumns() - 1); ++nY) {
+            for(int nX = Math.max(x - 1, 0); nX <= Math.min(x + 1, field.getRows() - 1); ++nX) {
+                neighbourhood.add(nY * field.getRows() + nX);
+            }
+        }
+
+        return neighbourhood;
+    }
+
+    private static CellContent content(final IMinefield field, final int index) {
+        final int x = index % field.getRows();
+        final int y = index / field.getRows();
+
+        if(field instanceof Minefield) {
+            return ((Minefield) field).getOriginalField().get(CellPosition.valueOf(x, y)).getContent();
+        }
+        return ((IndexedMinefield) field).getContent(x, y);
+    }
+
+    private static Set<Integer> mines(final IMinefield field) {
+        final Set<Integer> mines = new HashSet<>();
+
+        for(int index=0; index < field.getRows() * field.getColumns(); ++index) {
+            if(content(field, index) == CellContent.MINE) mines.add(index);
+        }
+
+        return mines;
+    }
+}
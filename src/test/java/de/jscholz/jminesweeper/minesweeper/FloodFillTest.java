@@ -0,0 +1,112 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+public class FloodFillTest {
+
+    @Test
+    public void fillLargeEmptyFieldTest() {
+        final int rows = 3000;
+        final int columns = 2000;
+        final FloodFill floodFill = new FloodFill(rows, columns);
+
+        final int opened = floodFill.fill(rows * columns / 2, new Grid(new boolean[0]));
+        Assert.assertEquals(rows * columns, opened);
+
+        // Each cell is reported exactly once.
+        final BitSet found = new BitSet(rows * columns);
+        for(int i=0; i < opened; ++i) {
+            final int index = floodFill.get(i);
+            Assert.assertFalse(found.get(index));
+            found.set(index);
+        }
+
+        Assert.assertEquals(rows * columns / 2, floodFill.get(0));
+    }
+
+    @Test
+    public void fillStopsAtNumbersTest() {
+        final int rows = 10;
+        final int columns = 10;
+
+        // A vertical wall of numbers at x = 4.
+        final boolean[] numbers = new boolean[rows * columns];
+        for(int y=0; y < columns; ++y) numbers[y * rows + 4] = true;
+
+        final FloodFill floodFill = new FloodFill(rows, columns);
+        final int opened = floodFill.fill(0, new Grid(numbers));
+
+        // The left side and the wall are opened, the right side not.
+        Assert.assertEquals(5 * columns, opened);
+        for(int i=0; i < opened; ++i) {
+            Assert.assertTrue(floodFill.get(i) % rows <= 4);
+        }
+
+        // A number alone opens only itself.
+        Assert.assertEquals(1, floodFill.fill(4, new Grid(numbers)));
+        Assert.assertEquals(4, floodFill.get(0));
+    }
+
+    @Test
+    public void openLongChainOfCellsTest() {
+        final int length = 200000;
+        final Cell[] chain = new Cell[length];
+
+        for(int i=0; i < length; ++i) {
+            chain[i] = new Cell(i, 0);
+            if(i > 0) {
+                chain[i].addNeighbour(chain[i - 1]);
+                chain[i - 1].addNeighbour(chain[i]);
+            }
+        }
+
+        final Set<ICell> opened = new LinkedHashSet<>();
+        chain[0].open(opened);
+
+        Assert.assertEquals(length, opened.size());
+        for(final Cell c : chain) {
+            Assert.assertEquals(CellState.OPEN, c.getCellState());
+        }
+    }
+
+    @Test
+    public void openReportsDiscoveryOrderTest() {
+        final Minefield minefield = (Minefield) GameCreator.createExpertGame();
+
+        Cell empty = null;
+        for(final Cell c : minefield.getOriginalField().values()) {
+            if(c.getContent() == CellContent.EMPTY) {
+                empty = c;
+                break;
+            }
+        }
+        Assert.assertNotNull(empty);
+
+        Assert.assertEquals(IMinefield.OpenReturn.OPEN, minefield.singleClick(empty.getPosition()));
+        Assert.assertSame(empty, minefield.getUpdateCells().iterator().next());
+    }
+
+    private static final class Grid implements FloodFill.Grid {
+
+        private final boolean[] numbers;
+
+        private Grid(final boolean[] numbers) {
+            this.numbers = numbers;
+        }
+
+        @Override
+        public boolean canOpen(final int index) {
+            return true;
+        }
+
+        @Override
+        public boolean isEmpty(final int index) {
+            return index >= this.numbers.length || !this.numbers[index];
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>Measures the size of an encoded game and the time of the encoding and the decoding for every minefield type and
+ * difficulty. Every game is played a bit before it is encoded, so all planes contain bits. The decoding is measured
+ * into a new minefield and into an existing minefield.</p>
+ * <p>The benchmark is not part of the test run. Start it after <i>mvn test-compile</i> with:</p>
+ * <pre>java -cp target/classes:target/test-classes de.jscholz.jminesweeper.minesweeper.GameCodecBenchmark</pre>
+ * <p>It needs a HotSpot based JVM, which supports the measurement of the allocated bytes per thread.</p>
+ */
+public class GameCodecBenchmark {
+
+    private static final int GAMES = 256;
+    private static final int ROUNDS = 100;
+    private static final int WARMUP_RUNS = 5;
+
+    public static void main(final String[] args) {
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long thread = Thread.currentThread().getId();
+
+        System.out.println(String.format("%-10s %-12s %8s %12s %12s %12s %14s", "type", "difficulty", "bytes",
+                "encode ns", "decode ns", "into ns", "into bytes"));
+
+        for(final MinefieldType type : MinefieldType.values()) {
+            for(final Difficulty difficulty : Difficulty.values()) {
+                final GameConfiguration configuration = GameConfiguration.of(difficulty).withMinefieldType(type);
+                final int size = GameCodec.encodedSize(configuration.getRows(), configuration.getColumns());
+                final IMinefield[] games = new IMinefield[GAMES];
+                final IMinefield target = GameFactory.create(configuration, 0);
+                final ByteBuffer buffer = ByteBuffer.allocateDirect(GAMES * size);
+
+                for(int i=0; i < GAMES; ++i) {
+                    games[i] = GameFactory.create(configuration, i);
+                    play(games[i]);
+                }
+
+                long encode = 0;
+                long decode = 0;
+                long into = 0;
+                long allocated = 0;
+                for(int run=0; run < WARMUP_RUNS + 1; ++run) {
+                    encode = System.nanoTime();
+                    for(int round=0; round < ROUNDS; ++round) {
+                        buffer.clear();
+                        for(final IMinefield game : games) GameCodec.encode(game, buffer);
+                    }
+                    encode = System.nanoTime() - encode;
+
+                    decode = System.nanoTime();
+                    for(int round=0; round < ROUNDS; ++round) {
+                        buffer.flip();
+                        for(int i=0; i < GAMES; ++i) GameCodec.decode(buffer);
+                    }
+                    decode = System.nanoTime() - decode;
+
+                    allocated = threads.getThreadAllocatedBytes(thread);
+                    into = System.nanoTime();
+                    for(int round=0; round < ROUNDS; ++round) {
+                        buffer.flip();
+                        for(int i=0; i < GAMES; ++i) GameCodec.decode(buffer, target);
+                    }
+                    into = System.nanoTime() - into;
+                    allocated = threads.getThreadAllocatedBytes(thread) - allocated;
+                }
+
+                final double total = (double) GAMES * ROUNDS;
+                System.out.println(String.format("%-10s %-12s %8d %12.1f %12.1f %12.1f %14.1f", type, difficulty, size,
+                        encode / total, decode / total, into / total, allocated / total));
+            }
+        }
+    }
+
+    /**
+     * Flags the first cell and opens the center of the game.
+     * @param game The game.
+     */
+    private static void play(final IMinefield game) {
+        game.secondaryClick(0, 0);
+        game.singleClick(game.getRows() / 2, game.getColumns() / 2);
+    }
+}
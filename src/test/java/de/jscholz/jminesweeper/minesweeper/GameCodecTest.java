@@ -0,0 +1,292 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@RunWith(Parameterized.class)
+public class GameCodecTest {
+
+    private static final int ROWS = 30;
+    private static final int COLUMNS = 24;
+    private static final byte[] STATES = {
+            UpdateJournal.STATE_OPEN, UpdateJournal.STATE_UNDISCOVERED, UpdateJournal.STATE_FLAGGED
+    };
+
+    @Parameterized.Parameter()
+    public MinefieldType type;
+
+    @Parameterized.Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][]{
+                { MinefieldType.HASH_MAP },
+                { MinefieldType.ARRAY },
+                { MinefieldType.BITBOARD }
+        });
+    }
+
+    @Before
+    public void setUp() {
+        GameCreator.setMinefieldType(this.type);
+    }
+
+    @After
+    public void reset() {
+        GameCreator.setConfiguration(GameConfiguration.DEFAULT);
+    }
+
+    /**
+     * Creates a minefield, where a cell with k mines in its neighbourhood exists for every k from 0 to 8.
+     */
+    private GameCodec.Board createAllContents() {
+        final List<Integer> mines = new ArrayList<>();
+        final int[][] neighbours = { {-1,-1}, {0,-1}, {1,-1}, {-1,0}, {1,0}, {-1,1}, {0,1}, {1,1} };
+
+        for(int k=0; k <= 8; ++k) {
+            final int x = 1 + 4 * (k % 7);
+            final int y = 1 + 4 * (k / 7);
+
+            for(int n=0; n < k; ++n) {
+                mines.add((y + neighbours[n][1]) * ROWS + x + neighbours[n][0]);
+            }
+        }
+
+        final long[] bits = MinePlacer.toBits(ROWS * COLUMNS, mines.stream().mapToInt(Integer::intValue).toArray());
+        return (GameCodec.Board) GameFactory.create(this.type, ROWS, COLUMNS, bits);
+    }
+
+    @Test
+    public void everyStateAndContentTest() {
+        final Set<String> combinations = new HashSet<>();
+
+        for(int shift=0; shift < STATES.length; ++shift) {
+            final GameCodec.Board board = createAllContents();
+            int flags = 0;
+            int free = 0;
+
+            for(int index=0; index < ROWS * COLUMNS; ++index) {
+                final byte state = STATES[(index + shift) % STATES.length];
+                board.setStateCode(index, state);
+
+                if(state == UpdateJournal.STATE_FLAGGED) ++flags;
+                if(state != UpdateJournal.STATE_OPEN && !board.containsMine(index)) ++free;
+                combinations.add(state + ":" + content(board, index));
+            }
+            board.restore(free, flags, false, shift == 1, shift == 2);
+
+            final ByteBuffer buffer = ByteBuffer.allocate(GameCodec.encodedSize(ROWS, COLUMNS));
+            GameCodec.encode(board, buffer);
+            Assert.assertFalse(buffer.hasRemaining());
+
+            buffer.flip();
+            assertSameGame(board, (GameCodec.Board) GameCodec.decode(buffer));
+
+            buffer.rewind();
+            final GameCodec.Board target = createAllContents();
+            GameCodec.decode(buffer, target);
+            assertSameGame(board, target);
+        }
+
+        // Every state with the mine and every number.
+        Assert.assertEquals(3 * 10, combinations.size());
+    }
+
+    @Test
+    public void decodeIntoMinefieldTest() {
+        final IMinefield source = GameCreator.createSeededGame(ROWS, COLUMNS, 30, 5);
+        final IMinefield target = GameCreator.createSeededGame(ROWS, COLUMNS, 30, 6);
+        source.secondaryClick(3, 3);
+        source.singleClick(firstFree((GameCodec.Board) source));
+
+        final ByteBuffer buffer = ByteBuffer.allocate(GameCodec.encodedSize(ROWS, COLUMNS));
+        GameCodec.encode(source, buffer);
+        buffer.flip();
+        GameCodec.decode(buffer, target);
+
+        assertSameGame((GameCodec.Board) source, (GameCodec.Board) target);
+        Assert.assertEquals(ROWS * COLUMNS, target.getUpdateJournal().size());
+
+        // Both games continue in the same way.
+        for(int index=0; index < ROWS * COLUMNS; ++index) {
+            Assert.assertEquals(source.doubleClick(index % ROWS, index / ROWS), target.doubleClick(index % ROWS, index / ROWS));
+        }
+        assertSameGame((GameCodec.Board) source, (GameCodec.Board) target);
+    }
+
+    @Test
+    public void gameOverTest() {
+        final IMinefield field = GameCreator.createSeededGame(ROWS, COLUMNS, 30, 9);
+        final int mine = firstMine((GameCodec.Board) field);
+        Assert.assertEquals(IMinefield.OpenReturn.WAS_MINE, field.singleClick(mine % ROWS, mine / ROWS));
+
+        final ByteBuffer buffer = ByteBuffer.allocate(GameCodec.encodedSize(ROWS, COLUMNS));
+        GameCodec.encode(field, buffer);
+        buffer.flip();
+        final IMinefield decoded = GameCodec.decode(buffer);
+
+        Assert.assertTrue(decoded.gameOver());
+        Assert.assertNotNull(decoded.getGameOverReveal());
+        Assert.assertEquals(field.getGameOverReveal().count(GameOverReveal.Category.MINE),
+                decoded.getGameOverReveal().count(GameOverReveal.Category.MINE));
+        Assert.assertEquals(CellContent.MINE, decoded.getSnapshot().getContent(mine % ROWS, mine / ROWS));
+        Assert.assertEquals(IMinefield.OpenReturn.GAME_IS_ALREADY_OVER, decoded.singleClick(0, 0));
+    }
+
+    @Test
+    public void seededFirstClickTest() {
+        GameCreator.setFirstClickSafe(true);
+        final IMinefield field = GameCreator.createSeededGame(8, 8, 50, 77);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(GameCodec.encodedSize(8, 8));
+        GameCodec.encode(field, buffer);
+        buffer.flip();
+        final GameCodec.Board decoded = (GameCodec.Board) GameCodec.decode(buffer);
+
+        Assert.assertTrue(decoded.isSeeded());
+        Assert.assertEquals(77, decoded.getSeed());
+        Assert.assertTrue(decoded.isFirstClickSafe());
+        Assert.assertTrue(decoded.isFirstClickPending());
+        Assert.assertEquals(this.type, decoded.getMinefieldType());
+
+        final int mine = firstMine(decoded);
+        Assert.assertNotEquals(IMinefield.OpenReturn.WAS_MINE, decoded.singleClick(mine % 8, mine / 8));
+        Assert.assertFalse(decoded.isFirstClickPending());
+    }
+
+    @Test
+    public void seededFirstClickRoundTripTest() {
+        GameCreator.setFirstClickSafe(true);
+        final ByteBuffer buffer = ByteBuffer.allocate(GameCodec.encodedSize(ROWS, COLUMNS));
+        final GameCodec.Board target = (GameCodec.Board) GameCreator.createSeededGame(ROWS, COLUMNS, 20, 0);
+
+        for(long seed=0; seed < 20; ++seed) {
+            final GameCodec.Board field = (GameCodec.Board) GameCreator.createSeededGame(ROWS, COLUMNS, 20, seed);
+            buffer.clear();
+            GameCodec.encode(field, buffer);
+            buffer.flip();
+            final GameCodec.Board decoded = (GameCodec.Board) GameCodec.decode(buffer);
+            buffer.flip();
+            GameCodec.decode(buffer, target);
+
+            // The first click moves the mines of the decoded games to the same cells as the mines of the original game.
+            final int mine = firstMine(field);
+            field.singleClick(mine % ROWS, mine / ROWS);
+            decoded.singleClick(mine % ROWS, mine / ROWS);
+            target.singleClick(mine % ROWS, mine / ROWS);
+            assertSameGame(field, decoded);
+            assertSameGame(field, target);
+        }
+    }
+
+    @Test
+    public void positionAndByteOrderTest() {
+        final IMinefield field = GameCreator.createSeededGame(ROWS, COLUMNS, 21, 3);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(5 + 2 * GameCodec.encodedSize(ROWS, COLUMNS)).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(5);
+        GameCodec.encode(field, buffer);
+        GameCodec.encode(field, buffer);
+
+        Assert.assertEquals(ByteOrder.LITTLE_ENDIAN, buffer.order());
+        Assert.assertEquals('J', buffer.get(5));
+        Assert.assertEquals('G', buffer.get(8));
+
+        buffer.flip();
+        buffer.position(5);
+        assertSameGame((GameCodec.Board) field, (GameCodec.Board) GameCodec.decode(buffer));
+        assertSameGame((GameCodec.Board) field, (GameCodec.Board) GameCodec.decode(buffer));
+        Assert.assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void sizeTest() {
+        Assert.assertEquals(216, GameCodec.encodedSize(Difficulty.EXPERT.getRows(), Difficulty.EXPERT.getColumns()));
+        Assert.assertEquals(GameCodec.HEADER_SIZE + 3 * 8, GameCodec.encodedSize(8, 8));
+    }
+
+    @Test
+    public void invalidInputTest() {
+        final IMinefield field = GameCreator.createSeededGame(ROWS, COLUMNS, 21, 3);
+        final ByteBuffer buffer = ByteBuffer.allocate(GameCodec.encodedSize(ROWS, COLUMNS));
+        GameCodec.encode(field, buffer);
+
+        // A game of another size doesn't fit.
+        buffer.flip();
+        assertInvalid(() -> GameCodec.decode(buffer, GameCreator.createSeededGame(8, 8, 21, 3)));
+        Assert.assertEquals(0, buffer.position());
+
+        // A cut game.
+        buffer.limit(buffer.limit() - 1);
+        assertInvalid(() -> GameCodec.decode(buffer));
+
+        // Another format.
+        buffer.limit(buffer.capacity());
+        buffer.put(0, (byte) 0);
+        assertInvalid(() -> GameCodec.decode(buffer));
+
+        // Minefields without bounds.
+        assertInvalid(() -> GameCodec.encode(GameCreator.createEndlessGame(1, 20), buffer));
+    }
+
+    private static void assertInvalid(final Runnable action) {
+        try {
+            action.run();
+            Assert.fail("The input is not valid!");
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private static void assertSameGame(final GameCodec.Board expected, final GameCodec.Board actual) {
+        Assert.assertEquals(expected.getRows(), actual.getRows());
+        Assert.assertEquals(expected.getColumns(), actual.getColumns());
+        Assert.assertEquals(expected.getTotalMines(), actual.getTotalMines());
+        Assert.assertEquals(expected.getAmountOfFlags(), actual.getAmountOfFlags());
+        Assert.assertEquals(expected.getFreeCellsLeft(), actual.getFreeCellsLeft());
+        Assert.assertEquals(expected.gameOver(), actual.gameOver());
+        Assert.assertEquals(expected.isSeeded(), actual.isSeeded());
+        Assert.assertEquals(expected.getSeed(), actual.getSeed());
+        Assert.assertEquals(expected.isFirstClickSafe(), actual.isFirstClickSafe());
+        Assert.assertEquals(expected.isFirstClickPending(), actual.isFirstClickPending());
+
+        for(int index=0; index < expected.getRows() * expected.getColumns(); ++index) {
+            Assert.assertEquals(expected.getStateCode(index), actual.getStateCode(index));
+            Assert.assertEquals(content(expected, index), content(actual, index));
+        }
+    }
+
+    private static CellContent content(final GameCodec.Board board, final int index) {
+        final int x = index % board.getRows();
+        final int y = index / board.getRows();
+
+        if(board instanceof Minefield) {
+            return ((Minefield) board).getOriginalField().get(CellPosition.valueOf(x, y)).getContent();
+        }
+        return ((IndexedMinefield) board).getContent(x, y);
+    }
+
+    private static int firstMine(final GameCodec.Board board) {
+        for(int index=0; index < board.getRows() * board.getColumns(); ++index) {
+            if(board.containsMine(index)) return index;
+        }
+        throw new AssertionError("The minefield has no mines!");
+    }
+
+    private static long firstFree(final GameCodec.Board board) {
+        for(int index=0; index < board.getRows() * board.getColumns(); ++index) {
+            if(!board.containsMine(index)) return ICellPosition.pack(index % board.getRows(), index / board.getRows());
+        }
+        throw new AssertionError("The minefield has no free cells!");
+    }
+}
@@ -0,0 +1,58 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GameConfigurationTest {
+
+    @Test
+    public void ofDifficultyTest() {
+        final GameConfiguration configuration = GameConfiguration.of(Difficulty.EXPERT);
+
+        Assert.assertEquals(Difficulty.EXPERT.getRows(), configuration.getRows());
+        Assert.assertEquals(Difficulty.EXPERT.getColumns(), configuration.getColumns());
+        Assert.assertEquals(Difficulty.EXPERT.getMinesPercent(), configuration.getMinesPercent());
+        Assert.assertEquals(MinefieldType.HASH_MAP, configuration.getMinefieldType());
+        Assert.assertFalse(configuration.isFirstClickSafe());
+    }
+
+    @Test
+    public void clampTest() {
+        final GameConfiguration below = GameConfiguration.of(-1, -1, -1);
+        Assert.assertEquals(GameCreator.MIN_ROWS, below.getRows());
+        Assert.assertEquals(GameCreator.MIN_COLUMNS, below.getColumns());
+        Assert.assertEquals(GameCreator.MIN_MINES_PERCENT, below.getMinesPercent());
+
+        final GameConfiguration above = GameConfiguration.of(GameCreator.MAX_ROWS+1, GameCreator.MAX_COLUMNS+1, GameCreator.MAX_MINES_PERCENT+1);
+        Assert.assertEquals(GameCreator.MAX_ROWS, above.getRows());
+        Assert.assertEquals(GameCreator.MAX_COLUMNS, above.getColumns());
+        Assert.assertEquals(GameCreator.MAX_MINES_PERCENT, above.getMinesPercent());
+        Assert.assertEquals(669, above.getTotalMines());
+    }
+
+    @Test
+    public void immutableTest() {
+        final GameConfiguration configuration = GameConfiguration.of(10, 12, 20);
+        final GameConfiguration changed = configuration.withMinefieldType(MinefieldType.BITBOARD)
+                .withFirstClickSafe(true)
+                .withGame(Difficulty.EASY);
+
+        Assert.assertNotSame(configuration, changed);
+        Assert.assertEquals(GameConfiguration.of(10, 12, 20), configuration);
+        Assert.assertEquals(MinefieldType.BITBOARD, changed.getMinefieldType());
+        Assert.assertTrue(changed.isFirstClickSafe());
+        Assert.assertEquals(Difficulty.EASY.getRows(), changed.getRows());
+    }
+
+    @Test
+    public void equalTest() {
+        final GameConfiguration a = GameConfiguration.of(10, 12, 20).withMinefieldType(MinefieldType.ARRAY);
+        final GameConfiguration b = GameConfiguration.of(10, 12, 20).withMinefieldType(MinefieldType.ARRAY);
+
+        Assert.assertEquals(a, b);
+        Assert.assertEquals(a.hashCode(), b.hashCode());
+        Assert.assertNotEquals(a, b.withFirstClickSafe(true));
+        Assert.assertNotEquals(a, b.withGame(10, 12, 21));
+        Assert.assertNotEquals(a, b.withMinefieldType(MinefieldType.BITBOARD));
+    }
+}
@@ -0,0 +1,142 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class GameFactoryConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 2000;
+    private static final MinefieldType[] TYPES = MinefieldType.values();
+
+    @After
+    public void reset() {
+        GameCreator.setConfiguration(GameConfiguration.DEFAULT);
+    }
+
+    /**
+     * The configuration with the given key. The key defines every value, so a game shows which configuration created it.
+     */
+    private static GameConfiguration configuration(final int key) {
+        return GameConfiguration.of(8 + key, 8 + key, 16 + key).withMinefieldType(TYPES[key % TYPES.length]);
+    }
+
+    /**
+     * Returns the key of the configuration, which created the game, or fails if the game mixes configurations.
+     */
+    private static int assertConsistent(final IMinefield game) {
+        final int key = game.getRows() - 8;
+        final GameConfiguration expected = configuration(key);
+
+        Assert.assertEquals(expected.getColumns(), game.getColumns());
+        Assert.assertEquals(expected.getTotalMines(), game.getTotalMines());
+        Assert.assertEquals(expected.getMinefieldType(), type(game));
+        return key;
+    }
+
+    private static MinefieldType type(final IMinefield game) {
+        if(game instanceof ArrayMinefield) return MinefieldType.ARRAY;
+        if(game instanceof BitboardMinefield) return MinefieldType.BITBOARD;
+        return MinefieldType.HASH_MAP;
+    }
+
+    private static void runAll(final List<Callable<Void>> tasks) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        try {
+            final List<Future<Void>> futures = new ArrayList<>();
+            for(final Callable<Void> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            for(final Future<Void> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void sharedFactoriesTest() throws Exception {
+        final GameFactory[] factories = new GameFactory[THREADS];
+        for(int i=0; i < factories.length; ++i) {
+            factories[i] = new GameFactory(configuration(i));
+        }
+
+        final CyclicBarrier start = new CyclicBarrier(THREADS);
+        final List<Callable<Void>> tasks = new ArrayList<>();
+        for(int t=0; t < THREADS; ++t) {
+            final int offset = t;
+            tasks.add(() -> {
+                start.await();
+                for(int i=0; i < ROUNDS; ++i) {
+                    final int key = (i + offset) % factories.length;
+                    Assert.assertEquals(key, assertConsistent(factories[key].createGame()));
+                    Assert.assertEquals(key, assertConsistent(factories[key].createSeededGame(i)));
+                }
+                return null;
+            });
+        }
+
+        runAll(tasks);
+    }
+
+    @Test
+    public void facadeContentionTest() throws Exception {
+        final CyclicBarrier start = new CyclicBarrier(THREADS);
+        final List<Callable<Void>> tasks = new ArrayList<>();
+        for(int t=0; t < THREADS; ++t) {
+            final boolean writer = t % 2 == 0;
+            final int offset = t;
+            tasks.add(() -> {
+                start.await();
+                for(int i=0; i < ROUNDS; ++i) {
+                    if(writer) GameCreator.setConfiguration(configuration((i + offset) % THREADS));
+                    else assertConsistent(GameCreator.createGame());
+                }
+                return null;
+            });
+        }
+
+        GameCreator.setConfiguration(configuration(0));
+        runAll(tasks);
+    }
+
+    @Test
+    public void noLostUpdateTest() throws Exception {
+        final CyclicBarrier start = new CyclicBarrier(2);
+        final List<Callable<Void>> tasks = new ArrayList<>();
+
+        // One thread only changes the game, the other only changes the type. No change may overwrite the other one.
+        tasks.add(() -> {
+            start.await();
+            for(int i=0; i < ROUNDS; ++i) {
+                GameCreator.setGame(8 + i % THREADS, 8 + i % THREADS, 16);
+            }
+            GameCreator.setGame(Difficulty.EXPERT);
+            return null;
+        });
+        tasks.add(() -> {
+            start.await();
+            for(int i=0; i < ROUNDS; ++i) {
+                GameCreator.setMinefieldType(TYPES[i % TYPES.length]);
+            }
+            GameCreator.setMinefieldType(MinefieldType.BITBOARD);
+            return null;
+        });
+
+        runAll(tasks);
+
+        final GameConfiguration configuration = GameCreator.getConfiguration();
+        Assert.assertEquals(GameConfiguration.of(Difficulty.EXPERT).withMinefieldType(MinefieldType.BITBOARD), configuration);
+    }
+}
@@ -0,0 +1,189 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.*;
+
+@RunWith(Parameterized.class)
+public class GameOverRevealTest {
+
+    @Parameterized.Parameter()
+    public MinefieldType type;
+
+    @Parameterized.Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][]{
+                { MinefieldType.HASH_MAP },
+                { MinefieldType.ARRAY },
+                { MinefieldType.BITBOARD }
+        });
+    }
+
+    @After
+    public void reset() {
+        GameCreator.setMinefieldType(MinefieldType.HASH_MAP);
+    }
+
+    @Test
+    public void revealMatchesMinefieldTest() {
+        GameCreator.setMinefieldType(type);
+        final Random random = new Random(4711);
+
+        for(int game=0; game < 50; ++game) {
+            final IMinefield field = GameCreator.createExpertGame();
+
+            while (!field.gameOver()) {
+                Assert.assertNull(field.getGameOverReveal());
+
+                final int x = random.nextInt(field.getRows());
+                final int y = random.nextInt(field.getColumns());
+                if(random.nextInt(3) == 0) {
+                    field.secondaryClick(x, y);
+                } else {
+                    field.singleClick(x, y);
+                }
+            }
+
+            final GameOverReveal reveal = field.getGameOverReveal();
+            Assert.assertNotNull(reveal);
+
+            // Compare every category with the cells of the journal, which contains all cells after the game is over.
+            final UpdateJournal journal = field.getUpdateJournal();
+            Assert.assertEquals(field.getRows() * field.getColumns(), journal.size());
+
+            final Map<GameOverReveal.Category, Set<Long>> expected = new EnumMap<>(GameOverReveal.Category.class);
+            for(final GameOverReveal.Category category : GameOverReveal.Category.values()) {
+                expected.put(category, new HashSet<>());
+            }
+
+            for(int i=0; i < journal.size(); ++i) {
+                final CellContent content = journal.getContent(i);
+                Assert.assertNotEquals(CellContent.UNKNOWN, content);
+
+                if(content == CellContent.MINE) {
+                    expected.get(GameOverReveal.Category.MINE).add(journal.getPosition(i));
+                } else if(journal.getState(i) == CellState.FLAGGED) {
+                    expected.get(GameOverReveal.Category.WRONG_FLAG).add(journal.getPosition(i));
+                } else if(journal.getState(i) == CellState.UNDISCOVERED) {
+                    expected.get(GameOverReveal.Category.REMAINING).add(journal.getPosition(i));
+                }
+            }
+
+            Assert.assertEquals(field.getTotalMines(), reveal.count(GameOverReveal.Category.MINE));
+
+            for(final GameOverReveal.Category category : GameOverReveal.Category.values()) {
+                final Set<Long> streamed = new HashSet<>();
+                reveal.forEach(category, streamed::add);
+
+                Assert.assertEquals(expected.get(category), streamed);
+                Assert.assertEquals(expected.get(category).size(), reveal.count(category));
+            }
+        }
+    }
+
+    @Test
+    public void cursorPagesTest() {
+        GameCreator.setMinefieldType(type);
+        final IMinefield field = GameCreator.createExpertGame();
+
+        // Flag some cells and click until a mine is hit.
+        for(int x=0; x < field.getRows(); x+=3) {
+            field.secondaryClick(x, 0);
+        }
+        for(int i=0; !field.gameOver(); ++i) {
+            field.singleClick(i % field.getRows(), 1 + i / field.getRows());
+        }
+
+        final GameOverReveal reveal = field.getGameOverReveal();
+
+        for(final GameOverReveal.Category category : GameOverReveal.Category.values()) {
+            final List<Long> streamed = new ArrayList<>();
+            reveal.forEach(category, streamed::add);
+
+            final List<Long> paged = new ArrayList<>();
+            final GameOverReveal.Cursor cursor = reveal.cursor(category);
+            final long[] page = new long[7];
+
+            int size;
+            while ((size = cursor.next(page)) > 0) {
+                Assert.assertTrue(size == page.length || !cursor.hasNext());
+                for(int i=0; i < size; ++i) paged.add(page[i]);
+            }
+
+            Assert.assertEquals(streamed, paged);
+            Assert.assertFalse(cursor.hasNext());
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void cursorEndTest() {
+        GameCreator.setMinefieldType(type);
+        final IMinefield field = GameCreator.createExpertGame();
+
+        for(int i=0; !field.gameOver(); ++i) {
+            field.singleClick(i % field.getRows(), i / field.getRows());
+        }
+
+        final GameOverReveal.Cursor cursor = field.getGameOverReveal().cursor(GameOverReveal.Category.MINE);
+        while (cursor.hasNext()) cursor.next();
+        cursor.next();
+    }
+
+    @Test
+    public void updatedCellsShowContentTest() {
+        GameCreator.setMinefieldType(type);
+        final IMinefield field = GameCreator.createExpertGame();
+
+        for(int i=0; !field.gameOver(); ++i) {
+            field.singleClick(i % field.getRows(), i / field.getRows());
+        }
+
+        final Set<ICell> updatedCells = field.getUpdateCells();
+        Assert.assertEquals(field.getRows() * field.getColumns(), updatedCells.size());
+
+        for(final ICell cell : updatedCells) {
+            Assert.assertNotEquals(CellContent.UNKNOWN, cell.getCellContent());
+        }
+    }
+
+    @Test
+    public void endlessRevealTest() {
+        final EndlessMinefield field = (EndlessMinefield) GameCreator.createEndlessGame(99, 20);
+        Assert.assertNull(field.getGameOverReveal());
+
+        int x = 0;
+        while (!field.gameOver()) {
+            field.singleClick(x, 0);
+            x += 97;
+        }
+
+        final GameOverReveal reveal = field.getGameOverReveal();
+        int mines = 0;
+        final GameOverReveal.Cursor cursor = reveal.cursor(GameOverReveal.Category.MINE);
+        while (cursor.hasNext()) {
+            final long position = cursor.next();
+            Assert.assertTrue(field.isMine(ICellPosition.unpackX(position), ICellPosition.unpackY(position)));
+            ++mines;
+        }
+
+        Assert.assertEquals(mines, reveal.count(GameOverReveal.Category.MINE));
+        Assert.assertEquals(field.getChunkCount() * 64 * 64, mines
+                + reveal.count(GameOverReveal.Category.WRONG_FLAG)
+                + reveal.count(GameOverReveal.Category.REMAINING)
+                + opened(field, reveal));
+    }
+
+    private static int opened(final EndlessMinefield field, final GameOverReveal reveal) {
+        // The opened cells are the only cells without a category.
+        int opened = 0;
+        for(int i=0; i < field.getUpdateJournal().size(); ++i) {
+            if(field.getUpdateJournal().getState(i) == CellState.OPEN
+                    && field.getUpdateJournal().getContent(i) != CellContent.MINE) ++opened;
+        }
+        return opened;
+    }
+}
@@ -0,0 +1,108 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Measures the throughput of a game store with expert games for every minefield type and amount of threads. Every
+ * thread resumes its games into an existing minefield and suspends them again. The throughput counts the resumed and
+ * suspended games of all threads per second, the times are the average of one operation inside a thread. The allocated
+ * bytes are measured per operation of the threads.</p>
+ * <p>The benchmark is not part of the test run. Start it after <i>mvn test-compile</i> with:</p>
+ * <pre>java -cp target/classes:target/test-classes de.jscholz.jminesweeper.minesweeper.GameStoreBenchmark</pre>
+ * <p>It needs a HotSpot based JVM, which supports the measurement of the allocated bytes per thread.</p>
+ */
+public class GameStoreBenchmark {
+
+    private static final int GAMES = 1 << 16;
+    private static final int ROUNDS = 10;
+    private static final int WARMUP_RUNS = 3;
+    private static final int[] THREADS = { 1, 2, 4, 8 };
+
+    public static void main(final String[] args) throws Exception {
+        System.out.println(String.format("%-10s %8s %14s %12s %12s %10s", "type", "threads", "games/s",
+                "resume ns", "suspend ns", "bytes/op"));
+
+        for(final MinefieldType type : MinefieldType.values()) {
+            final GameConfiguration configuration = GameConfiguration.of(Difficulty.EXPERT).withMinefieldType(type);
+            final Path file = Files.createTempFile("games", ".store");
+
+            try(final GameStore store = GameStore.open(file, GAMES, configuration.getRows(), configuration.getColumns())) {
+                final long[] ids = new long[GAMES];
+                final IMinefield game = GameFactory.create(configuration, 0);
+                for(int i=0; i < GAMES; ++i) {
+                    game.reset(i);
+                    game.singleClick(game.getRows() / 2, game.getColumns() / 2);
+                    ids[i] = store.suspend(game);
+                }
+
+                for(final int threads : THREADS) {
+                    long[] result = null;
+                    for(int run=0; run < WARMUP_RUNS + 1; ++run) {
+                        result = run(store, configuration, ids, threads);
+                    }
+
+                    final double operations = (double) GAMES * ROUNDS;
+                    System.out.println(String.format("%-10s %8d %14.0f %12.1f %12.1f %10.1f", type, threads,
+                            2 * operations * 1e9 / result[0], result[1] / operations, result[2] / operations,
+                            result[3] / (2 * operations)));
+                }
+            } finally {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Resumes and suspends all games with the given amount of threads, where every thread owns a part of the games.
+     * @return The elapsed nanoseconds, the summed nanoseconds of the resumes and the suspends and the allocated bytes
+     * of all threads.
+     */
+    private static long[] run(final GameStore store, final GameConfiguration configuration, final long[] ids,
+                              final int threads) throws InterruptedException {
+        final com.sun.management.ThreadMXBean beans =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final AtomicLong resume = new AtomicLong();
+        final AtomicLong suspend = new AtomicLong();
+        final AtomicLong allocated = new AtomicLong();
+        final CountDownLatch done = new CountDownLatch(threads);
+        final long start = System.nanoTime();
+
+        for(int t=0; t < threads; ++t) {
+            final int from = t * ids.length / threads;
+            final int to = (t + 1) * ids.length / threads;
+
+            new Thread(() -> {
+                final IMinefield target = GameFactory.create(configuration, 0);
+                final long thread = Thread.currentThread().getId();
+                // The first operation creates the views of the thread.
+                store.resume(ids[from], target);
+
+                final long bytes = beans.getThreadAllocatedBytes(thread);
+                long resumeNanos = 0;
+                long suspendNanos = 0;
+                for(int round=0; round < ROUNDS; ++round) {
+                    for(int i=from; i < to; ++i) {
+                        final long before = System.nanoTime();
+                        if(!store.resume(ids[i], target)) throw new IllegalStateException("The game " + ids[i] + " is lost!");
+                        final long between = System.nanoTime();
+                        store.suspend(ids[i], target);
+                        suspendNanos += System.nanoTime() - between;
+                        resumeNanos += between - before;
+                    }
+                }
+
+                allocated.addAndGet(beans.getThreadAllocatedBytes(thread) - bytes);
+                resume.addAndGet(resumeNanos);
+                suspend.addAndGet(suspendNanos);
+                done.countDown();
+            }).start();
+        }
+        done.await();
+
+        return new long[] { System.nanoTime() - start, resume.get(), suspend.get(), allocated.get() };
+    }
+}
@@ -0,0 +1,272 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@RunWith(Parameterized.class)
+public class GameStoreTest {
+
+    private static final GameConfiguration EXPERT = GameConfiguration.of(Difficulty.EXPERT);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Parameterized.Parameter()
+    public MinefieldType type;
+
+    @Parameterized.Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][]{
+                { MinefieldType.HASH_MAP },
+                { MinefieldType.ARRAY },
+                { MinefieldType.BITBOARD }
+        });
+    }
+
+    /**
+     * Creates an expert game with the given seed, where the first click was performed.
+     */
+    private IMinefield createGame(final long seed) {
+        final IMinefield game = GameFactory.create(EXPERT.withMinefieldType(this.type), seed);
+        game.singleClick(game.getRows() / 2, game.getColumns() / 2);
+        return game;
+    }
+
+    private GameStore open(final int capacity) throws IOException {
+        return GameStore.open(file(), capacity, GameCreator.MAX_ROWS, GameCreator.MAX_COLUMNS);
+    }
+
+    private Path file() {
+        return this.folder.getRoot().toPath().resolve("games.store");
+    }
+
+    @Test
+    public void suspendResumeTest() throws IOException {
+        try(final GameStore store = open(4)) {
+            final IMinefield game = createGame(1);
+            final long id = store.suspend(game);
+
+            Assert.assertEquals(1, store.size());
+            Assert.assertArrayEquals(encoded(game), encoded(store.resume(id)));
+            // A resumed game stays inside the store.
+            Assert.assertArrayEquals(encoded(game), encoded(store.resume(id)));
+        }
+    }
+
+    @Test
+    public void resumeIntoExistingTest() throws IOException {
+        try(final GameStore store = open(4)) {
+            final IMinefield game = createGame(2);
+            final long id = store.suspend(game);
+            final IMinefield target = createGame(3);
+
+            Assert.assertTrue(store.resume(id, target));
+            Assert.assertArrayEquals(encoded(game), encoded(target));
+        }
+    }
+
+    @Test
+    public void overwriteTest() throws IOException {
+        try(final GameStore store = open(4)) {
+            final IMinefield game = createGame(4);
+            final long id = store.suspend(game);
+
+            game.secondaryClick(0, 0);
+            Assert.assertTrue(store.suspend(id, game));
+            Assert.assertEquals(1, store.size());
+            Assert.assertArrayEquals(encoded(game), encoded(store.resume(id)));
+        }
+    }
+
+    @Test
+    public void removeTest() throws IOException {
+        try(final GameStore store = open(1)) {
+            final long id = store.suspend(createGame(5));
+
+            Assert.assertTrue(store.remove(id));
+            Assert.assertFalse(store.remove(id));
+            Assert.assertEquals(0, store.size());
+            Assert.assertNull(store.resume(id));
+            Assert.assertFalse(store.suspend(id, createGame(5)));
+
+            // The slot is used again, but the id of the removed game doesn't find the new game.
+            final long next = store.suspend(createGame(6));
+            Assert.assertNotEquals(id, next);
+            Assert.assertNull(store.resume(id));
+            Assert.assertNotNull(store.resume(next));
+        }
+    }
+
+    @Test
+    public void unknownIdTest() throws IOException {
+        try(final GameStore store = open(2)) {
+            Assert.assertNull(store.resume(0));
+            Assert.assertNull(store.resume(-1));
+            Assert.assertNull(store.resume((1L << 32) | 5));
+            Assert.assertFalse(store.remove(1L << 32));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void fullTest() throws IOException {
+        try(final GameStore store = open(2)) {
+            store.suspend(createGame(7));
+            store.suspend(createGame(8));
+            store.suspend(createGame(9));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooLargeTest() throws IOException {
+        try(final GameStore store = GameStore.open(file(), 2, GameCreator.MIN_ROWS, GameCreator.MIN_COLUMNS)) {
+            store.suspend(createGame(10));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void smallerSlotsTest() throws IOException {
+        open(2).close();
+        GameStore.open(file(), 2, GameCreator.MAX_ROWS + 1, GameCreator.MAX_COLUMNS).close();
+    }
+
+    @Test
+    public void reopenTest() throws IOException {
+        final IMinefield first = createGame(11);
+        final IMinefield second = createGame(12);
+        final long firstId;
+        final long secondId;
+        final long removedId;
+
+        try(final GameStore store = open(4)) {
+            firstId = store.suspend(first);
+            removedId = store.suspend(createGame(13));
+            secondId = store.suspend(second);
+            store.remove(removedId);
+        }
+
+        try(final GameStore store = open(1)) {
+            // The capacity of the existing file is kept.
+            Assert.assertEquals(4, store.capacity());
+            Assert.assertEquals(2, store.size());
+            Assert.assertArrayEquals(encoded(first), encoded(store.resume(firstId)));
+            Assert.assertArrayEquals(encoded(second), encoded(store.resume(secondId)));
+            Assert.assertNull(store.resume(removedId));
+            Assert.assertNotEquals(removedId, store.suspend(createGame(14)));
+        }
+    }
+
+    @Test
+    public void tornGameTest() throws IOException {
+        tornSlotTest(GameStore.SLOT_HEADER_SIZE + 40);
+    }
+
+    @Test
+    public void tornHeaderTest() throws IOException {
+        tornSlotTest(8);
+    }
+
+    /**
+     * Breaks the byte with the given offset inside the first slot and checks that only the first game is lost.
+     */
+    private void tornSlotTest(final int offset) throws IOException {
+        final IMinefield second = createGame(16);
+        final long firstId;
+        final long secondId;
+        final int slotSize;
+
+        try(final GameStore store = open(2)) {
+            firstId = store.suspend(createGame(15));
+            secondId = store.suspend(second);
+            slotSize = store.getSlotSize();
+        }
+
+        final int firstSlot = (int) firstId;
+        try(final FileChannel channel = FileChannel.open(file(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final long position = GameStore.FILE_HEADER_SIZE + (long) firstSlot * slotSize + offset;
+            final ByteBuffer value = ByteBuffer.allocate(1);
+            channel.read(value, position);
+            value.put(0, (byte) ~value.get(0)).rewind();
+            channel.write(value, position);
+        }
+
+        try(final GameStore store = open(2)) {
+            Assert.assertEquals(1, store.size());
+            Assert.assertNull(store.resume(firstId));
+            Assert.assertArrayEquals(encoded(second), encoded(store.resume(secondId)));
+
+            final long next = store.suspend(createGame(17));
+            Assert.assertEquals(firstSlot, (int) next);
+            Assert.assertNotEquals(firstId, next);
+        }
+    }
+
+    @Test
+    public void concurrentTest() throws Exception {
+        final int threads = 8;
+        final int rounds = 100;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try(final GameStore store = open(threads * 2)) {
+            final List<Future<?>> futures = new ArrayList<>();
+
+            for(int t=0; t < threads; ++t) {
+                final long seed = 100 + t;
+                futures.add(executor.submit(() -> {
+                    final IMinefield game = createGame(seed);
+                    final IMinefield target = createGame(seed + 1000);
+                    final long id = store.suspend(game);
+
+                    for(int round=0; round < rounds; ++round) {
+                        game.secondaryClick(round % game.getRows(), round / game.getRows());
+                        Assert.assertTrue(store.suspend(id, game));
+                        Assert.assertTrue(store.resume(id, target));
+                        Assert.assertArrayEquals(encoded(game), encoded(target));
+                    }
+
+                    Assert.assertTrue(store.remove(id));
+                    return null;
+                }));
+            }
+
+            for(final Future<?> future : futures) {
+                future.get();
+            }
+            Assert.assertEquals(0, store.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void closedTest() throws IOException {
+        final GameStore store = open(2);
+        final long id = store.suspend(createGame(18));
+        store.close();
+        store.resume(id);
+    }
+
+    private static byte[] encoded(final IMinefield game) {
+        Assert.assertNotNull(game);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(GameCodec.encodedSize(game.getRows(), game.getColumns()));
+        GameCodec.encode(game, buffer);
+        return buffer.array();
+    }
+}
@@ -0,0 +1,153 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.*;
+
+@RunWith(Parameterized.class)
+public class IndexedMinefieldTest {
+
+    @Parameterized.Parameter()
+    public MinefieldType type;
+
+    @Parameterized.Parameter(value = 1)
+    public Class<?> expectedClass;
+
+    @Parameterized.Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][]{
+                { MinefieldType.ARRAY, ArrayMinefield.class },
+                { MinefieldType.BITBOARD, BitboardMinefield.class }
+        });
+    }
+
+    @After
+    public void reset() {
+        GameCreator.setMinefieldType(MinefieldType.HASH_MAP);
+    }
+
+    @Test
+    public void gameCreatorTest() {
+        GameCreator.setMinefieldType(type);
+        GameCreator.setGame(Difficulty.EXPERT);
+
+        final IMinefield field = GameCreator.createGame();
+        Assert.assertEquals(expectedClass, field.getClass());
+        Assert.assertEquals(100, field.getTotalMines());
+        Assert.assertEquals(30, field.getRows());
+        Assert.assertEquals(16, field.getColumns());
+
+        GameCreator.setGame(Difficulty.EASY);
+    }
+
+    @Test
+    public void sameBehaviourAsMinefieldTest() {
+        final Random random = new Random(4711);
+
+        for(int game=0; game < 200; ++game) {
+            final Difficulty difficulty = Difficulty.values()[game % Difficulty.values().length];
+            final Minefield expected = new Minefield(difficulty);
+            final IndexedMinefield actual = copy(expected);
+
+            while (!expected.gameOver()) {
+                final int x = random.nextInt(expected.getRows() + 2) - 1;
+                final int y = random.nextInt(expected.getColumns() + 2) - 1;
+                final CellState[] before = states(actual);
+
+                final IMinefield.OpenReturn expectedReturn;
+                final IMinefield.OpenReturn actualReturn;
+                switch (random.nextInt(3)) {
+                    case 0:
+                        expectedReturn = expected.singleClick(x, y);
+                        actualReturn = actual.singleClick(x, y);
+                        break;
+                    case 1:
+                        expectedReturn = expected.doubleClick(x, y);
+                        actualReturn = actual.doubleClick(x, y);
+                        break;
+                    default:
+                        expectedReturn = expected.secondaryClick(x, y);
+                        actualReturn = actual.secondaryClick(x, y);
+                        break;
+                }
+
+                Assert.assertEquals(expectedReturn, actualReturn);
+                Assert.assertEquals(expected.gameOver(), actual.gameOver());
+                Assert.assertEquals(expected.getAmountOfFlags(), actual.getAmountOfFlags());
+
+                if(actual.gameOver()) {
+                    Assert.assertEquals(expected.getRows() * expected.getColumns(), actual.getUpdateCells().size());
+                    break;
+                }
+
+                Assert.assertEquals(expected.getFreeCellsLeft(), actual.getFreeCellsLeft());
+                assertSameCells(expected, actual);
+
+                if(actualReturn != IMinefield.OpenReturn.NOT_VALID) {
+                    assertUpdatedCells(before, actual);
+                }
+            }
+        }
+    }
+
+    private IndexedMinefield copy(final Minefield minefield) {
+        final List<Integer> mines = new ArrayList<>();
+
+        for(final Cell c : minefield.getOriginalField().values()) {
+            if(c.getContent() == CellContent.MINE) {
+                final ICellPosition p = c.getPosition();
+                mines.add(p.getY() * minefield.getRows() + p.getX());
+            }
+        }
+
+        final int[] indices = new int[mines.size()];
+        for(int i=0; i < indices.length; ++i) indices[i] = mines.get(i);
+
+        if(type == MinefieldType.BITBOARD) {
+            return new BitboardMinefield(minefield.getRows(), minefield.getColumns(), indices);
+        }
+        return new ArrayMinefield(minefield.getRows(), minefield.getColumns(), indices);
+    }
+
+    private static CellState[] states(final IndexedMinefield minefield) {
+        final CellState[] states = new CellState[minefield.getRows() * minefield.getColumns()];
+
+        for(int y=0; y < minefield.getColumns(); ++y) {
+            for(int x=0; x < minefield.getRows(); ++x) {
+                states[y * minefield.getRows() + x] = minefield.getCellState(x, y);
+            }
+        }
+
+        return states;
+    }
+
+    private static void assertSameCells(final Minefield expected, final IndexedMinefield actual) {
+        for(final Cell c : expected.getOriginalField().values()) {
+            final ICellPosition p = c.getPosition();
+
+            Assert.assertEquals(c.getCellState(), actual.getCellState(p.getX(), p.getY()));
+            Assert.assertEquals(c.getContent(), actual.getContent(p.getX(), p.getY()));
+        }
+    }
+
+    private static void assertUpdatedCells(final CellState[] before, final IndexedMinefield actual) {
+        final CellState[] after = states(actual);
+        final Set<ICellPosition> changed = new HashSet<>();
+
+        for(int i=0; i < after.length; ++i) {
+            if(before[i] != after[i]) changed.add(new CellPosition(i % actual.getRows(), i / actual.getRows()));
+        }
+
+        final Set<ICellPosition> updated = new HashSet<>();
+        for(final ICell c : actual.getUpdateCells()) {
+            Assert.assertTrue(actual.getUpdateCells().contains(c));
+            updated.add(c.getPosition());
+        }
+
+        Assert.assertEquals(changed, updated);
+    }
+}
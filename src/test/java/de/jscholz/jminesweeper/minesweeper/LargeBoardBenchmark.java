@@ -0,0 +1,52 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+/**
+ * <p>Measures the construction time and the heap size of large games for different board sizes.</p>
+ * <p>The benchmark is not part of the test run. Start it after <i>mvn test-compile</i> with:</p>
+ * <pre>java -Xmx4g -cp target/classes:target/test-classes de.jscholz.jminesweeper.minesweeper.LargeBoardBenchmark</pre>
+ */
+public class LargeBoardBenchmark {
+
+    private static final int[] SIZES = { 1000, 2500, 5000, 10000 };
+    private static final int MINES_PERCENT = 16;
+    private static final int RUNS = 5;
+
+    /**
+     * Keeps the last field alive while the heap is measured.
+     */
+    private static IMinefield sink;
+
+    public static void main(final String[] args) {
+        // Warm up the JIT with a small board.
+        for(int i=0; i < 20; ++i) GameCreator.createLargeGame(500, 500, MINES_PERCENT);
+
+        System.out.println(String.format("%-13s %12s %14s %14s %12s",
+                "size", "cells", "build [ms]", "heap [bytes]", "bytes/cell"));
+
+        for(final int size : SIZES) {
+            long best = Long.MAX_VALUE;
+            long heap = 0;
+
+            for(int run=0; run < RUNS; ++run) {
+                final long start = System.nanoTime();
+                sink = GameCreator.createLargeGame(size, size, MINES_PERCENT);
+                best = Math.min(best, System.nanoTime() - start);
+
+                // The heap size of the field is the difference with and without the field.
+                final long withField = usedHeap();
+                sink = null;
+                heap = Math.max(heap, withField - usedHeap());
+            }
+
+            final long cells = (long) size * size;
+            System.out.println(String.format("%-13s %12d %14.1f %14d %12.3f",
+                    size + "x" + size, cells, best / 1e6, heap, (double) heap / cells));
+        }
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for(int i=0; i < 3; ++i) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,60 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LargeGameTest {
+
+    @Test
+    public void createLargeGameTest() {
+        final BitboardMinefield field = (BitboardMinefield) GameCreator.createLargeGame(2000, 1500, 20);
+
+        Assert.assertEquals(2000, field.getRows());
+        Assert.assertEquals(1500, field.getColumns());
+        Assert.assertEquals(2000 * 1500 / 5, field.getTotalMines());
+
+        int mines = 0;
+        for(int index=0; index < field.cellCount; ++index) {
+            if(field.isMine(index)) ++mines;
+        }
+        Assert.assertEquals(field.getTotalMines(), mines);
+        Assert.assertEquals(2000 * 1500 - mines, field.getFreeCellsLeft());
+    }
+
+    @Test
+    public void clampLargeGameTest() {
+        IMinefield field = GameCreator.createLargeGame(-1, -1, -1);
+        Assert.assertEquals(GameCreator.MIN_ROWS, field.getRows());
+        Assert.assertEquals(GameCreator.MIN_COLUMNS, field.getColumns());
+
+        field = GameCreator.createLargeGame(GameCreator.MAX_LARGE_ROWS + 1, 8, GameCreator.MAX_MINES_PERCENT + 1);
+        Assert.assertEquals(GameCreator.MAX_LARGE_ROWS, field.getRows());
+        Assert.assertEquals(8, field.getColumns());
+        Assert.assertEquals(GameCreator.MAX_LARGE_ROWS * 8 * GameCreator.MAX_MINES_PERCENT / 100, field.getTotalMines());
+    }
+
+    @Test
+    public void playLargeGameTest() {
+        final BitboardMinefield field = (BitboardMinefield) GameCreator.createLargeGame(3000, 3000, 16);
+
+        // Open the first empty cell, which opens a whole area.
+        int empty = 0;
+        while (field.isMine(empty) || field.getMinesInNeighbourhood(empty) != 0) ++empty;
+
+        final int freeCells = field.getFreeCellsLeft();
+        Assert.assertEquals(IMinefield.OpenReturn.OPEN, field.singleClick(empty % 3000, empty / 3000));
+        Assert.assertEquals(freeCells - field.getUpdateCells().size(), field.getFreeCellsLeft());
+
+        // Every opened cell is an opened non mine.
+        for(final ICell c : field.getUpdateCells()) {
+            Assert.assertEquals(CellState.OPEN, c.getCellState());
+            Assert.assertNotEquals(CellContent.MINE, c.getCellContent());
+        }
+
+        // Hitting a mine reveals all cells.
+        int mine = 0;
+        while (!field.isMine(mine)) ++mine;
+        Assert.assertEquals(IMinefield.OpenReturn.WAS_MINE, field.doubleClick(mine % 3000, mine / 3000));
+        Assert.assertEquals(3000 * 3000, field.getUpdateCells().size());
+    }
+}
@@ -0,0 +1,108 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Measures the throughput of the mine placement with one thread and with all available processors.</p>
+ * <p>
+ *     The old placement shuffles all cells with a shared {@link Random}, the placer samples the mines with the
+ *     random generator of each thread. The games per second of the placement alone are compared, afterwards the
+ *     throughput of creating whole expert games with a random and with a seeded placement.
+ * </p>
+ * <p>The benchmark is not part of the test run. Start it after <i>mvn test-compile</i> with:</p>
+ * <pre>java -cp target/classes:target/test-classes de.jscholz.jminesweeper.minesweeper.MinePlacementBenchmark</pre>
+ */
+public class MinePlacementBenchmark {
+
+    private static final int ROWS = 30;
+    private static final int COLUMNS = 24;
+    private static final int MINES = ROWS * COLUMNS * 21 / 100;
+    private static final int GAMES_PER_THREAD = 200000;
+    private static final int RUNS = 5;
+
+    private static final Random SHARED = new Random();
+    private static final AtomicLong SEEDS = new AtomicLong();
+
+    /**
+     * Keeps the results alive.
+     */
+    private static volatile long sink;
+
+    public static void main(final String[] args) throws Exception {
+        // The seeded games are created with the same minefield type as the random games.
+        GameCreator.setMinefieldType(MinefieldType.ARRAY);
+
+        final int processors = Runtime.getRuntime().availableProcessors();
+        final int[] threadCounts = processors > 1 ? new int[] { 1, processors } : new int[] { 1 };
+
+        System.out.println(String.format("%-22s %8s %16s", "placement", "threads", "games/s"));
+
+        for(final int threads : threadCounts) {
+            report("shuffle (shared)", threads, run(threads, MinePlacementBenchmark::shuffle));
+            report("placer (per thread)", threads, run(threads, MinePlacementBenchmark::placer));
+            report("expert game", threads, run(threads, () -> new ArrayMinefield(Difficulty.EXPERT).getTotalMines()));
+            report("seeded expert game", threads, run(threads, () -> GameCreator.createSeededGame(30, 16, 21, SEEDS.getAndIncrement()).getTotalMines()));
+        }
+    }
+
+    private static long shuffle() {
+        final List<Integer> positions = new ArrayList<>(ROWS * COLUMNS);
+        for(int i=0; i < ROWS * COLUMNS; ++i) positions.add(i);
+        Collections.shuffle(positions, SHARED);
+
+        long sum = 0;
+        for(int i=0; i < MINES; ++i) sum += positions.get(i);
+        return sum;
+    }
+
+    private static long placer() {
+        final long[] mines = MinePlacer.sample(ROWS * COLUMNS, MINES, MinePlacer.random()::nextInt);
+        final byte[] contents = new byte[ROWS * COLUMNS];
+        MinePlacer.countNeighbours(ROWS, COLUMNS, mines, contents);
+        return contents[0];
+    }
+
+    private static double run(final int threads, final Placement placement) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        double best = 0;
+
+        try {
+            for(int run=0; run <= RUNS; ++run) {
+                final List<Future<Long>> futures = new ArrayList<>();
+                final long start = System.nanoTime();
+
+                for(int t=0; t < threads; ++t) {
+                    futures.add(executor.submit(() -> {
+                        long sum = 0;
+                        for(int i=0; i < GAMES_PER_THREAD; ++i) sum += placement.place();
+                        return sum;
+                    }));
+                }
+                for(final Future<Long> future : futures) sink += future.get();
+
+                // The first run warms up the JIT.
+                final double seconds = (System.nanoTime() - start) / 1e9;
+                if(run > 0) best = Math.max(best, threads * GAMES_PER_THREAD / seconds);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        return best;
+    }
+
+    private static void report(final String name, final int threads, final double gamesPerSecond) {
+        System.out.println(String.format("%-22s %8d %16.0f", name, threads, gamesPerSecond));
+    }
+
+    private interface Placement {
+        long place();
+    }
+}
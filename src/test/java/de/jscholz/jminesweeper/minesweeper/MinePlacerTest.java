@@ -0,0 +1,120 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+public class MinePlacerTest {
+
+    @Test
+    public void sampleExactAmountTest() {
+        final SplittableRandom random = new SplittableRandom(7);
+
+        for(final int cellCount : new int[] { 1, 63, 64, 65, 480, 10000 }) {
+            for(final int mines : new int[] { 0, 1, cellCount / 2, cellCount - 1, cellCount }) {
+                final long[] bits = MinePlacer.sample(cellCount, mines, random::nextInt);
+
+                int count = 0;
+                for(final long word : bits) count += Long.bitCount(word);
+                Assert.assertEquals(mines, count);
+
+                // No bit outside of the minefield is set.
+                final int[] indices = MinePlacer.toIndices(bits, mines);
+                for(int i=0; i < indices.length; ++i) {
+                    Assert.assertTrue(indices[i] < cellCount);
+                    if(i > 0) Assert.assertTrue(indices[i - 1] < indices[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void sampleIsUniformTest() {
+        final int cellCount = 20;
+        final int mines = 5;
+        final int samples = 200000;
+        final int[] hits = new int[cellCount];
+        final SplittableRandom random = new SplittableRandom(42);
+
+        for(int i=0; i < samples; ++i) {
+            for(final int index : MinePlacer.toIndices(MinePlacer.sample(cellCount, mines, random::nextInt), mines)) {
+                ++hits[index];
+            }
+        }
+
+        // Every cell is a mine with the probability mines / cellCount.
+        final double expected = (double) samples * mines / cellCount;
+        for(final int hit : hits) {
+            Assert.assertEquals(expected, hit, expected * 0.02);
+        }
+    }
+
+    @Test
+    public void countNeighboursTest() {
+        final int rows = 30;
+        final int columns = 16;
+        final SplittableRandom random = new SplittableRandom(3);
+
+        for(int game=0; game < 100; ++game) {
+            final long[] bits = MinePlacer.sample(rows * columns, 99, random::nextInt);
+            final byte[] contents = new byte[rows * columns];
+            MinePlacer.countNeighbours(rows, columns, bits, contents);
+
+            for(int y=0; y < columns; ++y) {
+                for(int x=0; x < rows; ++x) {
+                    final int index = y * rows + x;
+                    if(isMine(bits, index)) {
+                        Assert.assertEquals(MinePlacer.MINE, contents[index]);
+                        continue;
+                    }
+
+                    int mines = 0;
+                    for(int nY = Math.max(y - 1, 0); nY <= Math.min(y + 1, columns - 1); ++nY) {
+                        for(int nX = Math.max(x - 1, 0); nX <= Math.min(x + 1, rows - 1); ++nX) {
+                            if(isMine(bits, nY * rows + nX)) ++mines;
+                        }
+                    }
+                    Assert.assertEquals(mines, contents[index]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void minefieldContentMatchesMinesTest() {
+        final Minefield minefield = new Minefield(Difficulty.EXPERT);
+
+        int mines = 0;
+        for(final Cell c : minefield.getOriginalField().values()) {
+            if(c.getContent() == CellContent.MINE) {
+                ++mines;
+                continue;
+            }
+
+            int neighbours = 0;
+            for(final Cell n : c.getNeighbours()) {
+                if(n.getContent() == CellContent.MINE) ++neighbours;
+            }
+            Assert.assertEquals(neighbours, c.getContent().getMinesInNeighbourhood());
+        }
+
+        Assert.assertEquals(minefield.getTotalMines(), mines);
+    }
+
+    @Test
+    public void threadsUseTheirOwnRandomTest() throws InterruptedException {
+        final SplittableRandom[] randoms = new SplittableRandom[2];
+        final Thread other = new Thread(() -> randoms[1] = MinePlacer.random());
+        other.start();
+        other.join();
+
+        randoms[0] = MinePlacer.random();
+        Assert.assertSame(randoms[0], MinePlacer.random());
+        Assert.assertNotSame(randoms[0], randoms[1]);
+    }
+
+    private static boolean isMine(final long[] bits, final int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+}
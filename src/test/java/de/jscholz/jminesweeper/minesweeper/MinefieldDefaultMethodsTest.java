@@ -0,0 +1,110 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+public class MinefieldDefaultMethodsTest {
+
+    /**
+     * A minefield outside of the framework, which only implements the abstract methods of the interface.
+     */
+    private static final IMinefield MINEFIELD = new IMinefield() {
+        @Override
+        public OpenReturn secondaryClick(final ICellPosition position) {
+            return OpenReturn.NOW_FLAGGED;
+        }
+
+        @Override
+        public OpenReturn secondaryClick(final int x, final int y) {
+            return OpenReturn.NOW_FLAGGED;
+        }
+
+        @Override
+        public Map<ICellPosition, ICell> getFieldForVisualization() {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public Set<ICell> getUpdateCells() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public boolean validatePosition(final ICellPosition position) {
+            return position.getX() >= 0 && position.getX() < 4 && position.getY() >= 0 && position.getY() < 3;
+        }
+
+        @Override
+        public boolean gameOver() {
+            return false;
+        }
+
+        @Override
+        public OpenReturn singleClick(final int x, final int y) {
+            return OpenReturn.OPEN;
+        }
+
+        @Override
+        public OpenReturn singleClick(final ICellPosition position) {
+            return OpenReturn.OPEN;
+        }
+
+        @Override
+        public OpenReturn doubleClick(final int x, final int y) {
+            return OpenReturn.OPEN;
+        }
+
+        @Override
+        public OpenReturn doubleClick(final ICellPosition position) {
+            return OpenReturn.OPEN;
+        }
+
+        @Override
+        public void reset(final long seed) {
+        }
+
+        @Override
+        public int getTotalMines() {
+            return 1;
+        }
+
+        @Override
+        public int getAmountOfFlags() {
+            return 0;
+        }
+
+        @Override
+        public int getRows() {
+            return 4;
+        }
+
+        @Override
+        public int getColumns() {
+            return 3;
+        }
+    };
+
+    @Test
+    public void withoutJournalAndSnapshotTest() {
+        Assert.assertNull(MINEFIELD.getUpdateJournal());
+        Assert.assertNull(MINEFIELD.getGameOverReveal());
+        Assert.assertNull(MINEFIELD.getSnapshot());
+    }
+
+    @Test
+    public void validatePositionTest() {
+        Assert.assertTrue(MINEFIELD.validatePosition(3, 2));
+        Assert.assertFalse(MINEFIELD.validatePosition(4, 2));
+        Assert.assertFalse(MINEFIELD.validatePosition(0, -1));
+    }
+
+    @Test
+    public void packedClicksTest() {
+        Assert.assertEquals(IMinefield.OpenReturn.OPEN, MINEFIELD.singleClick(ICellPosition.pack(1, 1)));
+        Assert.assertEquals(IMinefield.OpenReturn.NOW_FLAGGED, MINEFIELD.secondaryClick(ICellPosition.pack(1, 1)));
+    }
+}
@@ -34,9 +34,10 @@ public class MinefieldGetFieldTest {
             Assert.assertTrue(p.hashCode() == op.hashCode());
             Assert.assertTrue(p.equals(op));
 
-            //The cells should not have the same hashes and should not be equal.
-            Assert.assertFalse(c.hashCode() == oc.hashCode());
-            Assert.assertFalse(c.equals(oc));
+            //The cells have the same position and are equal, but they are not the same instance.
+            Assert.assertTrue(c.hashCode() == oc.hashCode());
+            Assert.assertTrue(c.equals(oc));
+            Assert.assertNotSame(c, oc);
 
             //the cells the visual-field should be empty, be state undiscovered.
             Assert.assertTrue(c.getCellState() == CellState.UNDISCOVERED);
@@ -0,0 +1,186 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+@RunWith(Parameterized.class)
+public class MinefieldResetTest {
+
+    @Parameterized.Parameter()
+    public MinefieldType type;
+
+    @Parameterized.Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][]{
+                { MinefieldType.HASH_MAP },
+                { MinefieldType.ARRAY },
+                { MinefieldType.BITBOARD }
+        });
+    }
+
+    @Before
+    public void setUp() {
+        GameCreator.setMinefieldType(this.type);
+    }
+
+    @After
+    public void reset() {
+        GameCreator.setConfiguration(GameConfiguration.DEFAULT);
+    }
+
+    @Test
+    public void resetMatchesSeededGameTest() {
+        final IMinefield field = GameCreator.createSeededGame(30, 16, 21, 1);
+        play(field);
+
+        for(long seed=2; seed < 20; ++seed) {
+            field.reset(seed);
+            Assert.assertArrayEquals(contents(GameCreator.createSeededGame(30, 16, 21, seed)), contents(field));
+            play(field);
+        }
+    }
+
+    @Test
+    public void resetClearsGameTest() {
+        final IMinefield field = GameCreator.createSeededGame(16, 16, 16, 7);
+        field.secondaryClick(0, 0);
+        field.secondaryClick(1, 0);
+        final int mine = firstMine(field);
+        Assert.assertEquals(IMinefield.OpenReturn.WAS_MINE, field.singleClick(mine % 16, mine / 16));
+        Assert.assertTrue(field.gameOver());
+
+        final FieldSnapshot snapshot = field.getSnapshot();
+        final long drawn = snapshot.getVersion();
+        field.reset(8);
+
+        Assert.assertFalse(field.gameOver());
+        Assert.assertNull(field.getGameOverReveal());
+        Assert.assertEquals(0, field.getAmountOfFlags());
+        Assert.assertEquals(40, field.getTotalMines());
+        Assert.assertEquals(16 * 16, field.getUpdateJournal().size());
+        Assert.assertEquals(16 * 16, field.getUpdateCells().size());
+        Assert.assertTrue(snapshot.getVersion() > drawn);
+        Assert.assertFalse(snapshot.changesSince(drawn, (x, y, state, content) -> Assert.fail()));
+
+        for(int y=0; y < 16; ++y) {
+            for(int x=0; x < 16; ++x) {
+                Assert.assertEquals(CellState.UNDISCOVERED, snapshot.getState(x, y));
+                Assert.assertEquals(CellContent.UNKNOWN, snapshot.getContent(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void resetGameCanBeClearedTest() {
+        final IMinefield field = GameCreator.createSeededGame(8, 8, 16, 3);
+
+        for(long seed=0; seed < 10; ++seed) {
+            Assert.assertEquals(IMinefield.OpenReturn.GAME_CLEARED, clear(field, seed));
+            Assert.assertTrue(field.gameOver());
+            Assert.assertEquals(64, field.getUpdateJournal().size());
+        }
+    }
+
+    @Test
+    public void resetKeepsFirstClickSafetyTest() {
+        GameCreator.setFirstClickSafe(true);
+        final IMinefield field = GameCreator.createSeededGame(8, 8, 50, 11);
+
+        for(long seed=0; seed < 50; ++seed) {
+            field.reset(seed);
+            Assert.assertNotEquals(IMinefield.OpenReturn.WAS_MINE, field.singleClick(4, 4));
+
+            final IMinefield seeded = GameCreator.createSeededGame(8, 8, 50, seed);
+            seeded.singleClick(4, 4);
+            Assert.assertArrayEquals(contents(seeded), contents(field));
+        }
+    }
+
+    @Test
+    public void resetEndlessGameTest() {
+        final EndlessMinefield field = (EndlessMinefield) GameCreator.createEndlessGame(5, 20);
+        field.secondaryClick(100, 100);
+        field.singleClick(0, 0);
+        Assert.assertTrue(field.getChunkCount() > 0);
+
+        final int explored = field.getChunkCount() * 64 * 64;
+        field.reset(6);
+
+        Assert.assertEquals(6, field.getSeed());
+        Assert.assertEquals(0, field.getChunkCount());
+        Assert.assertEquals(0, field.getAmountOfFlags());
+        Assert.assertFalse(field.gameOver());
+        Assert.assertEquals(explored, field.getUpdateJournal().size());
+        Assert.assertEquals(UpdateJournal.STATE_UNDISCOVERED, field.getUpdateJournal().getStateCode(0));
+    }
+
+    /**
+     * Resets the minefield with the given seed and opens every free cell.
+     */
+    private static IMinefield.OpenReturn clear(final IMinefield field, final long seed) {
+        field.reset(seed);
+
+        final CellContent[] contents = contents(field);
+        for(int index=0; index < contents.length; ++index) {
+            if(contents[index] == CellContent.MINE) continue;
+
+            final IMinefield.OpenReturn result = field.singleClick(index % field.getRows(), index / field.getRows());
+            if(result == IMinefield.OpenReturn.GAME_CLEARED) return result;
+        }
+
+        return null;
+    }
+
+    /**
+     * Flags a cell, opens a free cell and opens a mine.
+     */
+    private static void play(final IMinefield field) {
+        final CellContent[] contents = contents(field);
+        final int mine = firstMine(field);
+        final int flag = mine == 0 ? 1 : 0;
+        field.secondaryClick(flag, 0);
+
+        for(int index=0; index < contents.length; ++index) {
+            if(contents[index] != CellContent.MINE && index != flag) {
+                field.singleClick(index % field.getRows(), index / field.getRows());
+                break;
+            }
+        }
+
+        field.singleClick(mine % field.getRows(), mine / field.getRows());
+        Assert.assertTrue(field.gameOver());
+    }
+
+    private static int firstMine(final IMinefield field) {
+        final CellContent[] contents = contents(field);
+        for(int index=0; index < contents.length; ++index) {
+            if(contents[index] == CellContent.MINE) return index;
+        }
+
+        throw new AssertionError("The minefield has no mines!");
+    }
+
+    private static CellContent[] contents(final IMinefield field) {
+        final CellContent[] contents = new CellContent[field.getRows() * field.getColumns()];
+
+        for(int index=0; index < contents.length; ++index) {
+            final int x = index % field.getRows();
+            final int y = index / field.getRows();
+
+            if(field instanceof Minefield) {
+                contents[index] = ((Minefield) field).getOriginalField().get(CellPosition.valueOf(x, y)).getContent();
+            } else {
+                contents[index] = ((IndexedMinefield) field).getContent(x, y);
+            }
+        }
+
+        return contents;
+    }
+}
@@ -0,0 +1,45 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p>Measures how many minefields without guesses can be created per second for every difficulty.</p>
+ * <p>
+ *     The generator runs once with a single worker and once with all available processors. The rejection rate shows
+ *     the part of the candidates, which needed a guess.
+ * </p>
+ * <p>The benchmark is not part of the test run. Start it after <i>mvn test-compile</i> with:</p>
+ * <pre>java -cp target/classes:target/test-classes de.jscholz.jminesweeper.minesweeper.NoGuessBenchmark</pre>
+ */
+public class NoGuessBenchmark {
+
+    private static final int BOARDS = 500;
+
+    public static void main(final String[] args) {
+        final int processors = Runtime.getRuntime().availableProcessors();
+        final int[] workerCounts = processors > 1 ? new int[] { 1, processors } : new int[] { 1 };
+
+        System.out.println(String.format("%-12s %8s %12s %16s %12s", "difficulty", "workers", "candidates", "boards/s", "rejected"));
+
+        for(final int workers : workerCounts) {
+            final ForkJoinPool pool = new ForkJoinPool(workers);
+
+            try {
+                // The first generator warms up the JIT.
+                final NoGuessGenerator warmUp = new NoGuessGenerator(pool);
+                for(final Difficulty difficulty : Difficulty.values()) warmUp.generate(difficulty, BOARDS);
+
+                final NoGuessGenerator generator = new NoGuessGenerator(pool);
+                for(final Difficulty difficulty : Difficulty.values()) {
+                    generator.generate(difficulty, BOARDS);
+
+                    final NoGuessGenerator.Metrics metrics = generator.getMetrics(difficulty);
+                    System.out.println(String.format("%-12s %8d %12d %16.1f %12.3f", difficulty, workers,
+                            metrics.getCandidates(), metrics.getBoardsPerSecond(), metrics.getRejectionRate()));
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class NoGuessGeneratorTest {
+
+    private static ForkJoinPool pool;
+
+    @BeforeClass
+    public static void createPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void solverFindsGuessTest() {
+        // Two undiscovered cells share the same numbers and one mine, which is a guess.
+        Assert.assertFalse(new NoGuessSolver(2, 3).solve(new long[] { 1L << 4 }, 0));
+
+        // Both undiscovered cells are mines, which the numbers show.
+        final NoGuessSolver solver = new NoGuessSolver(2, 3);
+        Assert.assertTrue(solver.solve(new long[] { (1L << 4) | (1L << 5) }, 0));
+        Assert.assertEquals(4, solver.size());
+    }
+
+    @Test
+    public void generatedGamesNeedNoGuessTest() {
+        final NoGuessGenerator generator = new NoGuessGenerator(pool);
+
+        for(final MinefieldType type : MinefieldType.values()) {
+            for(final Difficulty difficulty : Difficulty.values()) {
+                final List<IMinefield> games = generator.generate(difficulty, 4, type);
+                Assert.assertEquals(4, games.size());
+
+                for(final IMinefield game : games) {
+                    Assert.assertEquals(type, ((GameCodec.Board) game).getMinefieldType());
+                    assertNoGuess((GameCodec.Board) game);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void typeIndependentOfGameCreatorTest() {
+        final NoGuessGenerator generator = new NoGuessGenerator(pool);
+        final NoGuessGenerator bitboards = new NoGuessGenerator(pool, MinefieldType.BITBOARD);
+        GameCreator.setMinefieldType(MinefieldType.ARRAY);
+
+        try {
+            Assert.assertEquals(GameConfiguration.DEFAULT.getMinefieldType(),
+                    ((GameCodec.Board) generator.generate(Difficulty.EASY)).getMinefieldType());
+            Assert.assertEquals(MinefieldType.BITBOARD,
+                    ((GameCodec.Board) bitboards.generate(Difficulty.EASY)).getMinefieldType());
+            Assert.assertEquals(MinefieldType.ARRAY,
+                    ((GameCodec.Board) GameCreator.createNoGuessGame(Difficulty.EASY)).getMinefieldType());
+        } finally {
+            GameCreator.setConfiguration(GameConfiguration.DEFAULT);
+        }
+    }
+
+    @Test
+    public void metricsTest() {
+        final NoGuessGenerator generator = new NoGuessGenerator(pool);
+        Assert.assertEquals(0, generator.getMetrics(Difficulty.EXPERT).getCandidates());
+        Assert.assertEquals(0, generator.getMetrics(Difficulty.EXPERT).getBoardsPerSecond(), 0);
+
+        generator.generate(Difficulty.EXPERT, 20);
+        generator.generate(Difficulty.EXPERT);
+
+        final NoGuessGenerator.Metrics metrics = generator.getMetrics(Difficulty.EXPERT);
+        Assert.assertEquals(21, metrics.getBoards());
+        Assert.assertTrue(metrics.getCandidates() - metrics.getRejected() >= 21);
+        Assert.assertTrue(metrics.getRejectionRate() >= 0 && metrics.getRejectionRate() < 1);
+        Assert.assertTrue(metrics.getBoardsPerSecond() > 0);
+
+        // The other difficulties are counted on their own.
+        Assert.assertEquals(0, generator.getMetrics(Difficulty.EASY).getBoards());
+    }
+
+    /**
+     * Plays the game with the order of the solver, which never opens a mine.
+     */
+    private static void assertNoGuess(final GameCodec.Board minefield) {
+        final int rows = minefield.getRows();
+        final int first = NoGuessGenerator.firstClick(rows, minefield.getColumns());
+        Assert.assertEquals(UpdateJournal.STATE_OPEN, minefield.getStateCode(first));
+        Assert.assertFalse(minefield.gameOver());
+
+        final NoGuessSolver solver = new NoGuessSolver(rows, minefield.getColumns());
+        Assert.assertTrue(solver.solve(mines(minefield), first));
+
+        IMinefield.OpenReturn result = null;
+        for(int i=0; i < solver.size() && !minefield.gameOver(); ++i) {
+            result = minefield.singleClick(solver.get(i) % rows, solver.get(i) / rows);
+            Assert.assertNotEquals(IMinefield.OpenReturn.WAS_MINE, result);
+        }
+        Assert.assertEquals(IMinefield.OpenReturn.GAME_CLEARED, result);
+    }
+
+    private static long[] mines(final GameCodec.Board minefield) {
+        final int cellCount = minefield.getRows() * minefield.getColumns();
+        final long[] mines = new long[(cellCount + 63) >>> 6];
+
+        for(int index=0; index < cellCount; ++index) {
+            if(minefield.containsMine(index)) mines[index >>> 6] |= 1L << index;
+        }
+
+        return mines;
+    }
+}
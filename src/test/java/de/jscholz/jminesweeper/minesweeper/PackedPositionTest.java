@@ -0,0 +1,97 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+@RunWith(Parameterized.class)
+public class PackedPositionTest {
+
+    @Parameterized.Parameter()
+    public MinefieldType type;
+
+    @Parameterized.Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][]{
+                { MinefieldType.HASH_MAP },
+                { MinefieldType.ARRAY },
+                { MinefieldType.BITBOARD }
+        });
+    }
+
+    @After
+    public void reset() {
+        GameCreator.setMinefieldType(MinefieldType.HASH_MAP);
+    }
+
+    @Test
+    public void packTest() {
+        final int[] values = { Integer.MIN_VALUE, -1, 0, 1, 29, Integer.MAX_VALUE };
+
+        for(final int x : values) {
+            for(final int y : values) {
+                final long packed = ICellPosition.pack(x, y);
+                Assert.assertEquals(x, ICellPosition.unpackX(packed));
+                Assert.assertEquals(y, ICellPosition.unpackY(packed));
+            }
+        }
+    }
+
+    @Test
+    public void flyweightTest() {
+        Assert.assertSame(ICellPosition.valueOf(3, 5), ICellPosition.valueOf(3, 5));
+        Assert.assertTrue(ICellPosition.valueOf(3, 5).compare(3, 5));
+        Assert.assertTrue(ICellPosition.valueOf(-1, 5000).compare(-1, 5000));
+
+        GameCreator.setMinefieldType(type);
+        final IMinefield field = GameCreator.createExpertGame();
+
+        // The cells of the minefield use the shared positions.
+        field.secondaryClick(29, 15);
+        Assert.assertSame(ICellPosition.valueOf(29, 15), field.getUpdateCells().iterator().next().getPosition());
+    }
+
+    @Test
+    public void validatePositionTest() {
+        GameCreator.setMinefieldType(type);
+        final IMinefield field = GameCreator.createExpertGame();
+
+        Assert.assertTrue(field.validatePosition(0, 0));
+        Assert.assertTrue(field.validatePosition(29, 15));
+        Assert.assertFalse(field.validatePosition(-1, 0));
+        Assert.assertFalse(field.validatePosition(0, -1));
+        Assert.assertFalse(field.validatePosition(30, 0));
+        Assert.assertFalse(field.validatePosition(0, 16));
+        Assert.assertFalse(field.validatePosition(Integer.MIN_VALUE, Integer.MAX_VALUE));
+
+        Assert.assertFalse(field.validatePosition(null));
+        Assert.assertTrue(field.validatePosition(new CellPosition(29, 15)));
+        Assert.assertFalse(field.validatePosition(new CellPosition(30, 15)));
+    }
+
+    @Test
+    public void packedClickTest() {
+        GameCreator.setMinefieldType(type);
+        final IMinefield field = GameCreator.createExpertGame();
+
+        Assert.assertEquals(IMinefield.OpenReturn.NOT_VALID, field.singleClick(ICellPosition.pack(-1, 0)));
+        Assert.assertEquals(IMinefield.OpenReturn.NOT_VALID, field.doubleClick(ICellPosition.pack(30, 0)));
+        Assert.assertEquals(IMinefield.OpenReturn.NOT_VALID, field.secondaryClick(ICellPosition.pack(0, 16)));
+
+        final long position = ICellPosition.pack(4, 7);
+        Assert.assertEquals(IMinefield.OpenReturn.NOW_FLAGGED, field.secondaryClick(position));
+        Assert.assertEquals(CellState.FLAGGED, field.getUpdateCells().iterator().next().getCellState());
+        Assert.assertEquals(IMinefield.OpenReturn.WAS_FLAGGED, field.singleClick(position));
+        Assert.assertEquals(IMinefield.OpenReturn.REMOVE_FLAG, field.secondaryClick(position));
+        Assert.assertEquals(0, field.getAmountOfFlags());
+
+        final IMinefield.OpenReturn result = field.singleClick(position);
+        Assert.assertTrue(result == IMinefield.OpenReturn.OPEN || result == IMinefield.OpenReturn.WAS_MINE
+                || result == IMinefield.OpenReturn.GAME_CLEARED);
+    }
+}
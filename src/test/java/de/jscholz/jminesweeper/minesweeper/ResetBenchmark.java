@@ -0,0 +1,72 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * <p>Compares the reset of a minefield with the creation of a new minefield for every minefield type and difficulty.
+ * Both create the same seeded games and perform one click per game, so the measured values only differ by the way the
+ * game is started.</p>
+ * <p>The benchmark is not part of the test run. Start it after <i>mvn test-compile</i> with:</p>
+ * <pre>java -cp target/classes:target/test-classes de.jscholz.jminesweeper.minesweeper.ResetBenchmark</pre>
+ * <p>It needs a HotSpot based JVM, which supports the measurement of the allocated bytes per thread.</p>
+ */
+public class ResetBenchmark {
+
+    private static final int GAMES = 20000;
+    private static final int WARMUP_RUNS = 5;
+
+    public static void main(final String[] args) {
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long thread = Thread.currentThread().getId();
+
+        System.out.println(String.format("%-10s %-12s %-6s %14s %14s", "type", "difficulty", "start", "ns/game", "bytes/game"));
+
+        for(final MinefieldType type : MinefieldType.values()) {
+            for(final Difficulty difficulty : Difficulty.values()) {
+                final GameConfiguration configuration = GameConfiguration.of(difficulty).withMinefieldType(type);
+
+                for(final boolean reset : new boolean[] { false, true }) {
+                    // Warm up the JIT, so the escape analysis is done before the measurement.
+                    for(int run=0; run < WARMUP_RUNS; ++run) play(configuration, reset);
+
+                    final long before = threads.getThreadAllocatedBytes(thread);
+                    final long start = System.nanoTime();
+                    play(configuration, reset);
+                    final long nanos = System.nanoTime() - start;
+                    final long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+                    System.out.println(String.format("%-10s %-12s %-6s %14.1f %14.1f", type, difficulty,
+                            reset ? "reset" : "new", (double) nanos / GAMES, (double) allocated / GAMES));
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts the games with the seeds 0 to GAMES and clicks the center of every game.
+     * @param configuration The configuration of the games.
+     * @param reset True, if one minefield is reset for every game. False, if a new minefield is created.
+     * @return The amount of games which hit a mine, so the clicks are not removed by the JIT.
+     */
+    private static int play(final GameConfiguration configuration, final boolean reset) {
+        final int x = configuration.getRows() / 2;
+        final int y = configuration.getColumns() / 2;
+        final IMinefield field = GameFactory.create(configuration, 0);
+        int lost = 0;
+
+        for(int seed=0; seed < GAMES; ++seed) {
+            final IMinefield game;
+            if(reset) {
+                field.reset(seed);
+                game = field;
+            } else {
+                game = GameFactory.create(configuration, seed);
+            }
+
+            if(game.singleClick(x, y) == IMinefield.OpenReturn.WAS_MINE) ++lost;
+        }
+
+        return lost;
+    }
+}
@@ -0,0 +1,98 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class SeededGameTest {
+
+    @After
+    public void reset() {
+        GameCreator.setMinefieldType(MinefieldType.HASH_MAP);
+    }
+
+    @Test
+    public void splitMix64ReferenceTest() {
+        // The reference values of SplitMix64 for the seed 1234567.
+        final SeededRandom random = new SeededRandom(1234567);
+        Assert.assertEquals("6457827717110365317", Long.toUnsignedString(random.nextLong()));
+        Assert.assertEquals("3203168211198807973", Long.toUnsignedString(random.nextLong()));
+        Assert.assertEquals("9817491932198370423", Long.toUnsignedString(random.nextLong()));
+        Assert.assertEquals("4593380528125082431", Long.toUnsignedString(random.nextLong()));
+        Assert.assertEquals("16408922859458223821", Long.toUnsignedString(random.nextLong()));
+
+        final SeededRandom bounded = new SeededRandom(0);
+        final int[] numbers = new int[5];
+        for(int i=0; i < numbers.length; ++i) numbers[i] = bounded.nextInt(10);
+        Assert.assertArrayEquals(new int[] { 8, 4, 0, 9, 1 }, numbers);
+    }
+
+    @Test
+    public void knownSeedsTest() {
+        for(final MinefieldType type : MinefieldType.values()) {
+            GameCreator.setMinefieldType(type);
+
+            Assert.assertEquals(Arrays.asList(2, 8, 13, 15, 19, 21, 39, 40, 49, 52),
+                    mines(GameCreator.createSeededGame(8, 8, 16, 42)));
+            Assert.assertEquals(Arrays.asList(4, 9, 17, 33, 37, 38, 43, 47, 52, 54),
+                    mines(GameCreator.createSeededGame(8, 8, 16, 20261018)));
+
+            final List<Integer> expert = mines(GameCreator.createSeededGame(30, 16, 21, 42));
+            Assert.assertEquals(100, expert.size());
+            Assert.assertEquals(Arrays.asList(6, 11, 14, 19, 24, 26, 29, 30, 36, 37), expert.subList(0, 10));
+            Assert.assertEquals(Arrays.asList(439, 441, 447, 462, 472, 476), expert.subList(94, 100));
+        }
+    }
+
+    @Test
+    public void sameSeedSameGameTest() {
+        for(long seed=-5; seed < 5; ++seed) {
+            GameCreator.setMinefieldType(MinefieldType.HASH_MAP);
+            final List<Integer> expected = mines(GameCreator.createSeededGame(30, 24, 50, seed));
+            Assert.assertEquals(expected, mines(GameCreator.createSeededGame(30, 24, 50, seed)));
+
+            GameCreator.setMinefieldType(MinefieldType.BITBOARD);
+            Assert.assertEquals(expected, mines(GameCreator.createSeededGame(30, 24, 50, seed)));
+
+            Assert.assertNotEquals(expected, mines(GameCreator.createSeededGame(30, 24, 50, seed + 100)));
+        }
+    }
+
+    @Test
+    public void seededGameIsPlayableTest() {
+        GameCreator.setMinefieldType(MinefieldType.HASH_MAP);
+        final IMinefield field = GameCreator.createSeededGame(100, 100, 93, 7);
+
+        // The values are clamped like a custom game.
+        Assert.assertEquals(GameCreator.MAX_ROWS, field.getRows());
+        Assert.assertEquals(GameCreator.MAX_COLUMNS, field.getColumns());
+        Assert.assertEquals(30 * 24 * 93 / 100, field.getTotalMines());
+
+        final List<Integer> mines = mines(field);
+        Assert.assertEquals(field.getTotalMines(), mines.size());
+        Assert.assertEquals(IMinefield.OpenReturn.WAS_MINE, field.singleClick(mines.get(0) % 30, mines.get(0) / 30));
+    }
+
+    private static List<Integer> mines(final IMinefield field) {
+        final List<Integer> mines = new ArrayList<>();
+
+        if(field instanceof Minefield) {
+            for(final Cell c : ((Minefield) field).getOriginalField().values()) {
+                if(c.getContent() == CellContent.MINE) {
+                    mines.add(c.getPosition().getY() * field.getRows() + c.getPosition().getX());
+                }
+            }
+            return mines;
+        }
+
+        final IndexedMinefield indexed = (IndexedMinefield) field;
+        for(int index=0; index < indexed.cellCount; ++index) {
+            if(indexed.isMine(index)) mines.add(index);
+        }
+        return mines;
+    }
+}
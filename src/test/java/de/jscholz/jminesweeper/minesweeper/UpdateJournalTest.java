@@ -0,0 +1,149 @@
+package de.jscholz.jminesweeper.minesweeper;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.*;
+
+@RunWith(Parameterized.class)
+public class UpdateJournalTest {
+
+    @Parameterized.Parameter()
+    public MinefieldType type;
+
+    @Parameterized.Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][]{
+                { MinefieldType.HASH_MAP },
+                { MinefieldType.ARRAY },
+                { MinefieldType.BITBOARD }
+        });
+    }
+
+    @After
+    public void reset() {
+        GameCreator.setMinefieldType(MinefieldType.HASH_MAP);
+    }
+
+    @Test
+    public void codesTest() {
+        for(final CellState state : CellState.values()) {
+            Assert.assertEquals(state, UpdateJournal.toState(UpdateJournal.toStateCode(state)));
+        }
+        for(final CellContent content : CellContent.values()) {
+            Assert.assertEquals(content, UpdateJournal.toContent(UpdateJournal.toContentCode(content)));
+        }
+    }
+
+    @Test
+    public void journalContainsAllChangedCellsTest() {
+        GameCreator.setMinefieldType(type);
+        final Random random = new Random(815);
+
+        for(int game=0; game < 300; ++game) {
+            final IMinefield field = GameCreator.createExpertGame();
+
+            while (!field.gameOver()) {
+                final CellState[] before = states(field);
+                final int x = random.nextInt(field.getRows());
+                final int y = random.nextInt(field.getColumns());
+
+                switch (random.nextInt(4)) {
+                    case 0:
+                        field.secondaryClick(x, y);
+                        break;
+                    case 1:
+                        field.singleClick(x, y);
+                        break;
+                    default:
+                        field.doubleClick(x, y);
+                        break;
+                }
+
+                final UpdateJournal journal = field.getUpdateJournal();
+                final Set<ICell> updatedCells = field.getUpdateCells();
+                Assert.assertEquals(journal.size(), updatedCells.size());
+
+                if(field.gameOver()) {
+                    Assert.assertEquals(field.getRows() * field.getColumns(), journal.size());
+                    Assert.assertEquals(field.getRows() * field.getColumns(), new HashSet<>(positions(field)).size());
+                    break;
+                }
+
+                // Every changed cell is inside the journal, with the new state and content.
+                final CellState[] after = states(field);
+                final boolean[] inJournal = new boolean[after.length];
+                final Iterator<ICell> iterator = updatedCells.iterator();
+
+                for(int i=0; i < journal.size(); ++i) {
+                    final ICell cell = iterator.next();
+                    Assert.assertEquals(cell.getPosition().getX(), journal.getX(i));
+                    Assert.assertEquals(cell.getPosition().getY(), journal.getY(i));
+                    Assert.assertEquals(cell.getCellState(), journal.getState(i));
+                    Assert.assertEquals(cell.getCellContent(), journal.getContent(i));
+                    Assert.assertTrue(updatedCells.contains(cell));
+
+                    Assert.assertFalse(inJournal[journal.getIndex(i)]);
+                    inJournal[journal.getIndex(i)] = true;
+                }
+
+                for(int index=0; index < after.length; ++index) {
+                    Assert.assertEquals(before[index] != after[index], inJournal[index]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void forEachTest() {
+        GameCreator.setMinefieldType(type);
+        final IMinefield field = GameCreator.createExpertGame();
+
+        field.secondaryClick(3, 4);
+        field.secondaryClick(3, 4);
+        Assert.assertEquals(1, field.getUpdateJournal().size());
+
+        final int[] visited = new int[1];
+        field.getUpdateJournal().forEach((final int x, final int y, final byte state, final byte content) -> {
+            Assert.assertEquals(3, x);
+            Assert.assertEquals(4, y);
+            Assert.assertEquals(UpdateJournal.STATE_UNDISCOVERED, state);
+            Assert.assertEquals(UpdateJournal.CONTENT_UNKNOWN, content);
+            ++visited[0];
+        });
+        Assert.assertEquals(1, visited[0]);
+
+        // The journal is cleared by the next click.
+        Assert.assertEquals(IMinefield.OpenReturn.NOT_VALID, field.singleClick(-1, 0));
+        field.secondaryClick(5, 5);
+        Assert.assertEquals(1, field.getUpdateJournal().size());
+        Assert.assertEquals(5, field.getUpdateJournal().getX(0));
+    }
+
+    private static CellState[] states(final IMinefield field) {
+        final CellState[] states = new CellState[field.getRows() * field.getColumns()];
+
+        if(field instanceof Minefield) {
+            for(final Cell c : ((Minefield) field).getOriginalField().values()) {
+                states[c.getPosition().getY() * field.getRows() + c.getPosition().getX()] = c.getCellState();
+            }
+        } else {
+            for(int y=0; y < field.getColumns(); ++y) {
+                for(int x=0; x < field.getRows(); ++x) {
+                    states[y * field.getRows() + x] = ((IndexedMinefield) field).getCellState(x, y);
+                }
+            }
+        }
+
+        return states;
+    }
+
+    private static List<Long> positions(final IMinefield field) {
+        final List<Long> positions = new ArrayList<>();
+        for(int i=0; i < field.getUpdateJournal().size(); ++i) positions.add(field.getUpdateJournal().getPosition(i));
+        return positions;
+    }
+}
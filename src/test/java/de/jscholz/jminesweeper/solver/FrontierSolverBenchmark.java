@@ -0,0 +1,79 @@
+package de.jscholz.jminesweeper.solver;
+
+import de.jscholz.jminesweeper.minesweeper.Difficulty;
+import de.jscholz.jminesweeper.minesweeper.GameConfiguration;
+import de.jscholz.jminesweeper.minesweeper.GameFactory;
+import de.jscholz.jminesweeper.minesweeper.IMinefield;
+import de.jscholz.jminesweeper.minesweeper.MinefieldType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p>Measures the frontier solver on expert games, where the single-point solver stalls. Every game is opened in the
+ * center and played by the single-point solver, until it needs the frontier solver. The frontier solver is measured
+ * with one worker and with all cores.</p>
+ * <p>The benchmark is not part of the test run. Start it after <i>mvn test-compile</i> with:</p>
+ * <pre>java -cp target/classes:target/test-classes de.jscholz.jminesweeper.solver.FrontierSolverBenchmark</pre>
+ */
+public class FrontierSolverBenchmark {
+
+    private static final int GAMES = 1000;
+    private static final int WARMUP_RUNS = 3;
+
+    public static void main(final String[] args) {
+        final GameConfiguration configuration = GameConfiguration.of(Difficulty.EXPERT)
+                .withMinefieldType(MinefieldType.ARRAY).withFirstClickSafe(true);
+        final GameFactory factory = new GameFactory(configuration);
+        final List<IMinefield> stalled = new ArrayList<>();
+        int frontier = 0;
+        int largest = 0;
+
+        for(int seed=0; seed < GAMES; ++seed) {
+            final IMinefield game = factory.createSeededGame(seed);
+            game.singleClick(game.getRows() / 2, game.getColumns() / 2);
+
+            if(new SinglePointSolver(game).solve() == SinglePointSolver.Result.STALLED && !game.gameOver()) {
+                final Frontier constraints = new Frontier(game.getSnapshot());
+                frontier += constraints.variableCount();
+                for(int component=0; component < constraints.componentCount(); ++component) {
+                    largest = Math.max(largest, constraints.componentSize(component));
+                }
+                stalled.add(game);
+            }
+        }
+
+        System.out.println(String.format("%d stalled games, %.1f frontier cells on average, largest component %d",
+                stalled.size(), (double) frontier / stalled.size(), largest));
+        System.out.println(String.format("%-10s %12s %12s %12s %12s %12s", "workers", "mean us", "p50 us", "p99 us",
+                "max us", "found/game"));
+
+        final ForkJoinPool single = new ForkJoinPool(1);
+        measure("1", new FrontierSolver(single), stalled);
+        measure(String.valueOf(ForkJoinPool.commonPool().getParallelism()), new FrontierSolver(), stalled);
+        single.shutdown();
+    }
+
+    private static void measure(final String workers, final FrontierSolver solver, final List<IMinefield> games) {
+        final long[] nanos = new long[games.size()];
+        long found = 0;
+
+        for(int run=0; run < WARMUP_RUNS + 1; ++run) {
+            found = 0;
+            for(int i=0; i < games.size(); ++i) {
+                final long start = System.nanoTime();
+                final Deductions deductions = solver.solve(games.get(i));
+                nanos[i] = System.nanoTime() - start;
+                found += deductions.getSafeCount() + deductions.getMineCount();
+            }
+        }
+
+        final long total = Arrays.stream(nanos).sum();
+        Arrays.sort(nanos);
+        System.out.println(String.format("%-10s %12.1f %12.1f %12.1f %12.1f %12.1f", workers,
+                total / 1e3 / nanos.length, nanos[nanos.length / 2] / 1e3, nanos[nanos.length * 99 / 100] / 1e3,
+                nanos[nanos.length - 1] / 1e3, (double) found / nanos.length));
+    }
+}
@@ -0,0 +1,217 @@
+package de.jscholz.jminesweeper.solver;
+
+import de.jscholz.jminesweeper.minesweeper.Difficulty;
+import de.jscholz.jminesweeper.minesweeper.FieldSnapshot;
+import de.jscholz.jminesweeper.minesweeper.GameConfiguration;
+import de.jscholz.jminesweeper.minesweeper.GameCreator;
+import de.jscholz.jminesweeper.minesweeper.GameFactory;
+import de.jscholz.jminesweeper.minesweeper.ICellPosition;
+import de.jscholz.jminesweeper.minesweeper.IMinefield;
+import de.jscholz.jminesweeper.minesweeper.MinefieldType;
+import de.jscholz.jminesweeper.minesweeper.UpdateJournal;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class FrontierSolverTest {
+
+    private static final ForkJoinPool SINGLE = new ForkJoinPool(1);
+    private static final ForkJoinPool PARALLEL = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void shutdown() {
+        SINGLE.shutdown();
+        PARALLEL.shutdown();
+    }
+
+    /**
+     * Creates a game, which is played by the single-point solver until it stalls.
+     */
+    static IMinefield stalledGame(final Difficulty difficulty, final long seed) {
+        final GameConfiguration configuration = GameConfiguration.of(difficulty).withMinefieldType(MinefieldType.ARRAY)
+                .withFirstClickSafe(true);
+        final IMinefield game = new GameFactory(configuration).createSeededGame(seed);
+        game.singleClick(game.getRows() / 2, game.getColumns() / 2);
+        new SinglePointSolver(game).solve();
+        return game;
+    }
+
+    @Test
+    public void deductionsAreTrueTest() {
+        final FrontierSolver solver = new FrontierSolver(PARALLEL);
+
+        for(long seed=0; seed < 40; ++seed) {
+            final IMinefield game = stalledGame(Difficulty.EXPERT, seed);
+            final boolean[] mines = SinglePointSolverTest.mines(game);
+            final Deductions deductions = solver.solve(game);
+
+            for(final ICellPosition position : deductions.getSafeCells()) {
+                Assert.assertFalse(mines[position.getY() * game.getRows() + position.getX()]);
+            }
+            for(final ICellPosition position : deductions.getMines()) {
+                Assert.assertTrue(mines[position.getY() * game.getRows() + position.getX()]);
+            }
+        }
+    }
+
+    @Test
+    public void containsSinglePointTest() {
+        final FrontierSolver solver = new FrontierSolver(SINGLE);
+
+        for(long seed=0; seed < 20; ++seed) {
+            final IMinefield game = stalledGame(Difficulty.EXPERIENCED, seed);
+            final SinglePointSolver single = new SinglePointSolver(game);
+            single.update();
+            final Deductions deductions = solver.solve(game);
+
+            for(int y=0; y < game.getColumns(); ++y) {
+                for(int x=0; x < game.getRows(); ++x) {
+                    if(single.isSafe(x, y)) Assert.assertTrue(deductions.isSafe(x, y));
+                    if(single.isMine(x, y)) Assert.assertTrue(deductions.isMine(x, y));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void findsMoreThanSinglePointTest() {
+        final FrontierSolver solver = new FrontierSolver(PARALLEL);
+        int found = 0;
+
+        // The single-point solver opened all safe cells it knows, so every safe cell is a new one.
+        for(long seed=0; seed < 100; ++seed) {
+            found += solver.solve(stalledGame(Difficulty.EXPERT, seed)).getSafeCount();
+        }
+
+        Assert.assertTrue(found > 0);
+    }
+
+    @Test
+    public void bruteForceTest() {
+        final FrontierSolver solver = new FrontierSolver(PARALLEL);
+        int compared = 0;
+
+        for(long seed=0; seed < 200 && compared < 30; ++seed) {
+            final IMinefield game = stalledGame(Difficulty.EASY, seed);
+            final FieldSnapshot snapshot = game.getSnapshot();
+            final List<Integer> cells = frontierCells(snapshot);
+            if(game.gameOver() || cells.isEmpty() || cells.size() > 20) continue;
+
+            // Every assignment of the frontier is checked against all numbers.
+            final boolean[] canBeMine = new boolean[cells.size()];
+            final boolean[] canBeSafe = new boolean[cells.size()];
+            final int rows = snapshot.getRows();
+            final int[] mines = new int[rows * snapshot.getColumns()];
+
+            for(int mask=0; mask < 1 << cells.size(); ++mask) {
+                Arrays.fill(mines, 0);
+                for(int i=0; i < cells.size(); ++i) {
+                    if((mask & (1 << i)) != 0) mines[cells.get(i)] = 1;
+                }
+                if(!fits(snapshot, mines)) continue;
+
+                for(int i=0; i < cells.size(); ++i) {
+                    if((mask & (1 << i)) != 0) canBeMine[i] = true; else canBeSafe[i] = true;
+                }
+            }
+
+            final Deductions deductions = solver.solve(game);
+            for(int i=0; i < cells.size(); ++i) {
+                final int x = cells.get(i) % rows;
+                final int y = cells.get(i) / rows;
+                Assert.assertEquals(!canBeMine[i], deductions.isSafe(x, y));
+                Assert.assertEquals(!canBeSafe[i], deductions.isMine(x, y));
+            }
+            Assert.assertEquals(cells.size(), deductions.getFrontierSize());
+            ++compared;
+        }
+
+        Assert.assertTrue(compared > 0);
+    }
+
+    @Test
+    public void parallelTest() {
+        final FrontierSolver single = new FrontierSolver(SINGLE);
+        final FrontierSolver parallel = new FrontierSolver(PARALLEL);
+
+        for(long seed=0; seed < 20; ++seed) {
+            final IMinefield game = stalledGame(Difficulty.EXPERT, seed);
+            final Deductions expected = single.solve(game);
+            final Deductions actual = parallel.solve(game);
+
+            Assert.assertEquals(expected.getSafeCells(), actual.getSafeCells());
+            Assert.assertEquals(expected.getMines(), actual.getMines());
+            Assert.assertEquals(expected.getComponents(), actual.getComponents());
+        }
+    }
+
+    @Test
+    public void noOpenCellTest() {
+        final Deductions deductions = new FrontierSolver(SINGLE).solve(GameCreator.createExpertGame());
+
+        Assert.assertEquals(0, deductions.getSafeCount());
+        Assert.assertEquals(0, deductions.getMineCount());
+        Assert.assertEquals(0, deductions.getFrontierSize());
+        Assert.assertEquals(0, deductions.getComponents());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void endlessTest() {
+        new FrontierSolver(SINGLE).solve(GameCreator.createEndlessGame(1, 20));
+    }
+
+    /**
+     * Returns the undiscovered cells next to an opened number, flagged cells are not part of the frontier.
+     */
+    static List<Integer> frontierCells(final FieldSnapshot snapshot) {
+        final List<Integer> cells = new ArrayList<>();
+        final int rows = snapshot.getRows();
+        final int columns = snapshot.getColumns();
+
+        for(int index=0; index < rows * columns; ++index) {
+            final int x = index % rows;
+            final int y = index / rows;
+            if(snapshot.getStateCode(x, y) != UpdateJournal.STATE_UNDISCOVERED) continue;
+
+            boolean touched = false;
+            for(int ny = Math.max(0, y - 1); ny <= Math.min(columns - 1, y + 1); ++ny) {
+                for(int nx = Math.max(0, x - 1); nx <= Math.min(rows - 1, x + 1); ++nx) {
+                    touched |= snapshot.getStateCode(nx, ny) == UpdateJournal.STATE_OPEN;
+                }
+            }
+            if(touched) cells.add(index);
+        }
+
+        return cells;
+    }
+
+    /**
+     * Returns if the mines and the flags fit all opened numbers.
+     */
+    static boolean fits(final FieldSnapshot snapshot, final int[] mines) {
+        final int rows = snapshot.getRows();
+        final int columns = snapshot.getColumns();
+
+        for(int y=0; y < columns; ++y) {
+            for(int x=0; x < rows; ++x) {
+                if(snapshot.getStateCode(x, y) != UpdateJournal.STATE_OPEN) continue;
+
+                int count = 0;
+                for(int ny = Math.max(0, y - 1); ny <= Math.min(columns - 1, y + 1); ++ny) {
+                    for(int nx = Math.max(0, x - 1); nx <= Math.min(rows - 1, x + 1); ++nx) {
+                        if(snapshot.getStateCode(nx, ny) == UpdateJournal.STATE_FLAGGED) ++count;
+                        count += mines[ny * rows + nx];
+                    }
+                }
+                if(count != snapshot.getContentCode(x, y)) return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,136 @@
+package de.jscholz.jminesweeper.solver;
+
+import de.jscholz.jminesweeper.minesweeper.Difficulty;
+import de.jscholz.jminesweeper.minesweeper.GameConfiguration;
+import de.jscholz.jminesweeper.minesweeper.GameFactory;
+import de.jscholz.jminesweeper.minesweeper.IMinefield;
+import de.jscholz.jminesweeper.minesweeper.MinefieldType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>Compares the Gaussian elimination with the backtracking of the frontier solver on expert games, where the
+ * single-point solver stalls. Both solvers read the stalled game from scratch, the latency and the found safe cells
+ * and mines are measured for every game. The deduction rate is the share of the cells of the frontier solver, which
+ * the elimination finds as well.</p>
+ * <p>The incremental elimination is measured by playing every game with {@link GaussianSolver#solve()}, which updates
+ * the system after every click.</p>
+ * <p>The benchmark is not part of the test run. Start it after <i>mvn test-compile</i> with:</p>
+ * <pre>java -cp target/classes:target/test-classes de.jscholz.jminesweeper.solver.GaussianSolverBenchmark</pre>
+ */
+public class GaussianSolverBenchmark {
+
+    private static final int GAMES = 1000;
+    private static final int WARMUP_RUNS = 3;
+
+    public static void main(final String[] args) {
+        final GameConfiguration configuration = GameConfiguration.of(Difficulty.EXPERT)
+                .withMinefieldType(MinefieldType.ARRAY).withFirstClickSafe(true);
+        final GameFactory factory = new GameFactory(configuration);
+        final List<IMinefield> stalled = new ArrayList<>();
+
+        for(int seed=0; seed < GAMES; ++seed) {
+            final IMinefield game = factory.createSeededGame(seed);
+            game.singleClick(game.getRows() / 2, game.getColumns() / 2);
+
+            if(new SinglePointSolver(game).solve() == SinglePointSolver.Result.STALLED && !game.gameOver()) {
+                stalled.add(game);
+            }
+        }
+
+        System.out.println(String.format("%d stalled games", stalled.size()));
+        System.out.println(String.format("%-14s %12s %12s %12s %12s %12s", "solver", "mean us", "p50 us", "p99 us",
+                "max us", "found/game"));
+
+        final FrontierSolver frontier = new FrontierSolver();
+        final long backtracking = measure("backtracking", stalled, game -> {
+            final Deductions deductions = frontier.solve(game);
+            return deductions.getSafeCount() + deductions.getMineCount();
+        });
+        final long elimination = measure("elimination", stalled, game -> {
+            final GaussianSolver solver = new GaussianSolver(game);
+            solver.update();
+            return found(solver, game);
+        });
+        System.out.println(String.format("deduction rate %.1f%%", 100.0 * elimination / backtracking));
+
+        play(factory);
+    }
+
+    /**
+     * Measures the solver on every game.
+     * @return The amount of found cells of all games.
+     */
+    private static long measure(final String name, final List<IMinefield> games,
+                                final ToIntFunction<IMinefield> solver) {
+        final long[] nanos = new long[games.size()];
+        long found = 0;
+
+        for(int run=0; run < WARMUP_RUNS + 1; ++run) {
+            found = 0;
+            for(int i=0; i < games.size(); ++i) {
+                final long start = System.nanoTime();
+                found += solver.applyAsInt(games.get(i));
+                nanos[i] = System.nanoTime() - start;
+            }
+        }
+
+        final long total = Arrays.stream(nanos).sum();
+        Arrays.sort(nanos);
+        System.out.println(String.format("%-14s %12.1f %12.1f %12.1f %12.1f %12.1f", name,
+                total / 1e3 / nanos.length, nanos[nanos.length / 2] / 1e3, nanos[nanos.length * 99 / 100] / 1e3,
+                nanos[nanos.length - 1] / 1e3, (double) found / nanos.length));
+        return found;
+    }
+
+    /**
+     * Plays every game with the incremental elimination and the single-point solver.
+     */
+    private static void play(final GameFactory factory) {
+        long nanos = 0;
+        long moves = 0;
+        int cleared = 0;
+        int singleCleared = 0;
+
+        for(int run=0; run < WARMUP_RUNS + 1; ++run) {
+            nanos = 0;
+            moves = 0;
+            cleared = 0;
+            singleCleared = 0;
+
+            for(int seed=0; seed < GAMES; ++seed) {
+                IMinefield game = factory.createSeededGame(seed);
+                game.singleClick(game.getRows() / 2, game.getColumns() / 2);
+
+                final long start = System.nanoTime();
+                final GaussianSolver solver = new GaussianSolver(game);
+                if(solver.solve() == SinglePointSolver.Result.CLEARED) ++cleared;
+                nanos += System.nanoTime() - start;
+                moves += solver.getMoves();
+
+                game = factory.createSeededGame(seed);
+                game.singleClick(game.getRows() / 2, game.getColumns() / 2);
+                if(new SinglePointSolver(game).solve() == SinglePointSolver.Result.CLEARED) ++singleCleared;
+            }
+        }
+
+        System.out.println(String.format("incremental play: %.2f us per click, %d of %d games cleared "
+                + "(single-point %d)", nanos / 1e3 / Math.max(1, moves), cleared, GAMES, singleCleared));
+    }
+
+    /**
+     * Returns the amount of undiscovered cells, which the solver knows as safe or as mine.
+     */
+    private static int found(final GaussianSolver solver, final IMinefield game) {
+        int found = 0;
+        for(int y=0; y < game.getColumns(); ++y) {
+            for(int x=0; x < game.getRows(); ++x) {
+                if(solver.isSafe(x, y) || solver.isMine(x, y)) ++found;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,142 @@
+package de.jscholz.jminesweeper.solver;
+
+import de.jscholz.jminesweeper.minesweeper.Difficulty;
+import de.jscholz.jminesweeper.minesweeper.GameConfiguration;
+import de.jscholz.jminesweeper.minesweeper.GameCreator;
+import de.jscholz.jminesweeper.minesweeper.GameFactory;
+import de.jscholz.jminesweeper.minesweeper.IMinefield;
+import de.jscholz.jminesweeper.minesweeper.MinefieldType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GaussianSolverTest {
+
+    @Test
+    public void deductionsAreTrueTest() {
+        for(long seed=0; seed < 40; ++seed) {
+            final IMinefield game = FrontierSolverTest.stalledGame(Difficulty.EXPERT, seed);
+            final boolean[] mines = SinglePointSolverTest.mines(game);
+            final GaussianSolver solver = new GaussianSolver(game);
+            solver.update();
+
+            for(int y=0; y < game.getColumns(); ++y) {
+                for(int x=0; x < game.getRows(); ++x) {
+                    if(solver.isSafe(x, y)) Assert.assertFalse(mines[y * game.getRows() + x]);
+                    if(solver.isMine(x, y)) Assert.assertTrue(mines[y * game.getRows() + x]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void betweenSinglePointAndFrontierTest() {
+        final FrontierSolver frontier = new FrontierSolver();
+        int found = 0;
+
+        for(long seed=0; seed < 100; ++seed) {
+            final IMinefield game = FrontierSolverTest.stalledGame(Difficulty.EXPERT, seed);
+            final SinglePointSolver single = new SinglePointSolver(game);
+            final GaussianSolver solver = new GaussianSolver(game);
+            single.update();
+            solver.update();
+            final Deductions deductions = frontier.solve(game);
+
+            for(int y=0; y < game.getColumns(); ++y) {
+                for(int x=0; x < game.getRows(); ++x) {
+                    if(single.isSafe(x, y)) Assert.assertTrue(solver.isSafe(x, y));
+                    if(single.isMine(x, y)) Assert.assertTrue(solver.isMine(x, y));
+                    if(solver.isSafe(x, y)) Assert.assertTrue(deductions.isSafe(x, y));
+                    if(solver.isMine(x, y) && !single.isMine(x, y)) Assert.assertTrue(deductions.isMine(x, y));
+                    if(solver.isSafe(x, y) && !single.isSafe(x, y)) ++found;
+                }
+            }
+        }
+
+        // The single-point solver opened all safe cells it knows, so the elimination finds new ones.
+        Assert.assertTrue(found > 0);
+    }
+
+    @Test
+    public void incrementalTest() {
+        final GameFactory factory = new GameFactory(GameConfiguration.of(Difficulty.EXPERT)
+                .withMinefieldType(MinefieldType.ARRAY).withFirstClickSafe(true));
+        int gaussian = 0;
+        int single = 0;
+
+        for(long seed=0; seed < 100; ++seed) {
+            IMinefield game = factory.createSeededGame(seed);
+            game.singleClick(game.getRows() / 2, game.getColumns() / 2);
+            final GaussianSolver solver = new GaussianSolver(game);
+            final SinglePointSolver.Result result = solver.solve();
+
+            Assert.assertNotEquals(SinglePointSolver.Result.LOST, result);
+            if(result == SinglePointSolver.Result.CLEARED) {
+                Assert.assertTrue(solver.getMoves() > 0);
+                ++gaussian;
+            } else if(!game.gameOver()) {
+                final boolean[] mines = SinglePointSolverTest.mines(game);
+                for(int y=0; y < game.getColumns(); ++y) {
+                    for(int x=0; x < game.getRows(); ++x) {
+                        if(solver.isMine(x, y)) Assert.assertTrue(mines[y * game.getRows() + x]);
+                    }
+                }
+            }
+
+            game = factory.createSeededGame(seed);
+            game.singleClick(game.getRows() / 2, game.getColumns() / 2);
+            if(new SinglePointSolver(game).solve() == SinglePointSolver.Result.CLEARED) ++single;
+        }
+
+        Assert.assertTrue(gaussian > single);
+    }
+
+    @Test
+    public void flagTest() {
+        final IMinefield game = FrontierSolverTest.stalledGame(Difficulty.EXPERT, 2);
+        final boolean[] mines = SinglePointSolverTest.mines(game);
+        final GaussianSolver solver = new GaussianSolver(game);
+        solver.update();
+
+        // A flagged mine is known and stays known when the flag is removed.
+        for(int y=0; y < game.getColumns(); ++y) {
+            for(int x=0; x < game.getRows(); ++x) {
+                if(!mines[y * game.getRows() + x] || solver.isMine(x, y)) continue;
+
+                game.secondaryClick(x, y);
+                solver.update();
+                Assert.assertTrue(solver.isMine(x, y));
+                game.secondaryClick(x, y);
+                solver.update();
+                Assert.assertTrue(solver.isMine(x, y));
+                return;
+            }
+        }
+        Assert.fail("The game has no unknown mine!");
+    }
+
+    @Test
+    public void resetTest() {
+        final IMinefield game = FrontierSolverTest.stalledGame(Difficulty.EXPERT, 5);
+        final GaussianSolver solver = new GaussianSolver(game);
+        solver.solve();
+
+        // The snapshot doesn't know the changes after a reset, so the solver reads the whole field again.
+        game.reset(6);
+        game.singleClick(game.getRows() / 2, game.getColumns() / 2);
+        final SinglePointSolver.Result result = solver.solve();
+        Assert.assertNotEquals(SinglePointSolver.Result.LOST, result);
+
+        final boolean[] mines = SinglePointSolverTest.mines(game);
+        for(int y=0; y < game.getColumns(); ++y) {
+            for(int x=0; x < game.getRows(); ++x) {
+                if(solver.isSafe(x, y)) Assert.assertFalse(mines[y * game.getRows() + x]);
+                if(solver.isMine(x, y)) Assert.assertTrue(mines[y * game.getRows() + x]);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void endlessTest() {
+        new GaussianSolver(GameCreator.createEndlessGame(1, 20));
+    }
+}
@@ -0,0 +1,139 @@
+package de.jscholz.jminesweeper.solver;
+
+import de.jscholz.jminesweeper.minesweeper.Difficulty;
+import de.jscholz.jminesweeper.minesweeper.GameCreator;
+import de.jscholz.jminesweeper.minesweeper.IMinefield;
+import de.jscholz.jminesweeper.minesweeper.UpdateJournal;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+public class MonteCarloEngineTest {
+
+    private static final ForkJoinPool PARALLEL = new ForkJoinPool(4);
+    /**
+     * An engine which samples every component.
+     */
+    private static final MonteCarloEngine SAMPLING = new MonteCarloEngine(PARALLEL, TimeUnit.MILLISECONDS.toNanos(200), 0);
+
+    @AfterClass
+    public static void shutdown() {
+        PARALLEL.shutdown();
+    }
+
+    @Test
+    public void exactComponentsTest() {
+        final IProbabilityEngine engine = new MonteCarloEngine(PARALLEL, 10, TimeUnit.MILLISECONDS);
+        final ProbabilityEngine exact = new ProbabilityEngine(PARALLEL);
+        int compared = 0;
+
+        for(long seed=0; seed < 10; ++seed) {
+            final IMinefield game = FrontierSolverTest.stalledGame(Difficulty.EXPERT, seed);
+            final Probabilities probabilities = engine.compute(game);
+            if(!probabilities.isExact()) continue;
+
+            Assert.assertEquals(0, probabilities.getSamples());
+            final Probabilities expected = exact.compute(game);
+            for(int y=0; y < game.getColumns(); ++y) {
+                for(int x=0; x < game.getRows(); ++x) {
+                    Assert.assertEquals(expected.getMineProbability(x, y), probabilities.getMineProbability(x, y), 1e-9);
+                    Assert.assertEquals(0, probabilities.getConfidenceInterval(x, y), 0);
+                }
+            }
+            ++compared;
+        }
+
+        Assert.assertTrue(compared > 0);
+    }
+
+    @Test
+    public void samplingTest() {
+        final ProbabilityEngine exact = new ProbabilityEngine(PARALLEL);
+        int cells = 0;
+        int inside = 0;
+
+        for(long seed=0; seed < 5; ++seed) {
+            final IMinefield game = FrontierSolverTest.stalledGame(Difficulty.EXPERT, seed);
+            if(game.gameOver()) continue;
+
+            final Probabilities expected = exact.compute(game);
+            final Probabilities probabilities = SAMPLING.compute(game);
+            Assert.assertFalse(probabilities.isExact());
+            Assert.assertTrue(probabilities.getSamples() > 0);
+
+            for(int y=0; y < game.getColumns(); ++y) {
+                for(int x=0; x < game.getRows(); ++x) {
+                    if(game.getSnapshot().getStateCode(x, y) != UpdateJournal.STATE_UNDISCOVERED) continue;
+
+                    final double error = Math.abs(expected.getMineProbability(x, y) - probabilities.getMineProbability(x, y));
+                    Assert.assertTrue(error < 0.1);
+
+                    // The interior cells share one probability, which would count one estimation many times.
+                    if(expected.getMineProbability(x, y) == expected.getInteriorProbability()) continue;
+                    if(error <= probabilities.getConfidenceInterval(x, y) + 1e-9) ++inside;
+                    ++cells;
+                }
+            }
+        }
+
+        // Most exact probabilities are inside the 95% confidence intervals.
+        Assert.assertTrue(inside > cells * 0.8);
+    }
+
+    @Test
+    public void anytimeTest() {
+        final IMinefield game = FrontierSolverTest.stalledGame(Difficulty.EXPERT, 1);
+        final Probabilities fast = SAMPLING.compute(game, 10, TimeUnit.MILLISECONDS);
+        final Probabilities slow = SAMPLING.compute(game, 400, TimeUnit.MILLISECONDS);
+
+        Assert.assertTrue(slow.getSamples() > fast.getSamples());
+        Assert.assertTrue(confidence(game, slow) < confidence(game, fast));
+    }
+
+    @Test
+    public void quantileTest() {
+        Assert.assertEquals(3.1824, MonteCarloEngine.quantile(3), 1e-4);
+        Assert.assertEquals(2.0423, MonteCarloEngine.quantile(30), 1e-4);
+        Assert.assertEquals(2.0395, MonteCarloEngine.quantile(31), 1e-3);
+        Assert.assertEquals(1.9840, MonteCarloEngine.quantile(100), 1e-3);
+
+        // The quantiles shrink towards the quantile of the normal distribution.
+        for(int degrees=1; degrees < 200; ++degrees) {
+            Assert.assertTrue(MonteCarloEngine.quantile(degrees + 1) < MonteCarloEngine.quantile(degrees));
+            Assert.assertTrue(MonteCarloEngine.quantile(degrees) > 1.959964);
+        }
+    }
+
+    @Test
+    public void noOpenCellTest() {
+        final IMinefield game = GameCreator.createExpertGame();
+        final Probabilities probabilities = SAMPLING.compute(game);
+
+        Assert.assertTrue(probabilities.isExact());
+        Assert.assertEquals((double) game.getTotalMines() / (game.getRows() * game.getColumns()),
+                probabilities.getInteriorProbability(), 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void endlessTest() {
+        SAMPLING.compute(GameCreator.createEndlessGame(1, 20));
+    }
+
+    /**
+     * Returns the sum of the confidence intervals of all undiscovered cells.
+     */
+    private static double confidence(final IMinefield game, final Probabilities probabilities) {
+        double sum = 0;
+        for(int y=0; y < game.getColumns(); ++y) {
+            for(int x=0; x < game.getRows(); ++x) {
+                if(game.getSnapshot().getStateCode(x, y) == UpdateJournal.STATE_UNDISCOVERED) {
+                    sum += probabilities.getConfidenceInterval(x, y);
+                }
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,239 @@
+package de.jscholz.jminesweeper.solver;
+
+import de.jscholz.jminesweeper.minesweeper.Difficulty;
+import de.jscholz.jminesweeper.minesweeper.FieldSnapshot;
+import de.jscholz.jminesweeper.minesweeper.GameConfiguration;
+import de.jscholz.jminesweeper.minesweeper.GameCreator;
+import de.jscholz.jminesweeper.minesweeper.GameFactory;
+import de.jscholz.jminesweeper.minesweeper.ICellPosition;
+import de.jscholz.jminesweeper.minesweeper.IMinefield;
+import de.jscholz.jminesweeper.minesweeper.MinefieldType;
+import de.jscholz.jminesweeper.minesweeper.UpdateJournal;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class ProbabilityEngineTest {
+
+    private static final double DELTA = 1e-9;
+    private static final ForkJoinPool PARALLEL = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void shutdown() {
+        PARALLEL.shutdown();
+    }
+
+    @Test
+    public void bruteForceTest() {
+        final ProbabilityEngine engine = new ProbabilityEngine(PARALLEL);
+        int compared = 0;
+
+        for(long seed=0; seed < 200 && compared < 30; ++seed) {
+            final IMinefield game = FrontierSolverTest.stalledGame(Difficulty.EASY, seed);
+            final FieldSnapshot snapshot = game.getSnapshot();
+            final List<Integer> cells = FrontierSolverTest.frontierCells(snapshot);
+            if(game.gameOver() || cells.isEmpty() || cells.size() > 20) continue;
+
+            final int rows = snapshot.getRows();
+            final int cellCount = rows * snapshot.getColumns();
+            int flagged = 0;
+            int undiscovered = 0;
+            for(int index=0; index < cellCount; ++index) {
+                final byte state = snapshot.getStateCode(index % rows, index / rows);
+                if(state == UpdateJournal.STATE_FLAGGED) ++flagged;
+                if(state == UpdateJournal.STATE_UNDISCOVERED) ++undiscovered;
+            }
+            final int remaining = game.getTotalMines() - flagged;
+            final int interior = undiscovered - cells.size();
+
+            // Every layout of the frontier is weighted with the layouts of the interior with the other mines.
+            final double[] weights = new double[cells.size()];
+            double total = 0;
+            double interiorMines = 0;
+            final int[] mines = new int[cellCount];
+
+            for(int mask=0; mask < 1 << cells.size(); ++mask) {
+                Arrays.fill(mines, 0);
+                for(int i=0; i < cells.size(); ++i) {
+                    if((mask & (1 << i)) != 0) mines[cells.get(i)] = 1;
+                }
+                if(!FrontierSolverTest.fits(snapshot, mines)) continue;
+
+                final int rest = remaining - Integer.bitCount(mask);
+                final double weight = choose(interior, rest);
+                total += weight;
+                if(interior > 0) interiorMines += weight * rest / interior;
+                for(int i=0; i < cells.size(); ++i) {
+                    if((mask & (1 << i)) != 0) weights[i] += weight;
+                }
+            }
+
+            final Probabilities probabilities = engine.compute(game);
+            for(int i=0; i < cells.size(); ++i) {
+                Assert.assertEquals(weights[i] / total,
+                        probabilities.getMineProbability(cells.get(i) % rows, cells.get(i) / rows), DELTA);
+            }
+            if(interior > 0) Assert.assertEquals(interiorMines / total, probabilities.getInteriorProbability(), DELTA);
+            ++compared;
+        }
+
+        Assert.assertTrue(compared > 0);
+    }
+
+    @Test
+    public void sumOfProbabilitiesTest() {
+        final ProbabilityEngine engine = new ProbabilityEngine(PARALLEL);
+
+        for(long seed=0; seed < 20; ++seed) {
+            final IMinefield game = FrontierSolverTest.stalledGame(Difficulty.EXPERT, seed);
+            if(game.gameOver()) continue;
+
+            final Probabilities probabilities = engine.compute(game);
+            double sum = 0;
+            for(int y=0; y < game.getColumns(); ++y) {
+                for(int x=0; x < game.getRows(); ++x) {
+                    final double probability = probabilities.getMineProbability(x, y);
+                    Assert.assertTrue(probability >= 0 && probability <= 1);
+                    sum += probability;
+                }
+            }
+
+            // The expected amount of mines is the amount of mines.
+            Assert.assertEquals(game.getTotalMines(), sum, 1e-6);
+        }
+    }
+
+    @Test
+    public void deductionsTest() {
+        final ProbabilityEngine engine = new ProbabilityEngine(PARALLEL);
+        final FrontierSolver solver = new FrontierSolver(PARALLEL);
+
+        for(long seed=0; seed < 20; ++seed) {
+            final IMinefield game = FrontierSolverTest.stalledGame(Difficulty.EXPERT, seed);
+            if(game.gameOver()) continue;
+
+            final Probabilities probabilities = engine.compute(game);
+            final Deductions deductions = solver.solve(game);
+            for(final ICellPosition position : deductions.getSafeCells()) {
+                Assert.assertEquals(0, probabilities.getMineProbability(position.getX(), position.getY()), DELTA);
+            }
+            for(final ICellPosition position : deductions.getMines()) {
+                Assert.assertEquals(1, probabilities.getMineProbability(position.getX(), position.getY()), DELTA);
+            }
+        }
+    }
+
+    @Test
+    public void cacheTest() {
+        final ProbabilityEngine engine = new ProbabilityEngine(PARALLEL);
+
+        for(long seed=0; seed < 10; ++seed) {
+            final IMinefield game = FrontierSolverTest.stalledGame(Difficulty.EXPERT, seed);
+
+            // The same minefield is calculated without any search.
+            engine.compute(game);
+            final long searched = engine.getSearchedComponents();
+            final long cached = engine.getCachedComponents();
+            engine.compute(game);
+            Assert.assertEquals(searched, engine.getSearchedComponents());
+            Assert.assertEquals(new FrontierSolver(PARALLEL).solve(game).getComponents(),
+                    engine.getCachedComponents() - cached);
+
+            // The cached counts give the same probabilities as a new engine.
+            while(!game.gameOver()) {
+                final Probabilities probabilities = engine.compute(game);
+                assertEquals(new ProbabilityEngine(PARALLEL).compute(game), probabilities, game);
+
+                final long safest = probabilities.getSafestCell();
+                if(safest < 0) break;
+                game.singleClick(ICellPosition.unpackX(safest), ICellPosition.unpackY(safest));
+                new SinglePointSolver(game).solve();
+            }
+        }
+
+        Assert.assertTrue(engine.getCachedComponents() > engine.getSearchedComponents());
+    }
+
+    @Test
+    public void safestCellTest() {
+        final IMinefield game = FrontierSolverTest.stalledGame(Difficulty.EXPERT, 3);
+        final Probabilities probabilities = new ProbabilityEngine(PARALLEL).compute(game);
+        final long safest = probabilities.getSafestCell();
+        final double lowest = probabilities.getMineProbability(ICellPosition.unpackX(safest),
+                ICellPosition.unpackY(safest));
+
+        Assert.assertEquals(UpdateJournal.STATE_UNDISCOVERED, game.getSnapshot().getStateCode(
+                ICellPosition.unpackX(safest), ICellPosition.unpackY(safest)));
+        for(int y=0; y < game.getColumns(); ++y) {
+            for(int x=0; x < game.getRows(); ++x) {
+                if(game.getSnapshot().getStateCode(x, y) == UpdateJournal.STATE_UNDISCOVERED) {
+                    Assert.assertTrue(lowest <= probabilities.getMineProbability(x, y));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void denseTest() {
+        final GameConfiguration configuration = GameConfiguration.of(GameCreator.MAX_ROWS, GameCreator.MAX_COLUMNS,
+                GameCreator.MAX_MINES_PERCENT).withMinefieldType(MinefieldType.ARRAY).withFirstClickSafe(true);
+        final ProbabilityEngine engine = new ProbabilityEngine(PARALLEL);
+
+        for(long seed=0; seed < 10; ++seed) {
+            final IMinefield game = new GameFactory(configuration).createSeededGame(seed);
+            game.singleClick(game.getRows() / 2, game.getColumns() / 2);
+
+            final Probabilities probabilities = engine.compute(game);
+            final double interior = probabilities.getInteriorProbability();
+            Assert.assertTrue(interior > 0.9 && interior < 1);
+
+            double sum = 0;
+            for(int y=0; y < game.getColumns(); ++y) {
+                for(int x=0; x < game.getRows(); ++x) {
+                    final double probability = probabilities.getMineProbability(x, y);
+                    Assert.assertFalse(Double.isNaN(probability));
+                    sum += probability;
+                }
+            }
+            Assert.assertEquals(game.getTotalMines(), sum, 1e-6);
+        }
+    }
+
+    @Test
+    public void noOpenCellTest() {
+        final IMinefield game = GameCreator.createExpertGame();
+        final Probabilities probabilities = new ProbabilityEngine(PARALLEL).compute(game);
+        final double expected = (double) game.getTotalMines() / (game.getRows() * game.getColumns());
+
+        Assert.assertEquals(expected, probabilities.getInteriorProbability(), DELTA);
+        Assert.assertEquals(expected, probabilities.getMineProbability(5, 7), DELTA);
+        Assert.assertEquals(ICellPosition.pack(0, 0), probabilities.getSafestCell());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void endlessTest() {
+        new ProbabilityEngine(PARALLEL).compute(GameCreator.createEndlessGame(1, 20));
+    }
+
+    private static void assertEquals(final Probabilities expected, final Probabilities actual, final IMinefield game) {
+        for(int y=0; y < game.getColumns(); ++y) {
+            for(int x=0; x < game.getRows(); ++x) {
+                Assert.assertEquals(expected.getMineProbability(x, y), actual.getMineProbability(x, y), DELTA);
+            }
+        }
+    }
+
+    private static double choose(final int n, final int k) {
+        if(k < 0 || k > n) return 0;
+
+        double result = 1;
+        for(int i=1; i <= k; ++i) {
+            result = result * (n - k + i) / i;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,68 @@
+package de.jscholz.jminesweeper.solver;
+
+import de.jscholz.jminesweeper.minesweeper.Difficulty;
+import de.jscholz.jminesweeper.minesweeper.GameConfiguration;
+import de.jscholz.jminesweeper.minesweeper.GameFactory;
+import de.jscholz.jminesweeper.minesweeper.IMinefield;
+import de.jscholz.jminesweeper.minesweeper.MinefieldType;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * <p>Measures the single-point solver for every minefield type and difficulty. Every game is reset with a new seed,
+ * opened in the center and solved until it is cleared or stalls. The time per move contains the click and the
+ * update of the solver.</p>
+ * <p>The benchmark is not part of the test run. Start it after <i>mvn test-compile</i> with:</p>
+ * <pre>java -cp target/classes:target/test-classes de.jscholz.jminesweeper.solver.SinglePointSolverBenchmark</pre>
+ * <p>It needs a HotSpot based JVM, which supports the measurement of the allocated bytes per thread.</p>
+ */
+public class SinglePointSolverBenchmark {
+
+    private static final int GAMES = 2000;
+    private static final int WARMUP_RUNS = 5;
+
+    public static void main(final String[] args) {
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long thread = Thread.currentThread().getId();
+
+        System.out.println(String.format("%-10s %-12s %10s %10s %12s %12s %12s", "type", "difficulty", "cleared",
+                "moves", "game us", "move ns", "bytes/game"));
+
+        for(final MinefieldType type : MinefieldType.values()) {
+            for(final Difficulty difficulty : Difficulty.values()) {
+                final GameConfiguration configuration = GameConfiguration.of(difficulty).withMinefieldType(type)
+                        .withFirstClickSafe(true);
+                final IMinefield game = new GameFactory(configuration).createSeededGame(0);
+                final SinglePointSolver solver = new SinglePointSolver(game);
+
+                long nanos = 0;
+                long moves = 0;
+                long allocated = 0;
+                int cleared = 0;
+                for(int run=0; run < WARMUP_RUNS + 1; ++run) {
+                    nanos = 0;
+                    cleared = 0;
+                    moves = solver.getMoves();
+                    allocated = threads.getThreadAllocatedBytes(thread);
+
+                    for(int seed=0; seed < GAMES; ++seed) {
+                        game.reset(seed);
+                        game.singleClick(game.getRows() / 2, game.getColumns() / 2);
+
+                        final long start = System.nanoTime();
+                        if(solver.solve() == SinglePointSolver.Result.CLEARED) ++cleared;
+                        nanos += System.nanoTime() - start;
+                    }
+
+                    allocated = threads.getThreadAllocatedBytes(thread) - allocated;
+                    moves = solver.getMoves() - moves;
+                }
+
+                System.out.println(String.format("%-10s %-12s %9.1f%% %10.1f %12.2f %12.1f %12.1f", type, difficulty,
+                        100.0 * cleared / GAMES, (double) moves / GAMES, nanos / 1e3 / GAMES,
+                        moves == 0 ? 0 : (double) nanos / moves, (double) allocated / GAMES));
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package de.jscholz.jminesweeper.solver;
+
+import de.jscholz.jminesweeper.minesweeper.Difficulty;
+import de.jscholz.jminesweeper.minesweeper.GameCodec;
+import de.jscholz.jminesweeper.minesweeper.GameConfiguration;
+import de.jscholz.jminesweeper.minesweeper.GameCreator;
+import de.jscholz.jminesweeper.minesweeper.GameFactory;
+import de.jscholz.jminesweeper.minesweeper.IMinefield;
+import de.jscholz.jminesweeper.minesweeper.MinefieldType;
+import de.jscholz.jminesweeper.minesweeper.UpdateJournal;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.SplittableRandom;
+
+@RunWith(Parameterized.class)
+public class SinglePointSolverTest {
+
+    @Parameterized.Parameter()
+    public MinefieldType type;
+
+    @Parameterized.Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][]{
+                { MinefieldType.HASH_MAP },
+                { MinefieldType.ARRAY },
+                { MinefieldType.BITBOARD }
+        });
+    }
+
+    private GameFactory factory(final Difficulty difficulty) {
+        return new GameFactory(GameConfiguration.of(difficulty).withMinefieldType(this.type).withFirstClickSafe(true));
+    }
+
+    private static void clickCenter(final IMinefield game) {
+        game.singleClick(game.getRows() / 2, game.getColumns() / 2);
+    }
+
+    @Test
+    public void neverWrongTest() {
+        final GameFactory factory = factory(Difficulty.EXPERT);
+
+        for(long seed=0; seed < 50; ++seed) {
+            final IMinefield game = factory.createSeededGame(seed);
+            clickCenter(game);
+            final boolean[] mines = mines(game);
+
+            final SinglePointSolver solver = new SinglePointSolver(game);
+            Assert.assertNotEquals(SinglePointSolver.Result.LOST, solver.solve());
+
+            for(int y=0; y < game.getColumns(); ++y) {
+                for(int x=0; x < game.getRows(); ++x) {
+                    if(solver.isMine(x, y)) Assert.assertTrue(mines[y * game.getRows() + x]);
+                    if(solver.isSafe(x, y)) Assert.assertFalse(mines[y * game.getRows() + x]);
+                }
+            }
+            Assert.assertEquals(-1, solver.nextSafe());
+        }
+    }
+
+    @Test
+    public void clearTest() {
+        final GameFactory factory = factory(Difficulty.EASY);
+        int cleared = 0;
+
+        for(long seed=0; seed < 100; ++seed) {
+            final IMinefield game = factory.createSeededGame(seed);
+            clickCenter(game);
+
+            final SinglePointSolver solver = new SinglePointSolver(game);
+            if(solver.solve() == SinglePointSolver.Result.CLEARED) {
+                Assert.assertTrue(game.gameOver());
+                Assert.assertTrue(solver.getMoves() > 0);
+                ++cleared;
+            }
+        }
+
+        Assert.assertTrue("Only " + cleared + " games were cleared!", cleared > 0);
+    }
+
+    @Test
+    public void noFirstClickTest() {
+        final IMinefield game = factory(Difficulty.EASY).createSeededGame(1);
+        final SinglePointSolver solver = new SinglePointSolver(game);
+
+        Assert.assertEquals(SinglePointSolver.Result.STALLED, solver.solve());
+        Assert.assertEquals(0, solver.getMoves());
+        Assert.assertEquals(0, solver.getFrontierSize());
+    }
+
+    @Test
+    public void incrementalTest() {
+        final GameFactory factory = factory(Difficulty.EXPERT);
+        final SplittableRandom random = new SplittableRandom(7);
+
+        for(long seed=0; seed < 20; ++seed) {
+            final IMinefield game = factory.createSeededGame(seed);
+            final SinglePointSolver solver = new SinglePointSolver(game);
+            clickCenter(game);
+            solver.update();
+            // The first click moves the mines around it, so the mines are read afterwards.
+            final boolean[] mines = mines(game);
+
+            // The player opens free cells and flags mines, the solver follows every click.
+            for(int click=0; click < 60 && !game.gameOver(); ++click) {
+                final int index = random.nextInt(mines.length);
+                final int x = index % game.getRows();
+                final int y = index / game.getRows();
+                if(mines[index]) {
+                    // A second click would remove the flag, but the solver keeps what it found with the flag.
+                    if(game.getSnapshot().getStateCode(x, y) == UpdateJournal.STATE_UNDISCOVERED) game.secondaryClick(x, y);
+                } else {
+                    game.singleClick(x, y);
+                }
+                solver.update();
+            }
+
+            final SinglePointSolver fresh = new SinglePointSolver(game);
+            fresh.update();
+            assertSameKnowledge(game, fresh, solver);
+        }
+    }
+
+    @Test
+    public void resetTest() {
+        final GameFactory factory = factory(Difficulty.EXPERIENCED);
+        final IMinefield game = factory.createSeededGame(1);
+        final SinglePointSolver solver = new SinglePointSolver(game);
+        clickCenter(game);
+        solver.solve();
+
+        game.reset(2);
+        clickCenter(game);
+        final SinglePointSolver.Result result = solver.solve();
+
+        final IMinefield expected = factory.createSeededGame(2);
+        clickCenter(expected);
+        final SinglePointSolver fresh = new SinglePointSolver(expected);
+        Assert.assertEquals(fresh.solve(), result);
+        assertSameKnowledge(game, fresh, solver);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void endlessTest() {
+        new SinglePointSolver(GameCreator.createEndlessGame(1, 20));
+    }
+
+    private static void assertSameKnowledge(final IMinefield game, final SinglePointSolver expected,
+                                            final SinglePointSolver actual) {
+        Assert.assertEquals(expected.getFrontierSize(), actual.getFrontierSize());
+
+        for(int y=0; y < game.getColumns(); ++y) {
+            for(int x=0; x < game.getRows(); ++x) {
+                Assert.assertEquals(expected.isSafe(x, y), actual.isSafe(x, y));
+                Assert.assertEquals(expected.isMine(x, y), actual.isMine(x, y));
+                Assert.assertEquals(expected.isFrontier(x, y), actual.isFrontier(x, y));
+            }
+        }
+    }
+
+    /**
+     * Reads the mines of the game from its encoding.
+     */
+    static boolean[] mines(final IMinefield game) {
+        final ByteBuffer buffer = ByteBuffer.allocate(GameCodec.encodedSize(game.getRows(), game.getColumns()));
+        GameCodec.encode(game, buffer);
+
+        final boolean[] mines = new boolean[game.getRows() * game.getColumns()];
+        for(int index=0; index < mines.length; ++index) {
+            mines[index] = (buffer.get(GameCodec.HEADER_SIZE + (index >>> 3)) & (1 << (index & 7))) != 0;
+        }
+        return mines;
+    }
+}